@@ -119,6 +119,9 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	@Nullable
 	private transient PointcutExpression pointcutExpression;
 
+	@Nullable
+	private transient PointcutClassPreFilter classPreFilter;
+
 	private transient Map<Method, ShadowMatch> shadowMatchCache = new ConcurrentHashMap<>(32);
 
 
@@ -195,7 +198,9 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		}
 		if (this.pointcutExpression == null) {
 			this.pointcutClassLoader = determinePointcutClassLoader();
-			this.pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			PointcutExpression expression = buildPointcutExpression(this.pointcutClassLoader);
+			this.classPreFilter = PointcutClassPreFilter.forExpression(expression);
+			this.pointcutExpression = expression;
 		}
 		return this.pointcutExpression;
 	}
@@ -270,6 +275,11 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	@Override
 	public boolean matches(Class<?> targetClass) {
 		PointcutExpression pointcutExpression = obtainPointcutExpression();
+		PointcutClassPreFilter classPreFilter = this.classPreFilter;
+		if (classPreFilter != null && !classPreFilter.couldMatch(targetClass)) {
+			// Required annotation or declaring type not present in the class hierarchy
+			return false;
+		}
 		try {
 			try {
 				return pointcutExpression.couldMatchJoinPointsInType(targetClass);
@@ -453,67 +463,73 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		if (shadowMatch == null) {
 			synchronized (this.shadowMatchCache) {
 				// Not found - now check again with full lock...
-				PointcutExpression fallbackExpression = null;
 				shadowMatch = this.shadowMatchCache.get(targetMethod);
 				if (shadowMatch == null) {
-					Method methodToMatch = targetMethod;
+					shadowMatch = computeShadowMatch(targetMethod, originalMethod);
+					this.shadowMatchCache.put(targetMethod, shadowMatch);
+				}
+			}
+		}
+		return shadowMatch;
+	}
+
+	private ShadowMatch computeShadowMatch(Method targetMethod, Method originalMethod) {
+		ShadowMatch shadowMatch = null;
+		PointcutExpression fallbackExpression = null;
+		Method methodToMatch = targetMethod;
+		try {
+			try {
+				shadowMatch = obtainPointcutExpression().matchesMethodExecution(methodToMatch);
+			}
+			catch (ReflectionWorldException ex) {
+				// Failed to introspect target method, probably because it has been loaded
+				// in a special ClassLoader. Let's try the declaring ClassLoader instead...
+				try {
+					fallbackExpression = getFallbackPointcutExpression(methodToMatch.getDeclaringClass());
+					if (fallbackExpression != null) {
+						shadowMatch = fallbackExpression.matchesMethodExecution(methodToMatch);
+					}
+				}
+				catch (ReflectionWorldException ex2) {
+					fallbackExpression = null;
+				}
+			}
+			if (targetMethod != originalMethod && (shadowMatch == null ||
+					(shadowMatch.neverMatches() && Proxy.isProxyClass(targetMethod.getDeclaringClass())))) {
+				// Fall back to the plain original method in case of no resolvable match or a
+				// negative match on a proxy class (which doesn't carry any annotations on its
+				// redeclared methods).
+				methodToMatch = originalMethod;
+				try {
+					shadowMatch = obtainPointcutExpression().matchesMethodExecution(methodToMatch);
+				}
+				catch (ReflectionWorldException ex) {
+					// Could neither introspect the target class nor the proxy class ->
+					// let's try the original method's declaring class before we give up...
 					try {
-						try {
-							shadowMatch = obtainPointcutExpression().matchesMethodExecution(methodToMatch);
-						}
-						catch (ReflectionWorldException ex) {
-							// Failed to introspect target method, probably because it has been loaded
-							// in a special ClassLoader. Let's try the declaring ClassLoader instead...
-							try {
-								fallbackExpression = getFallbackPointcutExpression(methodToMatch.getDeclaringClass());
-								if (fallbackExpression != null) {
-									shadowMatch = fallbackExpression.matchesMethodExecution(methodToMatch);
-								}
-							}
-							catch (ReflectionWorldException ex2) {
-								fallbackExpression = null;
-							}
-						}
-						if (targetMethod != originalMethod && (shadowMatch == null ||
-								(shadowMatch.neverMatches() && Proxy.isProxyClass(targetMethod.getDeclaringClass())))) {
-							// Fall back to the plain original method in case of no resolvable match or a
-							// negative match on a proxy class (which doesn't carry any annotations on its
-							// redeclared methods).
-							methodToMatch = originalMethod;
-							try {
-								shadowMatch = obtainPointcutExpression().matchesMethodExecution(methodToMatch);
-							}
-							catch (ReflectionWorldException ex) {
-								// Could neither introspect the target class nor the proxy class ->
-								// let's try the original method's declaring class before we give up...
-								try {
-									fallbackExpression = getFallbackPointcutExpression(methodToMatch.getDeclaringClass());
-									if (fallbackExpression != null) {
-										shadowMatch = fallbackExpression.matchesMethodExecution(methodToMatch);
-									}
-								}
-								catch (ReflectionWorldException ex2) {
-									fallbackExpression = null;
-								}
-							}
+						fallbackExpression = getFallbackPointcutExpression(methodToMatch.getDeclaringClass());
+						if (fallbackExpression != null) {
+							shadowMatch = fallbackExpression.matchesMethodExecution(methodToMatch);
 						}
 					}
-					catch (Throwable ex) {
-						// Possibly AspectJ 1.8.10 encountering an invalid signature
-						logger.debug("PointcutExpression matching rejected target method", ex);
+					catch (ReflectionWorldException ex2) {
 						fallbackExpression = null;
 					}
-					if (shadowMatch == null) {
-						shadowMatch = new ShadowMatchImpl(org.aspectj.util.FuzzyBoolean.NO, null, null, null);
-					}
-					else if (shadowMatch.maybeMatches() && fallbackExpression != null) {
-						shadowMatch = new DefensiveShadowMatch(shadowMatch,
-								fallbackExpression.matchesMethodExecution(methodToMatch));
-					}
-					this.shadowMatchCache.put(targetMethod, shadowMatch);
 				}
 			}
 		}
+		catch (Throwable ex) {
+			// Possibly AspectJ 1.8.10 encountering an invalid signature
+			logger.debug("PointcutExpression matching rejected target method", ex);
+			fallbackExpression = null;
+		}
+		if (shadowMatch == null) {
+			shadowMatch = new ShadowMatchImpl(org.aspectj.util.FuzzyBoolean.NO, null, null, null);
+		}
+		else if (shadowMatch.maybeMatches() && fallbackExpression != null) {
+			shadowMatch = new DefensiveShadowMatch(shadowMatch,
+					fallbackExpression.matchesMethodExecution(methodToMatch));
+		}
 		return shadowMatch;
 	}
 
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.aspectj.weaver.internal.tools.PointcutExpressionImpl;
+import org.aspectj.weaver.patterns.AndPointcut;
+import org.aspectj.weaver.patterns.AnnotationPointcut;
+import org.aspectj.weaver.patterns.AnnotationTypePattern;
+import org.aspectj.weaver.patterns.ExactAnnotationTypePattern;
+import org.aspectj.weaver.patterns.ExactTypePattern;
+import org.aspectj.weaver.patterns.KindedPointcut;
+import org.aspectj.weaver.patterns.OrPointcut;
+import org.aspectj.weaver.patterns.Pointcut;
+import org.aspectj.weaver.patterns.SignaturePattern;
+import org.aspectj.weaver.patterns.TypePattern;
+import org.aspectj.weaver.patterns.WildTypePattern;
+import org.aspectj.weaver.patterns.WithinAnnotationPointcut;
+import org.aspectj.weaver.patterns.WithinPointcut;
+import org.aspectj.weaver.tools.PointcutExpression;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Class-level pre-filter for an AspectJ pointcut expression, derived from the
+ * annotation types and the declaring type patterns that the expression requires.
+ * Allows {@link AspectJExpressionPointcut} to rule out classes which cannot contain
+ * any matching join point without going through AspectJ type resolution and
+ * shadow matching.
+ *
+ * <p>The pre-filter is conservative: it only rejects a class if none of the types
+ * in its hierarchy carries a required annotation (on the type or on any declared
+ * method) or matches a required declaring type pattern. Pointcut primitives that
+ * cannot be evaluated that way (e.g. {@code this}, {@code target}, {@code args}
+ * or {@code bean}) do not restrict the pre-filter.
+ *
+ * <p>The per-class information is kept in a shared index, reused across all
+ * pointcut expressions.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ */
+final class PointcutClassPreFilter {
+
+	private static final Map<Class<?>, ClassIndex> classIndexCache = new ConcurrentReferenceHashMap<>(256);
+
+
+	private final Predicate<ClassIndex> condition;
+
+
+	private PointcutClassPreFilter(Predicate<ClassIndex> condition) {
+		this.condition = condition;
+	}
+
+
+	/**
+	 * Determine whether the given class could contain any join point matched
+	 * by the pointcut expression.
+	 * @param clazz the candidate class
+	 * @return {@code false} if the class definitely does not match,
+	 * {@code true} if it may match
+	 */
+	public boolean couldMatch(Class<?> clazz) {
+		ClassIndex index = classIndexCache.get(clazz);
+		if (index == null) {
+			try {
+				index = new ClassIndex(clazz);
+			}
+			catch (Throwable ex) {
+				// Class not introspectable - leave it to AspectJ
+				return true;
+			}
+			classIndexCache.put(clazz, index);
+		}
+		return this.condition.test(index);
+	}
+
+
+	/**
+	 * Build a pre-filter for the given pointcut expression.
+	 * @param expression the parsed pointcut expression
+	 * @return the pre-filter, or {@code null} if the expression does not
+	 * impose any class-level requirement that can be checked upfront
+	 */
+	@Nullable
+	static PointcutClassPreFilter forExpression(PointcutExpression expression) {
+		if (!(expression instanceof PointcutExpressionImpl)) {
+			return null;
+		}
+		Predicate<ClassIndex> condition = buildCondition(((PointcutExpressionImpl) expression).getUnderlyingPointcut());
+		return (condition != null ? new PointcutClassPreFilter(condition) : null);
+	}
+
+	@Nullable
+	private static Predicate<ClassIndex> buildCondition(Pointcut pointcut) {
+		if (pointcut instanceof AndPointcut) {
+			AndPointcut and = (AndPointcut) pointcut;
+			return and(buildCondition(and.getLeft()), buildCondition(and.getRight()));
+		}
+		else if (pointcut instanceof OrPointcut) {
+			OrPointcut or = (OrPointcut) pointcut;
+			Predicate<ClassIndex> left = buildCondition(or.getLeft());
+			Predicate<ClassIndex> right = buildCondition(or.getRight());
+			return (left != null && right != null ? left.or(right) : null);
+		}
+		else if (pointcut instanceof AnnotationPointcut) {
+			// @annotation: required on a method
+			return buildAnnotationCondition(((AnnotationPointcut) pointcut).getAnnotationTypePattern());
+		}
+		else if (pointcut instanceof WithinAnnotationPointcut) {
+			// @within: required on a declaring type
+			return buildAnnotationCondition(((WithinAnnotationPointcut) pointcut).getAnnotationTypePattern());
+		}
+		else if (pointcut instanceof WithinPointcut) {
+			return buildTypeCondition(((WithinPointcut) pointcut).getTypePattern());
+		}
+		else if (pointcut instanceof KindedPointcut) {
+			SignaturePattern signature = ((KindedPointcut) pointcut).getSignature();
+			return and(buildAnnotationCondition(signature.getAnnotationPattern()),
+					buildTypeCondition(signature.getDeclaringType()));
+		}
+		return null;
+	}
+
+	@Nullable
+	private static Predicate<ClassIndex> and(@Nullable Predicate<ClassIndex> left, @Nullable Predicate<ClassIndex> right) {
+		if (left == null) {
+			return right;
+		}
+		return (right != null ? left.and(right) : left);
+	}
+
+	@Nullable
+	private static Predicate<ClassIndex> buildAnnotationCondition(@Nullable AnnotationTypePattern pattern) {
+		if (!(pattern instanceof ExactAnnotationTypePattern)) {
+			return null;
+		}
+		String annotationName = normalize(((ExactAnnotationTypePattern) pattern).getAnnotationType().getName());
+		return index -> index.annotationNames.contains(annotationName);
+	}
+
+	@Nullable
+	private static Predicate<ClassIndex> buildTypeCondition(@Nullable TypePattern pattern) {
+		if (pattern == null || pattern.isStar() || pattern.isIncludeSubtypes() || !pattern.isStarAnnotation() ||
+				pattern.isArray() || pattern.isVarArgs() || pattern.getTypeParameters().size() > 0) {
+			return null;
+		}
+		if (pattern instanceof ExactTypePattern) {
+			String typeName = normalize(((ExactTypePattern) pattern).getType().getName());
+			return index -> index.typeNames.contains(typeName);
+		}
+		if (pattern instanceof WildTypePattern) {
+			// Only qualified patterns with a literal package prefix, e.g. "com.mycompany..*"
+			String patternString = pattern.toString();
+			int wildcardIndex = patternString.indexOf('*');
+			int ellipsisIndex = patternString.indexOf("..");
+			String prefix;
+			if (ellipsisIndex != -1 && (wildcardIndex == -1 || ellipsisIndex < wildcardIndex)) {
+				prefix = patternString.substring(0, ellipsisIndex + 1);
+			}
+			else if (wildcardIndex != -1) {
+				prefix = patternString.substring(0, wildcardIndex);
+			}
+			else {
+				return null;
+			}
+			if (prefix.indexOf('.') == -1) {
+				return null;
+			}
+			return index -> {
+				for (String typeName : index.typeNames) {
+					if (typeName.startsWith(prefix)) {
+						return true;
+					}
+				}
+				return false;
+			};
+		}
+		return null;
+	}
+
+	/**
+	 * Use '.' as separator for nested types, as AspectJ type patterns do.
+	 */
+	private static String normalize(String typeName) {
+		return typeName.replace('$', '.');
+	}
+
+
+	/**
+	 * Names of the types in a class hierarchy (including all interfaces)
+	 * and of the annotations on those types and their declared methods.
+	 */
+	private static final class ClassIndex {
+
+		final Set<String> typeNames = new HashSet<>();
+
+		final Set<String> annotationNames = new HashSet<>();
+
+		ClassIndex(Class<?> clazz) {
+			Set<Class<?>> types = new LinkedHashSet<>();
+			Class<?> current = clazz;
+			while (current != null) {
+				types.add(current);
+				current = current.getSuperclass();
+			}
+			types.addAll(ClassUtils.getAllInterfacesForClassAsSet(clazz));
+			for (Class<?> type : types) {
+				this.typeNames.add(normalize(type.getName()));
+				addAnnotations(type.getDeclaredAnnotations());
+				for (Method method : type.getDeclaredMethods()) {
+					addAnnotations(method.getDeclaredAnnotations());
+				}
+			}
+		}
+
+		private void addAnnotations(Annotation[] annotations) {
+			for (Annotation annotation : annotations) {
+				this.annotationNames.add(normalize(annotation.annotationType().getName()));
+			}
+		}
+	}
+
+}
@@ -20,6 +20,7 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -284,8 +285,12 @@ class CglibAopProxy implements AopProxy, Serializable {
 		boolean isFrozen = this.advised.isFrozen();
 		boolean isStatic = this.advised.getTargetSource().isStatic();
 
+		// Precompute interceptor chains and target method handles, if requested.
+		Map<Method, MethodInvocationPlan> invocationPlans = (this.advised.isPrecomputeInterceptorChains() ?
+				MethodInvocationPlan.buildPlans(this.advised, Arrays.asList(rootClass.getMethods())) : null);
+
 		// Choose an "aop" interceptor (used for AOP calls).
-		Callback aopInterceptor = new DynamicAdvisedInterceptor(this.advised);
+		Callback aopInterceptor = new DynamicAdvisedInterceptor(this.advised, invocationPlans);
 
 		// Choose a "straight to target" interceptor. (used for calls that are
 		// unadvised but can return this). May be required to expose the proxy.
@@ -328,9 +333,11 @@ class CglibAopProxy implements AopProxy, Serializable {
 			// TODO: small memory optimization here (can skip creation for methods with no advice)
 			for (int x = 0; x < methods.length; x++) {
 				Method method = methods[x];
-				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, rootClass);
+				MethodInvocationPlan plan = (invocationPlans != null ? invocationPlans.get(method) : null);
+				List<Object> chain = (plan != null ? plan.getChain() :
+						this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, rootClass));
 				fixedCallbacks[x] = new FixedChainStaticTargetInterceptor(
-						chain, this.advised.getTargetSource().getTarget(), this.advised.getTargetClass());
+						chain, this.advised.getTargetSource().getTarget(), this.advised.getTargetClass(), plan);
 				this.fixedInterceptorMap.put(method, x);
 			}
 
@@ -623,19 +630,23 @@ class CglibAopProxy implements AopProxy, Serializable {
 		@Nullable
 		private final Class<?> targetClass;
 
-		public FixedChainStaticTargetInterceptor(
-				List<Object> adviceChain, @Nullable Object target, @Nullable Class<?> targetClass) {
+		@Nullable
+		private final transient MethodInvocationPlan plan;
+
+		public FixedChainStaticTargetInterceptor(List<Object> adviceChain, @Nullable Object target,
+				@Nullable Class<?> targetClass, @Nullable MethodInvocationPlan plan) {
 
 			this.adviceChain = adviceChain;
 			this.target = target;
 			this.targetClass = targetClass;
+			this.plan = plan;
 		}
 
 		@Override
 		@Nullable
 		public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
 			MethodInvocation invocation = new CglibMethodInvocation(
-					proxy, this.target, method, args, this.targetClass, this.adviceChain, methodProxy);
+					proxy, this.target, method, args, this.targetClass, this.adviceChain, methodProxy, this.plan);
 			// If we get here, we need to create a MethodInvocation.
 			Object retVal = invocation.proceed();
 			retVal = processReturnType(proxy, this.target, method, retVal);
@@ -652,8 +663,14 @@ class CglibAopProxy implements AopProxy, Serializable {
 
 		private final AdvisedSupport advised;
 
-		public DynamicAdvisedInterceptor(AdvisedSupport advised) {
+		@Nullable
+		private final transient Map<Method, MethodInvocationPlan> invocationPlans;
+
+		public DynamicAdvisedInterceptor(
+				AdvisedSupport advised, @Nullable Map<Method, MethodInvocationPlan> invocationPlans) {
+
 			this.advised = advised;
+			this.invocationPlans = invocationPlans;
 		}
 
 		@Override
@@ -672,7 +689,9 @@ class CglibAopProxy implements AopProxy, Serializable {
 				// Get as late as possible to minimize the time we "own" the target, in case it comes from a pool...
 				target = targetSource.getTarget();
 				Class<?> targetClass = (target != null ? target.getClass() : null);
-				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+				MethodInvocationPlan plan = getInvocationPlan(method, targetClass);
+				List<Object> chain = (plan != null ? plan.getChain() :
+						this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
 				Object retVal;
 				// Check whether we only have one InvokerInterceptor: that is,
 				// no real advice, but just reflective invocation of the target.
@@ -682,11 +701,12 @@ class CglibAopProxy implements AopProxy, Serializable {
 					// it does nothing but a reflective operation on the target, and no hot
 					// swapping or fancy proxying.
 					Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
-					retVal = methodProxy.invoke(target, argsToUse);
+					retVal = (plan != null ? plan.invokeTarget(target, argsToUse) : methodProxy.invoke(target, argsToUse));
 				}
 				else {
 					// We need to create a method invocation...
-					retVal = new CglibMethodInvocation(proxy, target, method, args, targetClass, chain, methodProxy).proceed();
+					retVal = new CglibMethodInvocation(
+							proxy, target, method, args, targetClass, chain, methodProxy, plan).proceed();
 				}
 				retVal = processReturnType(proxy, target, method, retVal);
 				return retVal;
@@ -702,6 +722,19 @@ class CglibAopProxy implements AopProxy, Serializable {
 			}
 		}
 
+		/**
+		 * Return the precomputed invocation plan for the given method,
+		 * if any, provided that it applies to the given target class.
+		 */
+		@Nullable
+		private MethodInvocationPlan getInvocationPlan(Method method, @Nullable Class<?> targetClass) {
+			if (this.invocationPlans == null) {
+				return null;
+			}
+			MethodInvocationPlan plan = this.invocationPlans.get(method);
+			return (plan != null && plan.isApplicable(targetClass) ? plan : null);
+		}
+
 		@Override
 		public boolean equals(@Nullable Object other) {
 			return (this == other ||
@@ -727,11 +760,16 @@ class CglibAopProxy implements AopProxy, Serializable {
 		@Nullable
 		private final MethodProxy methodProxy;
 
+		@Nullable
+		private final MethodInvocationPlan plan;
+
 		public CglibMethodInvocation(Object proxy, @Nullable Object target, Method method,
 				Object[] arguments, @Nullable Class<?> targetClass,
-				List<Object> interceptorsAndDynamicMethodMatchers, MethodProxy methodProxy) {
+				List<Object> interceptorsAndDynamicMethodMatchers, MethodProxy methodProxy,
+				@Nullable MethodInvocationPlan plan) {
 
 			super(proxy, target, method, arguments, targetClass, interceptorsAndDynamicMethodMatchers);
+			this.plan = plan;
 
 			// Only use method proxy for public methods not derived from java.lang.Object
 			this.methodProxy = (Modifier.isPublic(method.getModifiers()) &&
@@ -761,11 +799,15 @@ class CglibAopProxy implements AopProxy, Serializable {
 
 		/**
 		 * Gives a marginal performance improvement versus using reflection to
-		 * invoke the target when invoking public methods.
+		 * invoke the target when invoking public methods. Uses the method handle
+		 * of a precomputed invocation plan instead, if available.
 		 */
 		@Override
 		protected Object invokeJoinpoint() throws Throwable {
-			if (this.methodProxy != null) {
+			if (this.plan != null) {
+				return this.plan.invokeTarget(this.target, this.arguments);
+			}
+			else if (this.methodProxy != null) {
 				return this.methodProxy.invoke(this.target, this.arguments);
 			}
 			else {
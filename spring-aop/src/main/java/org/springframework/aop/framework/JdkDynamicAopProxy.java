@@ -20,7 +20,10 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -92,6 +95,13 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	 */
 	private boolean hashCodeDefined;
 
+	/**
+	 * Precomputed invocation plans for the proxied methods, if any.
+	 * @see ProxyConfig#setPrecomputeInterceptorChains
+	 */
+	@Nullable
+	private transient Map<Method, MethodInvocationPlan> invocationPlans;
+
 
 	/**
 	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
@@ -120,6 +130,7 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		}
 		Class<?>[] proxiedInterfaces = AopProxyUtils.completeProxiedInterfaces(this.advised, true);
 		findDefinedEqualsAndHashCodeMethods(proxiedInterfaces);
+		buildInvocationPlans(proxiedInterfaces);
 		return Proxy.newProxyInstance(classLoader, proxiedInterfaces, this);
 	}
 
@@ -146,6 +157,23 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	}
 
 
+	/**
+	 * Precomputes the invocation plans for the methods of the supplied set of
+	 * interfaces, if the AOP configuration asks for it.
+	 * @param proxiedInterfaces the interfaces to introspect
+	 */
+	private void buildInvocationPlans(Class<?>[] proxiedInterfaces) {
+		if (!this.advised.isPrecomputeInterceptorChains()) {
+			return;
+		}
+		List<Method> methods = new ArrayList<>();
+		for (Class<?> proxiedInterface : proxiedInterfaces) {
+			Collections.addAll(methods, proxiedInterface.getMethods());
+		}
+		this.invocationPlans = MethodInvocationPlan.buildPlans(this.advised, methods);
+	}
+
+
 	/**
 	 * Implementation of {@code InvocationHandler.invoke}.
 	 * <p>Callers will see exactly the exception thrown by the target,
@@ -192,8 +220,10 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			target = targetSource.getTarget();
 			Class<?> targetClass = (target != null ? target.getClass() : null);
 
-			// Get the interception chain for this method.
-			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			// Get the interception chain for this method, precomputed if possible.
+			MethodInvocationPlan plan = getInvocationPlan(method, targetClass);
+			List<Object> chain = (plan != null ? plan.getChain() :
+					this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
 
 			// Check whether we have any advice. If we don't, we can fallback on direct
 			// reflective invocation of the target, and avoid creating a MethodInvocation.
@@ -202,12 +232,14 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 				// Note that the final invoker must be an InvokerInterceptor so we know it does
 				// nothing but a reflective operation on the target, and no hot swapping or fancy proxying.
 				Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
-				retVal = AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse);
+				retVal = (plan != null ? plan.invokeTarget(target, argsToUse) :
+						AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse));
 			}
 			else {
 				// We need to create a method invocation...
-				MethodInvocation invocation =
-						new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain);
+				MethodInvocation invocation = (plan != null ?
+						new MethodInvocationPlan.MethodHandleMethodInvocation(proxy, target, method, args, targetClass, plan) :
+						new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain));
 				// Proceed to the joinpoint through the interceptor chain.
 				retVal = invocation.proceed();
 			}
@@ -241,6 +273,21 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	}
 
 
+	/**
+	 * Return the precomputed invocation plan for the given method,
+	 * if any, provided that it applies to the given target class.
+	 */
+	@Nullable
+	private MethodInvocationPlan getInvocationPlan(Method method, @Nullable Class<?> targetClass) {
+		Map<Method, MethodInvocationPlan> plans = this.invocationPlans;
+		if (plans == null) {
+			return null;
+		}
+		MethodInvocationPlan plan = plans.get(method);
+		return (plan != null && plan.isApplicable(targetClass) ? plan : null);
+	}
+
+
 	/**
 	 * Equality means interfaces, advisors and TargetSource are equal.
 	 * <p>The compared object may be a JdkDynamicAopProxy instance itself
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Invocation plan for a single proxied method, precomputed by AOP proxies
+ * at creation time for a frozen configuration: holds the interceptor chain
+ * for the method and a {@link MethodHandle} for invoking the target method,
+ * sparing per-call chain lookup as well as reflective target invocation.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see ProxyConfig#setPrecomputeInterceptorChains
+ */
+final class MethodInvocationPlan {
+
+	private static final MethodType INVOKER_TYPE =
+			MethodType.methodType(Object.class, Object.class, Object[].class);
+
+
+	private final Class<?> targetClass;
+
+	private final List<Object> chain;
+
+	private final MethodHandle invoker;
+
+
+	private MethodInvocationPlan(Class<?> targetClass, List<Object> chain, MethodHandle invoker) {
+		this.targetClass = targetClass;
+		this.chain = chain;
+		this.invoker = invoker;
+	}
+
+
+	/**
+	 * Return whether this plan applies to an invocation on a target of the
+	 * given class, i.e. whether it has been computed for that target class.
+	 */
+	public boolean isApplicable(@Nullable Class<?> targetClass) {
+		return (this.targetClass == targetClass);
+	}
+
+	/**
+	 * Return the interceptor chain for the method.
+	 * @see AdvisedSupport#getInterceptorsAndDynamicInterceptionAdvice
+	 */
+	public List<Object> getChain() {
+		return this.chain;
+	}
+
+	/**
+	 * Invoke the target method on the given target object.
+	 * @param target the target object
+	 * @param args the arguments for the method (may be {@code null} if none)
+	 * @return the return value of the method, or {@code null} for a void method
+	 * @throws Throwable as thrown by the target method
+	 */
+	@Nullable
+	public Object invokeTarget(@Nullable Object target, @Nullable Object[] args) throws Throwable {
+		return (Object) this.invoker.invokeExact(target, args);
+	}
+
+
+	/**
+	 * Build invocation plans for the given methods, provided that the given
+	 * configuration asks for precomputed interceptor chains and is frozen.
+	 * <p>Methods that are not implemented by the target class (e.g. introduced
+	 * interfaces) or that cannot be bound to a method handle are left out.
+	 * @param config the AOP configuration
+	 * @param methods the proxied methods
+	 * @return the plans keyed by method, or {@code null} if not applicable
+	 */
+	@Nullable
+	static Map<Method, MethodInvocationPlan> buildPlans(AdvisedSupport config, Iterable<Method> methods) {
+		Class<?> targetClass = config.getTargetClass();
+		if (!config.isPrecomputeInterceptorChains() || !config.isFrozen() || targetClass == null) {
+			return null;
+		}
+		Map<Method, MethodInvocationPlan> plans = new HashMap<>();
+		for (Method method : methods) {
+			if (!plans.containsKey(method)) {
+				MethodInvocationPlan plan = buildPlan(config, method, targetClass);
+				if (plan != null) {
+					plans.put(method, plan);
+				}
+			}
+		}
+		return Collections.unmodifiableMap(plans);
+	}
+
+	@Nullable
+	private static MethodInvocationPlan buildPlan(AdvisedSupport config, Method method, Class<?> targetClass) {
+		if (Modifier.isStatic(method.getModifiers()) || !method.getDeclaringClass().isAssignableFrom(targetClass)) {
+			return null;
+		}
+		MethodHandle invoker;
+		try {
+			ReflectionUtils.makeAccessible(method);
+			invoker = MethodHandles.lookup().unreflect(method)
+					.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+		}
+		catch (IllegalAccessException | RuntimeException ex) {
+			// Not accessible through a method handle -> regular per-call processing
+			return null;
+		}
+		List<Object> chain = config.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+		return new MethodInvocationPlan(targetClass, chain, invoker);
+	}
+
+
+	/**
+	 * {@link ReflectiveMethodInvocation} variant which invokes the joinpoint
+	 * through the method handle of a {@link MethodInvocationPlan}.
+	 */
+	static class MethodHandleMethodInvocation extends ReflectiveMethodInvocation {
+
+		private final MethodInvocationPlan plan;
+
+		public MethodHandleMethodInvocation(Object proxy, @Nullable Object target, Method method,
+				@Nullable Object[] arguments, @Nullable Class<?> targetClass, MethodInvocationPlan plan) {
+
+			super(proxy, target, method, arguments, targetClass, plan.getChain());
+			this.plan = plan;
+		}
+
+		@Override
+		@Nullable
+		protected Object invokeJoinpoint() throws Throwable {
+			return this.plan.invokeTarget(this.target, this.arguments);
+		}
+	}
+
+}
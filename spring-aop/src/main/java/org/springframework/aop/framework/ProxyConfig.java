@@ -44,6 +44,8 @@ public class ProxyConfig implements Serializable {
 
 	private boolean frozen = false;
 
+	private boolean precomputeInterceptorChains = false;
+
 
 	/**
 	 * Set whether to proxy the target class directly, instead of just proxying
@@ -146,6 +148,31 @@ public class ProxyConfig implements Serializable {
 		return this.frozen;
 	}
 
+	/**
+	 * Set whether proxies should resolve the interceptor chain for each proxied
+	 * method once, at proxy creation time, and invoke the target method through
+	 * a {@link java.lang.invoke.MethodHandle} resolved upfront rather than through
+	 * reflection. Default is "false".
+	 * <p>This only takes effect for a {@link #setFrozen frozen} configuration,
+	 * since the precomputed chains would not reflect later advice changes.
+	 * Invocations on a target of a different class than the one exposed at
+	 * proxy creation time, as well as methods that cannot be bound to a
+	 * method handle, fall back to regular per-call chain lookup.
+	 * @since 5.3
+	 */
+	public void setPrecomputeInterceptorChains(boolean precomputeInterceptorChains) {
+		this.precomputeInterceptorChains = precomputeInterceptorChains;
+	}
+
+	/**
+	 * Return whether proxies should precompute the interceptor chain for each
+	 * proxied method at proxy creation time.
+	 * @since 5.3
+	 */
+	public boolean isPrecomputeInterceptorChains() {
+		return this.precomputeInterceptorChains;
+	}
+
 
 	/**
 	 * Copy configuration from the other config object.
@@ -158,6 +185,7 @@ public class ProxyConfig implements Serializable {
 		this.exposeProxy = other.exposeProxy;
 		this.frozen = other.frozen;
 		this.opaque = other.opaque;
+		this.precomputeInterceptorChains = other.precomputeInterceptorChains;
 	}
 
 	@Override
@@ -167,7 +195,8 @@ public class ProxyConfig implements Serializable {
 		sb.append("optimize=").append(this.optimize).append("; ");
 		sb.append("opaque=").append(this.opaque).append("; ");
 		sb.append("exposeProxy=").append(this.exposeProxy).append("; ");
-		sb.append("frozen=").append(this.frozen);
+		sb.append("frozen=").append(this.frozen).append("; ");
+		sb.append("precomputeInterceptorChains=").append(this.precomputeInterceptorChains);
 		return sb.toString();
 	}
 
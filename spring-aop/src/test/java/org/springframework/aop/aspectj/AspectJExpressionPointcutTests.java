@@ -16,7 +16,14 @@
 
 package org.springframework.aop.aspectj;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
@@ -284,6 +291,72 @@ public class AspectJExpressionPointcutTests {
 		assertThat(expr.getPointcutExpression()).isEqualTo("execution(* *(..)) && args(String) && this(Object)");
 	}
 
+	@Test
+	public void testClassPreFilterWithMethodAnnotation() {
+		String expression = "@annotation(" + Marker.class.getName() + ")";
+		AspectJExpressionPointcut pc = (AspectJExpressionPointcut) getPointcut(expression);
+		assertThat(PointcutClassPreFilter.forExpression(pc.getPointcutExpression())).isNotNull();
+		assertThat(pc.matches(TestBean.class)).isFalse();
+		assertThat(pc.matches(MarkedBean.class)).isTrue();
+		assertThat(pc.matches(MarkedBeanSubclass.class)).isTrue();
+		assertThat(pc.matches(MarkedInterfaceImpl.class)).isTrue();
+	}
+
+	@Test
+	public void testClassPreFilterWithTypeAnnotation() {
+		String expression = "@within(" + Marker.class.getName() + ") && execution(* *(..))";
+		AspectJExpressionPointcut pc = (AspectJExpressionPointcut) getPointcut(expression);
+		assertThat(pc.matches(TestBean.class)).isFalse();
+		assertThat(pc.matches(MarkedType.class)).isTrue();
+	}
+
+	@Test
+	public void testClassPreFilterWithTypePatterns() {
+		AspectJExpressionPointcut pc = (AspectJExpressionPointcut)
+				getPointcut("within(org.springframework.tests.sample.beans..*)");
+		assertThat(pc.matches(TestBean.class)).isTrue();
+		assertThat(pc.matches(DeepBean.class)).isTrue();
+		assertThat(pc.matches(MarkedBean.class)).isFalse();
+
+		pc = (AspectJExpressionPointcut) getPointcut(
+				"execution(* org.springframework.aop.aspectj.AspectJExpressionPointcutTests.Marked*.*(..))");
+		assertThat(pc.matches(MarkedBean.class)).isTrue();
+		assertThat(pc.matches(TestBean.class)).isFalse();
+	}
+
+	@Test
+	public void testClassPreFilterWithOrExpression() {
+		String expression = "@annotation(" + Marker.class.getName() + ") || within(org.springframework.tests.sample.beans..*)";
+		AspectJExpressionPointcut pc = (AspectJExpressionPointcut) getPointcut(expression);
+		assertThat(pc.matches(TestBean.class)).isTrue();
+		assertThat(pc.matches(MarkedBean.class)).isTrue();
+		assertThat(pc.matches(CallCountingInterceptor.class)).isFalse();
+
+		pc = (AspectJExpressionPointcut) getPointcut(
+				"@annotation(" + Marker.class.getName() + ") || this(" + IOther.class.getName() + ")");
+		assertThat(PointcutClassPreFilter.forExpression(pc.getPointcutExpression())).isNull();
+		assertThat(pc.matches(OtherIOther.class)).isTrue();
+	}
+
+	@Test
+	public void testConcurrentMethodMatching() throws Exception {
+		AspectJExpressionPointcut pc = (AspectJExpressionPointcut) getPointcut(
+				"execution(* org.springframework.tests.sample.beans.TestBean.get*(..))");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				results.add(executor.submit(() -> pc.matches(getAge, TestBean.class) && !pc.matches(setAge, TestBean.class)));
+			}
+			for (Future<Boolean> result : results) {
+				assertThat(result.get()).isTrue();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	private Pointcut getPointcut(String expression) {
 		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
 		pointcut.setExpression(expression);
@@ -299,6 +372,46 @@ public class AspectJExpressionPointcutTests {
 		}
 	}
 
+
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface Marker {
+	}
+
+
+	public static class MarkedBean {
+
+		@Marker
+		public void marked() {
+		}
+	}
+
+
+	public static class MarkedBeanSubclass extends MarkedBean {
+	}
+
+
+	public interface MarkedInterface {
+
+		@Marker
+		void marked();
+	}
+
+
+	public static class MarkedInterfaceImpl implements MarkedInterface {
+
+		@Override
+		public void marked() {
+		}
+	}
+
+
+	@Marker
+	public static class MarkedType {
+
+		public void method() {
+		}
+	}
+
 }
 
 
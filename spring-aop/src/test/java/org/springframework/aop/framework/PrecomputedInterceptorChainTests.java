@@ -0,0 +1,235 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.support.DefaultIntroductionAdvisor;
+import org.springframework.aop.support.DelegatingIntroductionInterceptor;
+import org.springframework.lang.Nullable;
+import org.springframework.tests.TimeStamped;
+import org.springframework.tests.aop.interceptor.NopInterceptor;
+import org.springframework.tests.sample.beans.DerivedTestBean;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for proxies with {@link ProxyConfig#setPrecomputeInterceptorChains
+ * precomputed interceptor chains}, for both JDK and CGLIB proxies.
+ */
+public class PrecomputedInterceptorChainTests {
+
+	@Test
+	public void chainsResolvedAtProxyCreation() {
+		for (boolean proxyTargetClass : new boolean[] {false, true}) {
+			CountingAdvisorChainFactory chainFactory = new CountingAdvisorChainFactory();
+			ProxyFactory pf = createProxyFactory(new TestBean("tb", 30), proxyTargetClass, true);
+			pf.setAdvisorChainFactory(chainFactory);
+			ITestBean proxy = (ITestBean) pf.getProxy();
+			int lookups = chainFactory.lookups.get();
+			assertThat(lookups).isGreaterThan(0);
+
+			proxy.setName("other");
+			assertThat(proxy.getName()).isEqualTo("other");
+			assertThat(proxy.getAge()).isEqualTo(30);
+			assertThat(chainFactory.lookups.get()).isEqualTo(lookups);
+		}
+	}
+
+	@Test
+	public void targetInvokedThroughMethodHandle() {
+		List<Class<?>> invocationTypes = new ArrayList<>();
+		ProxyFactory pf = createProxyFactory(new TestBean("tb", 30), false, false);
+		pf.addAdvice((MethodInterceptor) invocation -> {
+			invocationTypes.add(invocation.getClass());
+			return invocation.proceed();
+		});
+		pf.setFrozen(true);
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		assertThat(proxy.getName()).isEqualTo("tb");
+		assertThat(invocationTypes).containsExactly(MethodInvocationPlan.MethodHandleMethodInvocation.class);
+	}
+
+	@Test
+	public void chainsNotResolvedWithoutFrozenConfig() {
+		CountingAdvisorChainFactory chainFactory = new CountingAdvisorChainFactory();
+		ProxyFactory pf = createProxyFactory(new TestBean("tb", 30), false, false);
+		pf.setAdvisorChainFactory(chainFactory);
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		assertThat(chainFactory.lookups.get()).isEqualTo(0);
+		assertThat(proxy.getAge()).isEqualTo(30);
+		assertThat(chainFactory.lookups.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void adviceAppliedWithPrimitiveAndVoidMethods() {
+		for (boolean proxyTargetClass : new boolean[] {false, true}) {
+			NopInterceptor nop = new NopInterceptor();
+			ProxyFactory pf = createProxyFactory(new TestBean("tb", 30), proxyTargetClass, true);
+			pf.setFrozen(false);
+			pf.addAdvice(nop);
+			pf.setFrozen(true);
+			ITestBean proxy = (ITestBean) pf.getProxy();
+
+			proxy.setAge(40);
+			assertThat(proxy.getAge()).isEqualTo(40);
+			assertThat(proxy.haveBirthday()).isEqualTo(40);
+			assertThat(proxy.getAge()).isEqualTo(41);
+			assertThat(nop.getCount()).isEqualTo(4);
+		}
+	}
+
+	@Test
+	public void targetReturnedAsProxy() {
+		for (boolean proxyTargetClass : new boolean[] {false, true}) {
+			TestBean target = new TestBean();
+			target.setSpouse(target);
+			ITestBean proxy = (ITestBean) createProxyFactory(target, proxyTargetClass, true).getProxy();
+			assertThat(proxy.getSpouse()).isSameAs(proxy);
+		}
+	}
+
+	@Test
+	public void targetExceptionsPropagatedAsIs() {
+		for (boolean proxyTargetClass : new boolean[] {false, true}) {
+			ITestBean proxy = (ITestBean) createProxyFactory(new TestBean(), proxyTargetClass, true).getProxy();
+			IllegalStateException ex = new IllegalStateException("Expected exception");
+			assertThatIllegalStateException().isThrownBy(() -> proxy.exceptional(ex)).isSameAs(ex);
+			assertThatIOException().isThrownBy(proxy::unreliableFileOperation);
+		}
+	}
+
+	@Test
+	public void undeclaredCheckedExceptionFromAdvice() {
+		for (boolean proxyTargetClass : new boolean[] {false, true}) {
+			ProxyFactory pf = createProxyFactory(new TestBean(), proxyTargetClass, false);
+			pf.addAdvice((MethodInterceptor) invocation -> {
+				throw new Exception("Expected exception");
+			});
+			pf.setFrozen(true);
+			ITestBean proxy = (ITestBean) pf.getProxy();
+			assertThatExceptionOfType(UndeclaredThrowableException.class).isThrownBy(proxy::getAge);
+		}
+	}
+
+	@Test
+	public void introductionNotBoundToTarget() {
+		for (boolean proxyTargetClass : new boolean[] {false, true}) {
+			ProxyFactory pf = createProxyFactory(new TestBean(), proxyTargetClass, false);
+			pf.addAdvisor(new DefaultIntroductionAdvisor(new TimestampIntroduction(), TimeStamped.class));
+			pf.setFrozen(true);
+			Object proxy = pf.getProxy();
+			assertThat(((TimeStamped) proxy).getTimeStamp()).isEqualTo(42L);
+			assertThat(((ITestBean) proxy).getAge()).isEqualTo(0);
+		}
+	}
+
+	@Test
+	public void targetOfDifferentClassFallsBackToChainLookup() {
+		SwappableTargetSource targetSource = new SwappableTargetSource(new TestBean("tb", 30));
+		ProxyFactory pf = new ProxyFactory();
+		pf.setTargetSource(targetSource);
+		pf.addInterface(ITestBean.class);
+		pf.addAdvice(new NopInterceptor());
+		pf.setPrecomputeInterceptorChains(true);
+		pf.setFrozen(true);
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		assertThat(proxy.getName()).isEqualTo("tb");
+
+		DerivedTestBean swapped = new DerivedTestBean();
+		swapped.setName("swapped");
+		targetSource.target = swapped;
+		assertThat(proxy.getName()).isEqualTo("swapped");
+	}
+
+
+	private static ProxyFactory createProxyFactory(Object target, boolean proxyTargetClass, boolean frozen) {
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.setProxyTargetClass(proxyTargetClass);
+		pf.setPrecomputeInterceptorChains(true);
+		pf.setFrozen(frozen);
+		return pf;
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class CountingAdvisorChainFactory extends DefaultAdvisorChainFactory {
+
+		private final AtomicInteger lookups = new AtomicInteger();
+
+		@Override
+		public List<Object> getInterceptorsAndDynamicInterceptionAdvice(
+				Advised config, Method method, @Nullable Class<?> targetClass) {
+
+			this.lookups.incrementAndGet();
+			return super.getInterceptorsAndDynamicInterceptionAdvice(config, method, targetClass);
+		}
+	}
+
+
+	private static class SwappableTargetSource implements TargetSource {
+
+		private volatile Object target;
+
+		SwappableTargetSource(Object target) {
+			this.target = target;
+		}
+
+		@Override
+		public Class<?> getTargetClass() {
+			return TestBean.class;
+		}
+
+		@Override
+		public boolean isStatic() {
+			return false;
+		}
+
+		@Override
+		public Object getTarget() {
+			return this.target;
+		}
+
+		@Override
+		public void releaseTarget(Object target) {
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class TimestampIntroduction extends DelegatingIntroductionInterceptor implements TimeStamped {
+
+		@Override
+		public long getTimeStamp() {
+			return 42L;
+		}
+	}
+
+}
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -76,8 +77,21 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 */
 	private static final Log logger = LogFactory.getLog(AbstractNestablePropertyAccessor.class);
 
+	/**
+	 * Maximum number of entries in the property name tokens cache.
+	 * Property names may come from user input (e.g. request parameter names
+	 * bound through a DataBinder), so the cache gets cleared once exceeded.
+	 */
+	static final int PROPERTY_NAME_TOKENS_CACHE_LIMIT = 1024;
+
+	/** Cache of parsed property name tokens, keyed by property name (for optimized access). */
+	private static final Map<String, PropertyTokenHolder> propertyNameTokensCache =
+			new ConcurrentHashMap<>(256);
+
 	private int autoGrowCollectionLimit = Integer.MAX_VALUE;
 
+	private boolean optimizedAccess = false;
+
 	@Nullable
 	Object wrappedObject;
 
@@ -155,6 +169,7 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 		setExtractOldValueForEditor(parent.isExtractOldValueForEditor());
 		setAutoGrowNestedPaths(parent.isAutoGrowNestedPaths());
 		setAutoGrowCollectionLimit(parent.getAutoGrowCollectionLimit());
+		setOptimizedAccess(parent.isOptimizedAccess());
 		setConversionService(parent.getConversionService());
 	}
 
@@ -174,6 +189,28 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 		return this.autoGrowCollectionLimit;
 	}
 
+	/**
+	 * Set whether this accessor should optimize repeated property access,
+	 * caching parsed property paths across accessor instances and, where
+	 * supported by the concrete accessor, using generated accessors instead
+	 * of reflective invocations.
+	 * <p>Default is "false". Worth switching on for accessors which are being
+	 * created for the same bean classes and property paths over and over again,
+	 * e.g. for data binding in web requests.
+	 * @since 5.3
+	 */
+	public void setOptimizedAccess(boolean optimizedAccess) {
+		this.optimizedAccess = optimizedAccess;
+	}
+
+	/**
+	 * Return whether optimized property access has been activated.
+	 * @since 5.3
+	 */
+	public boolean isOptimizedAccess() {
+		return this.optimizedAccess;
+	}
+
 	/**
 	 * Switch the target object, replacing the cached introspection results only
 	 * if the class of the new object is different to that of the replaced object.
@@ -926,6 +963,34 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 * @return representation of the parsed property tokens
 	 */
 	private PropertyTokenHolder getPropertyNameTokens(String propertyName) {
+		if (!this.optimizedAccess) {
+			return parsePropertyNameTokens(propertyName);
+		}
+		PropertyTokenHolder cached = propertyNameTokensCache.get(propertyName);
+		if (cached == null) {
+			cached = parsePropertyNameTokens(propertyName);
+			if (propertyNameTokensCache.size() >= PROPERTY_NAME_TOKENS_CACHE_LIMIT) {
+				// Likely a large number of unique property paths: start over
+				propertyNameTokensCache.clear();
+			}
+			propertyNameTokensCache.put(propertyName, cached);
+		}
+		// Hand out a copy since the holder's fields are mutable
+		PropertyTokenHolder tokens = new PropertyTokenHolder(cached.actualName);
+		tokens.canonicalName = cached.canonicalName;
+		tokens.keys = (cached.keys != null ? cached.keys.clone() : null);
+		return tokens;
+	}
+
+	/**
+	 * Return the number of property names with cached tokens.
+	 * @see #PROPERTY_NAME_TOKENS_CACHE_LIMIT
+	 */
+	static int getPropertyNameTokensCacheSize() {
+		return propertyNameTokensCache.size();
+	}
+
+	private static PropertyTokenHolder parsePropertyNameTokens(String propertyName) {
 		String actualName = null;
 		List<String> keys = new ArrayList<>(2);
 		int searchIndex = 0;
@@ -958,7 +1023,7 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 		return tokens;
 	}
 
-	private int getPropertyNameKeyEnd(String propertyName, int startIndex) {
+	private static int getPropertyNameKeyEnd(String propertyName, int startIndex) {
 		int unclosedPrefixes = 0;
 		int length = propertyName.length();
 		for (int i = startIndex; i < length; i++) {
@@ -25,6 +25,7 @@ import java.lang.reflect.Modifier;
 import java.net.URI;
 import java.net.URL;
 import java.time.temporal.Temporal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -33,6 +34,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import kotlin.jvm.JvmClassMappingKt;
 import kotlin.reflect.KFunction;
@@ -44,6 +47,9 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.core.KotlinDetector;
 import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.Property;
+import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -73,6 +79,8 @@ public abstract class BeanUtils {
 
 	private static final Map<Class<?>, Object> DEFAULT_TYPE_VALUES;
 
+	private static final Map<CopyPlanKey, PropertyCopier[]> copyPlanCache = new ConcurrentReferenceHashMap<>(64);
+
 	static {
 		Map<Class<?>, Object> values = new HashMap<>();
 		values.put(boolean.class, false);
@@ -636,7 +644,7 @@ public abstract class BeanUtils {
 	 * @see BeanWrapper
 	 */
 	public static void copyProperties(Object source, Object target) throws BeansException {
-		copyProperties(source, target, null, (String[]) null);
+		copyProperties(source, target, null, null, (String[]) null);
 	}
 
 	/**
@@ -654,7 +662,7 @@ public abstract class BeanUtils {
 	 * @see BeanWrapper
 	 */
 	public static void copyProperties(Object source, Object target, Class<?> editable) throws BeansException {
-		copyProperties(source, target, editable, (String[]) null);
+		copyProperties(source, target, editable, null, (String[]) null);
 	}
 
 	/**
@@ -672,7 +680,30 @@ public abstract class BeanUtils {
 	 * @see BeanWrapper
 	 */
 	public static void copyProperties(Object source, Object target, String... ignoreProperties) throws BeansException {
-		copyProperties(source, target, null, ignoreProperties);
+		copyProperties(source, target, null, null, ignoreProperties);
+	}
+
+	/**
+	 * Copy the property values of the given source bean into the given target bean,
+	 * converting values through the given {@link ConversionService} where the source
+	 * property type is not assignable to the target property type.
+	 * <p>Note: The source and target classes do not have to match or even be derived
+	 * from each other, as long as the properties match. Any bean properties that the
+	 * source bean exposes but the target bean does not will silently be ignored, as
+	 * will properties whose types cannot be converted by the given ConversionService.
+	 * @param source the source bean
+	 * @param target the target bean
+	 * @param conversionService the ConversionService to use for non-assignable types
+	 * @param ignoreProperties array of property names to ignore
+	 * @throws BeansException if the copying failed
+	 * @since 5.3
+	 * @see BeanWrapper
+	 */
+	public static void copyProperties(Object source, Object target, ConversionService conversionService,
+			String... ignoreProperties) throws BeansException {
+
+		Assert.notNull(conversionService, "ConversionService must not be null");
+		copyProperties(source, target, null, conversionService, ignoreProperties);
 	}
 
 	/**
@@ -680,15 +711,20 @@ public abstract class BeanUtils {
 	 * <p>Note: The source and target classes do not have to match or even be derived
 	 * from each other, as long as the properties match. Any bean properties that the
 	 * source bean exposes but the target bean does not will silently be ignored.
+	 * <p>The properties to copy are determined once per combination of source class,
+	 * target class and ignored properties, and cached as a copy plan for subsequent
+	 * invocations.
 	 * @param source the source bean
 	 * @param target the target bean
 	 * @param editable the class (or interface) to restrict property setting to
+	 * @param conversionService the ConversionService to use for non-assignable types, if any
 	 * @param ignoreProperties array of property names to ignore
 	 * @throws BeansException if the copying failed
 	 * @see BeanWrapper
 	 */
 	private static void copyProperties(Object source, Object target, @Nullable Class<?> editable,
-			@Nullable String... ignoreProperties) throws BeansException {
+			@Nullable ConversionService conversionService, @Nullable String... ignoreProperties)
+			throws BeansException {
 
 		Assert.notNull(source, "Source must not be null");
 		Assert.notNull(target, "Target must not be null");
@@ -701,35 +737,173 @@ public abstract class BeanUtils {
 			}
 			actualEditable = editable;
 		}
-		PropertyDescriptor[] targetPds = getPropertyDescriptors(actualEditable);
+
+		CopyPlanKey key = new CopyPlanKey(source.getClass(), actualEditable, conversionService, ignoreProperties);
+		PropertyCopier[] copyPlan = copyPlanCache.get(key);
+		if (copyPlan == null) {
+			copyPlan = buildCopyPlan(source.getClass(), actualEditable, conversionService, ignoreProperties);
+			copyPlanCache.put(key, copyPlan);
+		}
+
+		for (PropertyCopier copier : copyPlan) {
+			try {
+				copier.copy(source, target, conversionService);
+			}
+			catch (Throwable ex) {
+				throw new FatalBeanException(
+						"Could not copy property '" + copier.propertyName + "' from source to target", ex);
+			}
+		}
+	}
+
+	private static PropertyCopier[] buildCopyPlan(Class<?> sourceClass, Class<?> editable,
+			@Nullable ConversionService conversionService, @Nullable String... ignoreProperties) {
+
+		PropertyDescriptor[] targetPds = getPropertyDescriptors(editable);
 		List<String> ignoreList = (ignoreProperties != null ? Arrays.asList(ignoreProperties) : null);
+		List<PropertyCopier> copiers = new ArrayList<>(targetPds.length);
 
 		for (PropertyDescriptor targetPd : targetPds) {
 			Method writeMethod = targetPd.getWriteMethod();
 			if (writeMethod != null && (ignoreList == null || !ignoreList.contains(targetPd.getName()))) {
-				PropertyDescriptor sourcePd = getPropertyDescriptor(source.getClass(), targetPd.getName());
+				PropertyDescriptor sourcePd = getPropertyDescriptor(sourceClass, targetPd.getName());
 				if (sourcePd != null) {
 					Method readMethod = sourcePd.getReadMethod();
-					if (readMethod != null &&
-							ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType())) {
-						try {
-							if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers())) {
-								readMethod.setAccessible(true);
-							}
-							Object value = readMethod.invoke(source);
-							if (!Modifier.isPublic(writeMethod.getDeclaringClass().getModifiers())) {
-								writeMethod.setAccessible(true);
-							}
-							writeMethod.invoke(target, value);
+					if (readMethod != null) {
+						if (ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType())) {
+							copiers.add(new PropertyCopier(targetPd.getName(), readMethod, writeMethod, null, null));
 						}
-						catch (Throwable ex) {
-							throw new FatalBeanException(
-									"Could not copy property '" + targetPd.getName() + "' from source to target", ex);
+						else if (conversionService != null) {
+							TypeDescriptor sourceType = new TypeDescriptor(new Property(sourceClass, readMethod, null));
+							TypeDescriptor targetType = new TypeDescriptor(new Property(editable, null, writeMethod));
+							if (conversionService.canConvert(sourceType, targetType)) {
+								copiers.add(new PropertyCopier(
+										targetPd.getName(), readMethod, writeMethod, sourceType, targetType));
+							}
 						}
 					}
 				}
 			}
 		}
+		return copiers.toArray(new PropertyCopier[0]);
+	}
+
+
+	/**
+	 * Cache key for a copy plan.
+	 */
+	private static final class CopyPlanKey {
+
+		private final Class<?> sourceClass;
+
+		private final Class<?> editable;
+
+		@Nullable
+		private final ConversionService conversionService;
+
+		@Nullable
+		private final String[] ignoreProperties;
+
+		CopyPlanKey(Class<?> sourceClass, Class<?> editable,
+				@Nullable ConversionService conversionService, @Nullable String[] ignoreProperties) {
+
+			this.sourceClass = sourceClass;
+			this.editable = editable;
+			this.conversionService = conversionService;
+			this.ignoreProperties = (ignoreProperties != null ? ignoreProperties.clone() : null);
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CopyPlanKey)) {
+				return false;
+			}
+			CopyPlanKey otherKey = (CopyPlanKey) other;
+			return (this.sourceClass == otherKey.sourceClass && this.editable == otherKey.editable &&
+					this.conversionService == otherKey.conversionService &&
+					Arrays.equals(this.ignoreProperties, otherKey.ignoreProperties));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.sourceClass.hashCode() * 31 + this.editable.hashCode()) * 31 +
+					Arrays.hashCode(this.ignoreProperties);
+		}
+	}
+
+
+	/**
+	 * Copies a single property, using generated accessors where possible.
+	 */
+	private static final class PropertyCopier {
+
+		final String propertyName;
+
+		private final Method readMethod;
+
+		private final Method writeMethod;
+
+		@Nullable
+		private final Function<Object, Object> getter;
+
+		@Nullable
+		private final BiConsumer<Object, Object> setter;
+
+		@Nullable
+		private final TypeDescriptor sourceType;
+
+		@Nullable
+		private final TypeDescriptor targetType;
+
+		PropertyCopier(String propertyName, Method readMethod, Method writeMethod,
+				@Nullable TypeDescriptor sourceType, @Nullable TypeDescriptor targetType) {
+
+			this.propertyName = propertyName;
+			this.readMethod = readMethod;
+			this.writeMethod = writeMethod;
+			if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers())) {
+				readMethod.setAccessible(true);
+			}
+			if (!Modifier.isPublic(writeMethod.getDeclaringClass().getModifiers())) {
+				writeMethod.setAccessible(true);
+			}
+			this.getter = GeneratedPropertyAccessors.getGetter(readMethod);
+			this.setter = GeneratedPropertyAccessors.getSetter(writeMethod);
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+		}
+
+		void copy(Object source, Object target, @Nullable ConversionService conversionService) throws Exception {
+			Object value;
+			if (this.getter != null) {
+				try {
+					value = this.getter.apply(source);
+				}
+				catch (Throwable ex) {
+					throw new InvocationTargetException(ex);
+				}
+			}
+			else {
+				value = this.readMethod.invoke(source);
+			}
+			if (conversionService != null && this.targetType != null) {
+				value = conversionService.convert(value, this.sourceType, this.targetType);
+			}
+			if (this.setter != null && GeneratedPropertyAccessors.isAcceptableValue(this.writeMethod, value)) {
+				try {
+					this.setter.accept(target, value);
+				}
+				catch (Throwable ex) {
+					throw new InvocationTargetException(ex);
+				}
+			}
+			else {
+				this.writeMethod.invoke(target, value);
+			}
+		}
 	}
 
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,12 +17,15 @@
 package org.springframework.beans;
 
 import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.Property;
@@ -304,6 +307,17 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				if (isOptimizedAccess()) {
+					Function<Object, Object> getter = GeneratedPropertyAccessors.getGetter(readMethod);
+					if (getter != null) {
+						try {
+							return getter.apply(getWrappedInstance());
+						}
+						catch (Throwable ex) {
+							throw new InvocationTargetException(ex);
+						}
+					}
+				}
 				ReflectionUtils.makeAccessible(readMethod);
 				return readMethod.invoke(getWrappedInstance(), (Object[]) null);
 			}
@@ -328,6 +342,18 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				if (isOptimizedAccess()) {
+					BiConsumer<Object, Object> setter = GeneratedPropertyAccessors.getSetter(writeMethod);
+					if (setter != null && GeneratedPropertyAccessors.isAcceptableValue(writeMethod, value)) {
+						try {
+							setter.accept(getWrappedInstance(), value);
+						}
+						catch (Throwable ex) {
+							throw new InvocationTargetException(ex);
+						}
+						return;
+					}
+				}
 				ReflectionUtils.makeAccessible(writeMethod);
 				writeMethod.invoke(getWrappedInstance(), value);
 			}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Internal helper for generating {@link LambdaMetafactory}-based accessors for
+ * JavaBean read and write methods, avoiding reflective invocations.
+ *
+ * <p>Accessors are only generated for public methods on public classes whose
+ * signature types are visible to this class's ClassLoader. For any other
+ * method, {@code null} is returned, and callers are expected to fall back to
+ * reflective invocation.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see BeanWrapperImpl#setOptimizedAccess
+ */
+abstract class GeneratedPropertyAccessors {
+
+	private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+	private static final Function<Object, Object> NO_GETTER = bean -> null;
+
+	private static final BiConsumer<Object, Object> NO_SETTER = (bean, value) -> {};
+
+	private static final Map<Method, Function<Object, Object>> getterCache = new ConcurrentReferenceHashMap<>(256);
+
+	private static final Map<Method, BiConsumer<Object, Object>> setterCache = new ConcurrentReferenceHashMap<>(256);
+
+
+	/**
+	 * Return a generated getter for the given read method.
+	 * @return the getter, or {@code null} if none can be generated
+	 */
+	@Nullable
+	static Function<Object, Object> getGetter(Method readMethod) {
+		Function<Object, Object> getter = getterCache.get(readMethod);
+		if (getter == null) {
+			getter = generateGetter(readMethod);
+			getterCache.put(readMethod, (getter != null ? getter : NO_GETTER));
+		}
+		return (getter != NO_GETTER ? getter : null);
+	}
+
+	/**
+	 * Return a generated setter for the given write method.
+	 * <p>Note that a value needs to be checked through {@link #isAcceptableValue}
+	 * before being passed to the setter.
+	 * @return the setter, or {@code null} if none can be generated
+	 */
+	@Nullable
+	static BiConsumer<Object, Object> getSetter(Method writeMethod) {
+		BiConsumer<Object, Object> setter = setterCache.get(writeMethod);
+		if (setter == null) {
+			setter = generateSetter(writeMethod);
+			setterCache.put(writeMethod, (setter != null ? setter : NO_SETTER));
+		}
+		return (setter != NO_SETTER ? setter : null);
+	}
+
+	/**
+	 * Determine whether the given value can be passed to a generated setter for
+	 * the given write method without further adaptation, in particular not being
+	 * {@code null} for a primitive parameter. Reflective invocation is required
+	 * for any other value, in order to raise the regular exceptions.
+	 */
+	static boolean isAcceptableValue(Method writeMethod, @Nullable Object value) {
+		Class<?> paramType = writeMethod.getParameterTypes()[0];
+		return (value != null ? ClassUtils.resolvePrimitiveIfNecessary(paramType).isInstance(value) :
+				!paramType.isPrimitive());
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> generateGetter(Method readMethod) {
+		if (readMethod.getParameterCount() != 0 || !isAccessible(readMethod, readMethod.getReturnType())) {
+			return null;
+		}
+		try {
+			MethodHandle handle = lookup.unreflect(readMethod);
+			MethodType instantiatedType = MethodType.methodType(
+					ClassUtils.resolvePrimitiveIfNecessary(readMethod.getReturnType()), readMethod.getDeclaringClass());
+			CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+					MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+					handle, instantiatedType);
+			return (Function<Object, Object>) site.getTarget().invoke();
+		}
+		catch (Throwable ex) {
+			return null;
+		}
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> generateSetter(Method writeMethod) {
+		if (writeMethod.getParameterCount() != 1 || !isAccessible(writeMethod, writeMethod.getParameterTypes()[0])) {
+			return null;
+		}
+		try {
+			MethodHandle handle = lookup.unreflect(writeMethod);
+			MethodType instantiatedType = MethodType.methodType(void.class, writeMethod.getDeclaringClass(),
+					ClassUtils.resolvePrimitiveIfNecessary(writeMethod.getParameterTypes()[0]));
+			CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+					MethodType.methodType(BiConsumer.class), MethodType.methodType(void.class, Object.class, Object.class),
+					handle, instantiatedType);
+			return (BiConsumer<Object, Object>) site.getTarget().invoke();
+		}
+		catch (Throwable ex) {
+			return null;
+		}
+	}
+
+	private static boolean isAccessible(Method method, Class<?> valueType) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers()) ||
+				!Modifier.isPublic(declaringClass.getModifiers())) {
+			return false;
+		}
+		// Generated classes get defined in this class's ClassLoader and need to see the signature types
+		ClassLoader classLoader = GeneratedPropertyAccessors.class.getClassLoader();
+		return (ClassUtils.isVisible(declaringClass, classLoader) &&
+				(valueType.isPrimitive() || ClassUtils.isVisible(valueType, classLoader)));
+	}
+
+}
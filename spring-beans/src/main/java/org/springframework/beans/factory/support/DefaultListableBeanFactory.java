@@ -25,12 +25,15 @@ import java.lang.annotation.Annotation;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -40,6 +43,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -142,6 +146,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private static final Map<String, Reference<DefaultListableBeanFactory>> serializableFactories =
 			new ConcurrentHashMap<>(8);
 
+	/** Marker for bean definitions whose type cannot be indexed: always to be checked. */
+	private static final Set<Class<?>> UNINDEXED_BEAN_TYPE = Collections.emptySet();
+
 	/** Optional id for this factory, for serialization purposes. */
 	@Nullable
 	private String serializationId;
@@ -171,6 +178,18 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Map of singleton-only bean names, keyed by dependency type. */
 	private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
 
+	/** Index of bean definition names to the type hierarchy of their predicted or actual type. */
+	private final Map<String, Set<Class<?>>> beanTypeIndex = new ConcurrentHashMap<>(256);
+
+	/** Type hierarchies shared between index entries, keyed by bean type. */
+	private final Map<Class<?>, Set<Class<?>>> beanTypeHierarchies = new ConcurrentHashMap<>(256);
+
+	/** Index of raw types to the names of the bean definitions which may match them, in registration order. */
+	private final Map<Class<?>, String[]> candidateBeanNamesByType = new ConcurrentHashMap<>(64);
+
+	/** Number of bean type index changes, for detecting changes while resolving candidate names. */
+	private final AtomicInteger beanTypeIndexVersion = new AtomicInteger();
+
 	/** List of bean definition names, in registration order. */
 	private volatile List<String> beanDefinitionNames = new ArrayList<>(256);
 
@@ -316,6 +335,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	@Override
+	public void addBeanPostProcessor(BeanPostProcessor beanPostProcessor) {
+		super.addBeanPostProcessor(beanPostProcessor);
+		// Post-processors may predict different bean types.
+		clearBeanTypeIndex();
+	}
+
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
 		super.copyConfigurationFrom(otherFactory);
@@ -505,9 +531,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<>();
+		Class<?> indexedType = getIndexedType(type);
+		List<String> candidateNames = (indexedType != null ?
+				Arrays.asList(getCandidateBeanNames(indexedType)) : this.beanDefinitionNames);
 
-		// Check all bean definitions.
-		for (String beanName : this.beanDefinitionNames) {
+		// Check all bean definitions which may match.
+		for (String beanName : candidateNames) {
 			// Only consider bean as eligible if the bean name
 			// is not defined as alias for some other bean.
 			if (!isAlias(beanName)) {
@@ -589,6 +618,171 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return (dbd != null ? mbd.isSingleton() : isSingleton(beanName));
 	}
 
+	/**
+	 * Determine the raw type to look up in the bean type index for the given
+	 * type to match, if the index is applicable to it.
+	 * @param type the type to match
+	 * @return the raw type, or {@code null} if all bean definitions need to be checked
+	 */
+	@Nullable
+	private Class<?> getIndexedType(ResolvableType type) {
+		if (getTempClassLoader() != null ||
+				!(type.getType() instanceof Class || type.getType() instanceof ParameterizedType)) {
+			return null;
+		}
+		Class<?> rawType = type.resolve();
+		return (rawType != null && rawType != Object.class && !rawType.isArray() && !rawType.isPrimitive() ?
+				rawType : null);
+	}
+
+	/**
+	 * Return the names of all bean definitions which may match the given raw type,
+	 * according to the bean type index, in registration order.
+	 * <p>Resolved once per type and kept until the bean type index changes, i.e.
+	 * until bean definitions or singletons get registered or removed.
+	 * @param type the raw type to match
+	 * @see #isTypeIndexCandidate
+	 */
+	private String[] getCandidateBeanNames(Class<?> type) {
+		String[] candidateNames = this.candidateBeanNamesByType.get(type);
+		if (candidateNames != null) {
+			return candidateNames;
+		}
+		int version = this.beanTypeIndexVersion.get();
+		List<String> result = new ArrayList<>();
+		for (String beanName : this.beanDefinitionNames) {
+			if (isTypeIndexCandidate(beanName, type)) {
+				result.add(beanName);
+			}
+		}
+		candidateNames = StringUtils.toStringArray(result);
+		this.candidateBeanNamesByType.put(type, candidateNames);
+		// Index changed in the meantime: the invalidation may have happened before
+		// our put, so evict the names derived from the previous state.
+		if (this.beanTypeIndexVersion.get() != version) {
+			this.candidateBeanNamesByType.remove(type, candidateNames);
+		}
+		return candidateNames;
+	}
+
+	/**
+	 * Determine whether the given bean definition may match the given raw type,
+	 * according to the bean type index. A negative result means that the bean
+	 * definition cannot match; a positive result requires a full type check.
+	 * <p>Index entries are built lazily from the actual singleton instance or the
+	 * predicted bean type, without triggering any bean creation. Bean definitions
+	 * whose type cannot be reliably indexed (e.g. FactoryBeans, decorated definitions,
+	 * beans currently in creation) are always considered as candidates.
+	 * @param beanName the name of the bean definition
+	 * @param type the raw type to match
+	 */
+	private boolean isTypeIndexCandidate(String beanName, Class<?> type) {
+		Set<Class<?>> beanTypes = this.beanTypeIndex.get(beanName);
+		if (beanTypes == null) {
+			beanTypes = indexBeanType(beanName);
+		}
+		return (beanTypes == UNINDEXED_BEAN_TYPE || beanTypes.contains(type));
+	}
+
+	private Set<Class<?>> indexBeanType(String beanName) {
+		if (isSingletonCurrentlyInCreation(beanName)) {
+			return UNINDEXED_BEAN_TYPE;
+		}
+		Set<Class<?>> beanTypes = UNINDEXED_BEAN_TYPE;
+		Object beanInstance = getSingleton(beanName, false);
+		try {
+			if (beanInstance != null) {
+				if (!(beanInstance instanceof FactoryBean) && beanInstance.getClass() != NullBean.class) {
+					beanTypes = getBeanTypeHierarchy(beanInstance.getClass());
+				}
+			}
+			else {
+				RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+				if (!mbd.isAbstract() && mbd.getDecoratedDefinition() == null &&
+						(mbd.isSingleton() || hasStableTypePrediction(mbd)) &&
+						(mbd.hasBeanClass() || !mbd.isLazyInit() || isAllowEagerClassLoading()) &&
+						!requiresEagerInitForType(mbd.getFactoryBeanName()) && !isFactoryBean(beanName, mbd)) {
+					Class<?> predictedType = predictBeanType(beanName, mbd);
+					if (predictedType != null && !FactoryBean.class.isAssignableFrom(predictedType) &&
+							!predictedType.isArray() && !predictedType.isPrimitive()) {
+						beanTypes = getBeanTypeHierarchy(predictedType);
+					}
+				}
+			}
+		}
+		catch (BeansException ex) {
+			// Leave the bean definition unindexed: the full type check is going to deal with it.
+		}
+		this.beanTypeIndex.put(beanName, beanTypes);
+		// Singleton registered or removed in the meantime: its index reset may have
+		// happened before our put, so evict the entry derived from the previous state.
+		// (addSingleton/removeSingleton update the singleton cache before the index.)
+		if (getSingleton(beanName, false) != beanInstance && this.beanTypeIndex.remove(beanName, beanTypes)) {
+			clearCandidateBeanNames();
+		}
+		return beanTypes;
+	}
+
+	/**
+	 * Determine whether the predicted type of the given non-singleton bean definition
+	 * is going to remain the same once instances have been created: that is, whether
+	 * it is determined by the plain bean class, without factory methods, method
+	 * overrides or instantiation-aware post-processors potentially refining it.
+	 * <p>Singletons do not need such a check since their index entries are
+	 * reset once the singleton instance has been registered.
+	 */
+	private boolean hasStableTypePrediction(RootBeanDefinition mbd) {
+		return (mbd.getFactoryMethodName() == null && !mbd.hasMethodOverrides() &&
+				!hasInstantiationAwareBeanPostProcessors());
+	}
+
+	private Set<Class<?>> getBeanTypeHierarchy(Class<?> beanType) {
+		Set<Class<?>> hierarchy = this.beanTypeHierarchies.get(beanType);
+		if (hierarchy == null) {
+			Set<Class<?>> types = new HashSet<>();
+			collectTypeHierarchy(beanType, types);
+			hierarchy = Collections.unmodifiableSet(types);
+			this.beanTypeHierarchies.put(beanType, hierarchy);
+		}
+		return hierarchy;
+	}
+
+	private static void collectTypeHierarchy(@Nullable Class<?> type, Set<Class<?>> types) {
+		if (type != null && types.add(type)) {
+			collectTypeHierarchy(type.getSuperclass(), types);
+			for (Class<?> ifc : type.getInterfaces()) {
+				collectTypeHierarchy(ifc, types);
+			}
+		}
+	}
+
+	/**
+	 * Remove the bean type index entry for the given bean, e.g. in case of a
+	 * registered or removed singleton instance.
+	 */
+	private void resetBeanTypeIndex(String beanName) {
+		this.beanTypeIndex.remove(beanName);
+		clearCandidateBeanNames();
+	}
+
+	/**
+	 * Remove all bean type index entries, e.g. in case of changed type predictions.
+	 */
+	private void clearBeanTypeIndex() {
+		this.beanTypeIndex.clear();
+		this.beanTypeHierarchies.clear();
+		clearCandidateBeanNames();
+	}
+
+	/**
+	 * Remove all candidate bean names resolved per type, e.g. in case of
+	 * registered or removed bean definitions.
+	 */
+	private void clearCandidateBeanNames() {
+		this.beanTypeIndexVersion.incrementAndGet();
+		this.candidateBeanNamesByType.clear();
+	}
+
 	/**
 	 * Check whether the specified bean would need to be eagerly initialized
 	 * in order to determine its type.
@@ -819,6 +1013,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	public void clearMetadataCache() {
 		super.clearMetadataCache();
 		clearByTypeCache();
+		clearBeanTypeIndex();
 	}
 
 	@Override
@@ -969,6 +1164,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				removeManualSingletonName(beanName);
 			}
 			this.frozenBeanDefinitionNames = null;
+			clearCandidateBeanNames();
 		}
 
 		if (existingDefinition != null || containsSingleton(beanName)) {
@@ -1019,6 +1215,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	protected void resetBeanDefinition(String beanName) {
 		// Remove the merged bean definition for the given bean, if already created.
 		clearMergedBeanDefinition(beanName);
+		resetBeanTypeIndex(beanName);
 
 		// Remove corresponding bean from singleton cache, if any. Shouldn't usually
 		// be necessary, rather just meant for overriding a context's default beans
@@ -1065,6 +1262,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		super.destroySingletons();
 		updateManualSingletonNames(Set::clear, set -> !set.isEmpty());
 		clearByTypeCache();
+		clearBeanTypeIndex();
 	}
 
 	@Override
@@ -1074,6 +1272,18 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		clearByTypeCache();
 	}
 
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		super.addSingleton(beanName, singletonObject);
+		resetBeanTypeIndex(beanName);
+	}
+
+	@Override
+	protected void removeSingleton(String beanName) {
+		super.removeSingleton(beanName);
+		resetBeanTypeIndex(beanName);
+	}
+
 	private void removeManualSingletonName(String beanName) {
 		updateManualSingletonNames(set -> set.remove(beanName), set -> set.contains(beanName));
 	}
@@ -0,0 +1,406 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.xml;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.parsing.BeanComponentDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionReaderUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reads the bean definitions of a single XML document from a StAX event stream,
+ * mirroring {@link DefaultBeanDefinitionDocumentReader} without building a DOM
+ * for the document as a whole.
+ *
+ * <p>Each element below a {@code <beans>} element is read into a standalone DOM
+ * element for its own subtree, which is parsed by the regular
+ * {@link BeanDefinitionParserDelegate} and may be discarded right afterwards.
+ *
+ * <p>Reading happens in two phases: {@link #read} consumes the event stream and
+ * parses all {@code <bean>} elements which consist of "beans" namespace content
+ * only, recording the corresponding registration steps. {@link #register} then
+ * performs those steps against the registry, in document order. Since the first
+ * phase does not touch the registry, it may run on a different thread.
+ *
+ * <p>All other elements, i.e. those which involve custom namespaces as well as
+ * {@code <import>} and {@code <alias>} elements, are processed during the second
+ * phase like in {@link DefaultBeanDefinitionDocumentReader}, nested within a copy
+ * of the enclosing {@code <beans>} element.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see StaxXmlBeanDefinitionReader
+ */
+class StaxBeanDefinitionDocumentReader {
+
+	private static final Log logger = LogFactory.getLog(StaxBeanDefinitionDocumentReader.class);
+
+
+	private final XmlReaderContext readerContext;
+
+	private final boolean schemaDefaults;
+
+	private final List<Runnable> registrationSteps = new ArrayList<>();
+
+	@Nullable
+	private Document document;
+
+
+	/**
+	 * Create a new StaxBeanDefinitionDocumentReader.
+	 * @param readerContext the reader context for the document
+	 * @param schemaDefaults whether to apply attribute defaults from the
+	 * "spring-beans" XSD, i.e. whether the event stream is being validated
+	 */
+	StaxBeanDefinitionDocumentReader(XmlReaderContext readerContext, boolean schemaDefaults) {
+		this.readerContext = readerContext;
+		this.schemaDefaults = schemaDefaults;
+	}
+
+
+	/**
+	 * Read the document from the given event reader, parsing "beans" namespace
+	 * content right away and recording the registration steps for {@link #register}.
+	 */
+	void read(XMLEventReader eventReader) throws XMLStreamException {
+		while (eventReader.hasNext()) {
+			XMLEvent event = eventReader.nextEvent();
+			if (event.isStartElement()) {
+				StartElement root = event.asStartElement();
+				if (isDefaultNamespace(root.getName().getNamespaceURI())) {
+					readBeansElement(root, eventReader, null, null);
+				}
+				else {
+					Element rootElement = readElement(root, eventReader);
+					this.registrationSteps.add(() -> processCustomDocument(rootElement));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Perform the recorded registration steps, in document order.
+	 */
+	void register() {
+		for (Runnable step : this.registrationSteps) {
+			step.run();
+		}
+		this.registrationSteps.clear();
+	}
+
+
+	@SuppressWarnings("deprecation")  // for Environment.acceptsProfiles(String...)
+	private void readBeansElement(StartElement start, XMLEventReader eventReader,
+			@Nullable Element parent, @Nullable StaxBeanDefinitionParserDelegate parentDelegate)
+			throws XMLStreamException {
+
+		Element beansElement = createElement(start);
+		if (parent != null) {
+			inheritNamespaces(beansElement, parent);
+		}
+		StaxBeanDefinitionParserDelegate delegate =
+				new StaxBeanDefinitionParserDelegate(this.readerContext, this.schemaDefaults);
+		// Populate the defaults right away, deferring the corresponding event
+		delegate.populateDefaults(delegate.getDefaults(),
+				(parentDelegate != null ? parentDelegate.getDefaults() : null), beansElement);
+		this.registrationSteps.add(() -> this.readerContext.fireDefaultsRegistered(delegate.getDefaults()));
+
+		String profileSpec = beansElement.getAttribute(DefaultBeanDefinitionDocumentReader.PROFILE_ATTRIBUTE);
+		if (StringUtils.hasText(profileSpec)) {
+			String[] specifiedProfiles = StringUtils.tokenizeToStringArray(
+					profileSpec, BeanDefinitionParserDelegate.MULTI_VALUE_ATTRIBUTE_DELIMITERS);
+			// We cannot use Profiles.of(...) since profile expressions are not supported
+			// in XML config. See SPR-12458 for details.
+			if (!this.readerContext.getEnvironment().acceptsProfiles(specifiedProfiles)) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Skipped XML bean definition file due to specified profiles [" + profileSpec +
+							"] not matching: " + this.readerContext.getResource());
+				}
+				skipElement(eventReader);
+				return;
+			}
+		}
+
+		while (eventReader.hasNext()) {
+			XMLEvent event = eventReader.nextEvent();
+			if (event.isStartElement()) {
+				StartElement childStart = event.asStartElement();
+				if (isDefaultNamespace(childStart.getName().getNamespaceURI()) &&
+						DefaultBeanDefinitionDocumentReader.NESTED_BEANS_ELEMENT.equals(
+								childStart.getName().getLocalPart())) {
+					// recurse
+					readBeansElement(childStart, eventReader, beansElement, delegate);
+				}
+				else {
+					processElement(readElement(childStart, eventReader), beansElement, delegate);
+				}
+			}
+			else if (event.isEndElement()) {
+				break;
+			}
+		}
+	}
+
+	private void processElement(Element ele, Element beansElement, StaxBeanDefinitionParserDelegate delegate) {
+		if (delegate.nodeNameEquals(ele, DefaultBeanDefinitionDocumentReader.BEAN_ELEMENT) &&
+				isDefaultNamespaceOnly(ele)) {
+			BeanDefinitionHolder bdHolder = delegate.parseTopLevelBeanDefinitionElement(ele);
+			if (bdHolder != null) {
+				this.registrationSteps.add(() -> processBeanDefinition(ele, bdHolder, delegate));
+			}
+		}
+		else if (!isDefaultNamespace(ele.getNamespaceURI()) ||
+				delegate.nodeNameEquals(ele, DefaultBeanDefinitionDocumentReader.BEAN_ELEMENT) ||
+				delegate.nodeNameEquals(ele, DefaultBeanDefinitionDocumentReader.ALIAS_ELEMENT) ||
+				delegate.nodeNameEquals(ele, DefaultBeanDefinitionDocumentReader.IMPORT_ELEMENT)) {
+			this.registrationSteps.add(() -> processDomElement(ele, beansElement, delegate));
+		}
+	}
+
+	/**
+	 * Register the given parsed bean definition, generating a bean name if necessary.
+	 */
+	private void processBeanDefinition(
+			Element ele, BeanDefinitionHolder parsedHolder, StaxBeanDefinitionParserDelegate delegate) {
+
+		BeanDefinitionHolder bdHolder = delegate.generateBeanNameIfNecessary(parsedHolder, ele);
+		if (bdHolder != null) {
+			try {
+				BeanDefinitionReaderUtils.registerBeanDefinition(bdHolder, this.readerContext.getRegistry());
+			}
+			catch (BeanDefinitionStoreException ex) {
+				this.readerContext.error("Failed to register bean definition with name '" +
+						bdHolder.getBeanName() + "'", ele, ex);
+			}
+			// Send registration event.
+			this.readerContext.fireComponentRegistered(new BeanComponentDefinition(bdHolder));
+		}
+	}
+
+	/**
+	 * Process the given element through a DOM-based document reader, nested
+	 * within a copy of the enclosing {@code <beans>} element and sharing the
+	 * delegate for that {@code <beans>} element.
+	 */
+	private void processDomElement(Element ele, Element beansElement, StaxBeanDefinitionParserDelegate delegate) {
+		Element root = (Element) beansElement.cloneNode(false);
+		// The profile has been checked already
+		root.removeAttribute(DefaultBeanDefinitionDocumentReader.PROFILE_ATTRIBUTE);
+		root.appendChild(ele);
+		processDocument(root, new DomFallbackDocumentReader(delegate));
+	}
+
+	/**
+	 * Process a document with a root element in a custom namespace through
+	 * the reader's regular document reader.
+	 */
+	private void processCustomDocument(Element root) {
+		processDocument(root, this.readerContext.getReader().createBeanDefinitionDocumentReader());
+	}
+
+	private void processDocument(Element root, BeanDefinitionDocumentReader documentReader) {
+		Document doc = getDocument();
+		doc.appendChild(root);
+		try {
+			documentReader.registerBeanDefinitions(doc, this.readerContext);
+		}
+		finally {
+			doc.removeChild(root);
+		}
+	}
+
+
+	/**
+	 * Read the element that starts with the given event, including its complete
+	 * subtree, from the given event reader into a standalone DOM element.
+	 */
+	private Element readElement(StartElement start, XMLEventReader eventReader) throws XMLStreamException {
+		Element element = createElement(start);
+		while (eventReader.hasNext()) {
+			XMLEvent event = eventReader.nextEvent();
+			if (event.isStartElement()) {
+				element.appendChild(readElement(event.asStartElement(), eventReader));
+			}
+			else if (event.isCharacters()) {
+				element.appendChild(getDocument().createTextNode(event.asCharacters().getData()));
+			}
+			else if (event.isEndElement()) {
+				break;
+			}
+		}
+		return element;
+	}
+
+	private void skipElement(XMLEventReader eventReader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0 && eventReader.hasNext()) {
+			XMLEvent event = eventReader.nextEvent();
+			if (event.isStartElement()) {
+				depth++;
+			}
+			else if (event.isEndElement()) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * Create a DOM element for the given start element, with its attributes
+	 * and namespace declarations but without content.
+	 */
+	private Element createElement(StartElement start) {
+		QName name = start.getName();
+		Element element = getDocument().createElementNS(namespaceUri(name), qualifiedName(name));
+		for (Iterator<?> it = start.getNamespaces(); it.hasNext();) {
+			Namespace namespace = (Namespace) it.next();
+			String prefix = namespace.getPrefix();
+			element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, (StringUtils.hasLength(prefix) ?
+					XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix : XMLConstants.XMLNS_ATTRIBUTE),
+					namespace.getNamespaceURI());
+		}
+		for (Iterator<?> it = start.getAttributes(); it.hasNext();) {
+			Attribute attribute = (Attribute) it.next();
+			element.setAttributeNS(namespaceUri(attribute.getName()), qualifiedName(attribute.getName()),
+					attribute.getValue());
+		}
+		return element;
+	}
+
+	/**
+	 * Declare the namespaces in scope for the given parent element on the given
+	 * element as well, unless declared by the element itself.
+	 */
+	private void inheritNamespaces(Element element, Element parent) {
+		NamedNodeMap attributes = parent.getAttributes();
+		for (int i = 0; i < attributes.getLength(); i++) {
+			Attr attribute = (Attr) attributes.item(i);
+			if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attribute.getNamespaceURI()) &&
+					!element.hasAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attribute.getLocalName())) {
+				element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attribute.getName(), attribute.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Return whether the given element and its entire subtree consist of elements
+	 * and attributes of the default "beans" namespace only, not involving any
+	 * attribute decorators such as the p-namespace either.
+	 */
+	private boolean isDefaultNamespaceOnly(Element element) {
+		if (!isDefaultNamespace(element.getNamespaceURI())) {
+			return false;
+		}
+		NamedNodeMap attributes = element.getAttributes();
+		for (int i = 0; i < attributes.getLength(); i++) {
+			String namespaceUri = attributes.item(i).getNamespaceURI();
+			if (!isDefaultNamespace(namespaceUri) && !XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(namespaceUri)) {
+				return false;
+			}
+		}
+		NodeList children = element.getChildNodes();
+		for (int i = 0; i < children.getLength(); i++) {
+			Node child = children.item(i);
+			if (child instanceof Element && !isDefaultNamespaceOnly((Element) child)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return the document to create elements with, as a factory for standalone
+	 * elements and as a temporary container for DOM-based processing.
+	 */
+	private Document getDocument() {
+		if (this.document == null) {
+			try {
+				DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+				factory.setNamespaceAware(true);
+				this.document = factory.newDocumentBuilder().newDocument();
+			}
+			catch (ParserConfigurationException ex) {
+				throw new BeanDefinitionStoreException(this.readerContext.getResource().getDescription(),
+						"Parser configuration exception creating DOM for " + this.readerContext.getResource(), ex);
+			}
+		}
+		return this.document;
+	}
+
+	private static boolean isDefaultNamespace(@Nullable String namespaceUri) {
+		return (!StringUtils.hasLength(namespaceUri) ||
+				BeanDefinitionParserDelegate.BEANS_NAMESPACE_URI.equals(namespaceUri));
+	}
+
+	@Nullable
+	private static String namespaceUri(QName name) {
+		return (StringUtils.hasLength(name.getNamespaceURI()) ? name.getNamespaceURI() : null);
+	}
+
+	private static String qualifiedName(QName name) {
+		return (StringUtils.hasLength(name.getPrefix()) ? name.getPrefix() + ":" + name.getLocalPart() :
+				name.getLocalPart());
+	}
+
+
+	/**
+	 * DOM-based document reader which uses a given delegate for the root element
+	 * instead of creating a new one, keeping the default settings and the bean
+	 * names in use of the enclosing {@code <beans>} element.
+	 */
+	private static class DomFallbackDocumentReader extends DefaultBeanDefinitionDocumentReader {
+
+		private final StaxBeanDefinitionParserDelegate rootDelegate;
+
+		public DomFallbackDocumentReader(StaxBeanDefinitionParserDelegate rootDelegate) {
+			this.rootDelegate = rootDelegate;
+		}
+
+		@Override
+		protected BeanDefinitionParserDelegate createDelegate(
+				XmlReaderContext readerContext, Element root, @Nullable BeanDefinitionParserDelegate parentDelegate) {
+
+			return this.rootDelegate;
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.xml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.w3c.dom.Element;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Extension of {@link BeanDefinitionParserDelegate} for elements read from a
+ * StAX event stream into standalone DOM elements, one instance being used per
+ * {@code <beans>} element nesting level.
+ *
+ * <p>Allows for parsing top-level {@code <bean>} elements without access to
+ * the registry, deferring the generation of bean names until registration,
+ * and applies the attribute defaults of the "spring-beans" XSD which a
+ * validated DOM would contain.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see StaxBeanDefinitionDocumentReader
+ */
+class StaxBeanDefinitionParserDelegate extends BeanDefinitionParserDelegate {
+
+	private static final String DEFAULT_QUALIFIER_TYPE = Qualifier.class.getName();
+
+
+	private final boolean schemaDefaults;
+
+
+	/**
+	 * Create a new StaxBeanDefinitionParserDelegate.
+	 * @param readerContext the XML reader context
+	 * @param schemaDefaults whether to apply attribute defaults from the
+	 * "spring-beans" XSD, as happens in case of a validated DOM
+	 */
+	StaxBeanDefinitionParserDelegate(XmlReaderContext readerContext, boolean schemaDefaults) {
+		super(readerContext);
+		this.schemaDefaults = schemaDefaults;
+	}
+
+
+	/**
+	 * Parses the supplied top-level {@code <bean>} element. May return {@code null}
+	 * if there were errors during parse.
+	 * <p>In contrast to {@link #parseBeanDefinitionElement(Element)}, no name is
+	 * generated for a bean without id and name since this requires access to the
+	 * registry: see {@link #generateBeanNameIfNecessary}.
+	 */
+	@Nullable
+	BeanDefinitionHolder parseTopLevelBeanDefinitionElement(Element ele) {
+		String id = ele.getAttribute(ID_ATTRIBUTE);
+		String nameAttr = ele.getAttribute(NAME_ATTRIBUTE);
+
+		List<String> aliases = new ArrayList<>();
+		if (StringUtils.hasLength(nameAttr)) {
+			String[] nameArr = StringUtils.tokenizeToStringArray(nameAttr, MULTI_VALUE_ATTRIBUTE_DELIMITERS);
+			aliases.addAll(Arrays.asList(nameArr));
+		}
+
+		String beanName = id;
+		if (!StringUtils.hasText(beanName) && !aliases.isEmpty()) {
+			beanName = aliases.remove(0);
+		}
+		checkNameUniqueness(beanName, aliases, ele);
+
+		AbstractBeanDefinition beanDefinition = parseBeanDefinitionElement(ele, beanName, null);
+		return (beanDefinition != null ?
+				new BeanDefinitionHolder(beanDefinition, beanName, StringUtils.toStringArray(aliases)) : null);
+	}
+
+	/**
+	 * Generate a bean name for the given top-level bean definition if it does
+	 * not specify an id or name, as {@link #parseBeanDefinitionElement(Element)}
+	 * does. To be called right before registration of the bean definition.
+	 * @return the holder with a bean name, or {@code null} in case of errors
+	 */
+	@Nullable
+	BeanDefinitionHolder generateBeanNameIfNecessary(BeanDefinitionHolder bdHolder, Element ele) {
+		if (StringUtils.hasText(bdHolder.getBeanName())) {
+			return bdHolder;
+		}
+		BeanDefinition beanDefinition = bdHolder.getBeanDefinition();
+		List<String> aliases = new ArrayList<>();
+		if (bdHolder.getAliases() != null) {
+			aliases.addAll(Arrays.asList(bdHolder.getAliases()));
+		}
+		String beanName;
+		try {
+			beanName = getReaderContext().generateBeanName(beanDefinition);
+			// Register an alias for the plain bean class name, if still possible,
+			// if the generator returned the class name plus a suffix.
+			// This is expected for Spring 1.2/2.0 backwards compatibility.
+			String beanClassName = beanDefinition.getBeanClassName();
+			if (beanClassName != null &&
+					beanName.startsWith(beanClassName) && beanName.length() > beanClassName.length() &&
+					!getReaderContext().getRegistry().isBeanNameInUse(beanClassName)) {
+				aliases.add(beanClassName);
+			}
+		}
+		catch (Exception ex) {
+			error(ex.getMessage(), ele);
+			return null;
+		}
+		return new BeanDefinitionHolder(beanDefinition, beanName, StringUtils.toStringArray(aliases));
+	}
+
+	/**
+	 * Applies the XSD default for the qualifier type, since the element has been
+	 * read from a validated event stream rather than from a validated DOM.
+	 */
+	@Override
+	public void parseQualifierElement(Element ele, AbstractBeanDefinition bd) {
+		if (this.schemaDefaults && !ele.hasAttribute(TYPE_ATTRIBUTE)) {
+			ele.setAttribute(TYPE_ATTRIBUTE, DEFAULT_QUALIFIER_TYPE);
+		}
+		super.parseQualifierElement(ele, bd);
+	}
+
+}
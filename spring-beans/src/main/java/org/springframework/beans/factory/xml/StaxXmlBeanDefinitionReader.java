@@ -0,0 +1,579 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.EndElement;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.util.EventReaderDelegate;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.ValidatorHandler;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.ls.DOMImplementationLS;
+import org.w3c.dom.ls.LSInput;
+import org.w3c.dom.ls.LSResourceResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.util.xml.SimpleSaxErrorHandler;
+import org.springframework.util.xml.StaxUtils;
+
+/**
+ * Variant of {@link XmlBeanDefinitionReader} which reads XML bean definition
+ * files with StAX in a single pass, instead of loading each file into a full DOM.
+ *
+ * <p>Each element below a {@code <beans>} element is read from the event stream
+ * into a standalone DOM element for its own subtree and parsed by the regular
+ * {@link BeanDefinitionParserDelegate}, with elements which involve custom
+ * namespaces (including attribute decorators such as the "p" namespace) being
+ * processed by the corresponding {@link NamespaceHandler} as usual. Documents with a DTD,
+ * as well as any custom {@link #setDocumentReaderClass document reader class},
+ * are processed through the regular DOM-based arrangement.
+ *
+ * <p>XSD validation is performed on the event stream, with each distinct
+ * combination of schema locations compiled once per reader instance and
+ * reused across files. Note that the StAX parser is always namespace aware.
+ *
+ * <p>Independent files may be parsed in parallel through a
+ * {@link #setTaskExecutor task executor}, with the bean definitions
+ * still getting registered in the order of the given resources.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see StaxBeanDefinitionDocumentReader
+ */
+public class StaxXmlBeanDefinitionReader extends XmlBeanDefinitionReader {
+
+	private static final QName SCHEMA_LOCATION_ATTRIBUTE =
+			new QName(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "schemaLocation");
+
+
+	private final XMLInputFactory inputFactory = StaxUtils.createDefensiveInputFactory();
+
+	private final SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+
+	private final Map<String, Schema> schemaCache = new ConcurrentHashMap<>(8);
+
+	private final Map<Resource, CompletableFuture<ParsedResource>> pendingResources = new ConcurrentHashMap<>(8);
+
+	private ErrorHandler errorHandler = new SimpleSaxErrorHandler(logger);
+
+	private boolean customDocumentReader = false;
+
+	@Nullable
+	private Executor taskExecutor;
+
+	@Nullable
+	private volatile DOMImplementationLS domImplementation;
+
+
+	/**
+	 * Create new StaxXmlBeanDefinitionReader for the given bean factory.
+	 * @param registry the BeanFactory to load bean definitions into,
+	 * in the form of a BeanDefinitionRegistry
+	 */
+	public StaxXmlBeanDefinitionReader(BeanDefinitionRegistry registry) {
+		super(registry);
+		this.schemaFactory.setResourceResolver(new EntityResolverResourceResolver());
+	}
+
+
+	/**
+	 * Set a task executor for parsing several resources in parallel, as passed
+	 * to {@link #loadBeanDefinitions(Resource...)} and
+	 * {@link #loadBeanDefinitions(String...)}. Registration of the parsed bean
+	 * definitions still happens on the calling thread, in resource order.
+	 * <p>Default is none, parsing each resource on the calling thread.
+	 * <p>Note that a custom {@link #setProblemReporter ProblemReporter} and
+	 * {@link #setErrorHandler ErrorHandler} need to be thread-safe when
+	 * parsing in parallel.
+	 */
+	public void setTaskExecutor(@Nullable Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	@Override
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		super.setErrorHandler(errorHandler);
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Any document reader class other than {@link DefaultBeanDefinitionDocumentReader}
+	 * switches this reader to DOM-based processing for all documents.
+	 */
+	@Override
+	public void setDocumentReaderClass(Class<? extends BeanDefinitionDocumentReader> documentReaderClass) {
+		super.setDocumentReaderClass(documentReaderClass);
+		this.customDocumentReader = (documentReaderClass != DefaultBeanDefinitionDocumentReader.class);
+	}
+
+
+	@Override
+	public int loadBeanDefinitions(String... locations) throws BeanDefinitionStoreException {
+		ResourceLoader resourceLoader = getResourceLoader();
+		if (this.taskExecutor == null || locations.length < 2 || resourceLoader == null) {
+			return super.loadBeanDefinitions(locations);
+		}
+
+		List<Resource> resources = new ArrayList<>(locations.length);
+		for (String location : locations) {
+			if (resourceLoader instanceof ResourcePatternResolver) {
+				try {
+					Collections.addAll(resources, ((ResourcePatternResolver) resourceLoader).getResources(location));
+				}
+				catch (IOException ex) {
+					throw new BeanDefinitionStoreException(
+							"Could not resolve bean definition resource pattern [" + location + "]", ex);
+				}
+			}
+			else {
+				resources.add(resourceLoader.getResource(location));
+			}
+		}
+		return loadBeanDefinitions(resources.toArray(new Resource[0]));
+	}
+
+	@Override
+	public int loadBeanDefinitions(Resource... resources) throws BeanDefinitionStoreException {
+		Assert.notNull(resources, "Resource array must not be null");
+		Executor executor = this.taskExecutor;
+		if (executor == null || resources.length < 2) {
+			return super.loadBeanDefinitions(resources);
+		}
+
+		// Initialize lazily created state before handing out work to other threads
+		getNamespaceHandlerResolver();
+		getEntityResolver();
+		for (Resource resource : resources) {
+			this.pendingResources.computeIfAbsent(resource, key ->
+					CompletableFuture.supplyAsync(() -> parse(key), executor));
+		}
+		try {
+			// Registers the bean definitions in resource order, through doLoadBeanDefinitions
+			return super.loadBeanDefinitions(resources);
+		}
+		finally {
+			for (Resource resource : resources) {
+				this.pendingResources.remove(resource);
+			}
+		}
+	}
+
+	/**
+	 * Actually load bean definitions from the specified XML file,
+	 * using a result from parallel parsing if available.
+	 * @see #parse(InputSource, Resource)
+	 */
+	@Override
+	protected int doLoadBeanDefinitions(InputSource inputSource, Resource resource)
+			throws BeanDefinitionStoreException {
+
+		CompletableFuture<ParsedResource> pending = this.pendingResources.remove(resource);
+		ParsedResource parsedResource;
+		if (pending != null) {
+			try {
+				parsedResource = pending.join();
+			}
+			catch (CompletionException ex) {
+				throw translateException(ex.getCause(), resource);
+			}
+		}
+		else {
+			try {
+				parsedResource = parse(inputSource, resource);
+			}
+			catch (Throwable ex) {
+				throw translateException(ex, resource);
+			}
+		}
+
+		int count = parsedResource.register();
+		if (logger.isDebugEnabled()) {
+			logger.debug("Loaded " + count + " bean definitions from " + resource);
+		}
+		return count;
+	}
+
+	private ParsedResource parse(Resource resource) {
+		try (InputStream inputStream = resource.getInputStream()) {
+			return parse(new InputSource(inputStream), resource);
+		}
+		catch (Throwable ex) {
+			throw translateException(ex, resource);
+		}
+	}
+
+	/**
+	 * Parse the specified XML file, without registering any bean definitions yet.
+	 * @param inputSource the SAX InputSource to read from
+	 * @param resource the resource descriptor for the XML file
+	 * @return the parsed resource, ready for registration
+	 */
+	private ParsedResource parse(InputSource inputSource, Resource resource) throws Exception {
+		int validationMode = getValidationModeForResource(resource);
+		if (validationMode == VALIDATION_DTD || this.customDocumentReader) {
+			Document doc = doLoadDocument(inputSource, resource);
+			return () -> registerBeanDefinitions(doc, resource);
+		}
+
+		XMLEventReader eventReader = createEventReader(inputSource);
+		try {
+			boolean validating = (validationMode != VALIDATION_NONE);
+			if (validating) {
+				eventReader = new ValidatingEventReader(eventReader);
+			}
+			StaxBeanDefinitionDocumentReader documentReader =
+					new StaxBeanDefinitionDocumentReader(createReaderContext(resource), validating);
+			documentReader.read(eventReader);
+			return () -> {
+				int countBefore = getRegistry().getBeanDefinitionCount();
+				documentReader.register();
+				return getRegistry().getBeanDefinitionCount() - countBefore;
+			};
+		}
+		catch (XMLStreamException ex) {
+			if (ex.getNestedException() instanceof SAXException) {
+				throw (SAXException) ex.getNestedException();
+			}
+			Location location = ex.getLocation();
+			if (location != null) {
+				throw new SAXParseException(ex.getMessage(), location.getPublicId(), location.getSystemId(),
+						location.getLineNumber(), location.getColumnNumber(), ex);
+			}
+			throw new SAXException(ex.getMessage(), ex);
+		}
+		finally {
+			eventReader.close();
+		}
+	}
+
+	private XMLEventReader createEventReader(InputSource inputSource) throws XMLStreamException {
+		synchronized (this.inputFactory) {
+			if (inputSource.getByteStream() != null && inputSource.getEncoding() != null) {
+				return this.inputFactory.createXMLEventReader(inputSource.getByteStream(), inputSource.getEncoding());
+			}
+			else if (inputSource.getByteStream() != null) {
+				return this.inputFactory.createXMLEventReader(
+						new StreamSource(inputSource.getByteStream(), inputSource.getSystemId()));
+			}
+			else if (inputSource.getCharacterStream() != null) {
+				return this.inputFactory.createXMLEventReader(
+						new StreamSource(inputSource.getCharacterStream(), inputSource.getSystemId()));
+			}
+			else {
+				return this.inputFactory.createXMLEventReader(new StreamSource(inputSource.getSystemId()));
+			}
+		}
+	}
+
+	private BeanDefinitionStoreException translateException(Throwable ex, Resource resource) {
+		if (ex instanceof BeanDefinitionStoreException) {
+			return (BeanDefinitionStoreException) ex;
+		}
+		else if (ex instanceof SAXParseException) {
+			return new XmlBeanDefinitionStoreException(resource.getDescription(),
+					"Line " + ((SAXParseException) ex).getLineNumber() + " in XML document from " +
+					resource + " is invalid", (SAXParseException) ex);
+		}
+		else if (ex instanceof SAXException) {
+			return new XmlBeanDefinitionStoreException(resource.getDescription(),
+					"XML document from " + resource + " is invalid", (SAXException) ex);
+		}
+		else if (ex instanceof ParserConfigurationException) {
+			return new BeanDefinitionStoreException(resource.getDescription(),
+					"Parser configuration exception parsing XML from " + resource, ex);
+		}
+		else if (ex instanceof IOException) {
+			return new BeanDefinitionStoreException(resource.getDescription(),
+					"IOException parsing XML document from " + resource, ex);
+		}
+		else {
+			return new BeanDefinitionStoreException(resource.getDescription(),
+					"Unexpected exception parsing XML document from " + resource, ex);
+		}
+	}
+
+	/**
+	 * Return the compiled schema for the given root element, as determined by its
+	 * {@code xsi:schemaLocation} attribute, compiling it on first access.
+	 */
+	private Schema getSchema(StartElement root) throws SAXException {
+		Attribute schemaLocationAttribute = root.getAttributeByName(SCHEMA_LOCATION_ATTRIBUTE);
+		String schemaLocation = (schemaLocationAttribute != null ? schemaLocationAttribute.getValue().trim() : "");
+		Schema schema = this.schemaCache.get(schemaLocation);
+		if (schema == null) {
+			schema = createSchema(schemaLocation);
+			Schema existing = this.schemaCache.putIfAbsent(schemaLocation, schema);
+			if (existing != null) {
+				schema = existing;
+			}
+		}
+		return schema;
+	}
+
+	private Schema createSchema(String schemaLocation) throws SAXException {
+		String[] tokens = StringUtils.tokenizeToStringArray(schemaLocation, " \t\r\n");
+		List<Source> sources = new ArrayList<>(tokens.length / 2);
+		for (int i = 1; i < tokens.length; i += 2) {
+			String systemId = tokens[i];
+			InputSource inputSource = resolveEntity(null, systemId);
+			if (inputSource == null) {
+				sources.add(new StreamSource(systemId));
+			}
+			else if (inputSource.getByteStream() != null) {
+				sources.add(new StreamSource(inputSource.getByteStream(), systemId));
+			}
+			else {
+				sources.add(new StreamSource(inputSource.getCharacterStream(), systemId));
+			}
+		}
+		synchronized (this.schemaFactory) {
+			// Without explicit locations, rely on hints within the document
+			return (!sources.isEmpty() ? this.schemaFactory.newSchema(sources.toArray(new Source[0])) :
+					this.schemaFactory.newSchema());
+		}
+	}
+
+	@Nullable
+	private InputSource resolveEntity(@Nullable String publicId, String systemId) throws SAXException {
+		try {
+			return getEntityResolver().resolveEntity(publicId, systemId);
+		}
+		catch (IOException ex) {
+			throw new SAXException("Failed to resolve XML schema [" + systemId + "]", ex);
+		}
+	}
+
+	private DOMImplementationLS getDomImplementation() throws SAXException {
+		DOMImplementationLS domImplementation = this.domImplementation;
+		if (domImplementation == null) {
+			try {
+				domImplementation = (DOMImplementationLS)
+						DocumentBuilderFactory.newInstance().newDocumentBuilder().getDOMImplementation();
+				this.domImplementation = domImplementation;
+			}
+			catch (ParserConfigurationException ex) {
+				throw new SAXException(ex);
+			}
+		}
+		return domImplementation;
+	}
+
+
+	/**
+	 * A resource that has been parsed but not registered yet.
+	 */
+	@FunctionalInterface
+	private interface ParsedResource {
+
+		/**
+		 * Register the parsed bean definitions.
+		 * @return the number of bean definitions found
+		 */
+		int register();
+	}
+
+
+	/**
+	 * Resolves XML schemas imported by other schemas through the reader's
+	 * {@link org.xml.sax.EntityResolver}, falling back to regular resolution.
+	 */
+	private class EntityResolverResourceResolver implements LSResourceResolver {
+
+		@Override
+		@Nullable
+		public LSInput resolveResource(String type, String namespaceURI, String publicId,
+				@Nullable String systemId, @Nullable String baseURI) {
+
+			if (systemId == null) {
+				return null;
+			}
+			try {
+				String location = systemId;
+				if (baseURI != null && !URI.create(systemId).isAbsolute()) {
+					location = URI.create(baseURI).resolve(systemId).toString();
+				}
+				InputSource inputSource = resolveEntity(publicId, location);
+				if (inputSource == null) {
+					return null;
+				}
+				LSInput input = getDomImplementation().createLSInput();
+				input.setByteStream(inputSource.getByteStream());
+				input.setCharacterStream(inputSource.getCharacterStream());
+				input.setEncoding(inputSource.getEncoding());
+				input.setPublicId(publicId);
+				input.setSystemId(location);
+				return input;
+			}
+			catch (SAXException | IllegalArgumentException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Could not resolve XML schema [" + systemId + "]: " + ex);
+				}
+				return null;
+			}
+		}
+	}
+
+
+	/**
+	 * Event reader which validates the events it passes on against the
+	 * document's XML schema, through a {@link ValidatorHandler}.
+	 */
+	private class ValidatingEventReader extends EventReaderDelegate implements Locator {
+
+		@Nullable
+		private ValidatorHandler validatorHandler;
+
+		@Nullable
+		private Location location;
+
+		private int depth;
+
+		public ValidatingEventReader(XMLEventReader eventReader) {
+			super(eventReader);
+		}
+
+		@Override
+		public XMLEvent nextEvent() throws XMLStreamException {
+			XMLEvent event = super.nextEvent();
+			this.location = event.getLocation();
+			try {
+				validate(event);
+			}
+			catch (SAXException ex) {
+				throw new XMLStreamException(ex.getMessage(), this.location, ex);
+			}
+			return event;
+		}
+
+		private void validate(XMLEvent event) throws SAXException {
+			ValidatorHandler handler = this.validatorHandler;
+			if (event.isStartElement()) {
+				StartElement startElement = event.asStartElement();
+				if (handler == null) {
+					handler = getSchema(startElement).newValidatorHandler();
+					handler.setErrorHandler(errorHandler);
+					handler.setResourceResolver(schemaFactory.getResourceResolver());
+					handler.setDocumentLocator(this);
+					handler.startDocument();
+					this.validatorHandler = handler;
+				}
+				for (Iterator<?> it = startElement.getNamespaces(); it.hasNext();) {
+					Namespace namespace = (Namespace) it.next();
+					handler.startPrefixMapping(namespace.getPrefix(), namespace.getNamespaceURI());
+				}
+				AttributesImpl attributes = new AttributesImpl();
+				for (Iterator<?> it = startElement.getAttributes(); it.hasNext();) {
+					Attribute attribute = (Attribute) it.next();
+					QName name = attribute.getName();
+					attributes.addAttribute(name.getNamespaceURI(), name.getLocalPart(), qualifiedName(name),
+							"CDATA", attribute.getValue());
+				}
+				QName name = startElement.getName();
+				handler.startElement(name.getNamespaceURI(), name.getLocalPart(), qualifiedName(name), attributes);
+				this.depth++;
+			}
+			else if (handler != null && this.depth > 0) {
+				if (event.isCharacters()) {
+					char[] ch = event.asCharacters().getData().toCharArray();
+					handler.characters(ch, 0, ch.length);
+				}
+				else if (event.isEndElement()) {
+					EndElement endElement = event.asEndElement();
+					QName name = endElement.getName();
+					handler.endElement(name.getNamespaceURI(), name.getLocalPart(), qualifiedName(name));
+					for (Iterator<?> it = endElement.getNamespaces(); it.hasNext();) {
+						handler.endPrefixMapping(((Namespace) it.next()).getPrefix());
+					}
+					this.depth--;
+					if (this.depth == 0) {
+						handler.endDocument();
+					}
+				}
+			}
+		}
+
+		private String qualifiedName(QName name) {
+			return (StringUtils.hasLength(name.getPrefix()) ? name.getPrefix() + ":" + name.getLocalPart() :
+					name.getLocalPart());
+		}
+
+		@Override
+		@Nullable
+		public String getPublicId() {
+			return (this.location != null ? this.location.getPublicId() : null);
+		}
+
+		@Override
+		@Nullable
+		public String getSystemId() {
+			return (this.location != null ? this.location.getSystemId() : null);
+		}
+
+		@Override
+		public int getLineNumber() {
+			return (this.location != null ? this.location.getLineNumber() : -1);
+		}
+
+		@Override
+		public int getColumnNumber() {
+			return (this.location != null ? this.location.getColumnNumber() : -1);
+		}
+	}
+
+}
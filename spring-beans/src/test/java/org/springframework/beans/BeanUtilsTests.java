@@ -34,6 +34,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.propertyeditors.CustomDateEditor;
+import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceEditor;
 import org.springframework.lang.Nullable;
@@ -225,6 +226,48 @@ class BeanUtilsTests {
 		assertThat(target.getFlag2()).isTrue();
 	}
 
+	@Test
+	void testCopyPropertiesWithDifferentIgnoresInSequence() {
+		TestBean tb = new TestBean("rod", 32);
+		TestBean tb2 = new TestBean();
+		BeanUtils.copyProperties(tb, tb2, "age", "touchy");
+		assertThat(tb2.getName()).isEqualTo("rod");
+		assertThat(tb2.getAge()).isEqualTo(0);
+
+		TestBean tb3 = new TestBean();
+		BeanUtils.copyProperties(tb, tb3, "name", "touchy");
+		assertThat(tb3.getName()).isNull();
+		assertThat(tb3.getAge()).isEqualTo(32);
+	}
+
+	@Test
+	void testCopyPropertiesWithConversionService() {
+		StringAgeBean source = new StringAgeBean();
+		source.setName("rod");
+		source.setAge("32");
+		TestBean target = new TestBean();
+		BeanUtils.copyProperties(source, target);
+		assertThat(target.getName()).isEqualTo("rod");
+		assertThat(target.getAge()).isEqualTo(0);
+
+		BeanUtils.copyProperties(source, target, new DefaultConversionService());
+		assertThat(target.getAge()).isEqualTo(32);
+
+		StringAgeBean back = new StringAgeBean();
+		BeanUtils.copyProperties(target, back, new DefaultConversionService(), "name");
+		assertThat(back.getName()).isNull();
+		assertThat(back.getAge()).isEqualTo("32");
+	}
+
+	@Test
+	void testCopyPropertiesWithNullForPrimitive() {
+		NullableAgeBean source = new NullableAgeBean();
+		TestBean target = new TestBean();
+		assertThatExceptionOfType(FatalBeanException.class).isThrownBy(() ->
+				BeanUtils.copyProperties(source, target))
+			.withMessageContaining("'age'");
+	}
+
 	@Test
 	void testResolveSimpleSignature() throws Exception {
 		Method desiredMethod = MethodSignatureBean.class.getMethod("doSomething");
@@ -332,6 +375,38 @@ class BeanUtilsTests {
 	}
 
 
+	public static class StringAgeBean {
+
+		private String name;
+
+		private String age;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getAge() {
+			return this.age;
+		}
+
+		public void setAge(String age) {
+			this.age = age;
+		}
+	}
+
+
+	public static class NullableAgeBean {
+
+		public Integer getAge() {
+			return null;
+		}
+	}
+
+
 	@SuppressWarnings("unused")
 	private static class NameAndSpecialProperty {
 
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.tests.sample.beans.IndexedTestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Runs the {@link BeanWrapperTests} suite against a {@link BeanWrapperImpl}
+ * with {@link BeanWrapperImpl#setOptimizedAccess optimized access}, plus
+ * specific tests for generated accessors and cached property paths.
+ */
+public class OptimizedBeanWrapperTests extends BeanWrapperTests {
+
+	@Override
+	protected BeanWrapperImpl createAccessor(Object target) {
+		BeanWrapperImpl accessor = super.createAccessor(target);
+		accessor.setOptimizedAccess(true);
+		return accessor;
+	}
+
+
+	@Test
+	public void generatedAccessorsForPublicMethods() throws Exception {
+		Method getter = TestBean.class.getMethod("getAge");
+		Method setter = TestBean.class.getMethod("setAge", int.class);
+		TestBean target = new TestBean();
+
+		GeneratedPropertyAccessors.getSetter(setter).accept(target, 42);
+		assertThat(GeneratedPropertyAccessors.getGetter(getter).apply(target)).isEqualTo(42);
+		assertThat(GeneratedPropertyAccessors.isAcceptableValue(setter, 42)).isTrue();
+		assertThat(GeneratedPropertyAccessors.isAcceptableValue(setter, null)).isFalse();
+		assertThat(GeneratedPropertyAccessors.isAcceptableValue(setter, "42")).isFalse();
+	}
+
+	@Test
+	public void noGeneratedAccessorsForNonPublicClass() throws Exception {
+		Method getter = NonPublicBean.class.getMethod("getName");
+		assertThat(GeneratedPropertyAccessors.getGetter(getter)).isNull();
+
+		BeanWrapperImpl accessor = createAccessor(new NonPublicBean());
+		accessor.setPropertyValue("name", "tom");
+		assertThat(accessor.getPropertyValue("name")).isEqualTo("tom");
+	}
+
+	@Test
+	public void exceptionFromGeneratedSetterIsWrapped() {
+		BeanWrapperImpl accessor = createAccessor(new ThrowingBean());
+		assertThatExceptionOfType(MethodInvocationException.class).isThrownBy(() ->
+				accessor.setPropertyValue("name", "tom"))
+			.withCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void cachedPropertyPathsAreNotShared() {
+		IndexedTestBean target = new IndexedTestBean();
+		BeanWrapperImpl accessor = createAccessor(target);
+		for (int i = 0; i < 2; i++) {
+			accessor.setPropertyValue("map[key1].name", "name" + i);
+			accessor.setPropertyValue("array[0].name", "array" + i);
+			assertThat(accessor.getPropertyValue("map[key1].name")).isEqualTo("name" + i);
+			assertThat(accessor.getPropertyValue("array[0].name")).isEqualTo("array" + i);
+			assertThat(accessor.getPropertyValue("map['key1'].name")).isEqualTo("name" + i);
+		}
+	}
+
+	@Test
+	public void cachedPropertyPathsAreBounded() {
+		BeanWrapperImpl accessor = createAccessor(new TestBean());
+		for (int i = 0; i < 5000; i++) {
+			assertThat(accessor.isReadableProperty("unknown" + i)).isFalse();
+		}
+		assertThat(AbstractNestablePropertyAccessor.getPropertyNameTokensCacheSize())
+				.isLessThanOrEqualTo(AbstractNestablePropertyAccessor.PROPERTY_NAME_TOKENS_CACHE_LIMIT);
+	}
+
+	@Test
+	public void nestedAccessorsInheritOptimizedAccess() {
+		TestBean target = new TestBean();
+		target.setSpouse(new TestBean());
+		BeanWrapperImpl accessor = createAccessor(target);
+		accessor.setPropertyValue("spouse.name", "kerry");
+		assertThat(accessor.getPropertyValue("spouse.name")).isEqualTo("kerry");
+		assertThat(((BeanWrapperImpl) accessor.getPropertyAccessorForPropertyPath("spouse.name"))
+				.isOptimizedAccess()).isTrue();
+	}
+
+
+	static class NonPublicBean {
+
+		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+
+	public static class ThrowingBean {
+
+		public String getName() {
+			return null;
+		}
+
+		public void setName(String name) {
+			throw new IllegalStateException(name);
+		}
+	}
+
+}
@@ -472,6 +472,95 @@ class DefaultListableBeanFactoryTests {
 		assertThat(lbf.getAliases("&x2")[0]).isEqualTo("&x1");
 	}
 
+	@Test
+	void getBeanNamesForTypeWithBeanTypeIndex() {
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).containsExactly("tb");
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("nested");
+		assertThat(lbf.getBeanNamesForType(Object.class)).containsExactly("tb", "nested");
+
+		lbf.registerBeanDefinition("derived", new RootBeanDefinition(DerivedTestBean.class));
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).containsExactly("tb", "derived");
+		assertThat(lbf.getBeanNamesForType(Serializable.class)).containsExactly("derived");
+
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(NestedTestBean.class));
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).containsExactly("derived");
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("tb", "nested");
+
+		lbf.removeBeanDefinition("derived");
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).isEmpty();
+	}
+
+	@Test
+	void getBeanNamesForTypeWithBeanTypeIndexAndSingletonCreation() {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBeanFactory.class);
+		bd.setFactoryMethodName("createTestBeanAsObject");
+		lbf.registerBeanDefinition("tb", bd);
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).isEmpty();
+		assertThat(lbf.getBeanNamesForType(Object.class)).containsExactly("tb");
+
+		lbf.getBean("tb");
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("tb");
+		assertThat(lbf.getBeansOfType(ITestBean.class)).containsOnlyKeys("tb");
+	}
+
+	@Test
+	void getBeanNamesForTypeWithBeanTypeIndexAndPrototypeCreation() {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBeanFactory.class);
+		bd.setFactoryMethodName("createTestBeanAsObject");
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		lbf.registerBeanDefinition("tb", bd);
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).isEmpty();
+
+		lbf.getBean("tb");
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("tb");
+	}
+
+	@Test
+	void getBeanNamesForTypeWithBeanTypeIndexAndGenerics() {
+		lbf.registerBeanDefinition("stringCallable", new RootBeanDefinition(StringCallable.class));
+		lbf.registerBeanDefinition("integerCallable", new RootBeanDefinition(IntegerCallable.class));
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		assertThat(lbf.getBeanNamesForType(Callable.class)).containsExactly("stringCallable", "integerCallable");
+		assertThat(lbf.getBeanNamesForType(ResolvableType.forClassWithGenerics(Callable.class, String.class)))
+				.containsExactly("stringCallable");
+		assertThat(lbf.getBeanNamesForType(ResolvableType.forClassWithGenerics(Callable.class, Integer.class)))
+				.containsExactly("integerCallable");
+	}
+
+	@Test
+	void getBeanNamesForTypeWithBeanTypeIndexAndFactoryBeans() {
+		lbf.registerBeanDefinition("factory", new RootBeanDefinition(DummyFactory.class));
+		lbf.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		lbf.registerSingleton("manual", new TestBean());
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("factory", "manual");
+		assertThat(lbf.getBeanNamesForType(DummyFactory.class)).containsExactly("&factory");
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("nested");
+
+		lbf.getBean("factory");
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("factory", "manual");
+	}
+
+	@Test
+	void getBeanNamesForTypeWithBeanTypeIndexAndChangedTypePrediction() {
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("tb");
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).isEmpty();
+
+		lbf.addBeanPostProcessor(new InstantiationAwareBeanPostProcessorAdapter() {
+			@Override
+			public Class<?> predictBeanType(Class<?> beanClass, String beanName) {
+				return NestedTestBean.class;
+			}
+		});
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("tb");
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).isEmpty();
+
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(TestBean.class));
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("tb", "tb2");
+	}
+
 	@Test
 	void empty() {
 		ListableBeanFactory lbf = new DefaultListableBeanFactory();
@@ -3156,6 +3245,10 @@ class DefaultListableBeanFactoryTests {
 			return new TestBean();
 		}
 
+		public static Object createTestBeanAsObject() {
+			return new TestBean();
+		}
+
 		public TestBean createTestBeanNonStatic() {
 			return new TestBean();
 		}
@@ -3382,6 +3475,24 @@ class DefaultListableBeanFactoryTests {
 	}
 
 
+	public static class StringCallable implements Callable<String> {
+
+		@Override
+		public String call() {
+			return "value";
+		}
+	}
+
+
+	public static class IntegerCallable implements Callable<Integer> {
+
+		@Override
+		public Integer call() {
+			return 42;
+		}
+	}
+
+
 	static class NonPublicEnumHolder {
 
 		final NonPublicEnum nonPublicEnum;
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.xml;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.xml.sax.SAXParseException;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.parsing.BeanDefinitionParsingException;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.tests.beans.CollectingReaderEventListener;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for {@link StaxXmlBeanDefinitionReader}, comparing its results
+ * with the ones of the DOM-based {@link XmlBeanDefinitionReader}.
+ */
+public class StaxXmlBeanDefinitionReaderTests {
+
+	@ParameterizedTest
+	@ValueSource(strings = {"collections.xml", "collectionMerging.xml", "collectionsWithDefaultTypes.xml",
+			"beanNameGeneration.xml", "defaultLifecycleMethods.xml", "withMeta.xml", "schemaValidated.xml",
+			"NestedBeansElementTests-context.xml", "NestedBeansElementAttributeRecursionTests-autowire-context.xml",
+			"NestedBeansElementAttributeRecursionTests-lazy-context.xml",
+			"NestedBeansElementAttributeRecursionTests-merge-context.xml",
+			"testUtilNamespace.xml", "simplePropertyNamespaceHandlerTests.xml", "beanEvents.xml"})
+	public void sameBeanDefinitionsAsDomReader(String resourceName) {
+		Resource resource = new ClassPathResource(resourceName, getClass());
+		DefaultListableBeanFactory domFactory = new DefaultListableBeanFactory();
+		new XmlBeanDefinitionReader(domFactory).loadBeanDefinitions(resource);
+		DefaultListableBeanFactory staxFactory = new DefaultListableBeanFactory();
+		new StaxXmlBeanDefinitionReader(staxFactory).loadBeanDefinitions(resource);
+
+		assertThat(staxFactory.getBeanDefinitionNames()).containsExactly(domFactory.getBeanDefinitionNames());
+		for (String beanName : domFactory.getBeanDefinitionNames()) {
+			assertThat(staxFactory.getAliases(beanName)).containsExactlyInAnyOrder(domFactory.getAliases(beanName));
+			assertEquivalent(staxFactory.getBeanDefinition(beanName), domFactory.getBeanDefinition(beanName));
+		}
+	}
+
+	@Test
+	public void sameEventsAsDomReader() {
+		Resource resource = new ClassPathResource("testUtilNamespace.xml", getClass());
+		CollectingReaderEventListener domListener = new CollectingReaderEventListener();
+		XmlBeanDefinitionReader domReader = new XmlBeanDefinitionReader(new DefaultListableBeanFactory());
+		domReader.setEventListener(domListener);
+		domReader.loadBeanDefinitions(resource);
+		CollectingReaderEventListener staxListener = new CollectingReaderEventListener();
+		XmlBeanDefinitionReader staxReader = new StaxXmlBeanDefinitionReader(new DefaultListableBeanFactory());
+		staxReader.setEventListener(staxListener);
+		staxReader.loadBeanDefinitions(resource);
+
+		assertThat(componentNames(staxListener)).containsExactlyElementsOf(componentNames(domListener));
+		assertThat(staxListener.getDefaults()).hasSameSizeAs(domListener.getDefaults());
+	}
+
+	@Test
+	public void beansWithCustomNamespaces() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		new StaxXmlBeanDefinitionReader(beanFactory).loadBeanDefinitions(
+				new ClassPathResource("simplePropertyNamespaceHandlerTests.xml", getClass()));
+
+		TestBean rob = beanFactory.getBean("rob", TestBean.class);
+		assertThat(rob.getName()).isEqualTo("Rob Harrop");
+		assertThat(rob.getSpouse()).isSameAs(beanFactory.getBean("sally"));
+	}
+
+	@Test
+	public void beansWithProfiles() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		StaxXmlBeanDefinitionReader reader = new StaxXmlBeanDefinitionReader(beanFactory);
+		StandardEnvironment environment = new StandardEnvironment();
+		reader.setEnvironment(environment);
+		reader.loadBeanDefinitions(new ClassPathResource("ProfileXmlBeanDefinitionTests-devProfile.xml", getClass()));
+		assertThat(beanFactory.containsBeanDefinition("foo")).isFalse();
+
+		environment.setActiveProfiles("dev");
+		reader.loadBeanDefinitions(new ClassPathResource("ProfileXmlBeanDefinitionTests-devProfile.xml", getClass()));
+		assertThat(beanFactory.containsBeanDefinition("foo")).isTrue();
+	}
+
+	@Test
+	public void invalidPerSchema() {
+		StaxXmlBeanDefinitionReader reader = new StaxXmlBeanDefinitionReader(new DefaultListableBeanFactory());
+		assertThatExceptionOfType(BeanDefinitionStoreException.class).isThrownBy(() ->
+				reader.loadBeanDefinitions(new ClassPathResource("invalidPerSchema.xml", getClass())))
+			.withCauseInstanceOf(SAXParseException.class)
+			.withMessageContaining("Line ");
+	}
+
+	@Test
+	public void duplicateBeanNames() {
+		StaxXmlBeanDefinitionReader reader = new StaxXmlBeanDefinitionReader(new DefaultListableBeanFactory());
+		assertThatExceptionOfType(BeanDefinitionParsingException.class).isThrownBy(() ->
+				reader.loadBeanDefinitions(new ClassPathResource("DuplicateBeanIdTests-sameLevel-context.xml", getClass())))
+			.withMessageContaining("Bean name 'testBean' is already used in this <beans> element");
+	}
+
+	@Test
+	public void parallelParsing() {
+		Resource[] resources = {new ClassPathResource("collections.xml", getClass()),
+				new ClassPathResource("testUtilNamespace.xml", getClass()),
+				new ClassPathResource("beanNameGeneration.xml", getClass())};
+		DefaultListableBeanFactory domFactory = new DefaultListableBeanFactory();
+		new XmlBeanDefinitionReader(domFactory).loadBeanDefinitions(resources);
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			DefaultListableBeanFactory staxFactory = new DefaultListableBeanFactory();
+			StaxXmlBeanDefinitionReader reader = new StaxXmlBeanDefinitionReader(staxFactory);
+			reader.setTaskExecutor(executor);
+			assertThat(reader.loadBeanDefinitions(resources)).isEqualTo(domFactory.getBeanDefinitionCount());
+			assertThat(staxFactory.getBeanDefinitionNames()).containsExactly(domFactory.getBeanDefinitionNames());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void parallelParsingWithInvalidResource() {
+		Resource[] resources = {new ClassPathResource("collections.xml", getClass()),
+				new ClassPathResource("invalidPerSchema.xml", getClass())};
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+			StaxXmlBeanDefinitionReader reader = new StaxXmlBeanDefinitionReader(beanFactory);
+			reader.setTaskExecutor(executor);
+			assertThatExceptionOfType(BeanDefinitionStoreException.class).isThrownBy(() ->
+					reader.loadBeanDefinitions(resources))
+				.withCauseInstanceOf(SAXParseException.class);
+			assertThat(beanFactory.containsBeanDefinition("jenny")).isTrue();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+
+	private static List<String> componentNames(CollectingReaderEventListener listener) {
+		return Arrays.stream(listener.getComponentDefinitions()).map(cd -> cd.getName().replaceAll("#.*", "#"))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Compare the given values, disregarding the generated names of inner beans.
+	 */
+	private static void assertEquivalent(Object actual, Object expected) {
+		if (expected instanceof BeanDefinitionHolder) {
+			assertThat(actual).isInstanceOf(BeanDefinitionHolder.class);
+			BeanDefinitionHolder actualHolder = (BeanDefinitionHolder) actual;
+			BeanDefinitionHolder expectedHolder = (BeanDefinitionHolder) expected;
+			assertThat(actualHolder.getBeanName().replaceAll("#.*", "#"))
+					.isEqualTo(expectedHolder.getBeanName().replaceAll("#.*", "#"));
+			assertEquivalent(actualHolder.getBeanDefinition(), expectedHolder.getBeanDefinition());
+		}
+		else if (expected instanceof AbstractBeanDefinition) {
+			assertThat(actual).isInstanceOf(AbstractBeanDefinition.class);
+			AbstractBeanDefinition actualBd = (AbstractBeanDefinition) actual;
+			AbstractBeanDefinition expectedBd = (AbstractBeanDefinition) expected;
+			assertThat(actualBd.getBeanClassName()).isEqualTo(expectedBd.getBeanClassName());
+			assertThat(actualBd.getParentName()).isEqualTo(expectedBd.getParentName());
+			assertThat(actualBd.getScope()).isEqualTo(expectedBd.getScope());
+			assertThat(actualBd.isAbstract()).isEqualTo(expectedBd.isAbstract());
+			assertThat(actualBd.isLazyInit()).isEqualTo(expectedBd.isLazyInit());
+			assertThat(actualBd.getAutowireMode()).isEqualTo(expectedBd.getAutowireMode());
+			assertThat(actualBd.getDependsOn()).isEqualTo(expectedBd.getDependsOn());
+			assertThat(actualBd.isAutowireCandidate()).isEqualTo(expectedBd.isAutowireCandidate());
+			assertThat(actualBd.isPrimary()).isEqualTo(expectedBd.isPrimary());
+			assertThat(actualBd.getQualifiers()).isEqualTo(expectedBd.getQualifiers());
+			assertThat(actualBd.getInitMethodName()).isEqualTo(expectedBd.getInitMethodName());
+			assertThat(actualBd.isEnforceInitMethod()).isEqualTo(expectedBd.isEnforceInitMethod());
+			assertThat(actualBd.getDestroyMethodName()).isEqualTo(expectedBd.getDestroyMethodName());
+			assertThat(actualBd.isEnforceDestroyMethod()).isEqualTo(expectedBd.isEnforceDestroyMethod());
+			assertThat(actualBd.getFactoryBeanName()).isEqualTo(expectedBd.getFactoryBeanName());
+			assertThat(actualBd.getFactoryMethodName()).isEqualTo(expectedBd.getFactoryMethodName());
+			assertThat(actualBd.getMethodOverrides()).isEqualTo(expectedBd.getMethodOverrides());
+			assertThat(actualBd.getDescription()).isEqualTo(expectedBd.getDescription());
+			assertThat(Arrays.asList(actualBd.attributeNames()))
+					.containsExactlyInAnyOrder(expectedBd.attributeNames());
+			List<PropertyValue> actualPvs = actualBd.getPropertyValues().getPropertyValueList();
+			List<PropertyValue> expectedPvs = expectedBd.getPropertyValues().getPropertyValueList();
+			assertThat(actualPvs).hasSameSizeAs(expectedPvs);
+			for (int i = 0; i < expectedPvs.size(); i++) {
+				assertThat(actualPvs.get(i).getName()).isEqualTo(expectedPvs.get(i).getName());
+				assertEquivalent(actualPvs.get(i).getValue(), expectedPvs.get(i).getValue());
+			}
+			assertEquivalent(actualBd.getConstructorArgumentValues(), expectedBd.getConstructorArgumentValues());
+		}
+		else if (expected instanceof ConstructorArgumentValues) {
+			ConstructorArgumentValues actualArgs = (ConstructorArgumentValues) actual;
+			ConstructorArgumentValues expectedArgs = (ConstructorArgumentValues) expected;
+			assertThat(actualArgs.getIndexedArgumentValues().keySet())
+					.isEqualTo(expectedArgs.getIndexedArgumentValues().keySet());
+			expectedArgs.getIndexedArgumentValues().forEach((index, holder) ->
+					assertEquivalent(actualArgs.getIndexedArgumentValues().get(index), holder));
+			assertThat(actualArgs.getGenericArgumentValues()).hasSameSizeAs(expectedArgs.getGenericArgumentValues());
+			for (int i = 0; i < expectedArgs.getGenericArgumentValues().size(); i++) {
+				assertEquivalent(actualArgs.getGenericArgumentValues().get(i),
+						expectedArgs.getGenericArgumentValues().get(i));
+			}
+		}
+		else if (expected instanceof ConstructorArgumentValues.ValueHolder) {
+			ConstructorArgumentValues.ValueHolder actualHolder = (ConstructorArgumentValues.ValueHolder) actual;
+			ConstructorArgumentValues.ValueHolder expectedHolder = (ConstructorArgumentValues.ValueHolder) expected;
+			assertThat(actualHolder.getType()).isEqualTo(expectedHolder.getType());
+			assertThat(actualHolder.getName()).isEqualTo(expectedHolder.getName());
+			assertEquivalent(actualHolder.getValue(), expectedHolder.getValue());
+		}
+		else if (expected instanceof Map) {
+			assertThat(actual).isInstanceOf(expected.getClass());
+			assertEquivalent(((Map<?, ?>) actual).entrySet(), ((Map<?, ?>) expected).entrySet());
+		}
+		else if (expected instanceof Map.Entry) {
+			assertEquivalent(((Map.Entry<?, ?>) actual).getKey(), ((Map.Entry<?, ?>) expected).getKey());
+			assertEquivalent(((Map.Entry<?, ?>) actual).getValue(), ((Map.Entry<?, ?>) expected).getValue());
+		}
+		else if (expected instanceof Collection) {
+			assertThat(actual).isInstanceOf(Collection.class);
+			assertThat((Collection<?>) actual).hasSameSizeAs((Collection<?>) expected);
+			Iterator<?> actualIt = ((Collection<?>) actual).iterator();
+			for (Object expectedElement : (Collection<?>) expected) {
+				assertEquivalent(actualIt.next(), expectedElement);
+			}
+		}
+		else {
+			assertThat(actual).isEqualTo(expected);
+		}
+	}
+
+}
@@ -16,9 +16,15 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 
 import org.springframework.cache.support.AbstractValueAdaptingCache;
@@ -29,7 +35,12 @@ import org.springframework.util.Assert;
  * Spring {@link org.springframework.cache.Cache} adapter implementation
  * on top of a Caffeine {@link com.github.benmanes.caffeine.cache.Cache} instance.
  *
- * <p>Requires Caffeine 2.1 or higher.
+ * <p>May also be backed by a Caffeine {@link AsyncCache}, in which case
+ * {@link #retrieve(Object)} and {@link #retrieve(Object, Supplier)} operate
+ * on the native asynchronous cache, with concurrent loads for the same key
+ * being coalesced, and all other operations on its synchronous view.
+ *
+ * <p>Requires Caffeine 2.1 or higher, and 2.7 or higher for {@link AsyncCache}.
  *
  * @author Ben Manes
  * @author Juergen Hoeller
@@ -42,6 +53,9 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 
 	private final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache;
 
+	@Nullable
+	private final AsyncCache<Object, Object> asyncCache;
+
 
 	/**
 	 * Create a {@link CaffeineCache} instance with the specified name and the
@@ -69,6 +83,25 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		Assert.notNull(cache, "Cache must not be null");
 		this.name = name;
 		this.cache = cache;
+		this.asyncCache = null;
+	}
+
+	/**
+	 * Create a {@link CaffeineCache} instance with the specified name and the
+	 * given internal {@link AsyncCache} to use.
+	 * @param name the name of the cache
+	 * @param cache the backing Caffeine AsyncCache instance
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 * @since 5.3
+	 */
+	public CaffeineCache(String name, AsyncCache<Object, Object> cache, boolean allowNullValues) {
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.notNull(cache, "Cache must not be null");
+		this.name = name;
+		this.cache = cache.synchronous();
+		this.asyncCache = cache;
 	}
 
 
@@ -82,6 +115,16 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		return this.cache;
 	}
 
+	/**
+	 * Return the backing Caffeine {@link AsyncCache}, if any.
+	 * @since 5.3
+	 * @see #getNativeCache()
+	 */
+	@Nullable
+	public final AsyncCache<Object, Object> getAsyncCache() {
+		return this.asyncCache;
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper get(Object key) {
@@ -99,6 +142,26 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		return (T) fromStoreValue(this.cache.get(key, new LoadFunction(valueLoader)));
 	}
 
+	@Override
+	@Nullable
+	public CompletableFuture<ValueWrapper> retrieve(Object key) {
+		if (this.asyncCache == null) {
+			return super.retrieve(key);
+		}
+		CompletableFuture<Object> result = this.asyncCache.getIfPresent(key);
+		return (result != null ? result.thenApply(this::toValueWrapper) : null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		if (this.asyncCache == null) {
+			return super.retrieve(key, valueLoader);
+		}
+		return (CompletableFuture<T>) this.asyncCache.get(key,
+				(k, executor) -> valueLoader.get().thenApply(this::toStoreValue)).thenApply(this::fromStoreValue);
+	}
+
 	@Override
 	@Nullable
 	protected Object lookup(Object key) {
@@ -110,6 +173,29 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		this.cache.put(key, toStoreValue(value));
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, Object> storeEntries = (this.cache instanceof LoadingCache ?
+				((LoadingCache<Object, Object>) this.cache).getAll((Collection<Object>) keys) :
+				this.cache.getAllPresent(keys));
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(storeEntries.size());
+		for (Object key : keys) {
+			Object storeValue = storeEntries.get(key);
+			if (storeValue != null) {
+				result.put(key, toValueWrapper(storeValue));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		Map<Object, Object> storeEntries = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeEntries.put(key, toStoreValue(value)));
+		this.cache.putAll(storeEntries);
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable final Object value) {
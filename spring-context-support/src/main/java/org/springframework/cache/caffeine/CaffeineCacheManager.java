@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.CaffeineSpec;
@@ -45,7 +46,12 @@ import org.springframework.util.ObjectUtils;
  * A {@link CaffeineSpec}-compliant expression value can also be applied
  * via the {@link #setCacheSpecification "cacheSpecification"} bean property.
  *
- * <p>Requires Caffeine 2.1 or higher.
+ * <p>Supports an {@link #setAsyncCacheMode "asyncCacheMode"} as well, building
+ * Caffeine {@link AsyncCache} instances for non-blocking retrieval through
+ * {@link Cache#retrieve(Object)}, as used by {@code @Cacheable} methods
+ * with {@code CompletableFuture} or reactive return types.
+ *
+ * <p>Requires Caffeine 2.1 or higher, and 2.7 or higher for async cache mode.
  *
  * @author Ben Manes
  * @author Juergen Hoeller
@@ -66,6 +72,8 @@ public class CaffeineCacheManager implements CacheManager {
 
 	private boolean allowNullValues = true;
 
+	private boolean asyncCacheMode = false;
+
 
 	/**
 	 * Construct a dynamic CaffeineCacheManager,
@@ -148,6 +156,34 @@ public class CaffeineCacheManager implements CacheManager {
 		}
 	}
 
+	/**
+	 * Set the common cache type that this cache manager builds to async.
+	 * This applies to {@link #setCacheNames} as well as on-demand caches.
+	 * <p>Individual cache registrations keep the full {@link Cache} contract,
+	 * with synchronous operations going through the synchronous view of the
+	 * native {@link AsyncCache}, and {@link Cache#retrieve(Object)} as well as
+	 * {@link Cache#retrieve(Object, java.util.function.Supplier)} operating on
+	 * the {@link AsyncCache} itself, coalescing concurrent loads for a key.
+	 * <p>Default is "false": building regular Caffeine caches.
+	 * @since 5.3
+	 * @see Caffeine#buildAsync()
+	 * @see #createNativeCaffeineAsyncCache
+	 */
+	public void setAsyncCacheMode(boolean asyncCacheMode) {
+		if (this.asyncCacheMode != asyncCacheMode) {
+			this.asyncCacheMode = asyncCacheMode;
+			refreshKnownCaches();
+		}
+	}
+
+	/**
+	 * Return whether this cache manager builds async caches.
+	 * @since 5.3
+	 */
+	public boolean isAsyncCacheMode() {
+		return this.asyncCacheMode;
+	}
+
 	/**
 	 * Specify whether to accept and convert {@code null} values for all caches
 	 * in this cache manager.
@@ -197,6 +233,9 @@ public class CaffeineCacheManager implements CacheManager {
 	 * @return the Spring CaffeineCache adapter (or a decorator thereof)
 	 */
 	protected Cache createCaffeineCache(String name) {
+		if (isAsyncCacheMode()) {
+			return new CaffeineCache(name, createNativeCaffeineAsyncCache(name), isAllowNullValues());
+		}
 		return new CaffeineCache(name, createNativeCaffeineCache(name), isAllowNullValues());
 	}
 
@@ -214,6 +253,22 @@ public class CaffeineCacheManager implements CacheManager {
 		}
 	}
 
+	/**
+	 * Create a native Caffeine AsyncCache instance for the specified cache name.
+	 * @param name the name of the cache
+	 * @return the native Caffeine AsyncCache instance
+	 * @since 5.3
+	 * @see #setAsyncCacheMode
+	 */
+	protected AsyncCache<Object, Object> createNativeCaffeineAsyncCache(String name) {
+		if (this.cacheLoader != null) {
+			return this.cacheBuilder.buildAsync(this.cacheLoader);
+		}
+		else {
+			return this.cacheBuilder.buildAsync();
+		}
+	}
+
 	private void doSetCaffeine(Caffeine<Object, Object> cacheBuilder) {
 		if (!ObjectUtils.nullSafeEquals(this.cacheBuilder, cacheBuilder)) {
 			this.cacheBuilder = cacheBuilder;
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.io.Serializable;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Event signalling that an entry, or all entries, of a cache have been
+ * modified on some node, so that other nodes need to drop their local copies.
+ *
+ * <p>Serializable so that it can be sent over remote transports, as long as
+ * the cache key is serializable as well.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see CacheInvalidationTransport
+ */
+@SuppressWarnings("serial")
+public final class CacheInvalidationEvent implements Serializable {
+
+	private final String sourceId;
+
+	private final String cacheName;
+
+	@Nullable
+	private final Object key;
+
+
+	/**
+	 * Create a new {@code CacheInvalidationEvent}.
+	 * @param sourceId the identifier of the node that the modification happened on
+	 * @param cacheName the name of the affected cache
+	 * @param key the key of the affected entry, or {@code null} for all entries
+	 */
+	public CacheInvalidationEvent(String sourceId, String cacheName, @Nullable Object key) {
+		Assert.notNull(sourceId, "Source id must not be null");
+		Assert.notNull(cacheName, "Cache name must not be null");
+		this.sourceId = sourceId;
+		this.cacheName = cacheName;
+		this.key = key;
+	}
+
+
+	/**
+	 * Return the identifier of the node that the modification happened on.
+	 */
+	public String getSourceId() {
+		return this.sourceId;
+	}
+
+	/**
+	 * Return the name of the affected cache.
+	 */
+	public String getCacheName() {
+		return this.cacheName;
+	}
+
+	/**
+	 * Return the key of the affected entry, or {@code null} if all entries
+	 * of the cache are affected.
+	 */
+	@Nullable
+	public Object getKey() {
+		return this.key;
+	}
+
+	/**
+	 * Return whether all entries of the cache are affected.
+	 */
+	public boolean isAllEntries() {
+		return (this.key == null);
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof CacheInvalidationEvent)) {
+			return false;
+		}
+		CacheInvalidationEvent otherEvent = (CacheInvalidationEvent) other;
+		return (this.sourceId.equals(otherEvent.sourceId) && this.cacheName.equals(otherEvent.cacheName) &&
+				ObjectUtils.nullSafeEquals(this.key, otherEvent.key));
+	}
+
+	@Override
+	public int hashCode() {
+		return (this.sourceId.hashCode() * 31 + this.cacheName.hashCode()) * 31 + ObjectUtils.nullSafeHashCode(this.key);
+	}
+
+	@Override
+	public String toString() {
+		return "CacheInvalidationEvent: source '" + this.sourceId + "', cache '" + this.cacheName + "', " +
+				(this.key != null ? "key [" + this.key + "]" : "all entries");
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.function.Consumer;
+
+/**
+ * Strategy for delivering {@link CacheInvalidationEvent CacheInvalidationEvents}
+ * between the nodes of a cluster, e.g. on top of a message broker or the
+ * publish/subscribe facility of the shared cache store.
+ *
+ * <p>Implementations are expected to deliver each published event to the
+ * subscribers on all nodes, possibly including the publishing node itself.
+ * Delivery may be asynchronous; subscribers ignore events that originate
+ * from their own node.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see LoopbackCacheInvalidationTransport
+ * @see TieredCacheManager#setInvalidationTransport
+ */
+public interface CacheInvalidationTransport {
+
+	/**
+	 * Publish the given event to the subscribers on all nodes.
+	 * @param event the event to publish
+	 */
+	void publish(CacheInvalidationEvent event);
+
+	/**
+	 * Register the given subscriber for events published on any node.
+	 * @param subscriber the callback to deliver events to
+	 */
+	void subscribe(Consumer<CacheInvalidationEvent> subscriber);
+
+	/**
+	 * Remove the given subscriber, if registered.
+	 * @param subscriber the callback to remove
+	 */
+	void unsubscribe(Consumer<CacheInvalidationEvent> subscriber);
+
+}
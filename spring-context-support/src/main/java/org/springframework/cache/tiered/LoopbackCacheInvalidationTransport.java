@@ -0,0 +1,58 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheInvalidationTransport} that delivers events synchronously
+ * to the subscribers within the same JVM, which is useful for testing
+ * several {@link TieredCacheManager} instances standing in for the nodes
+ * of a cluster.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ */
+public class LoopbackCacheInvalidationTransport implements CacheInvalidationTransport {
+
+	private final List<Consumer<CacheInvalidationEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+
+	@Override
+	public void publish(CacheInvalidationEvent event) {
+		Assert.notNull(event, "Event must not be null");
+		for (Consumer<CacheInvalidationEvent> subscriber : this.subscribers) {
+			subscriber.accept(event);
+		}
+	}
+
+	@Override
+	public void subscribe(Consumer<CacheInvalidationEvent> subscriber) {
+		Assert.notNull(subscriber, "Subscriber must not be null");
+		this.subscribers.add(subscriber);
+	}
+
+	@Override
+	public void unsubscribe(Consumer<CacheInvalidationEvent> subscriber) {
+		this.subscribers.remove(subscriber);
+	}
+
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Cache} that layers a local cache over a shared cache, reading through
+ * the local tier to the shared tier and writing through to both.
+ *
+ * <p>Values found in the shared tier are copied into the local tier. All
+ * modifications go to the shared tier first and are then published as a
+ * {@link CacheInvalidationEvent} through the configured transport, so that
+ * other nodes drop their local copies of the affected entries.
+ *
+ * <p>A value copied from the shared tier is dropped from the local tier
+ * again if an invalidation for its key was received while it was being
+ * read, since it may have been outdated by then.
+ *
+ * <p>Typically obtained from a {@link TieredCacheManager}; the local tier
+ * needs to accept {@code null} values if the shared tier does.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see TieredCacheManager
+ */
+public class TieredCache implements Cache {
+
+	private static final int INVALIDATION_STRIPES = 256;
+
+
+	private final Cache localCache;
+
+	private final Cache sharedCache;
+
+	@Nullable
+	private final CacheInvalidationTransport invalidationTransport;
+
+	private final String sourceId;
+
+	private final TieredCacheStatistics statistics = new TieredCacheStatistics();
+
+	// Invalidation counters per stripe of keys, and for all keys, for detecting
+	// invalidations while copying a value from the shared tier to the local tier
+	private final AtomicLongArray keyInvalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+	private final AtomicLong invalidations = new AtomicLong();
+
+
+	/**
+	 * Create a new {@code TieredCache} without invalidation across nodes.
+	 * @param localCache the local tier
+	 * @param sharedCache the shared tier
+	 */
+	public TieredCache(Cache localCache, Cache sharedCache) {
+		this(localCache, sharedCache, null, "local");
+	}
+
+	/**
+	 * Create a new {@code TieredCache}.
+	 * @param localCache the local tier
+	 * @param sharedCache the shared tier
+	 * @param invalidationTransport the transport to publish invalidations through
+	 * (or {@code null} for no invalidation across nodes)
+	 * @param sourceId the identifier of this node, as exposed in published events
+	 */
+	public TieredCache(Cache localCache, Cache sharedCache,
+			@Nullable CacheInvalidationTransport invalidationTransport, String sourceId) {
+
+		Assert.notNull(localCache, "Local Cache must not be null");
+		Assert.notNull(sharedCache, "Shared Cache must not be null");
+		Assert.notNull(sourceId, "Source id must not be null");
+		this.localCache = localCache;
+		this.sharedCache = sharedCache;
+		this.invalidationTransport = invalidationTransport;
+		this.sourceId = sourceId;
+	}
+
+
+	/**
+	 * Return the local tier of this cache.
+	 */
+	public Cache getLocalCache() {
+		return this.localCache;
+	}
+
+	/**
+	 * Return the shared tier of this cache.
+	 */
+	public Cache getSharedCache() {
+		return this.sharedCache;
+	}
+
+	/**
+	 * Return the hit and miss statistics of this cache.
+	 */
+	public TieredCacheStatistics getStatistics() {
+		return this.statistics;
+	}
+
+	@Override
+	public String getName() {
+		return this.sharedCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.sharedCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper localValue = this.localCache.get(key);
+		if (localValue != null) {
+			this.statistics.recordLocalHits(1);
+			return localValue;
+		}
+		this.statistics.recordLocalMisses(1);
+		long version = getInvalidationVersion(key);
+		ValueWrapper sharedValue = this.sharedCache.get(key);
+		if (sharedValue != null) {
+			this.statistics.recordSharedHits(1);
+			putLocal(key, sharedValue.get(), version);
+		}
+		else {
+			this.statistics.recordSharedMisses(1);
+		}
+		return sharedValue;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper localValue = this.localCache.get(key);
+		if (localValue != null) {
+			this.statistics.recordLocalHits(1);
+			return (T) localValue.get();
+		}
+		this.statistics.recordLocalMisses(1);
+		long version = getInvalidationVersion(key);
+		boolean[] loaded = new boolean[1];
+		T value = this.sharedCache.get(key, () -> {
+			loaded[0] = true;
+			return valueLoader.call();
+		});
+		if (loaded[0]) {
+			this.statistics.recordSharedMisses(1);
+		}
+		else {
+			this.statistics.recordSharedHits(1);
+		}
+		putLocal(key, value, version);
+		return value;
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> localValues = this.localCache.getAll(keys);
+		this.statistics.recordLocalHits(localValues.size());
+		if (localValues.size() == keys.size()) {
+			return localValues;
+		}
+		List<Object> missingKeys = new ArrayList<>(keys.size() - localValues.size());
+		for (Object key : keys) {
+			if (!localValues.containsKey(key)) {
+				missingKeys.add(key);
+			}
+		}
+		this.statistics.recordLocalMisses(missingKeys.size());
+		long[] versions = new long[missingKeys.size()];
+		for (int i = 0; i < versions.length; i++) {
+			versions[i] = getInvalidationVersion(missingKeys.get(i));
+		}
+		Map<Object, ValueWrapper> sharedValues = this.sharedCache.getAll(missingKeys);
+		this.statistics.recordSharedHits(sharedValues.size());
+		this.statistics.recordSharedMisses(missingKeys.size() - sharedValues.size());
+		if (!sharedValues.isEmpty()) {
+			Map<Object, Object> localEntries = new LinkedHashMap<>(sharedValues.size());
+			sharedValues.forEach((key, value) -> localEntries.put(key, value.get()));
+			this.localCache.putAll(localEntries);
+			for (int i = 0; i < versions.length; i++) {
+				Object key = missingKeys.get(i);
+				if (localEntries.containsKey(key) && getInvalidationVersion(key) != versions[i]) {
+					this.localCache.evictIfPresent(key);
+				}
+			}
+		}
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(localValues.size() + sharedValues.size());
+		for (Object key : keys) {
+			ValueWrapper value = localValues.get(key);
+			if (value == null) {
+				value = sharedValues.get(key);
+			}
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.sharedCache.put(key, value);
+		publishInvalidation(key);
+		this.localCache.put(key, value);
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		this.sharedCache.putAll(entries);
+		for (Object key : entries.keySet()) {
+			publishInvalidation(key);
+		}
+		this.localCache.putAll(entries);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		long version = getInvalidationVersion(key);
+		ValueWrapper existingValue = this.sharedCache.putIfAbsent(key, value);
+		if (existingValue != null) {
+			putLocal(key, existingValue.get(), version);
+		}
+		else {
+			publishInvalidation(key);
+			this.localCache.put(key, value);
+		}
+		return existingValue;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.sharedCache.evict(key);
+		publishInvalidation(key);
+		this.localCache.evict(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean present = this.sharedCache.evictIfPresent(key);
+		publishInvalidation(key);
+		return (this.localCache.evictIfPresent(key) || present);
+	}
+
+	@Override
+	public void clear() {
+		this.sharedCache.clear();
+		publishInvalidation(null);
+		this.localCache.clear();
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean notEmpty = this.sharedCache.invalidate();
+		publishInvalidation(null);
+		return (this.localCache.invalidate() || notEmpty);
+	}
+
+	/**
+	 * Drop the local copies of the entries affected by the given event
+	 * received from another node.
+	 * @param event the event received
+	 */
+	public void invalidateLocal(CacheInvalidationEvent event) {
+		this.statistics.recordInvalidationReceived();
+		Object key = event.getKey();
+		incrementInvalidationVersion(key);
+		if (key != null) {
+			this.localCache.evictIfPresent(key);
+		}
+		else {
+			this.localCache.invalidate();
+		}
+	}
+
+	/**
+	 * Copy the given value read from the shared tier to the local tier,
+	 * dropping it again if the key has been invalidated in the meantime.
+	 * @param key the key
+	 * @param value the value read from the shared tier
+	 * @param version the invalidation version of the key before the read
+	 * @see #getInvalidationVersion
+	 */
+	private void putLocal(Object key, @Nullable Object value, long version) {
+		this.localCache.put(key, value);
+		// Invalidations increment the version before evicting: either they evict our
+		// value, or we see the incremented version here and evict it ourselves.
+		if (getInvalidationVersion(key) != version) {
+			this.localCache.evictIfPresent(key);
+		}
+	}
+
+	private void incrementInvalidationVersion(@Nullable Object key) {
+		if (key != null) {
+			this.keyInvalidations.incrementAndGet(getInvalidationStripe(key));
+		}
+		else {
+			this.invalidations.incrementAndGet();
+		}
+	}
+
+	private long getInvalidationVersion(Object key) {
+		return this.invalidations.get() + this.keyInvalidations.get(getInvalidationStripe(key));
+	}
+
+	private static int getInvalidationStripe(Object key) {
+		int hash = key.hashCode();
+		return (hash ^ (hash >>> 16)) & (INVALIDATION_STRIPES - 1);
+	}
+
+	private void publishInvalidation(@Nullable Object key) {
+		// Concurrent copies from the shared tier may be outdated by our modification
+		incrementInvalidationVersion(key);
+		if (this.invalidationTransport != null) {
+			this.invalidationTransport.publish(new CacheInvalidationEvent(this.sourceId, getName(), key));
+			this.statistics.recordInvalidationSent();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TieredCache '" + getName() + "': " + this.statistics;
+	}
+
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link CacheManager} that layers a bounded local cache over a shared cache
+ * for each cache name, exposing {@link TieredCache} instances: hits in the
+ * local tier avoid a round trip to the shared store, while modifications are
+ * written through to the shared store and broadcast as
+ * {@link CacheInvalidationEvent CacheInvalidationEvents} through a pluggable
+ * {@link CacheInvalidationTransport}, dropping stale local copies on all
+ * other nodes.
+ *
+ * <p>Unlike {@link org.springframework.cache.support.CompositeCacheManager},
+ * which picks the first cache found for a name, every cache served by this
+ * manager combines both tiers. The set of cache names is determined by the
+ * shared cache manager.
+ *
+ * <p>The local tier is obtained from the {@link #setLocalCacheManager local
+ * CacheManager}; by default, a {@link CaffeineCacheManager} bounded to
+ * {@link #setLocalMaximumSize "localMaximumSize"} entries per cache is used.
+ * A {@link #setLocalTimeToLive "localTimeToLive"} can limit the staleness of
+ * local copies in case of invalidation events getting lost.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see TieredCache
+ * @see LoopbackCacheInvalidationTransport
+ */
+public class TieredCacheManager implements CacheManager, InitializingBean, DisposableBean {
+
+	private static final boolean caffeinePresent = ClassUtils.isPresent(
+			"com.github.benmanes.caffeine.cache.Caffeine", TieredCacheManager.class.getClassLoader());
+
+	@Nullable
+	private CacheManager sharedCacheManager;
+
+	@Nullable
+	private CacheManager localCacheManager;
+
+	private long localMaximumSize = 10_000;
+
+	@Nullable
+	private Duration localTimeToLive;
+
+	@Nullable
+	private CacheInvalidationTransport invalidationTransport;
+
+	private String nodeId = UUID.randomUUID().toString();
+
+	private final Consumer<CacheInvalidationEvent> invalidationSubscriber = this::onInvalidation;
+
+	private final ConcurrentMap<String, TieredCache> cacheMap = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Create a new TieredCacheManager, setting the shared CacheManager
+	 * through the {@link #setSharedCacheManager} bean property.
+	 */
+	public TieredCacheManager() {
+	}
+
+	/**
+	 * Create a new TieredCacheManager for the given shared CacheManager.
+	 * @param sharedCacheManager the CacheManager providing the shared tier
+	 */
+	public TieredCacheManager(CacheManager sharedCacheManager) {
+		Assert.notNull(sharedCacheManager, "Shared CacheManager must not be null");
+		this.sharedCacheManager = sharedCacheManager;
+	}
+
+
+	/**
+	 * Set the CacheManager providing the shared tier, e.g. a JCache based one.
+	 */
+	public void setSharedCacheManager(CacheManager sharedCacheManager) {
+		this.sharedCacheManager = sharedCacheManager;
+	}
+
+	/**
+	 * Set the CacheManager providing the local tier.
+	 * <p>Default is a {@link CaffeineCacheManager} configured according to
+	 * {@link #setLocalMaximumSize} and {@link #setLocalTimeToLive}. The caches
+	 * of a custom local CacheManager are expected to be bounded as well.
+	 */
+	public void setLocalCacheManager(CacheManager localCacheManager) {
+		this.localCacheManager = localCacheManager;
+	}
+
+	/**
+	 * Set the maximum number of entries per cache in the default local tier.
+	 * <p>Default is 10000.
+	 */
+	public void setLocalMaximumSize(long localMaximumSize) {
+		Assert.isTrue(localMaximumSize >= 0, "Local maximum size must not be negative");
+		this.localMaximumSize = localMaximumSize;
+	}
+
+	/**
+	 * Set the time after which entries expire from the default local tier,
+	 * limiting the staleness of local copies if invalidation events get lost.
+	 * <p>Default is none.
+	 */
+	public void setLocalTimeToLive(@Nullable Duration localTimeToLive) {
+		this.localTimeToLive = localTimeToLive;
+	}
+
+	/**
+	 * Set the transport to broadcast invalidation events through.
+	 * <p>Default is none, in which case local copies are only ever
+	 * dropped when modified on the same node.
+	 */
+	public void setInvalidationTransport(@Nullable CacheInvalidationTransport invalidationTransport) {
+		this.invalidationTransport = invalidationTransport;
+	}
+
+	/**
+	 * Set the identifier of this node in published invalidation events.
+	 * <p>Default is a random UUID.
+	 */
+	public void setNodeId(String nodeId) {
+		Assert.hasText(nodeId, "Node id must not be empty");
+		this.nodeId = nodeId;
+	}
+
+	/**
+	 * Return the identifier of this node in published invalidation events.
+	 */
+	public String getNodeId() {
+		return this.nodeId;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.sharedCacheManager == null) {
+			throw new IllegalArgumentException("Property 'sharedCacheManager' is required");
+		}
+		if (this.localCacheManager == null) {
+			if (!caffeinePresent) {
+				throw new IllegalArgumentException(
+						"Property 'localCacheManager' is required when Caffeine is not present");
+			}
+			this.localCacheManager = LocalCacheManagerFactory.createLocalCacheManager(
+					this.localMaximumSize, this.localTimeToLive);
+		}
+		if (this.invalidationTransport != null) {
+			this.invalidationTransport.subscribe(this.invalidationSubscriber);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (this.invalidationTransport != null) {
+			this.invalidationTransport.unsubscribe(this.invalidationSubscriber);
+		}
+	}
+
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		TieredCache cache = this.cacheMap.get(name);
+		if (cache != null) {
+			return cache;
+		}
+		Assert.state(this.sharedCacheManager != null && this.localCacheManager != null,
+				"TieredCacheManager not initialized");
+		Cache sharedCache = this.sharedCacheManager.getCache(name);
+		if (sharedCache == null) {
+			return null;
+		}
+		Cache localCache = this.localCacheManager.getCache(name);
+		if (localCache == null) {
+			// No local tier available for this name
+			return sharedCache;
+		}
+		return this.cacheMap.computeIfAbsent(name, key ->
+				new TieredCache(localCache, sharedCache, this.invalidationTransport, this.nodeId));
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		Assert.state(this.sharedCacheManager != null, "No shared CacheManager set");
+		return this.sharedCacheManager.getCacheNames();
+	}
+
+	/**
+	 * Return the statistics of the given cache.
+	 * @param name the cache identifier
+	 * @return the statistics, or {@code null} if the cache has not been
+	 * obtained from this manager yet
+	 */
+	@Nullable
+	public TieredCacheStatistics getStatistics(String name) {
+		TieredCache cache = this.cacheMap.get(name);
+		return (cache != null ? cache.getStatistics() : null);
+	}
+
+	/**
+	 * Drop local copies as signalled by an event from another node.
+	 */
+	private void onInvalidation(CacheInvalidationEvent event) {
+		if (this.nodeId.equals(event.getSourceId())) {
+			return;
+		}
+		TieredCache cache = this.cacheMap.get(event.getCacheName());
+		if (cache != null) {
+			cache.invalidateLocal(event);
+		}
+	}
+
+
+	/**
+	 * Inner class to avoid a hard dependency on Caffeine at runtime.
+	 */
+	private static class LocalCacheManagerFactory {
+
+		public static CacheManager createLocalCacheManager(long maximumSize, @Nullable Duration timeToLive) {
+			Caffeine<Object, Object> caffeine = Caffeine.newBuilder().maximumSize(maximumSize);
+			if (timeToLive != null) {
+				caffeine.expireAfterWrite(timeToLive.toNanos(), TimeUnit.NANOSECONDS);
+			}
+			CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+			cacheManager.setCaffeine(caffeine);
+			return cacheManager;
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss statistics per tier of a {@link TieredCache}, along with
+ * the number of invalidations sent to and received from other nodes.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see TieredCache#getStatistics()
+ */
+public class TieredCacheStatistics {
+
+	private final LongAdder localHits = new LongAdder();
+
+	private final LongAdder localMisses = new LongAdder();
+
+	private final LongAdder sharedHits = new LongAdder();
+
+	private final LongAdder sharedMisses = new LongAdder();
+
+	private final LongAdder invalidationsSent = new LongAdder();
+
+	private final LongAdder invalidationsReceived = new LongAdder();
+
+
+	/**
+	 * Return the number of lookups served by the local tier.
+	 */
+	public long getLocalHits() {
+		return this.localHits.sum();
+	}
+
+	/**
+	 * Return the number of lookups that missed the local tier.
+	 */
+	public long getLocalMisses() {
+		return this.localMisses.sum();
+	}
+
+	/**
+	 * Return the number of lookups served by the shared tier.
+	 */
+	public long getSharedHits() {
+		return this.sharedHits.sum();
+	}
+
+	/**
+	 * Return the number of lookups that missed the shared tier as well.
+	 */
+	public long getSharedMisses() {
+		return this.sharedMisses.sum();
+	}
+
+	/**
+	 * Return the number of invalidations published to other nodes.
+	 */
+	public long getInvalidationsSent() {
+		return this.invalidationsSent.sum();
+	}
+
+	/**
+	 * Return the number of invalidations received from other nodes.
+	 */
+	public long getInvalidationsReceived() {
+		return this.invalidationsReceived.sum();
+	}
+
+	/**
+	 * Return the ratio of lookups served by the local tier, between 0 and 1.
+	 */
+	public double getLocalHitRatio() {
+		long hits = getLocalHits();
+		long total = hits + getLocalMisses();
+		return (total > 0 ? (double) hits / total : 0);
+	}
+
+
+	void recordLocalHits(int count) {
+		this.localHits.add(count);
+	}
+
+	void recordLocalMisses(int count) {
+		this.localMisses.add(count);
+	}
+
+	void recordSharedHits(int count) {
+		this.sharedHits.add(count);
+	}
+
+	void recordSharedMisses(int count) {
+		this.sharedMisses.add(count);
+	}
+
+	void recordInvalidationSent() {
+		this.invalidationsSent.increment();
+	}
+
+	void recordInvalidationReceived() {
+		this.invalidationsReceived.increment();
+	}
+
+	@Override
+	public String toString() {
+		return "local hits=" + getLocalHits() + ", local misses=" + getLocalMisses() +
+				", shared hits=" + getSharedHits() + ", shared misses=" + getSharedMisses() +
+				", invalidations sent=" + getInvalidationsSent() +
+				", invalidations received=" + getInvalidationsReceived();
+	}
+
+}
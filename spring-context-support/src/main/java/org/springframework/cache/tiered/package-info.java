@@ -0,0 +1,10 @@
+/**
+ * Two-tier cache support, layering a bounded local cache over a shared cache,
+ * with local copies being invalidated across nodes through a pluggable transport.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.tiered;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
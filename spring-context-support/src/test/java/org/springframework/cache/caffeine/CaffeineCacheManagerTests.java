@@ -194,6 +194,23 @@ public class CaffeineCacheManagerTests {
 			.withMessageContaining("I only know ping");
 	}
 
+	@Test
+	public void asyncCacheModeBuildsAsyncCaches() {
+		CaffeineCacheManager cm = new CaffeineCacheManager("c1");
+		Cache cache1 = cm.getCache("c1");
+		assertThat(((CaffeineCache) cache1).getAsyncCache()).isNull();
+
+		cm.setAsyncCacheMode(true);
+		Cache cache1x = cm.getCache("c1");
+		assertThat(cache1x).isNotSameAs(cache1);
+		assertThat(((CaffeineCache) cache1x).getAsyncCache()).isNotNull();
+		assertThat(cm.getCache("c2")).isNull();
+
+		cache1x.put("key", "value");
+		assertThat(cache1x.get("key").get()).isEqualTo("value");
+		assertThat(cache1x.retrieve("key").join().get()).isEqualTo("value");
+	}
+
 	@SuppressWarnings("unchecked")
 	private CacheLoader<Object, Object> mockCacheLoader() {
 		return mock(CacheLoader.class);
@@ -16,6 +16,9 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -79,4 +82,51 @@ public class CaffeineCacheTests extends AbstractValueAdaptingCacheTests<Caffeine
 		assertThat(cache.get(key).get()).isEqualTo(value);
 	}
 
+	@Test
+	public void retrieveFromAsyncCache() {
+		CaffeineCache cache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+
+		assertThat(cache.retrieve("key")).isNull();
+		cache.put("key", "value");
+		assertThat(cache.retrieve("key").join().get()).isEqualTo("value");
+		assertThat(cache.get("key").get()).isEqualTo("value");
+
+		cache.put("nullKey", null);
+		assertThat(cache.retrieve("nullKey").join().get()).isNull();
+	}
+
+	@Test
+	public void retrieveWithValueLoaderCoalescesLoads() {
+		CaffeineCache cache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+		AtomicInteger counter = new AtomicInteger();
+		CompletableFuture<String> pending = new CompletableFuture<>();
+
+		CompletableFuture<String> first = cache.retrieve("key", () -> {
+			counter.incrementAndGet();
+			return pending;
+		});
+		CompletableFuture<String> second = cache.retrieve("key", () -> {
+			counter.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		assertThat(first.isDone()).isFalse();
+		assertThat(second.isDone()).isFalse();
+
+		pending.complete("value");
+		assertThat(first.join()).isEqualTo("value");
+		assertThat(second.join()).isEqualTo("value");
+		assertThat(counter.get()).isEqualTo(1);
+		assertThat(cache.get("key").get()).isEqualTo("value");
+	}
+
+	@Test
+	public void retrieveWithValueLoaderFromRegularCache() {
+		CaffeineCache cache = getCache();
+		assertThat(cache.retrieve("key", () -> CompletableFuture.completedFuture("value")).join())
+				.isEqualTo("value");
+		assertThat(cache.retrieve("key").join().get()).isEqualTo("value");
+		assertThat(cache.retrieve("key", () -> CompletableFuture.completedFuture("other")).join())
+				.isEqualTo("value");
+	}
+
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.AbstractCacheTests;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TieredCache} and {@link TieredCacheManager}.
+ */
+public class TieredCacheTests extends AbstractCacheTests<TieredCache> {
+
+	private ConcurrentMap<Object, Object> nativeCache;
+
+	private ConcurrentMapCache localCache;
+
+	private TieredCache cache;
+
+	private final ConcurrentMapCacheManager sharedCacheManager = new ConcurrentMapCacheManager("users");
+
+	private final LoopbackCacheInvalidationTransport transport = new LoopbackCacheInvalidationTransport();
+
+	private TieredCacheManager node1;
+
+	private TieredCacheManager node2;
+
+
+	@BeforeEach
+	public void setUp() {
+		this.nativeCache = new ConcurrentHashMap<>();
+		this.localCache = new ConcurrentMapCache(CACHE_NAME);
+		this.cache = new TieredCache(this.localCache, new ConcurrentMapCache(CACHE_NAME, this.nativeCache, true));
+		this.node1 = createNode();
+		this.node2 = createNode();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.node1.destroy();
+		this.node2.destroy();
+	}
+
+	@Override
+	protected TieredCache getCache() {
+		return this.cache;
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.nativeCache;
+	}
+
+
+	@Test
+	public void readThroughPopulatesLocalTier() {
+		this.nativeCache.put("key", "value");
+
+		assertThat(this.cache.get("key").get()).isEqualTo("value");
+		assertThat(this.localCache.get("key").get()).isEqualTo("value");
+		assertThat(this.cache.get("key").get()).isEqualTo("value");
+
+		TieredCacheStatistics statistics = this.cache.getStatistics();
+		assertThat(statistics.getLocalHits()).isEqualTo(1);
+		assertThat(statistics.getLocalMisses()).isEqualTo(1);
+		assertThat(statistics.getSharedHits()).isEqualTo(1);
+		assertThat(statistics.getSharedMisses()).isEqualTo(0);
+		assertThat(statistics.getLocalHitRatio()).isEqualTo(0.5);
+	}
+
+	@Test
+	public void invalidationDuringReadThroughDropsLocalCopy() {
+		this.nativeCache.put("key", "value");
+		TieredCache[] tieredCache = new TieredCache[1];
+		ConcurrentMapCache sharedCache = new ConcurrentMapCache(CACHE_NAME, this.nativeCache, true) {
+			@Override
+			public ValueWrapper get(Object key) {
+				ValueWrapper value = super.get(key);
+				// Entry modified on another node after our read
+				tieredCache[0].invalidateLocal(new CacheInvalidationEvent("node2", CACHE_NAME, key));
+				return value;
+			}
+			@Override
+			public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+				Map<Object, ValueWrapper> values = super.getAll(keys);
+				tieredCache[0].invalidateLocal(new CacheInvalidationEvent("node2", CACHE_NAME, null));
+				return values;
+			}
+		};
+		tieredCache[0] = new TieredCache(this.localCache, sharedCache);
+
+		assertThat(tieredCache[0].get("key").get()).isEqualTo("value");
+		assertThat(tieredCache[0].get("key", String.class)).isEqualTo("value");
+		assertThat(tieredCache[0].getAll(Arrays.asList("key"))).containsOnlyKeys("key");
+		assertThat(this.localCache.get("key")).isNull();
+		assertThat(tieredCache[0].getStatistics().getLocalHits()).isEqualTo(0);
+	}
+
+	@Test
+	public void valueLoaderStoresInBothTiers() {
+		assertThat(this.cache.get("key", () -> "value")).isEqualTo("value");
+		assertThat(this.nativeCache).containsKey("key");
+		assertThat(this.localCache.get("key").get()).isEqualTo("value");
+		assertThat(this.cache.getStatistics().getSharedMisses()).isEqualTo(1);
+
+		assertThat(this.cache.get("key", () -> "other")).isEqualTo("value");
+		assertThat(this.cache.getStatistics().getLocalHits()).isEqualTo(1);
+	}
+
+	@Test
+	public void getAllReadsMissingKeysFromSharedTier() {
+		this.localCache.put("a", "local");
+		this.nativeCache.put("b", "shared");
+
+		Map<Object, Cache.ValueWrapper> result = this.cache.getAll(Arrays.asList("a", "b", "c"));
+		assertThat(result.keySet()).containsExactly("a", "b");
+		assertThat(result.get("a").get()).isEqualTo("local");
+		assertThat(result.get("b").get()).isEqualTo("shared");
+		assertThat(this.localCache.get("b").get()).isEqualTo("shared");
+
+		TieredCacheStatistics statistics = this.cache.getStatistics();
+		assertThat(statistics.getLocalHits()).isEqualTo(1);
+		assertThat(statistics.getLocalMisses()).isEqualTo(2);
+		assertThat(statistics.getSharedHits()).isEqualTo(1);
+		assertThat(statistics.getSharedMisses()).isEqualTo(1);
+	}
+
+	@Test
+	public void putInvalidatesLocalCopyOnOtherNode() {
+		Cache users1 = this.node1.getCache("users");
+		Cache users2 = this.node2.getCache("users");
+		users1.put("key", "v1");
+		assertThat(users2.get("key").get()).isEqualTo("v1");
+
+		users1.put("key", "v2");
+		assertThat(users2.get("key").get()).isEqualTo("v2");
+		assertThat(this.node2.getStatistics("users").getInvalidationsReceived()).isEqualTo(2);
+		assertThat(this.node1.getStatistics("users").getInvalidationsSent()).isEqualTo(2);
+		assertThat(this.node1.getStatistics("users").getInvalidationsReceived()).isEqualTo(0);
+	}
+
+	@Test
+	public void evictAndClearInvalidateOtherNode() {
+		Cache users1 = this.node1.getCache("users");
+		Cache users2 = this.node2.getCache("users");
+		users1.put("a", "1");
+		users1.put("b", "2");
+		users2.get("a");
+		users2.get("b");
+
+		users1.evict("a");
+		assertThat(users2.get("a")).isNull();
+		assertThat(users2.get("b").get()).isEqualTo("2");
+
+		users1.clear();
+		assertThat(users2.get("b")).isNull();
+	}
+
+	@Test
+	public void withoutTransportLocalCopyStaysStale() {
+		TieredCacheManager standalone = new TieredCacheManager(this.sharedCacheManager);
+		standalone.afterPropertiesSet();
+		Cache users = standalone.getCache("users");
+		Cache users1 = this.node1.getCache("users");
+		users1.put("key", "v1");
+		assertThat(users.get("key").get()).isEqualTo("v1");
+
+		users1.put("key", "v2");
+		assertThat(users.get("key").get()).isEqualTo("v1");
+	}
+
+	@Test
+	public void cacheManagerExposesTieredCaches() {
+		Cache users = this.node1.getCache("users");
+		assertThat(users).isInstanceOf(TieredCache.class);
+		assertThat(((TieredCache) users).getLocalCache()).isInstanceOf(CaffeineCache.class);
+		assertThat(this.node1.getCache("users")).isSameAs(users);
+		assertThat(this.node1.getCacheNames()).containsOnly("users");
+		assertThat(this.node1.getCache("unknown")).isNull();
+		assertThat(this.node1.getStatistics("unknown")).isNull();
+	}
+
+
+	private TieredCacheManager createNode() {
+		TieredCacheManager cacheManager = new TieredCacheManager(this.sharedCacheManager);
+		cacheManager.setLocalMaximumSize(100);
+		cacheManager.setInvalidationTransport(this.transport);
+		cacheManager.afterPropertiesSet();
+		return cacheManager;
+	}
+
+}
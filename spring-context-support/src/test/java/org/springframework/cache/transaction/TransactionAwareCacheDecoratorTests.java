@@ -16,6 +16,8 @@
 
 package org.springframework.cache.transaction;
 
+import java.util.Collections;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.cache.Cache;
@@ -87,6 +89,20 @@ public class TransactionAwareCacheDecoratorTests {
 		assertThat(target.get(key, String.class)).isEqualTo("123");
 	}
 
+	@Test
+	public void putAllTransactional() {
+		Cache target = new ConcurrentMapCache("testCache");
+		Cache cache = new TransactionAwareCacheDecorator(target);
+		Object key = new Object();
+
+		txTemplate.executeWithoutResult(s -> {
+			cache.putAll(Collections.singletonMap(key, "123"));
+			assertThat(cache.getAll(Collections.singleton(key))).isEmpty();
+		});
+
+		assertThat(cache.getAll(Collections.singleton(key)).get(key).get()).isEqualTo("123");
+	}
+
 	@Test
 	public void putIfAbsentNonTransactional() {
 		Cache target = new ConcurrentMapCache("testCache");
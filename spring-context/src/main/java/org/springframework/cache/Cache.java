@@ -16,7 +16,12 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.springframework.lang.Nullable;
 
@@ -100,6 +105,64 @@ public interface Cache {
 	@Nullable
 	<T> T get(Object key, Callable<T> valueLoader);
 
+	/**
+	 * Return the value to which this cache maps the specified key,
+	 * wrapped in a {@link CompletableFuture}. This operation must not block
+	 * but is allowed to return a completed {@link CompletableFuture} if the
+	 * corresponding value is immediately available.
+	 * <p>Returns {@code null} if the cache contains no mapping for this key
+	 * and this can be determined immediately; otherwise, the returned future
+	 * completes with the cached value in a {@link ValueWrapper}, or with
+	 * {@code null} if the key turns out to be absent.
+	 * <p>The default implementation delegates to {@link #get(Object)}, which
+	 * is appropriate for in-memory caches. Cache providers with a remote or
+	 * natively asynchronous store are encouraged to override this method.
+	 * @param key the key whose associated value is to be returned
+	 * @return the value to which this cache maps the specified key, contained
+	 * within a {@link ValueWrapper} and wrapped in a {@link CompletableFuture}
+	 * (or {@code null} if the cache is known to contain no mapping for this key)
+	 * @since 5.3
+	 * @see #retrieve(Object, Supplier)
+	 */
+	@Nullable
+	default CompletableFuture<ValueWrapper> retrieve(Object key) {
+		ValueWrapper valueWrapper = get(key);
+		return (valueWrapper != null ? CompletableFuture.completedFuture(valueWrapper) : null);
+	}
+
+	/**
+	 * Return the value to which this cache maps the specified key, obtaining
+	 * that value from {@code valueLoader} if necessary. This is the non-blocking
+	 * counterpart of {@link #get(Object, Callable)}: the value loader returns
+	 * a {@link CompletableFuture} and the loaded value gets stored once that
+	 * future completes.
+	 * <p>If possible, implementations should ensure that the loading operation
+	 * is coalesced so that the specified {@code valueLoader} is only called
+	 * once in case of concurrent access on the same key. The default
+	 * implementation delegates to {@link #get(Object)} and
+	 * {@link #put(Object, Object)} without such guarantee.
+	 * <p>If the {@code valueLoader} completes exceptionally, no value gets
+	 * stored and the returned future completes with the same exception.
+	 * @param key the key whose associated value is to be returned
+	 * @param valueLoader the loader to obtain the value from if necessary
+	 * @return the value to which this cache maps the specified key,
+	 * wrapped in a {@link CompletableFuture}
+	 * @since 5.3
+	 * @see #retrieve(Object)
+	 * @see #get(Object, Callable)
+	 */
+	@SuppressWarnings("unchecked")
+	default <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		ValueWrapper valueWrapper = get(key);
+		if (valueWrapper != null) {
+			return CompletableFuture.completedFuture((T) valueWrapper.get());
+		}
+		return valueLoader.get().thenApply(value -> {
+			put(key, value);
+			return value;
+		});
+	}
+
 	/**
 	 * Associate the specified value with the specified key in this cache.
 	 * <p>If the cache previously contained a mapping for this key, the old
@@ -114,6 +177,48 @@ public interface Cache {
 	 */
 	void put(Object key, @Nullable Object value);
 
+	/**
+	 * Return the values to which this cache maps the specified keys.
+	 * <p>Keys that the cache contains no mapping for are not present in the
+	 * returned map; for all other keys, the cached value (which may be
+	 * {@code null} itself) is contained in a {@link ValueWrapper}.
+	 * <p>The default implementation delegates to {@link #get(Object)} for
+	 * each key. Cache providers are encouraged to override this method with
+	 * a native batch lookup.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map of the keys present in the cache to their values,
+	 * in the iteration order of the given keys
+	 * @since 5.3
+	 * @see #get(Object)
+	 * @see #putAll(Map)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper valueWrapper = get(key);
+			if (valueWrapper != null) {
+				result.put(key, valueWrapper);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Associate each of the specified values with its key in this cache.
+	 * <p>Same semantics as {@link #put(Object, Object)} for each entry,
+	 * including the potential for asynchronous or deferred registration.
+	 * <p>The default implementation delegates to {@link #put(Object, Object)}
+	 * for each entry. Cache providers are encouraged to override this method
+	 * with a native batch registration.
+	 * @param entries the keys and values to be associated
+	 * @since 5.3
+	 * @see #put(Object, Object)
+	 * @see #getAll(Collection)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Atomically associate the specified value with the specified key in this cache
 	 * if it is not set already.
@@ -179,4 +179,32 @@ public @interface Cacheable {
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the entries of a collection-valued method individually, with one
+	 * cache entry per element of the method's {@link java.util.Collection}
+	 * parameter. The elements of that collection are used as cache keys as-is
+	 * and the method needs to return a {@link java.util.Map} from each such
+	 * key to its value.
+	 * <p>On invocation, all keys are looked up in one batch; the method only
+	 * gets invoked for the keys that are missing, with the results merged
+	 * with the cached values in the iteration order of the requested keys.
+	 * Bulk caching leads to a couple of limitations:
+	 * <ol>
+	 * <li>The method must declare exactly one {@code Collection} parameter
+	 * and have {@code Map} as its return type</li>
+	 * <li>{@link #key()} and {@link #sync()} are not supported</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * </ol>
+	 * {@link #unless()} is evaluated for each loaded entry individually, with
+	 * {@code #result} referring to the value of that entry.
+	 * <p>Note that the method is invoked with a collection of the missing keys
+	 * only if the caching infrastructure has access to the actual invocation
+	 * arguments, as is the case with proxy-based caching. Otherwise the method
+	 * is invoked with all requested keys.
+	 * @since 5.3
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean bulk() default false;
+
 }
@@ -128,6 +128,7 @@ public class SpringCacheAnnotationParser implements CacheAnnotationParser, Seria
 		builder.setCacheManager(cacheable.cacheManager());
 		builder.setCacheResolver(cacheable.cacheResolver());
 		builder.setSync(cacheable.sync());
+		builder.setBulk(cacheable.bulk());
 
 		defaultConfig.applyDefault(builder);
 		CacheableOperation op = builder.build();
@@ -16,6 +16,13 @@
 
 package org.springframework.cache.interceptor;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
 import org.springframework.cache.Cache;
 import org.springframework.lang.Nullable;
 import org.springframework.util.function.SingletonSupplier;
@@ -78,6 +85,71 @@ public abstract class AbstractCacheInvoker {
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#getAll(Collection)} on the specified {@link Cache}
+	 * and invoke the error handler if an exception occurs, passing the
+	 * collection of keys as the key. Return an empty map if the handler
+	 * does not throw any exception, which simulates a cache miss for all
+	 * keys in case of error.
+	 * @since 5.3
+	 * @see Cache#getAll(Collection)
+	 */
+	protected Map<Object, Cache.ValueWrapper> doGetAll(Cache cache, Collection<?> keys) {
+		try {
+			return cache.getAll(keys);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, keys);
+			return Collections.emptyMap();  // If the exception is handled, return a cache miss
+		}
+	}
+
+	/**
+	 * Execute {@link Cache#retrieve(Object)} on the specified {@link Cache}
+	 * and invoke the error handler if an exception occurs, either immediately
+	 * or once the returned future completes. Return {@code null} (or a future
+	 * completing with {@code null}) if the handler does not throw any exception,
+	 * which simulates a cache miss in case of error.
+	 * @since 5.3
+	 * @see Cache#retrieve(Object)
+	 */
+	@Nullable
+	protected CompletableFuture<Cache.ValueWrapper> doRetrieve(Cache cache, Object key) {
+		CompletableFuture<Cache.ValueWrapper> result;
+		try {
+			result = cache.retrieve(key);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, key);
+			return null;  // If the exception is handled, return a cache miss
+		}
+		if (result == null) {
+			return null;
+		}
+		return result.exceptionally(ex -> {
+			getErrorHandler().handleCacheGetError(unwrapAsyncFailure(ex), cache, key);
+			return null;
+		});
+	}
+
+	/**
+	 * Execute {@link Cache#retrieve(Object, Supplier)} on the specified
+	 * {@link Cache} and invoke the error handler if an exception occurs.
+	 * Fall back to the given value loader if the handler does not throw
+	 * any exception, which simulates a cache miss in case of error.
+	 * @since 5.3
+	 * @see Cache#retrieve(Object, Supplier)
+	 */
+	protected <T> CompletableFuture<T> doRetrieve(Cache cache, Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		try {
+			return cache.retrieve(key, valueLoader);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, key);
+			return valueLoader.get();
+		}
+	}
+
 	/**
 	 * Execute {@link Cache#put(Object, Object)} on the specified {@link Cache}
 	 * and invoke the error handler if an exception occurs.
@@ -91,6 +163,21 @@ public abstract class AbstractCacheInvoker {
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#putAll(Map)} on the specified {@link Cache} and
+	 * invoke the error handler if an exception occurs, passing the set of
+	 * keys as the key and the map of entries as the value.
+	 * @since 5.3
+	 */
+	protected void doPutAll(Cache cache, Map<?, ?> entries) {
+		try {
+			cache.putAll(entries);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCachePutError(ex, cache, entries.keySet(), entries);
+		}
+	}
+
 	/**
 	 * Execute {@link Cache#evict(Object)}/{@link Cache#evictIfPresent(Object)} on the
 	 * specified {@link Cache} and invoke the error handler if an exception occurs.
@@ -127,4 +214,11 @@ public abstract class AbstractCacheInvoker {
 		}
 	}
 
+	private static RuntimeException unwrapAsyncFailure(Throwable ex) {
+		Throwable cause = (ex instanceof CompletionException && ex.getCause() != null ?
+				ex.getCause() : ex);
+		return (cause instanceof RuntimeException ? (RuntimeException) cause :
+				new CompletionException(cause));
+	}
+
 }
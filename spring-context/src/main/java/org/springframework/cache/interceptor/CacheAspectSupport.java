@@ -21,15 +21,24 @@ import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -42,8 +51,11 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.RefreshingCacheDecorator;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -69,6 +81,12 @@ import org.springframework.util.function.SupplierUtils;
  * used for determining caching operations, a {@link KeyGenerator} will build the
  * cache keys, and a {@link CacheResolver} will resolve the actual cache(s) to use.
  *
+ * <p>Methods returning a {@link CompletableFuture} or, if Reactor is present,
+ * a reactive type such as {@link Mono} or {@link Flux} get the resolved value
+ * cached rather than the returned handle itself: a {@code Flux} is cached as
+ * a {@code List} of its elements. Cache lookups for such methods go through
+ * {@link Cache#retrieve(Object)} and never block the calling thread.
+ *
  * <p>Note: A cache aspect is serializable but does not perform any actual caching
  * after deserialization.
  *
@@ -83,6 +101,9 @@ import org.springframework.util.function.SupplierUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Mono", CacheAspectSupport.class.getClassLoader());
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
@@ -371,12 +392,18 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	@Nullable
 	private Object execute(final CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+		AsyncResultAdapter asyncResultAdapter = contexts.getAsyncResultAdapter();
+
 		// Special handling of synchronized invocation
 		if (contexts.isSynchronized()) {
 			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
 			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
 				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
 				Cache cache = context.getCaches().iterator().next();
+				if (asyncResultAdapter != null) {
+					return asyncResultAdapter.fromFuture(() ->
+							doRetrieve(cache, key, () -> invokeOperationAsync(invoker, asyncResultAdapter)));
+				}
 				try {
 					return wrapCacheValue(method, cache.get(key, () -> unwrapReturnValue(invokeOperation(invoker))));
 				}
@@ -393,12 +420,174 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 
 
+		// Special handling of bulk invocation
+		if (contexts.isBulk()) {
+			return executeBulk(invoker, contexts);
+		}
+
+		// Asynchronous return types: cache the resolved value, not the handle
+		if (asyncResultAdapter != null) {
+			return asyncResultAdapter.fromFuture(() -> executeAsync(invoker, contexts, asyncResultAdapter));
+		}
+
+		// Process any early evictions
+		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
+				CacheOperationExpressionEvaluator.NO_RESULT);
+
+		try {
+			// Check if we have a cached item matching the conditions
+			Cache.ValueWrapper cacheHit = findCachedItem(contexts.get(CacheableOperation.class));
+
+			// Collect puts from any @Cacheable miss, if no cached item is found
+			List<CachePutRequest> cachePutRequests = new LinkedList<>();
+			if (cacheHit == null) {
+				collectPutRequests(contexts.get(CacheableOperation.class),
+						CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
+			}
+
+			Object cacheValue;
+			Object returnValue;
+
+			if (cacheHit != null && !hasCachePut(contexts)) {
+				// If there are no put requests, just use the cache hit
+				cacheValue = cacheHit.get();
+				returnValue = wrapCacheValue(method, cacheValue);
+			}
+			else {
+				// Invoke the method if we don't have a cache hit
+				returnValue = invokeOperation(invoker);
+				cacheValue = unwrapReturnValue(returnValue);
+			}
+
+			// Collect any explicit @CachePuts
+			collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
+
+			// Process any collected put requests, either from @CachePut or a @Cacheable miss
+			for (CachePutRequest cachePutRequest : cachePutRequests) {
+				cachePutRequest.apply(cacheValue);
+			}
+
+			// Process any late evictions
+			processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
+
+			return returnValue;
+		}
+		finally {
+			// Let concurrent callers proceed if no value was put after a miss
+			releaseLoads(contexts.get(CacheableOperation.class));
+		}
+	}
+
+	@Nullable
+	private Object executeBulk(CacheOperationInvoker invoker, CacheOperationContexts contexts) {
+		CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+		Object[] args = contexts.getArgs();
+		int keysIndex = contexts.getBulkParameterIndex();
+		Collection<?> keys = (Collection<?>) args[keysIndex];
+		if (keys == null || !isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+			// No caching required, only call the underlying method
+			return invokeOperation(invoker);
+		}
+
+		// Look up all keys in one batch per cache
+		Set<Object> missingKeys = new LinkedHashSet<>(keys.size());
+		for (Object key : keys) {
+			if (key == null) {
+				throw new IllegalArgumentException("Null key in key collection for bulk cache operation " +
+						context.metadata.operation);
+			}
+			missingKeys.add(key);
+		}
+		try {
+			Map<Object, Cache.ValueWrapper> cacheHits = new HashMap<>(missingKeys.size());
+			for (Cache cache : context.getCaches()) {
+				if (missingKeys.isEmpty()) {
+					break;
+				}
+				Map<Object, Cache.ValueWrapper> hits = doGetAll(cache, missingKeys);
+				cacheHits.putAll(hits);
+				missingKeys.removeAll(hits.keySet());
+			}
+			if (logger.isTraceEnabled()) {
+				logger.trace("Found " + cacheHits.size() + " of " + (cacheHits.size() + missingKeys.size()) +
+						" cache entries in cache(s) " + context.getCacheNames());
+			}
+
+			// Invoke the method for the missing keys only, storing the results in one batch per cache
+			Map<?, ?> loaded = Collections.emptyMap();
+			if (!missingKeys.isEmpty()) {
+				Object keysArg = (cacheHits.isEmpty() ? keys :
+						adaptKeyCollection(keys, missingKeys, context.metadata.method.getParameterTypes()[keysIndex]));
+				// Invoke with a copy of the arguments: the caller's array remains untouched
+				Object[] bulkArgs = args.clone();
+				bulkArgs[keysIndex] = keysArg;
+				Map<?, ?> returnValue = (Map<?, ?>) invokeOperation(() -> invoker.invoke(bulkArgs));
+				if (returnValue != null) {
+					loaded = returnValue;
+					Map<Object, Object> cacheEntries = new LinkedHashMap<>(loaded.size());
+					loaded.forEach((key, value) -> {
+						if (context.canPutToCache(value)) {
+							cacheEntries.put(key, value);
+						}
+					});
+					if (!cacheEntries.isEmpty()) {
+						for (Cache cache : context.getCaches()) {
+							doPutAll(cache, cacheEntries);
+						}
+					}
+				}
+			}
+
+			// Merge cached and loaded entries in the order of the requested keys
+			Map<Object, Object> result = new LinkedHashMap<>(keys.size());
+			for (Object key : keys) {
+				Cache.ValueWrapper cacheHit = cacheHits.get(key);
+				if (cacheHit != null) {
+					result.put(key, cacheHit.get());
+				}
+				else if (loaded.containsKey(key)) {
+					result.put(key, loaded.get(key));
+				}
+			}
+			return result;
+		}
+		finally {
+			// Let concurrent callers proceed for any keys that no value was put for
+			releaseLoads(context, keys);
+		}
+	}
+
+	/**
+	 * Adapt the requested collection of keys to a collection of the given
+	 * missing keys that the method parameter accepts, falling back to the
+	 * requested keys if no such collection can be created.
+	 */
+	private Collection<?> adaptKeyCollection(Collection<?> keys, Set<Object> missingKeys, Class<?> parameterType) {
+		Collection<Object> adapted = (keys instanceof Set ? missingKeys : new ArrayList<>(missingKeys));
+		return (parameterType.isInstance(adapted) ? adapted : keys);
+	}
+
+	private CompletableFuture<Object> executeAsync(
+			CacheOperationInvoker invoker, CacheOperationContexts contexts, AsyncResultAdapter asyncResultAdapter) {
+
 		// Process any early evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
 				CacheOperationExpressionEvaluator.NO_RESULT);
 
-		// Check if we have a cached item matching the conditions
-		Cache.ValueWrapper cacheHit = findCachedItem(contexts.get(CacheableOperation.class));
+		// Check if we have a cached item matching the conditions, without blocking
+		CompletableFuture<Cache.ValueWrapper> cacheHit = findCachedItemAsync(contexts.get(CacheableOperation.class));
+		if (cacheHit == null) {
+			return evaluateAsync(null, invoker, contexts, asyncResultAdapter, true);
+		}
+		if (cacheHit.isDone() && !cacheHit.isCompletedExceptionally()) {
+			return evaluateAsync(cacheHit.join(), invoker, contexts, asyncResultAdapter, true);
+		}
+		return cacheHit.thenCompose(hit -> evaluateAsync(hit, invoker, contexts, asyncResultAdapter, false));
+	}
+
+	private CompletableFuture<Object> evaluateAsync(@Nullable Cache.ValueWrapper cacheHit,
+			CacheOperationInvoker invoker, CacheOperationContexts contexts,
+			AsyncResultAdapter asyncResultAdapter, boolean onCallingThread) {
 
 		// Collect puts from any @Cacheable miss, if no cached item is found
 		List<CachePutRequest> cachePutRequests = new LinkedList<>();
@@ -407,32 +596,53 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 					CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
 		}
 
-		Object cacheValue;
-		Object returnValue;
-
 		if (cacheHit != null && !hasCachePut(contexts)) {
 			// If there are no put requests, just use the cache hit
-			cacheValue = cacheHit.get();
-			returnValue = wrapCacheValue(method, cacheValue);
-		}
-		else {
-			// Invoke the method if we don't have a cache hit
-			returnValue = invokeOperation(invoker);
-			cacheValue = unwrapReturnValue(returnValue);
+			return CompletableFuture.completedFuture(cacheHit.get());
 		}
 
-		// Collect any explicit @CachePuts
-		collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
+		// Invoke the method if we don't have a cache hit, applying puts and
+		// late evictions once the asynchronous result has been resolved
+		CompletableFuture<Object> result = (onCallingThread ?
+				asyncResultAdapter.toFuture(invokeOperation(invoker)) :
+				invokeOperationAsync(invoker, asyncResultAdapter));
+		return result.thenApply(cacheValue -> {
+			collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
+			for (CachePutRequest cachePutRequest : cachePutRequests) {
+				cachePutRequest.apply(cacheValue);
+			}
+			processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
+			return cacheValue;
+		});
+	}
 
-		// Process any collected put requests, either from @CachePut or a @Cacheable miss
-		for (CachePutRequest cachePutRequest : cachePutRequests) {
-			cachePutRequest.apply(cacheValue);
-		}
+	/**
+	 * Invoke the underlying operation and adapt its asynchronous result,
+	 * exposing a failure of the invocation itself through the returned future.
+	 */
+	private CompletableFuture<Object> invokeOperationAsync(
+			CacheOperationInvoker invoker, AsyncResultAdapter asyncResultAdapter) {
 
-		// Process any late evictions
-		processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
+		try {
+			return asyncResultAdapter.toFuture(invokeOperation(invoker));
+		}
+		catch (CacheOperationInvoker.ThrowableWrapper ex) {
+			CompletableFuture<Object> failed = new CompletableFuture<>();
+			failed.completeExceptionally(ex.getOriginal());
+			return failed;
+		}
+	}
 
-		return returnValue;
+	@Nullable
+	private static AsyncResultAdapter getAsyncResultAdapter(Method method) {
+		Class<?> returnType = method.getReturnType();
+		if (returnType == CompletableFuture.class || returnType == CompletionStage.class) {
+			return CompletableFutureResultAdapter.INSTANCE;
+		}
+		if (reactorPresent) {
+			return ReactiveResultAdapter.forReturnType(returnType);
+		}
+		return null;
 	}
 
 	@Nullable
@@ -530,6 +740,41 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return null;
 	}
 
+	/**
+	 * Find a cached item only for {@link CacheableOperation} that passes the condition,
+	 * through {@link Cache#retrieve(Object)} and without blocking.
+	 * @param contexts the cacheable operations
+	 * @return a future completing with the {@link Cache.ValueWrapper} holding the
+	 * cached item or with {@code null} if none is found, or {@code null} if
+	 * a cache miss could be determined immediately
+	 */
+	@Nullable
+	private CompletableFuture<Cache.ValueWrapper> findCachedItemAsync(Collection<CacheOperationContext> contexts) {
+		Object result = CacheOperationExpressionEvaluator.NO_RESULT;
+		CompletableFuture<Cache.ValueWrapper> cached = null;
+		for (CacheOperationContext context : contexts) {
+			if (isConditionPassing(context, result)) {
+				Object key = generateKey(context, result);
+				for (Cache cache : context.getCaches()) {
+					if (cached == null) {
+						cached = doRetrieve(cache, key);
+					}
+					else {
+						cached = cached.thenCompose(hit -> (hit != null ? CompletableFuture.completedFuture(hit) :
+								orCacheMiss(doRetrieve(cache, key))));
+					}
+				}
+			}
+		}
+		return cached;
+	}
+
+	private static CompletableFuture<Cache.ValueWrapper> orCacheMiss(
+			@Nullable CompletableFuture<Cache.ValueWrapper> cached) {
+
+		return (cached != null ? cached : CompletableFuture.completedFuture(null));
+	}
+
 	/**
 	 * Collect the {@link CachePutRequest} for all {@link CacheOperation} using
 	 * the specified result item.
@@ -548,6 +793,42 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 	}
 
+	/**
+	 * Release any load that a {@link RefreshingCacheDecorator} elected the current
+	 * thread for on a miss of the given cacheable operations, unless a value got put.
+	 * @param contexts the cacheable operations
+	 * @see RefreshingCacheDecorator#releaseLoad(Object)
+	 */
+	private void releaseLoads(Collection<CacheOperationContext> contexts) {
+		for (CacheOperationContext context : contexts) {
+			if (hasRefreshingCache(context) && context.isConditionPassing(CacheOperationExpressionEvaluator.NO_RESULT)) {
+				Object key = context.generateKey(CacheOperationExpressionEvaluator.NO_RESULT);
+				if (key != null) {
+					releaseLoads(context, Collections.singleton(key));
+				}
+			}
+		}
+	}
+
+	private void releaseLoads(CacheOperationContext context, Collection<?> keys) {
+		for (Cache cache : context.getCaches()) {
+			if (cache instanceof RefreshingCacheDecorator) {
+				for (Object key : keys) {
+					((RefreshingCacheDecorator) cache).releaseLoad(key);
+				}
+			}
+		}
+	}
+
+	private boolean hasRefreshingCache(CacheOperationContext context) {
+		for (Cache cache : context.getCaches()) {
+			if (cache instanceof RefreshingCacheDecorator) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	@Nullable
 	private Cache.ValueWrapper findInCaches(CacheOperationContext context, Object key) {
 		for (Cache cache : context.getCaches()) {
@@ -590,14 +871,26 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final boolean sync;
 
+		private final Object[] args;
+
+		private final int bulkParameterIndex;
+
+		@Nullable
+		private AsyncResultAdapter asyncResultAdapter;
+
 		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
 				Object[] args, Object target, Class<?> targetClass) {
 
 			this.contexts = new LinkedMultiValueMap<>(operations.size());
 			for (CacheOperation op : operations) {
-				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
+				CacheOperationContext context = getOperationContext(op, method, args, target, targetClass);
+				// Same for all operations, as resolved once per method along with their metadata
+				this.asyncResultAdapter = context.metadata.asyncResultAdapter;
+				this.contexts.add(op.getClass(), context);
 			}
 			this.sync = determineSyncFlag(method);
+			this.args = args;
+			this.bulkParameterIndex = determineBulkParameterIndex(method);
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -609,6 +902,23 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBulk() {
+			return (this.bulkParameterIndex >= 0);
+		}
+
+		public Object[] getArgs() {
+			return this.args;
+		}
+
+		public int getBulkParameterIndex() {
+			return this.bulkParameterIndex;
+		}
+
+		@Nullable
+		public AsyncResultAdapter getAsyncResultAdapter() {
+			return this.asyncResultAdapter;
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -644,6 +954,60 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private int determineBulkParameterIndex(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return -1;
+			}
+			boolean bulkEnabled = false;
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				if (((CacheableOperation) cacheOperationContext.getOperation()).isBulk()) {
+					bulkEnabled = true;
+					break;
+				}
+			}
+			if (!bulkEnabled) {
+				return -1;
+			}
+			if (this.contexts.size() > 1) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) cannot be combined with other cache operations on '" + method + "'");
+			}
+			if (cacheOperationContexts.size() > 1) {
+				throw new IllegalStateException(
+						"Only one @Cacheable(bulk=true) entry is allowed on '" + method + "'");
+			}
+			CacheableOperation operation = (CacheableOperation) cacheOperationContexts.get(0).getOperation();
+			if (operation.isSync()) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) cannot be combined with sync attribute on '" + operation + "'");
+			}
+			if (StringUtils.hasText(operation.getKey())) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) does not support key attribute on '" + operation + "'");
+			}
+			if (method.getReturnType() != Map.class) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) requires a Map return type on '" + method + "'");
+			}
+			int index = -1;
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			for (int i = 0; i < parameterTypes.length; i++) {
+				if (Collection.class.isAssignableFrom(parameterTypes[i])) {
+					if (index >= 0) {
+						index = -1;
+						break;
+					}
+					index = i;
+				}
+			}
+			if (index < 0) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) requires exactly one Collection parameter on '" + method + "'");
+			}
+			return index;
+		}
 	}
 
 
@@ -667,6 +1031,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final CacheResolver cacheResolver;
 
+		@Nullable
+		private final AsyncResultAdapter asyncResultAdapter;
+
 		public CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
 				KeyGenerator keyGenerator, CacheResolver cacheResolver) {
 
@@ -678,6 +1045,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 			this.keyGenerator = keyGenerator;
 			this.cacheResolver = cacheResolver;
+			this.asyncResultAdapter = getAsyncResultAdapter(this.method);
 		}
 	}
 
@@ -824,6 +1192,96 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 
+	/**
+	 * Strategy for caching the resolved value of an asynchronous return type
+	 * instead of the returned handle itself.
+	 */
+	private interface AsyncResultAdapter {
+
+		/**
+		 * Adapt the given return value to a future for the value to cache.
+		 */
+		CompletableFuture<Object> toFuture(@Nullable Object returnValue);
+
+		/**
+		 * Adapt the future obtained from the given supplier to the return type.
+		 */
+		Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier);
+	}
+
+
+	/**
+	 * {@link AsyncResultAdapter} for {@link CompletableFuture} and
+	 * {@link CompletionStage} return types.
+	 */
+	private static final class CompletableFutureResultAdapter implements AsyncResultAdapter {
+
+		static final CompletableFutureResultAdapter INSTANCE = new CompletableFutureResultAdapter();
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public CompletableFuture<Object> toFuture(@Nullable Object returnValue) {
+			return (returnValue != null ? ((CompletionStage<Object>) returnValue).toCompletableFuture() :
+					CompletableFuture.completedFuture(null));
+		}
+
+		@Override
+		public Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+			return futureSupplier.get();
+		}
+	}
+
+
+	/**
+	 * {@link AsyncResultAdapter} for reactive return types, caching the value
+	 * of a single-value publisher and a {@code List} of all elements of a
+	 * multi-value publisher. The cache is consulted on subscription.
+	 */
+	private static final class ReactiveResultAdapter implements AsyncResultAdapter {
+
+		private final ReactiveAdapter adapter;
+
+		private ReactiveResultAdapter(ReactiveAdapter adapter) {
+			this.adapter = adapter;
+		}
+
+		@Nullable
+		static AsyncResultAdapter forReturnType(Class<?> returnType) {
+			ReactiveAdapter adapter = ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnType);
+			return (adapter != null && !adapter.isNoValue() ? new ReactiveResultAdapter(adapter) : null);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public CompletableFuture<Object> toFuture(@Nullable Object returnValue) {
+			if (returnValue == null) {
+				return CompletableFuture.completedFuture(null);
+			}
+			Publisher<Object> publisher = this.adapter.toPublisher(returnValue);
+			if (this.adapter.isMultiValue()) {
+				return (CompletableFuture<Object>) (CompletableFuture<?>) Flux.from(publisher).collectList().toFuture();
+			}
+			return Mono.from(publisher).toFuture();
+		}
+
+		@Override
+		public Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+			Mono<Object> mono = Mono.defer(() -> {
+				try {
+					return Mono.fromFuture(futureSupplier.get());
+				}
+				catch (CacheOperationInvoker.ThrowableWrapper ex) {
+					return Mono.error(ex.getOriginal());
+				}
+			});
+			if (this.adapter.isMultiValue()) {
+				return this.adapter.fromPublisher(mono.flatMapMany(value -> Flux.fromIterable((Iterable<?>) value)));
+			}
+			return this.adapter.fromPublisher(mono);
+		}
+	}
+
+
 	private static final class CacheOperationCacheKey implements Comparable<CacheOperationCacheKey> {
 
 		private final CacheOperation cacheOperation;
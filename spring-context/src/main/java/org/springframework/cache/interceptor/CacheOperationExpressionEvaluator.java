@@ -68,6 +68,16 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 	private final Map<ExpressionKey, Expression> unlessCache = new ConcurrentHashMap<>(64);
 
 
+	/**
+	 * Create a new CacheOperationExpressionEvaluator, compiling frequently
+	 * evaluated key, condition and unless expressions by default.
+	 * @see #createCompilingParser()
+	 */
+	CacheOperationExpressionEvaluator() {
+		super(createCompilingParser());
+	}
+
+
 	/**
 	 * Create an {@link EvaluationContext}.
 	 * @param caches the current caches
@@ -87,6 +97,7 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 				caches, method, args, target, targetClass);
 		CacheEvaluationContext evaluationContext = new CacheEvaluationContext(
 				rootObject, targetMethod, args, getParameterNameDiscoverer());
+		applySharedDelegates(evaluationContext);
 		if (result == RESULT_UNAVAILABLE) {
 			evaluationContext.addUnavailableVariable(RESULT_VARIABLE);
 		}
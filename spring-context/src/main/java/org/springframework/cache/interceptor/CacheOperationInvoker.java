@@ -38,6 +38,21 @@ public interface CacheOperationInvoker {
 	 */
 	Object invoke() throws ThrowableWrapper;
 
+	/**
+	 * Invoke the cache operation defined by this instance with the given
+	 * arguments instead of the original ones, e.g. with a reduced collection
+	 * of keys for a bulk {@code @Cacheable} method.
+	 * <p>The default implementation ignores the given arguments and delegates
+	 * to {@link #invoke()}, i.e. invokes the operation with the original ones.
+	 * @param args the arguments to use (never the caller's argument array)
+	 * @return the result of the operation
+	 * @throws ThrowableWrapper if an error occurred while invoking the operation
+	 * @since 5.3
+	 */
+	default Object invoke(Object[] args) throws ThrowableWrapper {
+		return invoke();
+	}
+
 
 	/**
 	 * Wrap any exception thrown while invoking {@link #invoke()}.
@@ -33,6 +33,8 @@ public class CacheableOperation extends CacheOperation {
 
 	private final boolean sync;
 
+	private final boolean bulk;
+
 
 	/**
 	 * Create a new {@link CacheableOperation} instance from the given builder.
@@ -42,6 +44,7 @@ public class CacheableOperation extends CacheOperation {
 		super(b);
 		this.unless = b.unless;
 		this.sync = b.sync;
+		this.bulk = b.bulk;
 	}
 
 
@@ -54,6 +57,15 @@ public class CacheableOperation extends CacheOperation {
 		return this.sync;
 	}
 
+	/**
+	 * Return whether the entries of a collection-valued method are cached
+	 * individually.
+	 * @since 5.3
+	 */
+	public boolean isBulk() {
+		return this.bulk;
+	}
+
 
 	/**
 	 * A builder that can be used to create a {@link CacheableOperation}.
@@ -66,6 +78,8 @@ public class CacheableOperation extends CacheOperation {
 
 		private boolean sync;
 
+		private boolean bulk;
+
 		public void setUnless(String unless) {
 			this.unless = unless;
 		}
@@ -74,6 +88,15 @@ public class CacheableOperation extends CacheOperation {
 			this.sync = sync;
 		}
 
+		/**
+		 * Set whether the entries of a collection-valued method are cached
+		 * individually.
+		 * @since 5.3
+		 */
+		public void setBulk(boolean bulk) {
+			this.bulk = bulk;
+		}
+
 		@Override
 		protected StringBuilder getOperationDescription() {
 			StringBuilder sb = super.getOperationDescription();
@@ -83,6 +106,9 @@ public class CacheableOperation extends CacheOperation {
 			sb.append(" | sync='");
 			sb.append(this.sync);
 			sb.append("'");
+			sb.append(" | bulk='");
+			sb.append(this.bulk);
+			sb.append("'");
 			return sb;
 		}
 
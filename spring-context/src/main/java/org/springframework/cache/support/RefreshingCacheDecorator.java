@@ -0,0 +1,639 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.io.Serializable;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Cache decorator which protects the target cache against cache stampedes:
+ * concurrent misses for the same key are coalesced into a single load,
+ * stale values are served while one caller refreshes them, and entries may
+ * be refreshed ahead of their expiration.
+ *
+ * <p>Values are stored in the target cache together with their write time,
+ * which is compared against the configured {@linkplain #setTimeToLive time
+ * to live} on retrieval, independent of any expiration policy of the target
+ * cache itself. An entry becomes due for refresh once it reaches the time to
+ * live minus the {@linkplain #setRefreshAheadTime refresh-ahead time}; it
+ * may still be served until it exceeds the time to live by more than the
+ * {@linkplain #setMaxStaleness maximum staleness}.
+ *
+ * <p>Through {@link #get(Object, Callable)}, as used for {@code @Cacheable}
+ * operations with {@code sync=true}, a miss is loaded by a single caller while
+ * concurrent callers for the same key wait for its result, and an entry due
+ * for refresh is reloaded by a single caller while all other callers keep
+ * receiving the current value. The refresh happens on the calling thread,
+ * unless a {@linkplain #setRefreshExecutor refresh executor} is configured.
+ *
+ * <p>The regular {@link #get(Object)}, as used for {@code @Cacheable}
+ * operations without {@code sync=true}, takes part in the same protocol: a
+ * caller finding a miss, or a stale entry that is not being reloaded yet,
+ * gets {@code null} and is elected to load the value and {@link #put} it.
+ * Concurrent callers wait for that value in case of a miss, or keep receiving
+ * the stale value. A caller which does not put a value after all, e.g. since
+ * the value loading failed, should {@linkplain #releaseLoad release} its
+ * load; otherwise, concurrent callers only stop waiting for it once the
+ * {@linkplain #setLoadTimeout load timeout} has elapsed. The caching aspect
+ * takes care of this for {@code @Cacheable} operations.
+ *
+ * <p>The asynchronous {@code retrieve} variants never block nor elect the
+ * caller: they return the current value while fresh, or while stale but being
+ * reloaded, treating any other entry as a miss.
+ *
+ * <p>This decorator works with any target {@link Cache}, since it does not
+ * rely on native expiration or loading support. Note that the target cache
+ * contains wrapped values; access it through this decorator only.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see RefreshingCacheManagerProxy
+ */
+public class RefreshingCacheDecorator implements Cache {
+
+	private static final Log logger = LogFactory.getLog(RefreshingCacheDecorator.class);
+
+	private static final Object RETRY = new Object();
+
+	private static final Object RELEASED = new Object();
+
+
+	private final Cache targetCache;
+
+	@Nullable
+	private Duration timeToLive;
+
+	private Duration refreshAheadTime = Duration.ZERO;
+
+	private Duration maxStaleness = Duration.ZERO;
+
+	private Duration loadTimeout = Duration.ofSeconds(10);
+
+	@Nullable
+	private Executor refreshExecutor;
+
+	private Clock clock = Clock.systemUTC();
+
+	private final ConcurrentMap<Object, Load> loads = new ConcurrentHashMap<>(64);
+
+
+	/**
+	 * Create a new RefreshingCacheDecorator for the given target Cache.
+	 * @param targetCache the target Cache to decorate
+	 */
+	public RefreshingCacheDecorator(Cache targetCache) {
+		Assert.notNull(targetCache, "Target Cache must not be null");
+		this.targetCache = targetCache;
+	}
+
+
+	/**
+	 * Set the time after which an entry is considered stale.
+	 * <p>Default is none, with entries never becoming stale: in that case,
+	 * this decorator only coalesces concurrent misses.
+	 */
+	public void setTimeToLive(@Nullable Duration timeToLive) {
+		Assert.isTrue(timeToLive == null || !timeToLive.isNegative(), "'timeToLive' must not be negative");
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Set the time before the end of the time to live at which an entry
+	 * becomes due for refresh, while still being fresh.
+	 * <p>Default is 0, refreshing entries once they have become stale.
+	 */
+	public void setRefreshAheadTime(Duration refreshAheadTime) {
+		Assert.isTrue(refreshAheadTime != null && !refreshAheadTime.isNegative(),
+				"'refreshAheadTime' must not be negative");
+		this.refreshAheadTime = refreshAheadTime;
+	}
+
+	/**
+	 * Set the time for which an entry may be served beyond its time to live
+	 * while it is being refreshed. Beyond that, an entry is treated as a miss.
+	 * <p>Default is 0, never serving stale entries.
+	 */
+	public void setMaxStaleness(Duration maxStaleness) {
+		Assert.isTrue(maxStaleness != null && !maxStaleness.isNegative(), "'maxStaleness' must not be negative");
+		this.maxStaleness = maxStaleness;
+	}
+
+	/**
+	 * Set the maximum time that a caller elected to load a value may take
+	 * before concurrent callers stop waiting for it and another caller gets
+	 * elected.
+	 * <p>Default is 10 seconds.
+	 */
+	public void setLoadTimeout(Duration loadTimeout) {
+		Assert.isTrue(loadTimeout != null && !loadTimeout.isNegative() && !loadTimeout.isZero(),
+				"'loadTimeout' must be positive");
+		this.loadTimeout = loadTimeout;
+	}
+
+	/**
+	 * Set the executor to refresh entries with in the background, for
+	 * {@link #get(Object, Callable)} retrievals, with at most one refresh
+	 * per key being in progress at any time.
+	 * <p>Default is none, refreshing an entry on the thread of the caller
+	 * which finds it due for refresh first.
+	 * <p><b>Note:</b> A background refresh invokes the value loader, i.e. the
+	 * cached method, on a thread of the given executor, without any context
+	 * bound to the original caller's thread, such as a transaction or the
+	 * security context. Only use this for methods that do not depend on such
+	 * context.
+	 * @see org.springframework.core.task.SimpleAsyncTaskExecutor
+	 */
+	public void setRefreshExecutor(@Nullable Executor refreshExecutor) {
+		this.refreshExecutor = refreshExecutor;
+	}
+
+	/**
+	 * Set the clock to determine the age of entries with.
+	 * <p>Default is the system clock.
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "Clock must not be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Return the target Cache that this Cache should delegate to.
+	 */
+	public Cache getTargetCache() {
+		return this.targetCache;
+	}
+
+
+	@Override
+	public String getName() {
+		return this.targetCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.targetCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		while (true) {
+			long now = this.clock.millis();
+			TimestampedValue entry = lookup(key, now);
+			if (entry != null && !isStale(entry, now)) {
+				return new SimpleValueWrapper(entry.value);
+			}
+			Load load = this.loads.get(key);
+			if (load == null || load.isTimedOut()) {
+				// Elect the caller to load the value and put it
+				if (elect(key, load, Thread.currentThread(), true) != null) {
+					return null;
+				}
+				continue;
+			}
+			if (load.owner == Thread.currentThread()) {
+				return null;
+			}
+			if (entry != null) {
+				// Serve the stale value while a reload is in progress
+				return new SimpleValueWrapper(entry.value);
+			}
+			Object result = load.await();
+			if (result == RELEASED) {
+				// The elected caller did not put a value: load it independently
+				return null;
+			}
+			if (result != RETRY) {
+				return new SimpleValueWrapper(result);
+			}
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		while (true) {
+			long now = this.clock.millis();
+			TimestampedValue entry = lookup(key, now);
+			if (entry != null) {
+				if (isRefreshDue(entry, now)) {
+					if (this.refreshExecutor != null) {
+						refreshAsync(key, valueLoader, this.refreshExecutor);
+					}
+					else {
+						Load elected = electForRefresh(key, Thread.currentThread());
+						if (elected != null) {
+							return refresh(key, valueLoader, elected, (T) entry.value);
+						}
+					}
+				}
+				return (T) entry.value;
+			}
+			Load load = this.loads.get(key);
+			if (load == null || load.isTimedOut()) {
+				Load elected = elect(key, load, Thread.currentThread(), false);
+				if (elected != null) {
+					return load(key, valueLoader, elected);
+				}
+				continue;
+			}
+			if (load.owner == Thread.currentThread()) {
+				// Nested retrieval by the elected caller
+				return load(key, valueLoader, load);
+			}
+			Object result = load.await();
+			if (result != RETRY && result != RELEASED) {
+				return (T) result;
+			}
+		}
+	}
+
+	@Override
+	@Nullable
+	public CompletableFuture<ValueWrapper> retrieve(Object key) {
+		ValueWrapper wrapper = peek(key);
+		return (wrapper != null ? CompletableFuture.completedFuture(wrapper) : null);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		ValueWrapper wrapper = peek(key);
+		if (wrapper != null) {
+			return CompletableFuture.completedFuture((T) wrapper.get());
+		}
+		return valueLoader.get().thenApply(value -> {
+			put(key, value);
+			return value;
+		});
+	}
+
+	/**
+	 * Release the load of the given key that the current thread got elected
+	 * for through a {@link #get(Object)} miss, if it has not put a value yet.
+	 * <p>To be called by a caller which does not put a value after all, letting
+	 * concurrent callers load the value themselves instead of waiting for it.
+	 * @param key the key that the current thread did not put a value for
+	 */
+	public void releaseLoad(Object key) {
+		Load load = this.loads.get(key);
+		if (load != null && load.releasable && load.owner == Thread.currentThread() &&
+				this.loads.remove(key, load)) {
+			load.complete(RELEASED);
+		}
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.targetCache.put(key, toStoreValue(value));
+		complete(key, value);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		ValueWrapper existing = this.targetCache.putIfAbsent(key, toStoreValue(value));
+		if (existing == null) {
+			complete(key, value);
+			return null;
+		}
+		return new SimpleValueWrapper(fromStoreValue(existing.get()));
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.targetCache.evict(key);
+		release(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean evicted = this.targetCache.evictIfPresent(key);
+		release(key);
+		return evicted;
+	}
+
+	@Override
+	public void clear() {
+		this.targetCache.clear();
+		releaseAll();
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean invalidated = this.targetCache.invalidate();
+		releaseAll();
+		return invalidated;
+	}
+
+
+	/**
+	 * Look up the given key in the target cache, ignoring entries that are
+	 * stale beyond the maximum staleness.
+	 */
+	@Nullable
+	private TimestampedValue lookup(Object key, long now) {
+		ValueWrapper wrapper = this.targetCache.get(key);
+		if (wrapper == null) {
+			return null;
+		}
+		Object storeValue = wrapper.get();
+		if (!(storeValue instanceof TimestampedValue)) {
+			// Value put into the target cache directly: never considered stale
+			return new TimestampedValue(storeValue, Long.MAX_VALUE);
+		}
+		TimestampedValue entry = (TimestampedValue) storeValue;
+		Duration ttl = this.timeToLive;
+		if (ttl != null && entry.getAge(now) >= ttl.plus(this.maxStaleness).toMillis()) {
+			return null;
+		}
+		return entry;
+	}
+
+	/**
+	 * Look up the given key without blocking and without electing the caller,
+	 * serving a stale value only while a reload is in progress.
+	 */
+	@Nullable
+	private ValueWrapper peek(Object key) {
+		long now = this.clock.millis();
+		TimestampedValue entry = lookup(key, now);
+		if (entry == null) {
+			return null;
+		}
+		if (isStale(entry, now)) {
+			Load load = this.loads.get(key);
+			if (load == null || load.isTimedOut() || load.owner == Thread.currentThread()) {
+				return null;
+			}
+		}
+		return new SimpleValueWrapper(entry.value);
+	}
+
+	private boolean isStale(TimestampedValue entry, long now) {
+		Duration ttl = this.timeToLive;
+		return (ttl != null && entry.getAge(now) >= ttl.toMillis());
+	}
+
+	private boolean isRefreshDue(TimestampedValue entry, long now) {
+		Duration ttl = this.timeToLive;
+		return (ttl != null && entry.getAge(now) >= Math.max(0, ttl.minus(this.refreshAheadTime).toMillis()));
+	}
+
+	/**
+	 * Register a new load for the given key, replacing the given timed-out load, if any.
+	 * @param owner the thread performing the load, or {@code null} for a background refresh
+	 * @param releasable whether the load is performed by the caller of {@link #get(Object)},
+	 * which may {@linkplain #releaseLoad release} it
+	 * @return the new load if the current caller got elected, or {@code null} if
+	 * another caller got elected concurrently
+	 */
+	@Nullable
+	private Load elect(Object key, @Nullable Load timedOutLoad, @Nullable Thread owner, boolean releasable) {
+		Load load = new Load(owner, releasable, System.nanoTime() + this.loadTimeout.toNanos());
+		if (timedOutLoad != null) {
+			if (!this.loads.replace(key, timedOutLoad, load)) {
+				return null;
+			}
+			timedOutLoad.complete(RETRY);
+			return load;
+		}
+		return (this.loads.putIfAbsent(key, load) == null ? load : null);
+	}
+
+	@Nullable
+	private <T> T load(Object key, Callable<T> valueLoader, Load load) {
+		T value;
+		try {
+			value = valueLoader.call();
+		}
+		catch (Throwable ex) {
+			if (this.loads.remove(key, load)) {
+				load.complete(RETRY);
+			}
+			throw new ValueRetrievalException(key, valueLoader, ex);
+		}
+		put(key, value);
+		return value;
+	}
+
+	/**
+	 * Register a new load for refreshing the given key, unless a load is in progress.
+	 * @param owner the thread performing the refresh, or {@code null} for a background refresh
+	 * @return the new load if the current caller got elected, or {@code null} otherwise
+	 */
+	@Nullable
+	private Load electForRefresh(Object key, @Nullable Thread owner) {
+		Load current = this.loads.get(key);
+		if (current != null && !current.isTimedOut()) {
+			return null;
+		}
+		return elect(key, current, owner, false);
+	}
+
+	@Nullable
+	private <T> T refresh(Object key, Callable<T> valueLoader, Load load, @Nullable T currentValue) {
+		T value;
+		try {
+			value = valueLoader.call();
+		}
+		catch (Throwable ex) {
+			if (this.loads.remove(key, load)) {
+				load.complete(RETRY);
+			}
+			if (logger.isWarnEnabled()) {
+				logger.warn("Failed to refresh entry with key '" + key + "' in cache '" + getName() + "'", ex);
+			}
+			return currentValue;
+		}
+		put(key, value);
+		return value;
+	}
+
+	private void refreshAsync(Object key, Callable<?> valueLoader, Executor executor) {
+		Load load = electForRefresh(key, null);
+		if (load == null) {
+			return;
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					put(key, valueLoader.call());
+				}
+				catch (Throwable ex) {
+					if (this.loads.remove(key, load)) {
+						load.complete(RETRY);
+					}
+					if (logger.isWarnEnabled()) {
+						logger.warn("Failed to refresh entry with key '" + key + "' in cache '" + getName() + "'", ex);
+					}
+				}
+			});
+		}
+		catch (RuntimeException ex) {
+			if (this.loads.remove(key, load)) {
+				load.complete(RETRY);
+			}
+			if (logger.isWarnEnabled()) {
+				logger.warn("Failed to schedule refresh of entry with key '" + key + "' in cache '" + getName() + "'", ex);
+			}
+		}
+	}
+
+	/**
+	 * Complete the load in progress for the given key, if any, with the given value.
+	 */
+	private void complete(Object key, @Nullable Object value) {
+		Load load = this.loads.remove(key);
+		if (load != null) {
+			load.complete(value);
+		}
+	}
+
+	/**
+	 * Release any callers waiting for the given key, letting them retry.
+	 */
+	private void release(Object key) {
+		complete(key, RETRY);
+	}
+
+	private void releaseAll() {
+		for (Object key : this.loads.keySet()) {
+			release(key);
+		}
+	}
+
+	private Object toStoreValue(@Nullable Object value) {
+		if (value == null && this.targetCache instanceof AbstractValueAdaptingCache &&
+				!((AbstractValueAdaptingCache) this.targetCache).isAllowNullValues()) {
+			throw new IllegalArgumentException(
+					"Cache '" + getName() + "' is configured to not allow null values but null was provided");
+		}
+		return new TimestampedValue(value, this.clock.millis());
+	}
+
+	@Nullable
+	private static Object fromStoreValue(@Nullable Object storeValue) {
+		return (storeValue instanceof TimestampedValue ? ((TimestampedValue) storeValue).value : storeValue);
+	}
+
+
+	/**
+	 * Value stored in the target cache, along with the time it was written at.
+	 */
+	@SuppressWarnings("serial")
+	static final class TimestampedValue implements Serializable {
+
+		@Nullable
+		private final Object value;
+
+		private final long writeTime;
+
+		TimestampedValue(@Nullable Object value, long writeTime) {
+			this.value = value;
+			this.writeTime = writeTime;
+		}
+
+		long getAge(long now) {
+			return (now - this.writeTime);
+		}
+
+		@Override
+		public String toString() {
+			return "TimestampedValue [" + this.value + "] written at " + this.writeTime;
+		}
+	}
+
+
+	/**
+	 * A load in progress for a specific key, completed with the loaded value,
+	 * with {@link #RETRY} if the waiting callers should retry, or with
+	 * {@link #RELEASED} if they should load the value themselves.
+	 */
+	private final class Load {
+
+		@Nullable
+		final Thread owner;
+
+		final boolean releasable;
+
+		private final long deadline;  // in System.nanoTime() terms
+
+		private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+		Load(@Nullable Thread owner, boolean releasable, long deadline) {
+			this.owner = owner;
+			this.releasable = releasable;
+			this.deadline = deadline;
+		}
+
+		boolean isTimedOut() {
+			return (System.nanoTime() - this.deadline >= 0);
+		}
+
+		void complete(@Nullable Object value) {
+			this.result.complete(value);
+		}
+
+		@Nullable
+		Object await() {
+			try {
+				return this.result.get(Math.max(this.deadline - System.nanoTime(), 1), TimeUnit.NANOSECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(
+						"Interrupted while waiting for value of key in cache '" + getName() + "'", ex);
+			}
+			catch (ExecutionException | TimeoutException ex) {
+				return RETRY;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Proxy for a target {@link CacheManager}, exposing {@link RefreshingCacheDecorator}
+ * instances for the target's caches, with stampede protection and refresh-ahead
+ * as configured on this proxy. Works with any target CacheManager, e.g. a
+ * {@link org.springframework.cache.concurrent.ConcurrentMapCacheManager}, a
+ * Caffeine or a JCache based one.
+ *
+ * <p>A single decorator is kept per cache name, shared by all callers.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see #setTargetCacheManager
+ * @see RefreshingCacheDecorator
+ */
+public class RefreshingCacheManagerProxy implements CacheManager, InitializingBean {
+
+	@Nullable
+	private CacheManager targetCacheManager;
+
+	@Nullable
+	private Duration timeToLive;
+
+	@Nullable
+	private Duration refreshAheadTime;
+
+	@Nullable
+	private Duration maxStaleness;
+
+	@Nullable
+	private Duration loadTimeout;
+
+	@Nullable
+	private Executor refreshExecutor;
+
+	@Nullable
+	private Clock clock;
+
+	private final ConcurrentMap<String, Cache> decoratedCaches = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Create a new RefreshingCacheManagerProxy, setting the target CacheManager
+	 * through the {@link #setTargetCacheManager} bean property.
+	 */
+	public RefreshingCacheManagerProxy() {
+	}
+
+	/**
+	 * Create a new RefreshingCacheManagerProxy for the given target CacheManager.
+	 * @param targetCacheManager the target CacheManager to proxy
+	 */
+	public RefreshingCacheManagerProxy(CacheManager targetCacheManager) {
+		Assert.notNull(targetCacheManager, "Target CacheManager must not be null");
+		this.targetCacheManager = targetCacheManager;
+	}
+
+
+	/**
+	 * Set the target CacheManager to proxy.
+	 */
+	public void setTargetCacheManager(CacheManager targetCacheManager) {
+		this.targetCacheManager = targetCacheManager;
+	}
+
+	/**
+	 * Set the time after which an entry is considered stale.
+	 * @see RefreshingCacheDecorator#setTimeToLive
+	 */
+	public void setTimeToLive(@Nullable Duration timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Set the time before the end of the time to live at which an entry
+	 * becomes due for refresh.
+	 * @see RefreshingCacheDecorator#setRefreshAheadTime
+	 */
+	public void setRefreshAheadTime(@Nullable Duration refreshAheadTime) {
+		this.refreshAheadTime = refreshAheadTime;
+	}
+
+	/**
+	 * Set the time for which an entry may be served beyond its time to live
+	 * while it is being refreshed.
+	 * @see RefreshingCacheDecorator#setMaxStaleness
+	 */
+	public void setMaxStaleness(@Nullable Duration maxStaleness) {
+		this.maxStaleness = maxStaleness;
+	}
+
+	/**
+	 * Set the maximum time that a caller elected to load a value may take.
+	 * @see RefreshingCacheDecorator#setLoadTimeout
+	 */
+	public void setLoadTimeout(@Nullable Duration loadTimeout) {
+		this.loadTimeout = loadTimeout;
+	}
+
+	/**
+	 * Set the executor to refresh entries with in the background.
+	 * <p>Default is none, refreshing entries on the calling thread. Note that
+	 * a background refresh does not see any context bound to the caller's
+	 * thread, such as a transaction.
+	 * @see RefreshingCacheDecorator#setRefreshExecutor
+	 */
+	public void setRefreshExecutor(@Nullable Executor refreshExecutor) {
+		this.refreshExecutor = refreshExecutor;
+	}
+
+	/**
+	 * Set the clock to determine the age of entries with.
+	 * @see RefreshingCacheDecorator#setClock
+	 */
+	public void setClock(@Nullable Clock clock) {
+		this.clock = clock;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.targetCacheManager == null) {
+			throw new IllegalArgumentException("Property 'targetCacheManager' is required");
+		}
+	}
+
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		Assert.state(this.targetCacheManager != null, "No target CacheManager set");
+		Cache cache = this.decoratedCaches.get(name);
+		if (cache == null) {
+			Cache targetCache = this.targetCacheManager.getCache(name);
+			if (targetCache == null) {
+				return null;
+			}
+			cache = this.decoratedCaches.computeIfAbsent(name, key -> decorateCache(targetCache));
+		}
+		return cache;
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		Assert.state(this.targetCacheManager != null, "No target CacheManager set");
+		return this.targetCacheManager.getCacheNames();
+	}
+
+	/**
+	 * Decorate the given target Cache with a {@link RefreshingCacheDecorator}
+	 * configured according to this proxy's settings.
+	 * @param targetCache the Cache obtained from the target CacheManager
+	 * @return the decorated Cache object to be returned to the caller
+	 */
+	protected Cache decorateCache(Cache targetCache) {
+		RefreshingCacheDecorator cache = new RefreshingCacheDecorator(targetCache);
+		cache.setTimeToLive(this.timeToLive);
+		if (this.refreshAheadTime != null) {
+			cache.setRefreshAheadTime(this.refreshAheadTime);
+		}
+		if (this.maxStaleness != null) {
+			cache.setMaxStaleness(this.maxStaleness);
+		}
+		if (this.loadTimeout != null) {
+			cache.setLoadTimeout(this.loadTimeout);
+		}
+		if (this.refreshExecutor != null) {
+			cache.setRefreshExecutor(this.refreshExecutor);
+		}
+		if (this.clock != null) {
+			cache.setClock(this.clock);
+		}
+		return cache;
+	}
+
+}
@@ -16,8 +16,10 @@
 
 package org.springframework.context.event;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +41,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Abstract implementation of the {@link ApplicationEventMulticaster} interface,
@@ -63,9 +66,9 @@ import org.springframework.util.ObjectUtils;
 public abstract class AbstractApplicationEventMulticaster
 		implements ApplicationEventMulticaster, BeanClassLoaderAware, BeanFactoryAware {
 
-	private final ListenerRetriever defaultRetriever = new ListenerRetriever(false);
+	private final DefaultListenerRetriever defaultRetriever = new DefaultListenerRetriever();
 
-	final Map<ListenerCacheKey, ListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
+	final Map<ListenerCacheKey, CachedListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
 
 	@Nullable
 	private ClassLoader beanClassLoader;
@@ -75,6 +78,12 @@ public abstract class AbstractApplicationEventMulticaster
 
 	private Object retrievalMutex = this.defaultRetriever;
 
+	/** Incremented on every listener registry change, guarded by the retrieval mutex. */
+	private volatile long registryGeneration;
+
+	/** Whether a subclass overrides {@link #getApplicationListeners(ApplicationEvent, ResolvableType)}. */
+	private final boolean customListenerRetrieval = isCustomListenerRetrieval();
+
 
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
@@ -108,43 +117,93 @@ public abstract class AbstractApplicationEventMulticaster
 			// Explicitly remove target for a proxy, if registered already,
 			// in order to avoid double invocations of the same listener.
 			Object singletonTarget = AopProxyUtils.getSingletonTarget(listener);
+			Set<ApplicationListener<?>> listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
 			if (singletonTarget instanceof ApplicationListener) {
-				this.defaultRetriever.applicationListeners.remove(singletonTarget);
+				listeners.remove(singletonTarget);
 			}
-			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
+			listeners.add(listener);
+			this.defaultRetriever.applicationListeners = listeners;
+			this.registryGeneration++;
+
+			// Incrementally add the listener to the matching cached retrievers
+			this.retrieverCache.forEach((cacheKey, retriever) -> {
+				boolean supported = supportsEvent(listener, cacheKey.eventType, cacheKey.sourceType);
+				CachedListenerRetriever updated = retriever.withListener(listener, singletonTarget, supported);
+				if (updated != retriever) {
+					this.retrieverCache.replace(cacheKey, retriever, updated);
+				}
+			});
 		}
 	}
 
 	@Override
 	public void addApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
-			this.retrieverCache.clear();
+			Set<String> listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
+			listenerBeans.add(listenerBeanName);
+			this.defaultRetriever.applicationListenerBeans = listenerBeans;
+			this.registryGeneration++;
+
+			// Evict the cached retrievers that the listener bean may apply to,
+			// without instantiating it for a full match at this point.
+			this.retrieverCache.forEach((cacheKey, retriever) -> {
+				if (mayApplyToEvent(listenerBeanName, cacheKey.eventType)) {
+					this.retrieverCache.remove(cacheKey, retriever);
+				}
+			});
 		}
 	}
 
 	@Override
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			Set<ApplicationListener<?>> listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
+			listeners.remove(listener);
+			this.defaultRetriever.applicationListeners = listeners;
+			this.registryGeneration++;
+
+			// The listener may still be registered as a listener bean as well,
+			// in which case the affected retrievers need to be rebuilt.
+			boolean hasListenerBeans = !this.defaultRetriever.applicationListenerBeans.isEmpty();
+			this.retrieverCache.forEach((cacheKey, retriever) -> {
+				if (retriever.applicationListeners.contains(listener)) {
+					if (hasListenerBeans) {
+						this.retrieverCache.remove(cacheKey, retriever);
+					}
+					else {
+						this.retrieverCache.replace(cacheKey, retriever, retriever.withoutListener(listener));
+					}
+				}
+			});
 		}
 	}
 
 	@Override
 	public void removeApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
-			this.retrieverCache.clear();
+			Set<String> listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
+			listenerBeans.remove(listenerBeanName);
+			this.defaultRetriever.applicationListenerBeans = listenerBeans;
+			this.registryGeneration++;
+
+			// The bean's singleton instance may still be registered as a listener
+			// itself, in which case the affected retrievers need to be rebuilt.
+			Object singleton = (this.beanFactory != null ? this.beanFactory.getSingleton(listenerBeanName) : null);
+			this.retrieverCache.forEach((cacheKey, retriever) -> {
+				if (retriever.applicationListenerBeans.contains(listenerBeanName) ||
+						(singleton != null && retriever.applicationListeners.contains(singleton))) {
+					this.retrieverCache.remove(cacheKey, retriever);
+				}
+			});
 		}
 	}
 
 	@Override
 	public void removeAllListeners() {
 		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListeners.clear();
-			this.defaultRetriever.applicationListenerBeans.clear();
+			this.defaultRetriever.applicationListeners = Collections.emptySet();
+			this.defaultRetriever.applicationListenerBeans = Collections.emptySet();
+			this.registryGeneration++;
 			this.retrieverCache.clear();
 		}
 	}
@@ -156,9 +215,7 @@ public abstract class AbstractApplicationEventMulticaster
 	 * @see org.springframework.context.ApplicationListener
 	 */
 	protected Collection<ApplicationListener<?>> getApplicationListeners() {
-		synchronized (this.retrievalMutex) {
-			return this.defaultRetriever.getApplicationListeners();
-		}
+		return this.defaultRetriever.getApplicationListeners();
 	}
 
 	/**
@@ -173,12 +230,39 @@ public abstract class AbstractApplicationEventMulticaster
 	protected Collection<ApplicationListener<?>> getApplicationListeners(
 			ApplicationEvent event, ResolvableType eventType) {
 
+		return new ArrayList<>(getCachedApplicationListeners(event, eventType));
+	}
+
+	/**
+	 * Return the ApplicationListeners to multicast the given event to, as
+	 * determined by {@link #getApplicationListeners(ApplicationEvent, ResolvableType)}
+	 * but without copying a cached Collection, unless that method is overridden.
+	 * <p>The returned Collection must not be modified.
+	 * @param event the event to be propagated
+	 * @param eventType the event type
+	 * @return a Collection of ApplicationListeners
+	 */
+	Collection<ApplicationListener<?>> getApplicationListenersForMulticast(
+			ApplicationEvent event, ResolvableType eventType) {
+
+		return (this.customListenerRetrieval ? getApplicationListeners(event, eventType) :
+				getCachedApplicationListeners(event, eventType));
+	}
+
+	/**
+	 * Return a Collection of ApplicationListeners matching the given event type,
+	 * reading cached listener retrievers without synchronization.
+	 * <p>The returned Collection must not be modified.
+	 */
+	private Collection<ApplicationListener<?>> getCachedApplicationListeners(
+			ApplicationEvent event, ResolvableType eventType) {
+
 		Object source = event.getSource();
 		Class<?> sourceType = (source != null ? source.getClass() : null);
 		ListenerCacheKey cacheKey = new ListenerCacheKey(eventType, sourceType);
 
 		// Quick check for existing entry on ConcurrentHashMap...
-		ListenerRetriever retriever = this.retrieverCache.get(cacheKey);
+		CachedListenerRetriever retriever = this.retrieverCache.get(cacheKey);
 		if (retriever != null) {
 			return retriever.getApplicationListeners();
 		}
@@ -186,49 +270,54 @@ public abstract class AbstractApplicationEventMulticaster
 		if (this.beanClassLoader == null ||
 				(ClassUtils.isCacheSafe(event.getClass(), this.beanClassLoader) &&
 						(sourceType == null || ClassUtils.isCacheSafe(sourceType, this.beanClassLoader)))) {
-			// Fully synchronized building and caching of a ListenerRetriever
-			synchronized (this.retrievalMutex) {
-				retriever = this.retrieverCache.get(cacheKey);
-				if (retriever != null) {
-					return retriever.getApplicationListeners();
-				}
-				retriever = new ListenerRetriever(true);
-				Collection<ApplicationListener<?>> listeners =
-						retrieveApplicationListeners(eventType, sourceType, retriever);
-				this.retrieverCache.put(cacheKey, retriever);
-				return listeners;
+			// Build a CachedListenerRetriever from a snapshot of the listener registry
+			long generation = this.registryGeneration;
+			Set<ApplicationListener<?>> filteredListeners = new LinkedHashSet<>();
+			Set<String> filteredListenerBeans = new LinkedHashSet<>();
+			Collection<ApplicationListener<?>> listeners = retrieveApplicationListeners(
+					eventType, sourceType, filteredListeners, filteredListenerBeans);
+			retriever = new CachedListenerRetriever(new ArrayList<>(filteredListeners), filteredListenerBeans);
+			if (this.retrieverCache.putIfAbsent(cacheKey, retriever) == null &&
+					this.registryGeneration != generation) {
+				// The registry changed in the meantime: the snapshot may be outdated
+				this.retrieverCache.remove(cacheKey, retriever);
 			}
+			return listeners;
 		}
 		else {
-			// No ListenerRetriever caching -> no synchronization necessary
-			return retrieveApplicationListeners(eventType, sourceType, null);
+			// No CachedListenerRetriever caching -> no snapshot necessary
+			return retrieveApplicationListeners(eventType, sourceType, null, null);
 		}
 	}
 
+	private boolean isCustomListenerRetrieval() {
+		Method method = ReflectionUtils.findMethod(
+				getClass(), "getApplicationListeners", ApplicationEvent.class, ResolvableType.class);
+		return (method != null && method.getDeclaringClass() != AbstractApplicationEventMulticaster.class);
+	}
+
 	/**
 	 * Actually retrieve the application listeners for the given event and source type.
 	 * @param eventType the event type
 	 * @param sourceType the event source type
-	 * @param retriever the ListenerRetriever, if supposed to populate one (for caching purposes)
+	 * @param filteredListeners the listener Set, if supposed to populate one (for caching purposes)
+	 * @param filteredListenerBeans the listener bean Set, if supposed to populate one (for caching purposes)
 	 * @return the pre-filtered list of application listeners for the given event and source type
 	 */
 	private Collection<ApplicationListener<?>> retrieveApplicationListeners(
-			ResolvableType eventType, @Nullable Class<?> sourceType, @Nullable ListenerRetriever retriever) {
+			ResolvableType eventType, @Nullable Class<?> sourceType,
+			@Nullable Set<ApplicationListener<?>> filteredListeners, @Nullable Set<String> filteredListenerBeans) {
 
 		List<ApplicationListener<?>> allListeners = new ArrayList<>();
-		Set<ApplicationListener<?>> listeners;
-		Set<String> listenerBeans;
-		synchronized (this.retrievalMutex) {
-			listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
-			listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
-		}
+		Set<ApplicationListener<?>> listeners = this.defaultRetriever.applicationListeners;
+		Set<String> listenerBeans = this.defaultRetriever.applicationListenerBeans;
 
 		// Add programmatically registered listeners, including ones coming
 		// from ApplicationListenerDetector (singleton beans and inner beans).
 		for (ApplicationListener<?> listener : listeners) {
 			if (supportsEvent(listener, eventType, sourceType)) {
-				if (retriever != null) {
-					retriever.applicationListeners.add(listener);
+				if (filteredListeners != null) {
+					filteredListeners.add(listener);
 				}
 				allListeners.add(listener);
 			}
@@ -244,12 +333,12 @@ public abstract class AbstractApplicationEventMulticaster
 						ApplicationListener<?> listener =
 								beanFactory.getBean(listenerBeanName, ApplicationListener.class);
 						if (!allListeners.contains(listener) && supportsEvent(listener, eventType, sourceType)) {
-							if (retriever != null) {
+							if (filteredListeners != null && filteredListenerBeans != null) {
 								if (beanFactory.isSingleton(listenerBeanName)) {
-									retriever.applicationListeners.add(listener);
+									filteredListeners.add(listener);
 								}
 								else {
-									retriever.applicationListenerBeans.add(listenerBeanName);
+									filteredListenerBeans.add(listenerBeanName);
 								}
 							}
 							allListeners.add(listener);
@@ -260,8 +349,8 @@ public abstract class AbstractApplicationEventMulticaster
 						// ApplicationListenerDetector, possibly ruled out by additional
 						// BeanDefinition metadata (e.g. factory method generics) above.
 						Object listener = beanFactory.getSingleton(listenerBeanName);
-						if (retriever != null) {
-							retriever.applicationListeners.remove(listener);
+						if (filteredListeners != null) {
+							filteredListeners.remove(listener);
 						}
 						allListeners.remove(listener);
 					}
@@ -274,13 +363,32 @@ public abstract class AbstractApplicationEventMulticaster
 		}
 
 		AnnotationAwareOrderComparator.sort(allListeners);
-		if (retriever != null && retriever.applicationListenerBeans.isEmpty()) {
-			retriever.applicationListeners.clear();
-			retriever.applicationListeners.addAll(allListeners);
+		if (filteredListeners != null && filteredListenerBeans != null && filteredListenerBeans.isEmpty()) {
+			filteredListeners.clear();
+			filteredListeners.addAll(allListeners);
 		}
 		return allListeners;
 	}
 
+	/**
+	 * Determine whether the given listener bean may apply to the given event type,
+	 * based on its type as far as determinable without instantiating the bean.
+	 */
+	private boolean mayApplyToEvent(String listenerBeanName, ResolvableType eventType) {
+		if (this.beanFactory == null) {
+			return true;
+		}
+		try {
+			Class<?> listenerType = this.beanFactory.getType(listenerBeanName, false);
+			return (listenerType == null || GenericApplicationListener.class.isAssignableFrom(listenerType) ||
+					SmartApplicationListener.class.isAssignableFrom(listenerType) ||
+					supportsEvent(listenerType, eventType));
+		}
+		catch (NoSuchBeanDefinitionException ex) {
+			return true;
+		}
+	}
+
 	/**
 	 * Filter a bean-defined listener early through checking its generically declared
 	 * event type before trying to instantiate it.
@@ -411,32 +519,26 @@ public abstract class AbstractApplicationEventMulticaster
 
 
 	/**
-	 * Helper class that encapsulates a specific set of target listeners,
-	 * allowing for efficient retrieval of pre-filtered listeners.
-	 * <p>An instance of this helper gets cached per event type and source type.
+	 * Helper class that holds the registered listeners and listener beans,
+	 * replaced on modification (copy-on-write) under the retrieval mutex.
 	 */
-	private class ListenerRetriever {
-
-		public final Set<ApplicationListener<?>> applicationListeners = new LinkedHashSet<>();
-
-		public final Set<String> applicationListenerBeans = new LinkedHashSet<>();
+	private class DefaultListenerRetriever {
 
-		private final boolean preFiltered;
+		public volatile Set<ApplicationListener<?>> applicationListeners = Collections.emptySet();
 
-		public ListenerRetriever(boolean preFiltered) {
-			this.preFiltered = preFiltered;
-		}
+		public volatile Set<String> applicationListenerBeans = Collections.emptySet();
 
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
-			List<ApplicationListener<?>> allListeners = new ArrayList<>(
-					this.applicationListeners.size() + this.applicationListenerBeans.size());
-			allListeners.addAll(this.applicationListeners);
-			if (!this.applicationListenerBeans.isEmpty()) {
+			Set<ApplicationListener<?>> listeners = this.applicationListeners;
+			Set<String> listenerBeans = this.applicationListenerBeans;
+			List<ApplicationListener<?>> allListeners = new ArrayList<>(listeners.size() + listenerBeans.size());
+			allListeners.addAll(listeners);
+			if (!listenerBeans.isEmpty()) {
 				BeanFactory beanFactory = getBeanFactory();
-				for (String listenerBeanName : this.applicationListenerBeans) {
+				for (String listenerBeanName : listenerBeans) {
 					try {
 						ApplicationListener<?> listener = beanFactory.getBean(listenerBeanName, ApplicationListener.class);
-						if (this.preFiltered || !allListeners.contains(listener)) {
+						if (!allListeners.contains(listener)) {
 							allListeners.add(listener);
 						}
 					}
@@ -446,11 +548,88 @@ public abstract class AbstractApplicationEventMulticaster
 					}
 				}
 			}
-			if (!this.preFiltered || !this.applicationListenerBeans.isEmpty()) {
-				AnnotationAwareOrderComparator.sort(allListeners);
+			AnnotationAwareOrderComparator.sort(allListeners);
+			return allListeners;
+		}
+	}
+
+
+	/**
+	 * Helper class that encapsulates a specific set of target listeners,
+	 * allowing for efficient retrieval of pre-filtered listeners.
+	 * <p>An instance of this helper gets cached per event type and source type.
+	 * Instances are immutable: registry changes lead to a modified copy.
+	 */
+	private class CachedListenerRetriever {
+
+		public final List<ApplicationListener<?>> applicationListeners;
+
+		public final Set<String> applicationListenerBeans;
+
+		public CachedListenerRetriever(List<ApplicationListener<?>> applicationListeners,
+				Set<String> applicationListenerBeans) {
+
+			this.applicationListeners = Collections.unmodifiableList(applicationListeners);
+			this.applicationListenerBeans = applicationListenerBeans;
+		}
+
+		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			if (this.applicationListenerBeans.isEmpty()) {
+				// Already sorted
+				return this.applicationListeners;
+			}
+			List<ApplicationListener<?>> allListeners = new ArrayList<>(
+					this.applicationListeners.size() + this.applicationListenerBeans.size());
+			allListeners.addAll(this.applicationListeners);
+			BeanFactory beanFactory = getBeanFactory();
+			for (String listenerBeanName : this.applicationListenerBeans) {
+				try {
+					allListeners.add(beanFactory.getBean(listenerBeanName, ApplicationListener.class));
+				}
+				catch (NoSuchBeanDefinitionException ex) {
+					// Singleton listener instance (without backing bean definition) disappeared -
+					// probably in the middle of the destruction phase
+				}
 			}
+			AnnotationAwareOrderComparator.sort(allListeners);
 			return allListeners;
 		}
+
+		/**
+		 * Return a copy of this retriever with the given listener added,
+		 * if supported, and the given proxy target removed, if contained.
+		 * @return the updated retriever, or this instance if unchanged
+		 */
+		public CachedListenerRetriever withListener(
+				ApplicationListener<?> listener, @Nullable Object singletonTarget, boolean supported) {
+
+			boolean addListener = (supported && !this.applicationListeners.contains(listener));
+			boolean removeTarget = (singletonTarget != null && this.applicationListeners.contains(singletonTarget));
+			if (!addListener && !removeTarget) {
+				return this;
+			}
+			List<ApplicationListener<?>> listeners = new ArrayList<>(this.applicationListeners.size() + 1);
+			listeners.addAll(this.applicationListeners);
+			if (removeTarget) {
+				listeners.remove(singletonTarget);
+			}
+			if (addListener) {
+				listeners.add(listener);
+				if (this.applicationListenerBeans.isEmpty()) {
+					AnnotationAwareOrderComparator.sort(listeners);
+				}
+			}
+			return new CachedListenerRetriever(listeners, this.applicationListenerBeans);
+		}
+
+		/**
+		 * Return a copy of this retriever without the given listener.
+		 */
+		public CachedListenerRetriever withoutListener(ApplicationListener<?> listener) {
+			List<ApplicationListener<?>> listeners = new ArrayList<>(this.applicationListeners);
+			listeners.remove(listener);
+			return new CachedListenerRetriever(listeners, this.applicationListenerBeans);
+		}
 	}
 
 }
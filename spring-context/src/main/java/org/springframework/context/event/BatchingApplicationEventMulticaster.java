@@ -0,0 +1,514 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * {@link SimpleApplicationEventMulticaster} variant which queues events per
+ * listener and delivers them asynchronously in batches, instead of invoking
+ * each listener once per event.
+ *
+ * <p>A batch is delivered as soon as it reaches the {@linkplain #setMaxBatchSize
+ * maximum batch size}, and at the latest once the {@linkplain #setMaxLatency
+ * maximum latency} has passed since the first event of the batch got queued.
+ * A {@link BatchApplicationListener} receives each batch as a whole; any other
+ * listener is invoked for each event of the batch in turn, within a single task.
+ * Batches for the same listener are delivered one after the other, in
+ * publication order.
+ *
+ * <p>Optionally, a {@linkplain #setCoalescingKeyResolver coalescing key} may be
+ * derived from each event: a queued event which has not been delivered yet
+ * gets replaced by a subsequent event with the same key, which is useful for
+ * high-volume notifications such as cache invalidations where only the latest
+ * event per key matters.
+ *
+ * <p>Batches are delivered through the {@linkplain #setTaskExecutor task executor},
+ * if specified, or through the {@linkplain #setTaskScheduler task scheduler}
+ * otherwise. By default, a single-threaded scheduler is created and shut down
+ * along with this multicaster. {@link ApplicationContextEvent ApplicationContextEvents}
+ * are not batched but multicast immediately, and neither are events for
+ * {@code @TransactionalEventListener} methods, see {@link #isBatched}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see BatchApplicationListener
+ */
+public class BatchingApplicationEventMulticaster extends SimpleApplicationEventMulticaster
+		implements DisposableBean {
+
+	@Nullable
+	private static final Class<?> transactionalListenerAdapterClass;
+
+	static {
+		Class<?> adapterClass;
+		try {
+			adapterClass = ClassUtils.forName(
+					"org.springframework.transaction.event.ApplicationListenerMethodTransactionalAdapter",
+					BatchingApplicationEventMulticaster.class.getClassLoader());
+		}
+		catch (ClassNotFoundException ex) {
+			// spring-tx not available - no transactional event listeners then.
+			adapterClass = null;
+		}
+		transactionalListenerAdapterClass = adapterClass;
+	}
+
+
+	private int maxBatchSize = 100;
+
+	private Duration maxLatency = Duration.ofMillis(100);
+
+	@Nullable
+	private Function<ApplicationEvent, ?> coalescingKeyResolver;
+
+	@Nullable
+	private volatile TaskScheduler taskScheduler;
+
+	@Nullable
+	private ThreadPoolTaskScheduler defaultTaskScheduler;
+
+	private final Map<ApplicationListener<?>, EventQueue> eventQueues = new ConcurrentHashMap<>(64);
+
+	private final AtomicLong queuedEventCount = new AtomicLong();
+
+	private final AtomicLong coalescedEventCount = new AtomicLong();
+
+	private final AtomicLong deliveredEventCount = new AtomicLong();
+
+	private final AtomicLong deliveredBatchCount = new AtomicLong();
+
+
+	/**
+	 * Create a new BatchingApplicationEventMulticaster.
+	 */
+	public BatchingApplicationEventMulticaster() {
+	}
+
+	/**
+	 * Create a new BatchingApplicationEventMulticaster for the given BeanFactory.
+	 */
+	public BatchingApplicationEventMulticaster(BeanFactory beanFactory) {
+		super(beanFactory);
+	}
+
+
+	/**
+	 * Set the maximum number of events to deliver to a listener at once.
+	 * <p>Default is 100.
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "'maxBatchSize' must be positive");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Return the maximum number of events to deliver to a listener at once.
+	 */
+	public int getMaxBatchSize() {
+		return this.maxBatchSize;
+	}
+
+	/**
+	 * Set the maximum time that an event may be queued before its batch
+	 * gets delivered, even if the batch has not reached the maximum size yet.
+	 * <p>Default is 100 milliseconds.
+	 */
+	public void setMaxLatency(Duration maxLatency) {
+		Assert.notNull(maxLatency, "'maxLatency' must not be null");
+		Assert.isTrue(!maxLatency.isNegative(), "'maxLatency' must not be negative");
+		this.maxLatency = maxLatency;
+	}
+
+	/**
+	 * Return the maximum time that an event may be queued before delivery.
+	 */
+	public Duration getMaxLatency() {
+		return this.maxLatency;
+	}
+
+	/**
+	 * Set a function which derives a coalescing key from each event, with
+	 * a queued event getting replaced by a subsequent event with an equal key
+	 * (keeping the position of the original event within the batch).
+	 * <p>The function may return {@code null} for events which are not to be
+	 * coalesced. Default is none, delivering every event.
+	 */
+	public void setCoalescingKeyResolver(@Nullable Function<ApplicationEvent, ?> coalescingKeyResolver) {
+		this.coalescingKeyResolver = coalescingKeyResolver;
+	}
+
+	/**
+	 * Set the {@link TaskScheduler} to trigger the delivery of pending batches
+	 * with once the maximum latency has passed.
+	 * <p>Default is a single-threaded {@link ThreadPoolTaskScheduler}, created
+	 * on first use and shut down on {@link #destroy()}. The given scheduler
+	 * also delivers the batches themselves unless a {@linkplain #setTaskExecutor
+	 * task executor} has been specified.
+	 */
+	public void setTaskScheduler(@Nullable TaskScheduler taskScheduler) {
+		this.taskScheduler = taskScheduler;
+	}
+
+
+	/**
+	 * Return the number of events currently queued for delivery, across all listeners.
+	 */
+	public int getPendingEventCount() {
+		int count = 0;
+		for (EventQueue queue : this.eventQueues.values()) {
+			count += queue.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Return the total number of events queued for delivery so far,
+	 * counting each listener that an event has been queued for.
+	 */
+	public long getQueuedEventCount() {
+		return this.queuedEventCount.get();
+	}
+
+	/**
+	 * Return the total number of queued events which have been replaced
+	 * by a subsequent event with the same coalescing key.
+	 * @see #setCoalescingKeyResolver
+	 */
+	public long getCoalescedEventCount() {
+		return this.coalescedEventCount.get();
+	}
+
+	/**
+	 * Return the total number of events delivered in batches so far.
+	 */
+	public long getDeliveredEventCount() {
+		return this.deliveredEventCount.get();
+	}
+
+	/**
+	 * Return the total number of batches delivered so far.
+	 */
+	public long getDeliveredBatchCount() {
+		return this.deliveredBatchCount.get();
+	}
+
+
+	@Override
+	public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+		ResolvableType type = (eventType != null ? eventType : ResolvableType.forInstance(event));
+		Executor executor = getTaskExecutor();
+		for (ApplicationListener<?> listener : getApplicationListenersForMulticast(event, type)) {
+			if (isBatched(event, listener)) {
+				boolean added = false;
+				while (!added) {
+					// Retry with a new queue if released concurrently after delivering its last batch
+					added = this.eventQueues.computeIfAbsent(listener, EventQueue::new).add(event);
+				}
+			}
+			else if (executor != null) {
+				executor.execute(() -> invokeListener(listener, event));
+			}
+			else {
+				invokeListener(listener, event);
+			}
+		}
+	}
+
+	/**
+	 * Determine whether the given event is to be queued for batch delivery
+	 * to the given listener, as opposed to regular multicasting.
+	 * <p>The default implementation batches all events except for
+	 * {@link ApplicationContextEvent ApplicationContextEvents}, which are
+	 * expected to be processed by the time the context lifecycle method returns,
+	 * and except for listeners which need to be invoked on the publishing thread:
+	 * {@code @TransactionalEventListener} methods bind to the transaction that
+	 * is active on that thread.
+	 * @param event the event to multicast
+	 * @param listener the listener to multicast the event to
+	 */
+	protected boolean isBatched(ApplicationEvent event, ApplicationListener<?> listener) {
+		return !(event instanceof ApplicationContextEvent ||
+				(transactionalListenerAdapterClass != null && transactionalListenerAdapterClass.isInstance(listener)));
+	}
+
+	/**
+	 * Invoke the given listener with the given batch of events.
+	 * <p>A {@link BatchApplicationListener} receives the batch as a whole;
+	 * any other listener is {@linkplain #invokeListener invoked} for each event.
+	 * @param listener the ApplicationListener to invoke
+	 * @param events the batch of events to deliver (never empty)
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	protected void invokeListener(ApplicationListener<?> listener, List<ApplicationEvent> events) {
+		if (listener instanceof BatchApplicationListener) {
+			ErrorHandler errorHandler = getErrorHandler();
+			if (errorHandler != null) {
+				try {
+					((BatchApplicationListener) listener).onApplicationEvents(events);
+				}
+				catch (Throwable err) {
+					errorHandler.handleError(err);
+				}
+			}
+			else {
+				((BatchApplicationListener) listener).onApplicationEvents(events);
+			}
+		}
+		else {
+			for (ApplicationEvent event : events) {
+				invokeListener(listener, event);
+			}
+		}
+	}
+
+	/**
+	 * Deliver all pending batches right away, in the calling thread,
+	 * except for those whose delivery is in progress already.
+	 */
+	public void flush() {
+		for (EventQueue queue : this.eventQueues.values()) {
+			queue.flushNow();
+		}
+	}
+
+	/**
+	 * Deliver all pending batches and shut down the default task scheduler, if any.
+	 */
+	@Override
+	public void destroy() {
+		flush();
+		synchronized (this.eventQueues) {
+			if (this.defaultTaskScheduler != null) {
+				this.defaultTaskScheduler.shutdown();
+				this.defaultTaskScheduler = null;
+				this.taskScheduler = null;
+			}
+		}
+	}
+
+	private TaskScheduler obtainTaskScheduler() {
+		TaskScheduler scheduler = this.taskScheduler;
+		if (scheduler == null) {
+			synchronized (this.eventQueues) {
+				scheduler = this.taskScheduler;
+				if (scheduler == null) {
+					ThreadPoolTaskScheduler defaultScheduler = new ThreadPoolTaskScheduler();
+					defaultScheduler.setThreadNamePrefix("batching-multicaster-");
+					defaultScheduler.setDaemon(true);
+					defaultScheduler.setRemoveOnCancelPolicy(true);
+					defaultScheduler.setWaitForTasksToCompleteOnShutdown(true);
+					defaultScheduler.initialize();
+					this.defaultTaskScheduler = defaultScheduler;
+					this.taskScheduler = defaultScheduler;
+					scheduler = defaultScheduler;
+				}
+			}
+		}
+		return scheduler;
+	}
+
+	private void execute(Runnable task) {
+		Executor executor = getTaskExecutor();
+		if (executor != null) {
+			executor.execute(task);
+		}
+		else {
+			obtainTaskScheduler().schedule(task, Instant.now());
+		}
+	}
+
+
+	/**
+	 * Queue of pending events for a specific listener, delivering at most one
+	 * batch at a time. Released once drained, so that no queue is retained for
+	 * listeners that have been removed or are not invoked anymore.
+	 */
+	private class EventQueue {
+
+		private final ApplicationListener<?> listener;
+
+		private List<PendingEvent> events = new ArrayList<>();
+
+		private final Map<Object, Integer> keyIndex = new HashMap<>();
+
+		@Nullable
+		private ScheduledFuture<?> scheduledFlush;
+
+		private boolean flushing;
+
+		private boolean released;
+
+		EventQueue(ApplicationListener<?> listener) {
+			this.listener = listener;
+		}
+
+		public synchronized int size() {
+			return this.events.size();
+		}
+
+		/**
+		 * Add the given event to this queue.
+		 * @return {@code true} if added, or {@code false} if this queue has been
+		 * released and the event is to be added to a new queue instead
+		 */
+		public boolean add(ApplicationEvent event) {
+			Function<ApplicationEvent, ?> keyResolver = coalescingKeyResolver;
+			Object key = (keyResolver != null ? keyResolver.apply(event) : null);
+			synchronized (this) {
+				if (this.released) {
+					return false;
+				}
+				queuedEventCount.incrementAndGet();
+				Integer index = (key != null ? this.keyIndex.get(key) : null);
+				if (index != null) {
+					this.events.set(index, new PendingEvent(key, event));
+					coalescedEventCount.incrementAndGet();
+				}
+				else {
+					if (key != null) {
+						this.keyIndex.put(key, this.events.size());
+					}
+					this.events.add(new PendingEvent(key, event));
+				}
+				if (!this.flushing) {
+					if (this.events.size() >= maxBatchSize) {
+						if (this.scheduledFlush == null || this.scheduledFlush.cancel(false)) {
+							// Batch complete: deliver right away instead of waiting for the latency timer
+							this.flushing = true;
+							this.scheduledFlush = null;
+							execute(this::flush);
+						}
+					}
+					else if (this.scheduledFlush == null) {
+						this.scheduledFlush = obtainTaskScheduler().schedule(
+								() -> execute(this::flush), Instant.now().plus(maxLatency));
+					}
+				}
+				return true;
+			}
+		}
+
+		public void flushNow() {
+			synchronized (this) {
+				if (this.flushing || (this.scheduledFlush != null && !this.scheduledFlush.cancel(false))) {
+					// Delivery in progress or about to start
+					return;
+				}
+				this.flushing = true;
+				this.scheduledFlush = null;
+			}
+			flush();
+		}
+
+		private void flush() {
+			while (true) {
+				List<ApplicationEvent> batch;
+				synchronized (this) {
+					this.scheduledFlush = null;
+					batch = takeBatch();
+					if (batch.isEmpty()) {
+						this.flushing = false;
+						this.released = true;
+						eventQueues.remove(this.listener, this);
+						return;
+					}
+					this.flushing = true;
+				}
+				boolean delivered = false;
+				try {
+					invokeListener(this.listener, batch);
+					deliveredBatchCount.incrementAndGet();
+					deliveredEventCount.addAndGet(batch.size());
+					delivered = true;
+				}
+				finally {
+					if (!delivered) {
+						synchronized (this) {
+							// Leave the remaining events for a subsequent delivery attempt
+							this.flushing = false;
+							if (!this.events.isEmpty()) {
+								this.scheduledFlush = obtainTaskScheduler().schedule(
+										() -> execute(this::flush), Instant.now().plus(maxLatency));
+							}
+						}
+					}
+				}
+			}
+		}
+
+		private List<ApplicationEvent> takeBatch() {
+			int batchSize = Math.min(this.events.size(), maxBatchSize);
+			List<ApplicationEvent> batch = new ArrayList<>(batchSize);
+			for (int i = 0; i < batchSize; i++) {
+				batch.add(this.events.get(i).event);
+			}
+			if (batchSize == this.events.size()) {
+				this.events.clear();
+				this.keyIndex.clear();
+			}
+			else {
+				this.events = new ArrayList<>(this.events.subList(batchSize, this.events.size()));
+				this.keyIndex.clear();
+				for (int i = 0; i < this.events.size(); i++) {
+					Object key = this.events.get(i).key;
+					if (key != null) {
+						this.keyIndex.put(key, i);
+					}
+				}
+			}
+			return batch;
+		}
+	}
+
+
+	private static final class PendingEvent {
+
+		@Nullable
+		final Object key;
+
+		final ApplicationEvent event;
+
+		PendingEvent(@Nullable Object key, ApplicationEvent event) {
+			this.key = key;
+			this.event = event;
+		}
+	}
+
+}
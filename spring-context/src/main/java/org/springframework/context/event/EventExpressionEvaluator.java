@@ -42,6 +42,16 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 	private final Map<ExpressionKey, Expression> conditionCache = new ConcurrentHashMap<>(64);
 
 
+	/**
+	 * Create a new EventExpressionEvaluator, compiling frequently evaluated
+	 * conditions by default.
+	 * @see #createCompilingParser()
+	 */
+	EventExpressionEvaluator() {
+		super(createCompilingParser());
+	}
+
+
 	/**
 	 * Determine if the condition defined by the specified expression evaluates
 	 * to {@code true}.
@@ -52,6 +62,7 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 		EventExpressionRootObject root = new EventExpressionRootObject(event, args);
 		MethodBasedEvaluationContext evaluationContext = new MethodBasedEvaluationContext(
 				root, targetMethod, args, getParameterNameDiscoverer());
+		applySharedDelegates(evaluationContext);
 		if (beanFactory != null) {
 			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
 		}
@@ -16,12 +16,26 @@
 
 package org.springframework.context.expression;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.SpringProperties;
 import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.support.StandardTypeConverter;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
@@ -36,9 +50,23 @@ import org.springframework.util.ObjectUtils;
  */
 public abstract class CachedExpressionEvaluator {
 
+	/**
+	 * System property that instructs Spring to use the given SpEL compiler mode
+	 * for all expression parsers, as also evaluated by {@link SpelParserConfiguration}.
+	 */
+	private static final String COMPILER_MODE_PROPERTY_NAME = "spring.expression.compiler.mode";
+
+
 	private final SpelExpressionParser parser;
 
-	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+	private final ParameterNameDiscoverer parameterNameDiscoverer =
+			new CachingParameterNameDiscoverer(new DefaultParameterNameDiscoverer());
+
+	private final PropertyAccessor propertyAccessor = new ReflectivePropertyAccessor();
+
+	private final MethodResolver methodResolver = new ReflectiveMethodResolver();
+
+	private final StandardTypeConverter typeConverter = new StandardTypeConverter();
 
 
 	/**
@@ -57,6 +85,21 @@ public abstract class CachedExpressionEvaluator {
 	}
 
 
+	/**
+	 * Create a {@link SpelExpressionParser} which compiles an expression once it
+	 * has been interpreted a number of times, reverting to interpretation if the
+	 * compiled form fails ({@link SpelCompilerMode#MIXED}).
+	 * <p>A compiler mode specified through the "spring.expression.compiler.mode"
+	 * property takes precedence, e.g. "off" for interpreting all expressions.
+	 * @since 5.3
+	 */
+	protected static SpelExpressionParser createCompilingParser() {
+		SpelCompilerMode compilerMode = (SpringProperties.getProperty(COMPILER_MODE_PROPERTY_NAME) != null ?
+				null : SpelCompilerMode.MIXED);
+		return new SpelExpressionParser(new SpelParserConfiguration(compilerMode, null));
+	}
+
+
 	/**
 	 * Return the {@link SpelExpressionParser} to use.
 	 */
@@ -65,7 +108,8 @@ public abstract class CachedExpressionEvaluator {
 	}
 
 	/**
-	 * Return a shared parameter name discoverer which caches data internally.
+	 * Return a shared parameter name discoverer which caches data internally,
+	 * resolving the parameter names of each method only once.
 	 * @since 4.3
 	 */
 	protected ParameterNameDiscoverer getParameterNameDiscoverer() {
@@ -73,6 +117,24 @@ public abstract class CachedExpressionEvaluator {
 	}
 
 
+	/**
+	 * Apply the infrastructure shared across all evaluation contexts of this
+	 * evaluator to the given context: the reflective property accessor, method
+	 * resolver and type converter, retaining their introspection caches from
+	 * one evaluation to the next.
+	 * @param evaluationContext a newly created evaluation context
+	 * @since 5.3
+	 */
+	protected void applySharedDelegates(StandardEvaluationContext evaluationContext) {
+		List<PropertyAccessor> propertyAccessors = new ArrayList<>(1);
+		propertyAccessors.add(this.propertyAccessor);
+		evaluationContext.setPropertyAccessors(propertyAccessors);
+		List<MethodResolver> methodResolvers = new ArrayList<>(1);
+		methodResolvers.add(this.methodResolver);
+		evaluationContext.setMethodResolvers(methodResolvers);
+		evaluationContext.setTypeConverter(this.typeConverter);
+	}
+
 	/**
 	 * Return the {@link Expression} for the specified SpEL value
 	 * <p>Parse the expression if it hasn't been already.
@@ -97,6 +159,41 @@ public abstract class CachedExpressionEvaluator {
 	}
 
 
+	/**
+	 * {@link ParameterNameDiscoverer} decorator which caches the parameter names
+	 * per method, avoiding repeated introspection for every evaluation context.
+	 */
+	private static class CachingParameterNameDiscoverer implements ParameterNameDiscoverer {
+
+		private static final String[] NO_NAMES = {};
+
+		private final ParameterNameDiscoverer delegate;
+
+		private final Map<Method, String[]> parameterNamesCache = new ConcurrentHashMap<>(64);
+
+		CachingParameterNameDiscoverer(ParameterNameDiscoverer delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		@Nullable
+		public String[] getParameterNames(Method method) {
+			String[] names = this.parameterNamesCache.get(method);
+			if (names == null) {
+				names = this.delegate.getParameterNames(method);
+				this.parameterNamesCache.put(method, (names != null ? names : NO_NAMES));
+			}
+			return (names != NO_NAMES ? names : null);
+		}
+
+		@Override
+		@Nullable
+		public String[] getParameterNames(Constructor<?> ctor) {
+			return this.delegate.getParameterNames(ctor);
+		}
+	}
+
+
 	/**
 	 * An expression key.
 	 */
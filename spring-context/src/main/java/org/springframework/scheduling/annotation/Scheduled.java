@@ -81,11 +81,14 @@ public @interface Scheduled {
 	 * <li>month</li>
 	 * <li>day of week</li>
 	 * </ul>
+	 * <p>The Quartz-style {@code L}, {@code W} and {@code #} extensions as well as
+	 * macros such as {@code @daily} are supported, see
+	 * {@link org.springframework.scheduling.support.CronExpression}.
 	 * <p>The special value {@link #CRON_DISABLED "-"} indicates a disabled cron
 	 * trigger, primarily meant for externally specified values resolved by a
 	 * <code>${...}</code> placeholder.
 	 * @return an expression that can be parsed to a cron schedule
-	 * @see org.springframework.scheduling.support.CronSequenceGenerator
+	 * @see org.springframework.scheduling.support.CronExpression
 	 */
 	String cron() default "";
 
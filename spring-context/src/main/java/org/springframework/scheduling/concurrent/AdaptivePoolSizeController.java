@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feedback controller behind {@link ThreadPoolTaskExecutor}'s adaptive pool sizing.
+ *
+ * <p>Once per sampling interval, the controller compares the average queue wait
+ * of the tasks started in that interval with the configured target. If tasks
+ * wait too long, the core pool size grows by a quarter (at least one thread);
+ * if the queue is drained and at most half of the threads are busy, it shrinks
+ * by one thread. Growth that did not raise throughput by at least
+ * five percent is reverted and followed by a hold period, so that
+ * a bottleneck outside of the pool does not drive the thread count up to the limit.
+ * The core pool size never leaves the range between the executor's configured
+ * "corePoolSize" and "maxPoolSize".
+ *
+ * <p>Sampling is piggybacked on task submission and completion; there is no
+ * dedicated controller thread. A pool that has been idle for several intervals
+ * is therefore sampled on the next task submission, shrinking by one thread per
+ * interval elapsed since the last sample in order to catch up.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ */
+class AdaptivePoolSizeController {
+
+	static final double MIN_THROUGHPUT_GAIN = 0.05;
+
+	static final int HOLD_INTERVALS = 3;
+
+
+	private final ThreadPoolTaskExecutor owner;
+
+	private final TaskExecutionMetrics metrics;
+
+	private final long targetQueueWaitNanos;
+
+	private final long intervalNanos;
+
+	private final AtomicBoolean sampling = new AtomicBoolean();
+
+	private volatile long lastSampleTime = System.nanoTime();
+
+	private long lastStartedCount;
+
+	private long lastQueueWaitNanos;
+
+	private long lastCompletedCount;
+
+	private double lastThroughput;
+
+	private int lastGrowth;
+
+	private int holdIntervals;
+
+
+	AdaptivePoolSizeController(ThreadPoolTaskExecutor owner, TaskExecutionMetrics metrics,
+			long targetQueueWaitNanos, long intervalNanos) {
+
+		this.owner = owner;
+		this.metrics = metrics;
+		this.targetQueueWaitNanos = targetQueueWaitNanos;
+		this.intervalNanos = intervalNanos;
+	}
+
+
+	/**
+	 * Take a sample and adjust the core pool size if the sampling interval has elapsed.
+	 */
+	void adjustIfDue() {
+		if (System.nanoTime() - this.lastSampleTime < this.intervalNanos ||
+				!this.sampling.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			long now = System.nanoTime();
+			if (now - this.lastSampleTime >= this.intervalNanos) {
+				sample(now);
+			}
+		}
+		finally {
+			this.sampling.set(false);
+		}
+	}
+
+	private void sample(long now) {
+		ThreadPoolExecutor executor = this.owner.getThreadPoolExecutor();
+		long started = this.metrics.getStartedCount();
+		long queueWait = this.metrics.getTotalQueueWaitNanos();
+		long completed = this.metrics.getCompletedTaskCount();
+		long startedDelta = started - this.lastStartedCount;
+		long queueWaitDelta = queueWait - this.lastQueueWaitNanos;
+		long completedDelta = completed - this.lastCompletedCount;
+		long elapsed = now - this.lastSampleTime;
+
+		this.lastSampleTime = now;
+		this.lastStartedCount = started;
+		this.lastQueueWaitNanos = queueWait;
+		this.lastCompletedCount = completed;
+		if (startedDelta < 0 || queueWaitDelta < 0 || completedDelta < 0) {
+			// Metrics have been reset in the meantime: start over.
+			this.lastGrowth = 0;
+			return;
+		}
+
+		double throughput = completedDelta * 1_000_000_000.0 / elapsed;
+		long averageWait;
+		if (startedDelta > 0) {
+			averageWait = queueWaitDelta / startedDelta;
+		}
+		else {
+			// Nothing started: a non-empty queue means all threads are stuck.
+			averageWait = (executor.getQueue().isEmpty() ? 0 : elapsed);
+		}
+
+		// More than one interval in case of an idle period without samples
+		int intervals = (int) Math.min(Integer.MAX_VALUE, Math.max(1, elapsed / this.intervalNanos));
+		int corePoolSize = executor.getCorePoolSize();
+		if (this.holdIntervals > 0) {
+			this.holdIntervals = Math.max(0, this.holdIntervals - intervals);
+		}
+		else if (this.lastGrowth > 0 && throughput < this.lastThroughput * (1 + MIN_THROUGHPUT_GAIN)) {
+			// More threads did not help: step back and hold.
+			this.owner.applyAdaptiveCorePoolSize(corePoolSize - this.lastGrowth);
+			this.lastGrowth = 0;
+			this.holdIntervals = HOLD_INTERVALS;
+		}
+		else if (averageWait > this.targetQueueWaitNanos) {
+			int newSize = this.owner.applyAdaptiveCorePoolSize(corePoolSize + Math.max(1, corePoolSize / 4));
+			this.lastGrowth = newSize - corePoolSize;
+		}
+		else {
+			this.lastGrowth = 0;
+			if (averageWait < this.targetQueueWaitNanos / 2 && executor.getQueue().isEmpty() &&
+					executor.getActiveCount() <= corePoolSize / 2) {
+				this.owner.applyAdaptiveCorePoolSize(corePoolSize - Math.min(intervals, corePoolSize));
+			}
+		}
+		this.lastThroughput = throughput;
+	}
+
+}
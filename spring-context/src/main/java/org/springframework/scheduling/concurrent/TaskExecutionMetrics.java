@@ -0,0 +1,159 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution metrics of a task executor: submitted, started and completed task
+ * counts, time spent waiting in the executor's queue, and time spent executing.
+ * Counters are striped so that recording does not contend across worker threads.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see ThreadPoolTaskExecutor#getExecutionMetrics()
+ * @see WorkStealingTaskExecutor#getExecutionMetrics()
+ */
+public final class TaskExecutionMetrics {
+
+	private final LongAdder submittedCount = new LongAdder();
+
+	private final LongAdder startedCount = new LongAdder();
+
+	private final LongAdder completedCount = new LongAdder();
+
+	private final LongAdder failedCount = new LongAdder();
+
+	private final LongAdder totalQueueWaitNanos = new LongAdder();
+
+	private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+	private final LongAdder totalExecutionNanos = new LongAdder();
+
+
+	TaskExecutionMetrics() {
+	}
+
+
+	void recordSubmitted() {
+		this.submittedCount.increment();
+	}
+
+	void recordStarted(long queueWaitNanos) {
+		this.startedCount.increment();
+		this.totalQueueWaitNanos.add(queueWaitNanos);
+		if (queueWaitNanos > this.maxQueueWaitNanos.get()) {
+			this.maxQueueWaitNanos.accumulateAndGet(queueWaitNanos, Math::max);
+		}
+	}
+
+	void recordCompleted(long executionNanos, boolean failed) {
+		this.completedCount.increment();
+		if (failed) {
+			this.failedCount.increment();
+		}
+		this.totalExecutionNanos.add(executionNanos);
+	}
+
+	long getStartedCount() {
+		return this.startedCount.sum();
+	}
+
+	long getTotalQueueWaitNanos() {
+		return this.totalQueueWaitNanos.sum();
+	}
+
+
+	/**
+	 * Return the number of tasks handed to the executor.
+	 */
+	public long getSubmittedTaskCount() {
+		return this.submittedCount.sum();
+	}
+
+	/**
+	 * Return the number of tasks that have finished executing.
+	 */
+	public long getCompletedTaskCount() {
+		return this.completedCount.sum();
+	}
+
+	/**
+	 * Return the number of tasks that have finished with an exception.
+	 * <p>Tasks submitted as a {@link java.util.concurrent.Future} capture their
+	 * exception in the Future and are therefore not counted here.
+	 */
+	public long getFailedTaskCount() {
+		return this.failedCount.sum();
+	}
+
+	/**
+	 * Return the number of tasks that have been submitted but not started yet.
+	 */
+	public long getPendingTaskCount() {
+		return Math.max(0, this.submittedCount.sum() - this.startedCount.sum());
+	}
+
+	/**
+	 * Return the average time in milliseconds that tasks spent waiting
+	 * in the queue before a thread picked them up.
+	 */
+	public double getAverageQueueWaitMillis() {
+		long count = this.startedCount.sum();
+		return (count > 0 ? this.totalQueueWaitNanos.sum() / 1_000_000.0 / count : 0);
+	}
+
+	/**
+	 * Return the longest time in milliseconds that a task spent waiting
+	 * in the queue before a thread picked it up.
+	 */
+	public long getMaxQueueWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(this.maxQueueWaitNanos.get());
+	}
+
+	/**
+	 * Return the average execution time of a task in milliseconds.
+	 */
+	public double getAverageExecutionMillis() {
+		long count = this.completedCount.sum();
+		return (count > 0 ? this.totalExecutionNanos.sum() / 1_000_000.0 / count : 0);
+	}
+
+	/**
+	 * Reset all counters.
+	 */
+	public void reset() {
+		this.submittedCount.reset();
+		this.startedCount.reset();
+		this.completedCount.reset();
+		this.failedCount.reset();
+		this.totalQueueWaitNanos.reset();
+		this.maxQueueWaitNanos.set(0);
+		this.totalExecutionNanos.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "TaskExecutionMetrics: submitted=" + getSubmittedTaskCount() +
+				", completed=" + getCompletedTaskCount() + ", failed=" + getFailedTaskCount() +
+				", averageQueueWaitMillis=" + getAverageQueueWaitMillis() +
+				", maxQueueWaitMillis=" + getMaxQueueWaitMillis();
+	}
+
+}
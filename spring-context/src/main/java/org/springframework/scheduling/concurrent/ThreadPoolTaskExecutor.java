@@ -16,6 +16,7 @@
 
 package org.springframework.scheduling.concurrent;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
@@ -58,6 +59,10 @@ import org.springframework.util.concurrent.ListenableFutureTask;
  * {@link #setCorePoolSize "corePoolSize"} (see also the
  * {@link #setAllowCoreThreadTimeOut "allowCoreThreadTimeOut"} mode of scaling).
  *
+ * <p>As of 5.3, the core pool size may also be tuned at runtime based on observed
+ * queue wait time and throughput: see {@link #setAdaptivePoolSizing "adaptivePoolSizing"}.
+ * For a work-stealing alternative, see {@link WorkStealingTaskExecutor}.
+ *
  * <p><b>NOTE:</b> This class implements Spring's
  * {@link org.springframework.core.task.TaskExecutor} interface as well as the
  * {@link java.util.concurrent.Executor} interface, with the former being the primary
@@ -77,6 +82,7 @@ import org.springframework.util.concurrent.ListenableFutureTask;
  * @see java.util.concurrent.ThreadPoolExecutor
  * @see ThreadPoolExecutorFactoryBean
  * @see ConcurrentTaskExecutor
+ * @see WorkStealingTaskExecutor
  */
 @SuppressWarnings("serial")
 public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
@@ -94,12 +100,21 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 
 	private boolean allowCoreThreadTimeOut = false;
 
+	private boolean adaptivePoolSizing = false;
+
+	private Duration targetQueueWait = Duration.ofMillis(50);
+
+	private Duration adaptiveSamplingInterval = Duration.ofSeconds(1);
+
 	@Nullable
 	private TaskDecorator taskDecorator;
 
 	@Nullable
 	private ThreadPoolExecutor threadPoolExecutor;
 
+	@Nullable
+	private TaskExecutionMetrics executionMetrics;
+
 	// Runnable decorator to user-level FutureTask, if different
 	private final Map<Runnable, Object> decoratedTaskMap =
 			new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
@@ -109,6 +124,8 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	 * Set the ThreadPoolExecutor's core pool size.
 	 * Default is 1.
 	 * <p><b>This setting can be modified at runtime, for example through JMX.</b>
+	 * <p>With {@link #setAdaptivePoolSizing "adaptivePoolSizing"}, this is the
+	 * lower bound that the adjusted core pool size never falls below.
 	 */
 	public void setCorePoolSize(int corePoolSize) {
 		synchronized (this.poolSizeMonitor) {
@@ -132,11 +149,16 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	 * Set the ThreadPoolExecutor's maximum pool size.
 	 * Default is {@code Integer.MAX_VALUE}.
 	 * <p><b>This setting can be modified at runtime, for example through JMX.</b>
+	 * <p>With {@link #setAdaptivePoolSizing "adaptivePoolSizing"}, this is the
+	 * upper bound that the adjusted core pool size never exceeds.
 	 */
 	public void setMaxPoolSize(int maxPoolSize) {
 		synchronized (this.poolSizeMonitor) {
 			this.maxPoolSize = maxPoolSize;
 			if (this.threadPoolExecutor != null) {
+				if (this.threadPoolExecutor.getCorePoolSize() > maxPoolSize) {
+					this.threadPoolExecutor.setCorePoolSize(Math.max(this.corePoolSize, maxPoolSize));
+				}
 				this.threadPoolExecutor.setMaximumPoolSize(maxPoolSize);
 			}
 		}
@@ -197,6 +219,49 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		this.allowCoreThreadTimeOut = allowCoreThreadTimeOut;
 	}
 
+	/**
+	 * Specify whether to adjust the core pool size at runtime based on how long
+	 * tasks wait in the queue and on the throughput achieved.
+	 * <p>Once per {@link #setAdaptiveSamplingInterval sampling interval}, the core
+	 * pool size grows while the average queue wait exceeds the
+	 * {@link #setTargetQueueWait target} and additional threads actually raise
+	 * throughput, and it shrinks again once the queue is drained and most threads
+	 * are idle. The configured {@link #setCorePoolSize "corePoolSize"} and
+	 * {@link #setMaxPoolSize "maxPoolSize"} serve as lower and upper bound;
+	 * a bounded "maxPoolSize" is therefore required in this mode.
+	 * <p>Adaptive sizing also enables the {@link #getExecutionMetrics() execution
+	 * metrics} that it is based on. Default is "false".
+	 * @since 5.3
+	 * @see #setTargetQueueWait
+	 * @see #setAdaptiveSamplingInterval
+	 */
+	public void setAdaptivePoolSizing(boolean adaptivePoolSizing) {
+		this.adaptivePoolSizing = adaptivePoolSizing;
+	}
+
+	/**
+	 * Set the average queue wait above which adaptive pool sizing adds threads.
+	 * Default is 50 milliseconds.
+	 * @since 5.3
+	 * @see #setAdaptivePoolSizing
+	 */
+	public void setTargetQueueWait(Duration targetQueueWait) {
+		Assert.isTrue(!targetQueueWait.isNegative(), "Target queue wait must not be negative");
+		this.targetQueueWait = targetQueueWait;
+	}
+
+	/**
+	 * Set the interval at which adaptive pool sizing samples the execution
+	 * metrics and adjusts the core pool size. Default is 1 second.
+	 * @since 5.3
+	 * @see #setAdaptivePoolSizing
+	 */
+	public void setAdaptiveSamplingInterval(Duration adaptiveSamplingInterval) {
+		Assert.isTrue(!adaptiveSamplingInterval.isNegative() && !adaptiveSamplingInterval.isZero(),
+				"Adaptive sampling interval must be positive");
+		this.adaptiveSamplingInterval = adaptiveSamplingInterval;
+	}
+
 	/**
 	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
 	 * about to be executed.
@@ -225,7 +290,31 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		BlockingQueue<Runnable> queue = createQueue(this.queueCapacity);
 
 		ThreadPoolExecutor executor;
-		if (this.taskDecorator != null) {
+		if (this.adaptivePoolSizing) {
+			Assert.state(this.maxPoolSize < Integer.MAX_VALUE, "Adaptive pool sizing requires a bounded 'maxPoolSize'");
+			TaskExecutionMetrics metrics = new TaskExecutionMetrics();
+			AdaptivePoolSizeController controller = new AdaptivePoolSizeController(
+					this, metrics, this.targetQueueWait.toNanos(), this.adaptiveSamplingInterval.toNanos());
+			executor = new ThreadPoolExecutor(
+					this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, TimeUnit.SECONDS,
+					queue, threadFactory, rejectedExecutionHandler) {
+				@Override
+				public void execute(Runnable command) {
+					Runnable decorated = (taskDecorator != null ? taskDecorator.decorate(command) : command);
+					Runnable timed = new TimedRunnable(decorated, metrics);
+					decoratedTaskMap.put(timed, command);
+					super.execute(timed);
+					metrics.recordSubmitted();
+					controller.adjustIfDue();
+				}
+				@Override
+				protected void afterExecute(Runnable task, Throwable ex) {
+					controller.adjustIfDue();
+				}
+			};
+			this.executionMetrics = metrics;
+		}
+		else if (this.taskDecorator != null) {
 			executor = new ThreadPoolExecutor(
 					this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, TimeUnit.SECONDS,
 					queue, threadFactory, rejectedExecutionHandler) {
@@ -306,6 +395,49 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		return this.threadPoolExecutor.getActiveCount();
 	}
 
+	/**
+	 * Return the share of pool threads currently executing a task,
+	 * between 0 and 1.
+	 * @since 5.3
+	 * @see #getActiveCount()
+	 * @see #getPoolSize()
+	 */
+	public double getUtilization() {
+		int poolSize = getPoolSize();
+		return (poolSize > 0 ? Math.min(1.0, (double) getActiveCount() / poolSize) : 0);
+	}
+
+	/**
+	 * Return the queue wait and execution metrics of this executor.
+	 * @return the metrics, or {@code null} unless
+	 * {@link #setAdaptivePoolSizing "adaptivePoolSizing"} is enabled
+	 * and the executor has been initialized
+	 * @since 5.3
+	 */
+	@Nullable
+	public TaskExecutionMetrics getExecutionMetrics() {
+		return this.executionMetrics;
+	}
+
+	/**
+	 * Apply the given core pool size as determined by adaptive pool sizing,
+	 * constrained to the configured core and maximum pool size.
+	 * @return the core pool size actually applied
+	 */
+	int applyAdaptiveCorePoolSize(int corePoolSize) {
+		synchronized (this.poolSizeMonitor) {
+			ThreadPoolExecutor executor = getThreadPoolExecutor();
+			int newSize = Math.max(this.corePoolSize, Math.min(this.maxPoolSize, corePoolSize));
+			if (newSize != executor.getCorePoolSize()) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Adjusting core pool size from " + executor.getCorePoolSize() + " to " + newSize);
+				}
+				executor.setCorePoolSize(newSize);
+			}
+			return newSize;
+		}
+	}
+
 
 	@Override
 	public void execute(Runnable task) {
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+/**
+ * Runnable wrapper that records queue wait and execution time of the
+ * target task in a {@link TaskExecutionMetrics} instance. Submission is
+ * to be recorded by the executor once it has accepted the task.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ */
+class TimedRunnable implements Runnable {
+
+	private final Runnable delegate;
+
+	private final TaskExecutionMetrics metrics;
+
+	private final long submitTime;
+
+
+	TimedRunnable(Runnable delegate, TaskExecutionMetrics metrics) {
+		this.delegate = delegate;
+		this.metrics = metrics;
+		this.submitTime = System.nanoTime();
+	}
+
+	@Override
+	public void run() {
+		long startTime = System.nanoTime();
+		this.metrics.recordStarted(startTime - this.submitTime);
+		boolean failed = true;
+		try {
+			this.delegate.run();
+			failed = false;
+		}
+		finally {
+			this.metrics.recordCompleted(System.nanoTime() - startTime, failed);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.delegate.toString();
+	}
+
+}
@@ -0,0 +1,703 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * Implementation of Spring's {@link TaskScheduler} interface, backed by a
+ * hierarchical timing wheel instead of a {@link java.util.concurrent.DelayQueue}.
+ *
+ * <p>Scheduling and cancelling a task are constant-time operations, which makes
+ * this scheduler a good fit for very large numbers of short-lived timers such as
+ * heartbeats, session timeouts or request deadlines. The price is precision:
+ * tasks fire on the first wheel tick at or after their deadline, so the
+ * {@link #setTickDuration tick duration} bounds the scheduling granularity.
+ *
+ * <p>A single wheel thread advances the wheel and hands expired tasks over to
+ * the {@link #setDispatchExecutor dispatch executor}; task code never runs on
+ * the wheel thread itself. If no dispatch executor is specified, a fixed-size
+ * pool with {@link #setPoolSize "poolSize"} threads is created and managed by
+ * this scheduler. Timers remaining on the wheel at shutdown are cancelled.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see #setTickDuration
+ * @see #setWheelSize
+ * @see #setDispatchExecutor
+ * @see #setErrorHandler
+ */
+@SuppressWarnings("serial")
+public class TimingWheelTaskScheduler extends ExecutorConfigurationSupport implements TaskScheduler {
+
+	/**
+	 * Number of hierarchical wheel levels. Deadlines beyond the range of the
+	 * outermost level are parked there and re-inserted when it cascades.
+	 */
+	private static final int LEVELS = 4;
+
+	/**
+	 * Maximum number of buckets per level, keeping the total wheel range
+	 * of {@code wheelSize^LEVELS} ticks within a {@code long}.
+	 */
+	private static final int MAX_WHEEL_SIZE = 1 << 15;
+
+
+	private long tickNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private int wheelSize = 512;
+
+	private int poolSize = 1;
+
+	@Nullable
+	private Executor dispatchExecutor;
+
+	@Nullable
+	private volatile ErrorHandler errorHandler;
+
+	private boolean waitForTasksToCompleteOnShutdown = false;
+
+	private int awaitTerminationSeconds = 0;
+
+	@Nullable
+	private Wheel wheel;
+
+	@Nullable
+	private ExecutorService managedDispatchExecutor;
+
+
+	/**
+	 * Set the duration of a single wheel tick, i.e. the scheduling granularity.
+	 * <p>Default is 10 milliseconds.
+	 */
+	public void setTickDuration(Duration tickDuration) {
+		Assert.isTrue(!tickDuration.isNegative() && !tickDuration.isZero(), "'tickDuration' must be positive");
+		this.tickNanos = tickDuration.toNanos();
+	}
+
+	/**
+	 * Set the number of buckets per wheel level. Must be a power of two,
+	 * up to 32768.
+	 * <p>Default is 512, covering about 5 seconds on the innermost level
+	 * with the default tick duration.
+	 */
+	public void setWheelSize(int wheelSize) {
+		Assert.isTrue(wheelSize > 1 && Integer.bitCount(wheelSize) == 1, "'wheelSize' must be a power of two");
+		Assert.isTrue(wheelSize <= MAX_WHEEL_SIZE, "'wheelSize' must not exceed " + MAX_WHEEL_SIZE);
+		this.wheelSize = wheelSize;
+	}
+
+	/**
+	 * Set the number of threads of the internally managed dispatch pool.
+	 * Default is 1.
+	 * <p>Ignored if a {@link #setDispatchExecutor dispatch executor} is specified.
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize > 0, "'poolSize' must be 1 or higher");
+		this.poolSize = poolSize;
+	}
+
+	/**
+	 * Specify the {@link Executor} to run expired tasks on.
+	 * <p>Default is a fixed-size pool managed by this scheduler. An externally
+	 * specified executor is not shut down along with this scheduler.
+	 * @see #setPoolSize
+	 */
+	public void setDispatchExecutor(Executor dispatchExecutor) {
+		this.dispatchExecutor = dispatchExecutor;
+	}
+
+	/**
+	 * Set a custom {@link ErrorHandler} strategy.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Applies to the internally managed dispatch pool as well: if set,
+	 * tasks already handed over to the pool are completed on shutdown.
+	 * Timers remaining on the wheel are cancelled in any case.
+	 */
+	@Override
+	public void setWaitForTasksToCompleteOnShutdown(boolean waitForJobsToCompleteOnShutdown) {
+		super.setWaitForTasksToCompleteOnShutdown(waitForJobsToCompleteOnShutdown);
+		this.waitForTasksToCompleteOnShutdown = waitForJobsToCompleteOnShutdown;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Applies to the internally managed dispatch pool as well.
+	 */
+	@Override
+	public void setAwaitTerminationSeconds(int awaitTerminationSeconds) {
+		super.setAwaitTerminationSeconds(awaitTerminationSeconds);
+		this.awaitTerminationSeconds = awaitTerminationSeconds;
+	}
+
+
+	@Override
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		Executor dispatchExecutor = this.dispatchExecutor;
+		if (dispatchExecutor == null) {
+			this.managedDispatchExecutor = new ThreadPoolExecutor(this.poolSize, this.poolSize,
+					0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory, rejectedExecutionHandler);
+			dispatchExecutor = this.managedDispatchExecutor;
+		}
+		Wheel wheel = new Wheel(this.tickNanos, this.wheelSize, dispatchExecutor);
+		ExecutorService wheelExecutor = Executors.newSingleThreadExecutor(threadFactory);
+		wheelExecutor.execute(wheel);
+		this.wheel = wheel;
+		return wheelExecutor;
+	}
+
+	/**
+	 * Stop the wheel thread, cancelling all timers still on the wheel, and
+	 * shut down the internally managed dispatch pool, if any, according to the
+	 * {@link #setWaitForTasksToCompleteOnShutdown "waitForTasksToCompleteOnShutdown"}
+	 * and {@link #setAwaitTerminationSeconds "awaitTerminationSeconds"} settings.
+	 */
+	@Override
+	public void shutdown() {
+		if (this.wheel != null) {
+			this.wheel.stop();
+		}
+		super.shutdown();
+		ExecutorService dispatchPool = this.managedDispatchExecutor;
+		if (dispatchPool != null) {
+			if (this.waitForTasksToCompleteOnShutdown) {
+				dispatchPool.shutdown();
+			}
+			else {
+				for (Runnable remainingTask : dispatchPool.shutdownNow()) {
+					cancelRemainingTask(remainingTask);
+				}
+			}
+			if (this.awaitTerminationSeconds > 0) {
+				try {
+					if (!dispatchPool.awaitTermination(this.awaitTerminationSeconds, TimeUnit.SECONDS) &&
+							logger.isWarnEnabled()) {
+						logger.warn("Timed out while waiting for dispatch pool to terminate");
+					}
+				}
+				catch (InterruptedException ex) {
+					if (logger.isWarnEnabled()) {
+						logger.warn("Interrupted while waiting for dispatch pool to terminate");
+					}
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+
+	private Wheel getWheel() {
+		Assert.state(this.wheel != null, "TimingWheelTaskScheduler not initialized");
+		return this.wheel;
+	}
+
+
+	@Override
+	@Nullable
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		SimpleTriggerContext triggerContext = new SimpleTriggerContext();
+		Date nextExecutionTime = trigger.nextExecutionTime(triggerContext);
+		if (nextExecutionTime == null) {
+			return null;
+		}
+		WheelTimeout timeout = new WheelTimeout(errorHandlingTask(task, true), trigger, triggerContext, 0);
+		timeout.scheduledExecutionTime = nextExecutionTime;
+		return getWheel().schedule(timeout, nanosUntil(nextExecutionTime));
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		WheelTimeout timeout = new WheelTimeout(errorHandlingTask(task, false), null, null, 0);
+		return getWheel().schedule(timeout, nanosUntil(startTime));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		Assert.isTrue(period > 0, "'period' must be positive");
+		WheelTimeout timeout = new WheelTimeout(errorHandlingTask(task, true), null, null, period);
+		return getWheel().schedule(timeout, nanosUntil(startTime));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		Assert.isTrue(period > 0, "'period' must be positive");
+		WheelTimeout timeout = new WheelTimeout(errorHandlingTask(task, true), null, null, period);
+		return getWheel().schedule(timeout, 0);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		Assert.isTrue(delay > 0, "'delay' must be positive");
+		WheelTimeout timeout = new WheelTimeout(errorHandlingTask(task, true), null, null, -delay);
+		return getWheel().schedule(timeout, nanosUntil(startTime));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		Assert.isTrue(delay > 0, "'delay' must be positive");
+		WheelTimeout timeout = new WheelTimeout(errorHandlingTask(task, true), null, null, -delay);
+		return getWheel().schedule(timeout, 0);
+	}
+
+	private Runnable errorHandlingTask(Runnable task, boolean isRepeatingTask) {
+		return TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, isRepeatingTask);
+	}
+
+	private static long nanosUntil(Date time) {
+		return TimeUnit.MILLISECONDS.toNanos(time.getTime() - System.currentTimeMillis());
+	}
+
+
+	/**
+	 * The timing wheel itself: {@code LEVELS} arrays of buckets, advanced by
+	 * a single thread. Other threads only ever touch the lock-free hand-off
+	 * queues, so buckets need no synchronization.
+	 */
+	private static class Wheel implements Runnable {
+
+		private final long tickNanos;
+
+		private final int bits;
+
+		private final int mask;
+
+		private final Bucket[][] levels;
+
+		private final Executor dispatchExecutor;
+
+		private final Queue<WheelTimeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+		private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+		private final long startNanos = System.nanoTime();
+
+		private volatile boolean stopped;
+
+		// Next tick to be processed, only accessed by the wheel thread
+		private long tick;
+
+		Wheel(long tickNanos, int wheelSize, Executor dispatchExecutor) {
+			this.tickNanos = tickNanos;
+			this.bits = Integer.numberOfTrailingZeros(wheelSize);
+			this.mask = wheelSize - 1;
+			this.levels = new Bucket[LEVELS][wheelSize];
+			for (Bucket[] level : this.levels) {
+				for (int i = 0; i < wheelSize; i++) {
+					level[i] = new Bucket();
+				}
+			}
+			this.dispatchExecutor = dispatchExecutor;
+		}
+
+		WheelTimeout schedule(WheelTimeout timeout, long delayNanos) {
+			if (this.stopped) {
+				throw new TaskRejectedException("TimingWheelTaskScheduler has been shut down");
+			}
+			timeout.wheel = this;
+			timeout.deadlineNanos = System.nanoTime() + Math.max(delayNanos, 0);
+			this.pendingTimeouts.add(timeout);
+			return timeout;
+		}
+
+		void cancelled(WheelTimeout timeout) {
+			this.cancelledTimeouts.add(timeout);
+		}
+
+		void stop() {
+			this.stopped = true;
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (!this.stopped && waitForTick()) {
+					removeCancelledTimeouts();
+					transferPendingTimeouts();
+					int index = (int) (this.tick & this.mask);
+					if (index == 0) {
+						cascade(1);
+					}
+					expire(this.levels[0][index]);
+					this.tick++;
+				}
+			}
+			finally {
+				cancelAll();
+			}
+		}
+
+		private boolean waitForTick() {
+			long deadline = this.startNanos + this.tick * this.tickNanos;
+			long sleepNanos;
+			while ((sleepNanos = deadline - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(this, sleepNanos);
+				if (Thread.interrupted() || this.stopped) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void removeCancelledTimeouts() {
+			WheelTimeout timeout;
+			while ((timeout = this.cancelledTimeouts.poll()) != null) {
+				if (timeout.bucket != null) {
+					timeout.bucket.remove(timeout);
+				}
+			}
+		}
+
+		private void transferPendingTimeouts() {
+			WheelTimeout timeout;
+			while ((timeout = this.pendingTimeouts.poll()) != null) {
+				if (!timeout.isDone()) {
+					long elapsed = timeout.deadlineNanos - this.startNanos;
+					timeout.deadlineTick = (elapsed + this.tickNanos - 1) / this.tickNanos;
+					add(timeout);
+				}
+			}
+		}
+
+		/**
+		 * Add the given timeout to the innermost level whose range covers its
+		 * deadline, relative to the tick about to be processed.
+		 */
+		private void add(WheelTimeout timeout) {
+			long deadlineTick = Math.max(timeout.deadlineTick, this.tick);
+			long delta = deadlineTick - this.tick;
+			int level = 0;
+			while (level < LEVELS - 1 && (delta >>> (this.bits * (level + 1))) != 0) {
+				level++;
+			}
+			if (level == LEVELS - 1 && (delta >>> (this.bits * LEVELS)) != 0) {
+				// Beyond the outermost level: park in its furthest bucket for now
+				deadlineTick = this.tick + (1L << (this.bits * LEVELS)) - 1;
+			}
+			int index = (int) ((deadlineTick >>> (this.bits * level)) & this.mask);
+			this.levels[level][index].add(timeout);
+		}
+
+		/**
+		 * Re-distribute the current bucket of the given level onto the inner
+		 * levels, cascading further outwards whenever that level wraps around.
+		 */
+		private void cascade(int level) {
+			if (level >= LEVELS) {
+				return;
+			}
+			int index = (int) ((this.tick >>> (this.bits * level)) & this.mask);
+			if (index == 0) {
+				cascade(level + 1);
+			}
+			Bucket bucket = this.levels[level][index];
+			WheelTimeout timeout;
+			while ((timeout = bucket.poll()) != null) {
+				add(timeout);
+			}
+		}
+
+		private void expire(Bucket bucket) {
+			WheelTimeout timeout;
+			while ((timeout = bucket.poll()) != null) {
+				if (timeout.isDone()) {
+					continue;
+				}
+				try {
+					this.dispatchExecutor.execute(timeout);
+				}
+				catch (RejectedExecutionException ex) {
+					timeout.result.completeExceptionally(new TaskRejectedException(
+							"Executor [" + this.dispatchExecutor + "] did not accept task: " + timeout.task, ex));
+				}
+			}
+		}
+
+		private void cancelAll() {
+			for (Bucket[] level : this.levels) {
+				for (Bucket bucket : level) {
+					WheelTimeout timeout;
+					while ((timeout = bucket.poll()) != null) {
+						timeout.result.cancel(false);
+					}
+				}
+			}
+			WheelTimeout timeout;
+			while ((timeout = this.pendingTimeouts.poll()) != null) {
+				timeout.result.cancel(false);
+			}
+			this.cancelledTimeouts.clear();
+		}
+	}
+
+
+	/**
+	 * Doubly-linked list of timeouts, allowing for constant-time removal.
+	 */
+	private static class Bucket {
+
+		@Nullable
+		private WheelTimeout head;
+
+		@Nullable
+		private WheelTimeout tail;
+
+		void add(WheelTimeout timeout) {
+			timeout.bucket = this;
+			timeout.prev = this.tail;
+			if (this.tail == null) {
+				this.head = timeout;
+			}
+			else {
+				this.tail.next = timeout;
+			}
+			this.tail = timeout;
+		}
+
+		@Nullable
+		WheelTimeout poll() {
+			WheelTimeout timeout = this.head;
+			if (timeout != null) {
+				remove(timeout);
+			}
+			return timeout;
+		}
+
+		void remove(WheelTimeout timeout) {
+			if (timeout.prev == null) {
+				this.head = timeout.next;
+			}
+			else {
+				timeout.prev.next = timeout.next;
+			}
+			if (timeout.next == null) {
+				this.tail = timeout.prev;
+			}
+			else {
+				timeout.next.prev = timeout.prev;
+			}
+			timeout.bucket = null;
+			timeout.prev = null;
+			timeout.next = null;
+		}
+	}
+
+
+	/**
+	 * A task on the wheel, serving as its own {@link ScheduledFuture} handle.
+	 * Repeating tasks put themselves back onto the wheel after each execution.
+	 */
+	private static class WheelTimeout implements ScheduledFuture<Object>, Runnable {
+
+		final Runnable task;
+
+		@Nullable
+		private final Trigger trigger;
+
+		@Nullable
+		private final SimpleTriggerContext triggerContext;
+
+		// Positive for fixed-rate, negative for fixed-delay, 0 otherwise
+		private final long period;
+
+		final CompletableFuture<Object> result = new CompletableFuture<>();
+
+		@Nullable
+		private volatile Wheel wheel;
+
+		// Thread currently running the task, guarded by this timeout's monitor
+		@Nullable
+		private Thread runner;
+
+		volatile long deadlineNanos;
+
+		@Nullable
+		volatile Date scheduledExecutionTime;
+
+		// Wheel thread state
+		long deadlineTick;
+
+		@Nullable
+		Bucket bucket;
+
+		@Nullable
+		WheelTimeout prev;
+
+		@Nullable
+		WheelTimeout next;
+
+		WheelTimeout(Runnable task, @Nullable Trigger trigger,
+				@Nullable SimpleTriggerContext triggerContext, long period) {
+
+			this.task = task;
+			this.trigger = trigger;
+			this.triggerContext = triggerContext;
+			this.period = period;
+		}
+
+		@Override
+		public void run() {
+			if (isDone()) {
+				return;
+			}
+			Date actualExecutionTime = new Date();
+			synchronized (this) {
+				this.runner = Thread.currentThread();
+			}
+			try {
+				this.task.run();
+			}
+			catch (Throwable ex) {
+				this.result.completeExceptionally(ex);
+				return;
+			}
+			finally {
+				synchronized (this) {
+					this.runner = null;
+					if (isCancelled()) {
+						// Do not leak a cancellation interrupt into the next task on this thread
+						Thread.interrupted();
+					}
+				}
+			}
+			if (this.trigger != null) {
+				Assert.state(this.triggerContext != null, "No SimpleTriggerContext");
+				Date scheduledExecutionTime = this.scheduledExecutionTime;
+				this.triggerContext.update(scheduledExecutionTime, actualExecutionTime, new Date());
+				Date nextExecutionTime = this.trigger.nextExecutionTime(this.triggerContext);
+				if (nextExecutionTime == null) {
+					this.result.complete(null);
+				}
+				else {
+					this.scheduledExecutionTime = nextExecutionTime;
+					reschedule(nanosUntil(nextExecutionTime));
+				}
+			}
+			else if (this.period > 0) {
+				long deadline = this.deadlineNanos + TimeUnit.MILLISECONDS.toNanos(this.period);
+				reschedule(deadline - System.nanoTime());
+			}
+			else if (this.period < 0) {
+				reschedule(TimeUnit.MILLISECONDS.toNanos(-this.period));
+			}
+			else {
+				this.result.complete(null);
+			}
+		}
+
+		private void reschedule(long delayNanos) {
+			Wheel wheel = this.wheel;
+			if (wheel != null && !isDone()) {
+				try {
+					wheel.schedule(this, delayNanos);
+				}
+				catch (TaskRejectedException ex) {
+					this.result.cancel(false);
+				}
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = this.result.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				Wheel wheel = this.wheel;
+				if (wheel != null) {
+					wheel.cancelled(this);
+				}
+				if (mayInterruptIfRunning) {
+					synchronized (this) {
+						if (this.runner != null) {
+							this.runner.interrupt();
+						}
+					}
+				}
+			}
+			return cancelled;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return this.result.isCancelled();
+		}
+
+		@Override
+		public boolean isDone() {
+			return this.result.isDone();
+		}
+
+		@Override
+		public Object get() throws InterruptedException, ExecutionException {
+			return this.result.get();
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+
+			return this.result.get(timeout, unit);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return (diff == 0 ? 0 : (diff < 0 ? -1 : 1));
+		}
+	}
+
+}
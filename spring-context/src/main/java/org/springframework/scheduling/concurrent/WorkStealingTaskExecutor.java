@@ -0,0 +1,353 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.SchedulingTaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+/**
+ * JavaBean that sets up a work-stealing {@link ForkJoinPool} and exposes it as a
+ * Spring {@link org.springframework.core.task.TaskExecutor}, as an alternative to
+ * {@link ThreadPoolTaskExecutor} for many small, independent tasks. Instead of
+ * sharing a single queue, each worker thread has its own deque and idle workers
+ * steal from busy ones, which avoids contention on a central queue lock.
+ *
+ * <p>A {@link #setTaskDecorator TaskDecorator} is applied to every task, and
+ * {@link ListenableFuture} handles are supported just like on
+ * {@link ThreadPoolTaskExecutor}. Queue wait and execution time of each task are
+ * recorded in {@link #getExecutionMetrics() execution metrics}; the pool's
+ * {@link #getUtilization() utilization} is available for monitoring as well.
+ *
+ * <p>Worker threads are named according to the {@link #setThreadNamePrefix
+ * "threadNamePrefix"} and also honor the "threadPriority" and "daemon" settings.
+ * A custom {@link #setThreadFactory ThreadFactory} is not applicable to a
+ * ForkJoinPool and is therefore ignored, as is the
+ * {@link #setRejectedExecutionHandler RejectedExecutionHandler}: tasks are only
+ * rejected once the executor has been shut down, resulting in a
+ * {@link TaskRejectedException}. An exception thrown from a task submitted via
+ * {@code execute} is passed to the worker thread's uncaught exception handler.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see java.util.concurrent.ForkJoinPool
+ * @see ThreadPoolTaskExecutor
+ * @see ForkJoinPoolFactoryBean
+ */
+@SuppressWarnings("serial")
+public class WorkStealingTaskExecutor extends ExecutorConfigurationSupport
+		implements AsyncListenableTaskExecutor, SchedulingTaskExecutor {
+
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	private boolean asyncMode = true;
+
+	@Nullable
+	private Thread.UncaughtExceptionHandler uncaughtExceptionHandler;
+
+	@Nullable
+	private TaskDecorator taskDecorator;
+
+	private final TaskExecutionMetrics executionMetrics = new TaskExecutionMetrics();
+
+	@Nullable
+	private ForkJoinPool forkJoinPool;
+
+
+	/**
+	 * Specify the parallelism level, i.e. the targeted number of active worker threads.
+	 * Default is {@link Runtime#availableProcessors()}.
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "Parallelism must be positive");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Return the parallelism level.
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Specify whether worker threads process their local tasks in first-in-first-out
+	 * order, which suits event-style tasks that are never joined. Default is
+	 * {@code true}, in contrast to a plain {@link ForkJoinPool}.
+	 * @see ForkJoinPool#ForkJoinPool(int, ForkJoinPool.ForkJoinWorkerThreadFactory, Thread.UncaughtExceptionHandler, boolean)
+	 */
+	public void setAsyncMode(boolean asyncMode) {
+		this.asyncMode = asyncMode;
+	}
+
+	/**
+	 * Set the handler for exceptions thrown from tasks submitted via {@code execute},
+	 * as well as for worker threads that terminate due to unrecoverable errors.
+	 * Default is none, falling back to the thread group's handling.
+	 */
+	public void setUncaughtExceptionHandler(Thread.UncaughtExceptionHandler uncaughtExceptionHandler) {
+		this.uncaughtExceptionHandler = uncaughtExceptionHandler;
+	}
+
+	/**
+	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
+	 * about to be executed.
+	 * <p>Note that such a decorator is not necessarily being applied to the
+	 * user-supplied {@code Runnable}/{@code Callable} but rather to the actual
+	 * execution callback (which may be a wrapper around the user-supplied task).
+	 * @see ThreadPoolTaskExecutor#setTaskDecorator
+	 */
+	public void setTaskDecorator(TaskDecorator taskDecorator) {
+		this.taskDecorator = taskDecorator;
+	}
+
+
+	@Override
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		ForkJoinPool pool = new TaskForkJoinPool(this.parallelism, this::createWorkerThread,
+				this.uncaughtExceptionHandler, this.asyncMode);
+		this.forkJoinPool = pool;
+		return pool;
+	}
+
+	private ForkJoinWorkerThread createWorkerThread(ForkJoinPool pool) {
+		ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) {};
+		thread.setName(nextThreadName());
+		thread.setPriority(getThreadPriority());
+		thread.setDaemon(isDaemon());
+		return thread;
+	}
+
+	/**
+	 * Return the underlying ForkJoinPool for native access.
+	 * @return the underlying ForkJoinPool (never {@code null})
+	 * @throws IllegalStateException if the WorkStealingTaskExecutor hasn't been initialized yet
+	 */
+	public ForkJoinPool getForkJoinPool() throws IllegalStateException {
+		Assert.state(this.forkJoinPool != null, "WorkStealingTaskExecutor not initialized");
+		return this.forkJoinPool;
+	}
+
+	/**
+	 * Return the number of worker threads that have been started but not yet terminated.
+	 * @see ForkJoinPool#getPoolSize()
+	 */
+	public int getPoolSize() {
+		return (this.forkJoinPool != null ? this.forkJoinPool.getPoolSize() : 0);
+	}
+
+	/**
+	 * Return the number of worker threads currently executing or stealing tasks.
+	 * @see ForkJoinPool#getActiveThreadCount()
+	 */
+	public int getActiveCount() {
+		return (this.forkJoinPool != null ? this.forkJoinPool.getActiveThreadCount() : 0);
+	}
+
+	/**
+	 * Return the number of tasks currently waiting in any of the worker deques
+	 * or the submission queues.
+	 * @see ForkJoinPool#getQueuedTaskCount()
+	 * @see ForkJoinPool#getQueuedSubmissionCount()
+	 */
+	public long getQueuedTaskCount() {
+		return (this.forkJoinPool != null ?
+				this.forkJoinPool.getQueuedTaskCount() + this.forkJoinPool.getQueuedSubmissionCount() : 0);
+	}
+
+	/**
+	 * Return the total number of tasks stolen from one worker's deque by another.
+	 * @see ForkJoinPool#getStealCount()
+	 */
+	public long getStealCount() {
+		return (this.forkJoinPool != null ? this.forkJoinPool.getStealCount() : 0);
+	}
+
+	/**
+	 * Return the share of the targeted parallelism currently busy with tasks,
+	 * between 0 and 1.
+	 */
+	public double getUtilization() {
+		return Math.min(1.0, (double) getActiveCount() / this.parallelism);
+	}
+
+	/**
+	 * Return the queue wait and execution metrics of this executor.
+	 */
+	public TaskExecutionMetrics getExecutionMetrics() {
+		return this.executionMetrics;
+	}
+
+
+	@Override
+	public void execute(Runnable task) {
+		ForkJoinPool pool = getForkJoinPool();
+		Runnable decorated = (this.taskDecorator != null ? this.taskDecorator.decorate(task) : task);
+		try {
+			pool.execute((ForkJoinTask<?>) new ExecuteAction(task, new TimedRunnable(decorated, this.executionMetrics)));
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + pool + "] did not accept task: " + task, ex);
+		}
+		this.executionMetrics.recordSubmitted();
+	}
+
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		FutureTask<Object> future = new FutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	protected void cancelRemainingTask(Runnable task) {
+		super.cancelRemainingTask(task);
+		// Cancel associated user-level Future handle as well
+		if (task instanceof ExecuteAction) {
+			Runnable original = ((ExecuteAction) task).original;
+			if (original instanceof Future) {
+				((Future<?>) original).cancel(true);
+			}
+		}
+	}
+
+
+	/**
+	 * ForkJoinPool that hands out the tasks still queued on {@code shutdownNow},
+	 * so that their Future handles can be cancelled.
+	 */
+	private static class TaskForkJoinPool extends ForkJoinPool {
+
+		TaskForkJoinPool(int parallelism, ForkJoinWorkerThreadFactory factory,
+				@Nullable Thread.UncaughtExceptionHandler handler, boolean asyncMode) {
+
+			super(parallelism, factory, handler, asyncMode);
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			List<ForkJoinTask<?>> queued = new ArrayList<>();
+			drainTasksTo(queued);
+			List<Runnable> remaining = new ArrayList<>(queued.size());
+			for (ForkJoinTask<?> task : queued) {
+				if (task instanceof Runnable) {
+					remaining.add((Runnable) task);
+				}
+			}
+			super.shutdownNow();
+			return remaining;
+		}
+	}
+
+
+	/**
+	 * ForkJoinTask running a decorated and timed user task, passing any exception
+	 * to the uncaught exception handler (like a plain {@code ForkJoinPool.execute}
+	 * would) without terminating the worker thread.
+	 */
+	@SuppressWarnings("serial")
+	private static class ExecuteAction extends ForkJoinTask<Void> implements Runnable {
+
+		final Runnable original;
+
+		private final Runnable runnable;
+
+		ExecuteAction(Runnable original, Runnable runnable) {
+			this.original = original;
+			this.runnable = runnable;
+		}
+
+		@Override
+		@Nullable
+		public Void getRawResult() {
+			return null;
+		}
+
+		@Override
+		protected void setRawResult(@Nullable Void value) {
+		}
+
+		@Override
+		protected boolean exec() {
+			try {
+				this.runnable.run();
+			}
+			catch (Throwable ex) {
+				Thread thread = Thread.currentThread();
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+			}
+			return true;
+		}
+
+		@Override
+		public void run() {
+			invoke();
+		}
+
+		@Override
+		public String toString() {
+			return this.runnable.toString();
+		}
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+import java.util.Date;
+
+import org.springframework.scheduling.Trigger;
+
+/**
+ * Runnable decorator used by {@link ScheduledTaskRegistrar}, recording
+ * {@link ScheduledTaskMetrics} for each run and applying the configured
+ * {@link OverrunPolicy}.
+ *
+ * <p>The scheduled time of each run is tracked alongside the underlying
+ * scheduler: derived from the rate or delay for interval tasks, and captured
+ * from the {@link #monitor(Trigger) monitored trigger} for trigger tasks.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ */
+final class MonitoredRunnable implements Runnable {
+
+	private final Runnable delegate;
+
+	private final ScheduledTaskMetrics metrics;
+
+	private final OverrunPolicy overrunPolicy;
+
+	private final long fixedRate;
+
+	private final long fixedDelay;
+
+	private volatile long scheduledTime;
+
+	private volatile long lastCompletionTime;
+
+
+	private MonitoredRunnable(Runnable delegate, ScheduledTaskMetrics metrics, OverrunPolicy overrunPolicy,
+			long fixedRate, long fixedDelay, long scheduledTime) {
+
+		this.delegate = delegate;
+		this.metrics = metrics;
+		this.overrunPolicy = overrunPolicy;
+		this.fixedRate = fixedRate;
+		this.fixedDelay = fixedDelay;
+		this.scheduledTime = scheduledTime;
+	}
+
+
+	/**
+	 * Create a monitored runnable for a trigger task.
+	 * @see #monitor(Trigger)
+	 */
+	static MonitoredRunnable forTrigger(Runnable delegate, ScheduledTaskMetrics metrics, OverrunPolicy overrunPolicy) {
+		return new MonitoredRunnable(delegate, metrics, overrunPolicy, 0, 0, System.currentTimeMillis());
+	}
+
+	/**
+	 * Create a monitored runnable for a fixed-rate task.
+	 */
+	static MonitoredRunnable forFixedRate(Runnable delegate, ScheduledTaskMetrics metrics,
+			OverrunPolicy overrunPolicy, long startTime, long rate) {
+
+		return new MonitoredRunnable(delegate, metrics, overrunPolicy, rate, 0, startTime);
+	}
+
+	/**
+	 * Create a monitored runnable for a fixed-delay task.
+	 */
+	static MonitoredRunnable forFixedDelay(Runnable delegate, ScheduledTaskMetrics metrics,
+			OverrunPolicy overrunPolicy, long startTime, long delay) {
+
+		return new MonitoredRunnable(delegate, metrics, overrunPolicy, 0, delay, startTime);
+	}
+
+
+	/**
+	 * Decorate the given trigger so that the execution times it determines
+	 * are taken as the scheduled time of the next run.
+	 */
+	Trigger monitor(Trigger trigger) {
+		return triggerContext -> {
+			Date next = trigger.nextExecutionTime(triggerContext);
+			if (next != null) {
+				this.scheduledTime = next.getTime();
+			}
+			return next;
+		};
+	}
+
+	@Override
+	public void run() {
+		long now = System.currentTimeMillis();
+		long scheduledTime = this.scheduledTime;
+		boolean overlapping = this.metrics.recordDue();
+		if (isOverrun(now, scheduledTime, overlapping)) {
+			this.metrics.recordSkipped();
+			advance(scheduledTime, now);
+			return;
+		}
+		this.metrics.recordStart(Math.max(0, now - scheduledTime));
+		long startNanos = System.nanoTime();
+		boolean failed = true;
+		try {
+			this.delegate.run();
+			failed = false;
+		}
+		finally {
+			this.metrics.recordCompletion(System.nanoTime() - startNanos, failed);
+			long completionTime = System.currentTimeMillis();
+			this.lastCompletionTime = completionTime;
+			advance(scheduledTime, completionTime);
+		}
+	}
+
+	private boolean isOverrun(long now, long scheduledTime, boolean overlapping) {
+		if (this.overrunPolicy == OverrunPolicy.RUN) {
+			return false;
+		}
+		if (overlapping) {
+			return true;
+		}
+		if (this.fixedRate > 0) {
+			if (this.overrunPolicy == OverrunPolicy.SKIP) {
+				// Due while the previous run was still in progress
+				return (scheduledTime < this.lastCompletionTime);
+			}
+			// Another missed slot is due as well: leave it to that one
+			return (now - scheduledTime >= this.fixedRate);
+		}
+		return false;
+	}
+
+	private void advance(long scheduledTime, long completionTime) {
+		if (this.fixedRate > 0) {
+			this.scheduledTime = scheduledTime + this.fixedRate;
+		}
+		else if (this.fixedDelay > 0) {
+			this.scheduledTime = completionTime + this.fixedDelay;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.delegate.toString();
+	}
+
+}
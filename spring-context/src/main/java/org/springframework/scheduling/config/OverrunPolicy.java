@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+/**
+ * Policy for runs of a scheduled task that are due while the task is
+ * overrunning, i.e. while a previous run is still in progress or has
+ * taken longer than the configured rate.
+ *
+ * <p>For fixed-rate tasks, a run that overran its period leads to catch-up
+ * runs fired back-to-back by the underlying scheduler; for any kind of task,
+ * a run may overlap with a previous run when scheduled from multiple threads.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see ScheduledTaskRegistrar#setOverrunPolicy
+ * @see ScheduledTaskMetrics#getSkippedCount()
+ */
+public enum OverrunPolicy {
+
+	/**
+	 * Execute every run, including catch-up runs and overlapping runs.
+	 * This is the default.
+	 */
+	RUN,
+
+	/**
+	 * Skip all runs that became due while a previous run was in progress,
+	 * resuming with the first run scheduled after its completion.
+	 */
+	SKIP,
+
+	/**
+	 * Coalesce runs that became due while a previous run was in progress
+	 * into a single run, executed for the most recent of the missed slots.
+	 */
+	COALESCE
+
+}
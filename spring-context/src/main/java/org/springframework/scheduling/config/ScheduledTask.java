@@ -34,6 +34,8 @@ public final class ScheduledTask {
 
 	private final Task task;
 
+	private final ScheduledTaskMetrics metrics = new ScheduledTaskMetrics();
+
 	@Nullable
 	volatile ScheduledFuture<?> future;
 
@@ -52,6 +54,14 @@ public final class ScheduledTask {
 		return this.task;
 	}
 
+	/**
+	 * Return the execution metrics of this scheduled task.
+	 * @since 5.3
+	 */
+	public ScheduledTaskMetrics getMetrics() {
+		return this.metrics;
+	}
+
 	/**
 	 * Trigger cancellation of this scheduled task.
 	 */
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Execution metrics of a single {@link ScheduledTask}: run counts, a histogram
+ * of run durations, start-time lag versus schedule, overlapping runs and
+ * failures. Updated by the {@link ScheduledTaskRegistrar} for every run.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see ScheduledTask#getMetrics()
+ * @see OverrunPolicy
+ */
+public final class ScheduledTaskMetrics implements ScheduledTaskMetricsMBean {
+
+	private static final long[] DURATION_HISTOGRAM_BOUNDS = {1, 10, 100, 1000, 10000, 60000};
+
+
+	private final AtomicLong executionCount = new AtomicLong();
+
+	private final AtomicLong failureCount = new AtomicLong();
+
+	private final AtomicLong skippedCount = new AtomicLong();
+
+	private final AtomicLong overlapCount = new AtomicLong();
+
+	private final AtomicInteger activeCount = new AtomicInteger();
+
+	private final AtomicLong totalDurationNanos = new AtomicLong();
+
+	private final AtomicLong maxDurationNanos = new AtomicLong();
+
+	private volatile long lastDurationNanos;
+
+	private final AtomicLongArray durationHistogram = new AtomicLongArray(DURATION_HISTOGRAM_BOUNDS.length + 1);
+
+	private final AtomicLong maxStartLagMillis = new AtomicLong();
+
+	private volatile long lastStartLagMillis;
+
+
+	ScheduledTaskMetrics() {
+	}
+
+
+	/**
+	 * Record that a run is due, returning whether it overlaps with
+	 * a run still in progress.
+	 */
+	boolean recordDue() {
+		boolean overlapping = (this.activeCount.incrementAndGet() > 1);
+		if (overlapping) {
+			this.overlapCount.incrementAndGet();
+		}
+		return overlapping;
+	}
+
+	void recordStart(long startLagMillis) {
+		this.lastStartLagMillis = startLagMillis;
+		updateMax(this.maxStartLagMillis, startLagMillis);
+	}
+
+	void recordCompletion(long durationNanos, boolean failed) {
+		this.activeCount.decrementAndGet();
+		this.executionCount.incrementAndGet();
+		if (failed) {
+			this.failureCount.incrementAndGet();
+		}
+		this.lastDurationNanos = durationNanos;
+		this.totalDurationNanos.addAndGet(durationNanos);
+		updateMax(this.maxDurationNanos, durationNanos);
+		long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+		int bucket = 0;
+		while (bucket < DURATION_HISTOGRAM_BOUNDS.length && durationMillis >= DURATION_HISTOGRAM_BOUNDS[bucket]) {
+			bucket++;
+		}
+		this.durationHistogram.incrementAndGet(bucket);
+	}
+
+	void recordSkipped() {
+		this.activeCount.decrementAndGet();
+		this.skippedCount.incrementAndGet();
+	}
+
+	private static void updateMax(AtomicLong max, long value) {
+		if (value > max.get()) {
+			max.accumulateAndGet(value, Math::max);
+		}
+	}
+
+
+	@Override
+	public long getExecutionCount() {
+		return this.executionCount.get();
+	}
+
+	@Override
+	public long getFailureCount() {
+		return this.failureCount.get();
+	}
+
+	@Override
+	public long getSkippedCount() {
+		return this.skippedCount.get();
+	}
+
+	@Override
+	public long getOverlapCount() {
+		return this.overlapCount.get();
+	}
+
+	@Override
+	public int getActiveCount() {
+		return this.activeCount.get();
+	}
+
+	@Override
+	public long getLastDurationMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(this.lastDurationNanos);
+	}
+
+	@Override
+	public long getMaxDurationMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(this.maxDurationNanos.get());
+	}
+
+	@Override
+	public double getAverageDurationMillis() {
+		long count = this.executionCount.get();
+		return (count > 0 ? this.totalDurationNanos.get() / 1_000_000.0 / count : 0);
+	}
+
+	@Override
+	public long[] getDurationHistogramBounds() {
+		return DURATION_HISTOGRAM_BOUNDS.clone();
+	}
+
+	@Override
+	public long[] getDurationHistogram() {
+		long[] histogram = new long[this.durationHistogram.length()];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = this.durationHistogram.get(i);
+		}
+		return histogram;
+	}
+
+	@Override
+	public long getLastStartLagMillis() {
+		return this.lastStartLagMillis;
+	}
+
+	@Override
+	public long getMaxStartLagMillis() {
+		return this.maxStartLagMillis.get();
+	}
+
+	@Override
+	public void reset() {
+		this.executionCount.set(0);
+		this.failureCount.set(0);
+		this.skippedCount.set(0);
+		this.overlapCount.set(0);
+		this.totalDurationNanos.set(0);
+		this.maxDurationNanos.set(0);
+		this.lastDurationNanos = 0;
+		for (int i = 0; i < this.durationHistogram.length(); i++) {
+			this.durationHistogram.set(i, 0);
+		}
+		this.maxStartLagMillis.set(0);
+		this.lastStartLagMillis = 0;
+	}
+
+	@Override
+	public String toString() {
+		return "ScheduledTaskMetrics: executions=" + getExecutionCount() + ", failures=" + getFailureCount() +
+				", skipped=" + getSkippedCount() + ", overlaps=" + getOverlapCount() +
+				", averageDurationMillis=" + getAverageDurationMillis() +
+				", maxStartLagMillis=" + getMaxStartLagMillis();
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jmx.export.MBeanExportException;
+import org.springframework.jmx.export.MBeanExportOperations;
+import org.springframework.jmx.support.ObjectNameManager;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Exports the {@link ScheduledTaskMetrics} of all tasks known to the
+ * {@link ScheduledTaskHolder} beans in the application context as MBeans,
+ * through the given {@link org.springframework.jmx.export.MBeanExporter}.
+ *
+ * <p>Registration happens once the context has been refreshed, which covers
+ * all {@link org.springframework.scheduling.annotation.Scheduled @Scheduled}
+ * methods of singleton beans. Object names follow the pattern
+ * {@code <domain>:type=ScheduledTask,name="<task>"}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see ScheduledTaskMetricsMBean
+ */
+public class ScheduledTaskMetricsExporter
+		implements ApplicationContextAware, ApplicationListener<ContextRefreshedEvent>, DisposableBean {
+
+	/**
+	 * The default JMX domain for exported task metrics.
+	 */
+	public static final String DEFAULT_DOMAIN = "org.springframework.scheduling";
+
+
+	private final MBeanExportOperations exporter;
+
+	private String domain = DEFAULT_DOMAIN;
+
+	@Nullable
+	private ApplicationContext applicationContext;
+
+	private final Map<ScheduledTask, ObjectName> exportedTasks = new IdentityHashMap<>();
+
+
+	/**
+	 * Create a new {@code ScheduledTaskMetricsExporter} for the given exporter.
+	 * @param exporter the MBean exporter to register the metrics with
+	 */
+	public ScheduledTaskMetricsExporter(MBeanExportOperations exporter) {
+		Assert.notNull(exporter, "MBeanExportOperations must not be null");
+		this.exporter = exporter;
+	}
+
+
+	/**
+	 * Specify the JMX domain to register the metrics under.
+	 * <p>Default is {@value #DEFAULT_DOMAIN}.
+	 */
+	public void setDomain(String domain) {
+		Assert.hasText(domain, "Domain must not be empty");
+		this.domain = domain;
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+		this.applicationContext = applicationContext;
+	}
+
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if (event.getApplicationContext() == this.applicationContext) {
+			for (ScheduledTaskHolder holder :
+					event.getApplicationContext().getBeansOfType(ScheduledTaskHolder.class, false, false).values()) {
+				for (ScheduledTask task : holder.getScheduledTasks()) {
+					export(task);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Register the metrics of the given task, unless already registered.
+	 * @param task the scheduled task
+	 */
+	public synchronized void export(ScheduledTask task) {
+		if (!this.exportedTasks.containsKey(task)) {
+			ObjectName objectName = getObjectName(task);
+			this.exporter.registerManagedResource(task.getMetrics(), objectName);
+			this.exportedTasks.put(task, objectName);
+		}
+	}
+
+	/**
+	 * Build the object name for the given task, disambiguating multiple
+	 * tasks for the same runnable.
+	 * @param task the scheduled task
+	 * @return the object name to register the task's metrics under
+	 */
+	protected ObjectName getObjectName(ScheduledTask task) {
+		String name = task.toString();
+		int index = 1;
+		for (ScheduledTask exportedTask : this.exportedTasks.keySet()) {
+			if (exportedTask.toString().equals(name)) {
+				index++;
+			}
+		}
+		Hashtable<String, String> properties = new Hashtable<>();
+		properties.put("type", "ScheduledTask");
+		properties.put("name", ObjectName.quote(index > 1 ? name + " #" + index : name));
+		try {
+			return ObjectNameManager.getInstance(this.domain, properties);
+		}
+		catch (MalformedObjectNameException ex) {
+			throw new MBeanExportException("Cannot build object name for scheduled task [" + task + "]", ex);
+		}
+	}
+
+	@Override
+	public synchronized void destroy() {
+		for (ObjectName objectName : this.exportedTasks.values()) {
+			this.exporter.unregisterManagedResource(objectName);
+		}
+		this.exportedTasks.clear();
+	}
+
+}
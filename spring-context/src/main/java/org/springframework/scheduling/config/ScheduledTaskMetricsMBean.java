@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+/**
+ * JMX management interface for {@link ScheduledTaskMetrics}, allowing
+ * registration through an {@link org.springframework.jmx.export.MBeanExporter}
+ * as a standard MBean.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see ScheduledTaskMetricsExporter
+ */
+public interface ScheduledTaskMetricsMBean {
+
+	/**
+	 * Return the number of completed executions, including failed ones.
+	 */
+	long getExecutionCount();
+
+	/**
+	 * Return the number of executions that threw an exception.
+	 */
+	long getFailureCount();
+
+	/**
+	 * Return the number of runs that have been skipped according to the
+	 * {@link OverrunPolicy} in use.
+	 */
+	long getSkippedCount();
+
+	/**
+	 * Return the number of runs that were triggered while a previous
+	 * run of the same task was still in progress.
+	 */
+	long getOverlapCount();
+
+	/**
+	 * Return the number of currently active runs.
+	 */
+	int getActiveCount();
+
+	/**
+	 * Return the duration of the most recent execution in milliseconds.
+	 */
+	long getLastDurationMillis();
+
+	/**
+	 * Return the maximum execution duration in milliseconds.
+	 */
+	long getMaxDurationMillis();
+
+	/**
+	 * Return the average execution duration in milliseconds.
+	 */
+	double getAverageDurationMillis();
+
+	/**
+	 * Return the upper bounds (exclusive, in milliseconds) of the buckets
+	 * of the {@link #getDurationHistogram() duration histogram}.
+	 */
+	long[] getDurationHistogramBounds();
+
+	/**
+	 * Return the number of executions per duration bucket, with one more
+	 * bucket than {@link #getDurationHistogramBounds() bounds} for
+	 * executions exceeding the last bound.
+	 */
+	long[] getDurationHistogram();
+
+	/**
+	 * Return the delay of the most recent start versus its scheduled
+	 * time in milliseconds.
+	 */
+	long getLastStartLagMillis();
+
+	/**
+	 * Return the maximum delay of a start versus its scheduled time
+	 * in milliseconds.
+	 */
+	long getMaxStartLagMillis();
+
+	/**
+	 * Reset all counters.
+	 */
+	void reset();
+
+}
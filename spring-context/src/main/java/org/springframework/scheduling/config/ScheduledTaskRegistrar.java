@@ -87,6 +87,8 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 	@Nullable
 	private List<IntervalTask> fixedDelayTasks;
 
+	private OverrunPolicy overrunPolicy = OverrunPolicy.RUN;
+
 	private final Map<Task, ScheduledTask> unresolvedTasks = new HashMap<>(16);
 
 	private final Set<ScheduledTask> scheduledTasks = new LinkedHashSet<>(16);
@@ -128,6 +130,27 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 		return this.taskScheduler;
 	}
 
+	/**
+	 * Specify the policy for runs that are due while a task is overrunning.
+	 * <p>Default is {@link OverrunPolicy#RUN}, executing every run as
+	 * triggered by the underlying scheduler. Applies to tasks scheduled
+	 * after this property has been set.
+	 * @since 5.3
+	 * @see ScheduledTaskMetrics#getSkippedCount()
+	 */
+	public void setOverrunPolicy(OverrunPolicy overrunPolicy) {
+		Assert.notNull(overrunPolicy, "OverrunPolicy must not be null");
+		this.overrunPolicy = overrunPolicy;
+	}
+
+	/**
+	 * Return the policy for runs that are due while a task is overrunning.
+	 * @since 5.3
+	 */
+	public OverrunPolicy getOverrunPolicy() {
+		return this.overrunPolicy;
+	}
+
 
 	/**
 	 * Specify triggered tasks as a Map of Runnables (the tasks) and Trigger objects
@@ -403,7 +426,9 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
-			scheduledTask.future = this.taskScheduler.schedule(task.getRunnable(), task.getTrigger());
+			MonitoredRunnable runnable =
+					MonitoredRunnable.forTrigger(task.getRunnable(), scheduledTask.getMetrics(), this.overrunPolicy);
+			scheduledTask.future = this.taskScheduler.schedule(runnable, runnable.monitor(task.getTrigger()));
 		}
 		else {
 			addTriggerTask(task);
@@ -428,7 +453,9 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
-			scheduledTask.future = this.taskScheduler.schedule(task.getRunnable(), task.getTrigger());
+			MonitoredRunnable runnable =
+					MonitoredRunnable.forTrigger(task.getRunnable(), scheduledTask.getMetrics(), this.overrunPolicy);
+			scheduledTask.future = this.taskScheduler.schedule(runnable, runnable.monitor(task.getTrigger()));
 		}
 		else {
 			addCronTask(task);
@@ -469,14 +496,14 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
+			Date startTime = new Date(System.currentTimeMillis() + Math.max(task.getInitialDelay(), 0));
+			MonitoredRunnable runnable = MonitoredRunnable.forFixedRate(task.getRunnable(),
+					scheduledTask.getMetrics(), this.overrunPolicy, startTime.getTime(), task.getInterval());
 			if (task.getInitialDelay() > 0) {
-				Date startTime = new Date(System.currentTimeMillis() + task.getInitialDelay());
-				scheduledTask.future =
-						this.taskScheduler.scheduleAtFixedRate(task.getRunnable(), startTime, task.getInterval());
+				scheduledTask.future = this.taskScheduler.scheduleAtFixedRate(runnable, startTime, task.getInterval());
 			}
 			else {
-				scheduledTask.future =
-						this.taskScheduler.scheduleAtFixedRate(task.getRunnable(), task.getInterval());
+				scheduledTask.future = this.taskScheduler.scheduleAtFixedRate(runnable, task.getInterval());
 			}
 		}
 		else {
@@ -518,14 +545,14 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
+			Date startTime = new Date(System.currentTimeMillis() + Math.max(task.getInitialDelay(), 0));
+			MonitoredRunnable runnable = MonitoredRunnable.forFixedDelay(task.getRunnable(),
+					scheduledTask.getMetrics(), this.overrunPolicy, startTime.getTime(), task.getInterval());
 			if (task.getInitialDelay() > 0) {
-				Date startTime = new Date(System.currentTimeMillis() + task.getInitialDelay());
-				scheduledTask.future =
-						this.taskScheduler.scheduleWithFixedDelay(task.getRunnable(), startTime, task.getInterval());
+				scheduledTask.future = this.taskScheduler.scheduleWithFixedDelay(runnable, startTime, task.getInterval());
 			}
 			else {
-				scheduledTask.future =
-						this.taskScheduler.scheduleWithFixedDelay(task.getRunnable(), task.getInterval());
+				scheduledTask.future = this.taskScheduler.scheduleWithFixedDelay(runnable, task.getInterval());
 			}
 		}
 		else {
@@ -0,0 +1,495 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Representation of a
+ * <a href="https://www.manpagez.com/man/5/crontab/">crontab expression</a>
+ * that can calculate the next time it matches, based on {@code java.time}.
+ *
+ * <p>The pattern is a list of six single space-separated fields: representing
+ * second, minute, hour, day of month, month, day of week. Month and weekday
+ * names can be given as the first three letters of the English names, and
+ * Sunday can be represented as either 0 or 7. Each field is precomputed into
+ * a bitmask on parsing, so that evaluation jumps straight to the next valid
+ * value of each field instead of iterating over calendar units.
+ *
+ * <p>On top of the standard syntax, the following Quartz-style extensions
+ * are supported:
+ * <ul>
+ * <li>{@code L} in the day-of-month field: the last day of the month,
+ * optionally with an offset such as {@code L-3}</li>
+ * <li>{@code nW} in the day-of-month field: the weekday (Monday to Friday)
+ * nearest to day {@code n} within the same month; {@code LW} stands for the
+ * last weekday of the month</li>
+ * <li>{@code dL} in the day-of-week field: the last day-of-week {@code d}
+ * of the month, e.g. {@code FRIL} or {@code 5L} for the last Friday</li>
+ * <li>{@code d#n} in the day-of-week field: the {@code n}th day-of-week
+ * {@code d} of the month, e.g. {@code MON#2} for the second Monday</li>
+ * </ul>
+ * As with the classic {@link CronSequenceGenerator}, a date has to match both
+ * the day-of-month and the day-of-week field, with {@code *} or {@code ?}
+ * matching any day.
+ *
+ * <p>The macros {@code @yearly} (or {@code @annually}), {@code @monthly},
+ * {@code @weekly}, {@code @daily} (or {@code @midnight}) and {@code @hourly}
+ * may be used instead of the six fields.
+ *
+ * <p>Example patterns:
+ * <ul>
+ * <li>"0 0 * * * *" = the top of every hour of every day.</li>
+ * <li>"*&#47;10 * * * * *" = every ten seconds.</li>
+ * <li>"0 0 9-17 * * MON-FRI" = on the hour nine-to-five weekdays</li>
+ * <li>"0 0 0 25 12 ?" = every Christmas Day at midnight</li>
+ * <li>"0 0 0 L * *" = last day of the month at midnight</li>
+ * <li>"0 0 0 1W * *" = first weekday of the month at midnight</li>
+ * <li>"0 0 0 ? * 5#2" = the second Friday of the month at midnight</li>
+ * </ul>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see CronTrigger
+ */
+public final class CronExpression {
+
+	/**
+	 * Maximum number of years to search ahead for a match: a full cycle
+	 * of the Gregorian calendar.
+	 */
+	static final int MAX_YEARS = 400;
+
+	private static final String[] MACROS = {
+			"@yearly", "0 0 0 1 1 *",
+			"@annually", "0 0 0 1 1 *",
+			"@monthly", "0 0 0 1 * *",
+			"@weekly", "0 0 0 * * 0",
+			"@daily", "0 0 0 * * *",
+			"@midnight", "0 0 0 * * *",
+			"@hourly", "0 0 * * * *"
+	};
+
+	private static final String[] MONTHS =
+			{"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+
+	private static final String[] DAYS_OF_WEEK = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+	/** Bits for days 0, 7, 14, 21 and 28 of a month, to be shifted to the first occurrence. */
+	private static final long WEEKLY = 1L | 1L << 7 | 1L << 14 | 1L << 21 | 1L << 28;
+
+
+	private final String expression;
+
+	private final long seconds;
+
+	private final long minutes;
+
+	private final long hours;
+
+	// Bits 1-31
+	private final long daysOfMonth;
+
+	// Bit n set for "L-n"
+	private final long lastDaysOfMonth;
+
+	// Bit n set for "nW"
+	private final long nearestWeekdays;
+
+	private final boolean lastWeekday;
+
+	// Bits 1-12
+	private final long months;
+
+	// ISO day-of-week bits: 1 (Monday) to 7 (Sunday)
+	private final long daysOfWeek;
+
+	// ISO day-of-week bits for "dL"
+	private final long lastDaysOfWeek;
+
+	// Bit (n * 8 + d) set for "d#n", with ISO day-of-week d
+	private final long nthDaysOfWeek;
+
+
+	private CronExpression(String expression, String[] fields) {
+		this.expression = expression;
+		this.seconds = parseField(fields[0], 0, 59, null);
+		this.minutes = parseField(fields[1], 0, 59, null);
+		this.hours = parseField(fields[2], 0, 23, null);
+
+		long daysOfMonth = 0;
+		long lastDaysOfMonth = 0;
+		long nearestWeekdays = 0;
+		boolean lastWeekday = false;
+		for (String part : StringUtils.delimitedListToStringArray(fields[3], ",")) {
+			if (part.equals("L")) {
+				lastDaysOfMonth |= 1L;
+			}
+			else if (part.startsWith("L-")) {
+				lastDaysOfMonth |= 1L << parseValue(part.substring(2), 0, 30, null);
+			}
+			else if (part.equals("LW")) {
+				lastWeekday = true;
+			}
+			else if (part.endsWith("W")) {
+				nearestWeekdays |= 1L << parseValue(part.substring(0, part.length() - 1), 1, 31, null);
+			}
+			else {
+				daysOfMonth |= parseRange(part, 1, 31, null);
+			}
+		}
+		this.daysOfMonth = daysOfMonth;
+		this.lastDaysOfMonth = lastDaysOfMonth;
+		this.nearestWeekdays = nearestWeekdays;
+		this.lastWeekday = lastWeekday;
+
+		this.months = parseField(fields[4], 1, 12, MONTHS);
+
+		long daysOfWeek = 0;
+		long lastDaysOfWeek = 0;
+		long nthDaysOfWeek = 0;
+		for (String part : StringUtils.delimitedListToStringArray(fields[5], ",")) {
+			int hashIndex = part.indexOf('#');
+			if (hashIndex != -1) {
+				int dayOfWeek = toIsoDayOfWeek(parseValue(part.substring(0, hashIndex), 0, 7, DAYS_OF_WEEK));
+				int n = parseValue(part.substring(hashIndex + 1), 1, 5, null);
+				nthDaysOfWeek |= 1L << (n * 8 + dayOfWeek);
+			}
+			else if (part.length() > 1 && part.endsWith("L")) {
+				int dayOfWeek = toIsoDayOfWeek(parseValue(part.substring(0, part.length() - 1), 0, 7, DAYS_OF_WEEK));
+				lastDaysOfWeek |= 1L << dayOfWeek;
+			}
+			else {
+				long bits = parseRange(part, 0, 7, DAYS_OF_WEEK);
+				// Sunday can be represented as 0 or 7
+				daysOfWeek |= (bits & 0xFEL) | ((bits & 1L) << 7);
+			}
+		}
+		this.daysOfWeek = daysOfWeek;
+		this.lastDaysOfWeek = lastDaysOfWeek;
+		this.nthDaysOfWeek = nthDaysOfWeek;
+	}
+
+
+	/**
+	 * Parse the given crontab expression or macro.
+	 * @param expression the expression to parse
+	 * @return the parsed {@code CronExpression}
+	 * @throws IllegalArgumentException if the expression cannot be parsed
+	 */
+	public static CronExpression parse(String expression) {
+		Assert.hasLength(expression, "Expression string must not be empty");
+		String[] fields = StringUtils.tokenizeToStringArray(resolveMacro(expression), " ");
+		if (fields.length != 6) {
+			throw new IllegalArgumentException(String.format(
+					"Cron expression must consist of 6 fields (found %d in \"%s\")", fields.length, expression));
+		}
+		for (int i = 0; i < fields.length; i++) {
+			fields[i] = fields[i].toUpperCase(Locale.ENGLISH);
+		}
+		try {
+			return new CronExpression(expression, fields);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException(ex.getMessage() + " in expression \"" + expression + "\"", ex);
+		}
+	}
+
+	/**
+	 * Determine whether the given string represents a valid cron expression.
+	 * @param expression the expression to evaluate
+	 * @return {@code true} if the given expression can be parsed
+	 */
+	public static boolean isValidExpression(@Nullable String expression) {
+		if (!StringUtils.hasLength(expression)) {
+			return false;
+		}
+		try {
+			parse(expression);
+			return true;
+		}
+		catch (IllegalArgumentException ex) {
+			return false;
+		}
+	}
+
+	private static String resolveMacro(String expression) {
+		String trimmed = expression.trim();
+		for (int i = 0; i < MACROS.length; i += 2) {
+			if (MACROS[i].equalsIgnoreCase(trimmed)) {
+				return MACROS[i + 1];
+			}
+		}
+		return expression;
+	}
+
+	private static long parseField(String field, int min, int max, @Nullable String[] names) {
+		long bits = 0;
+		for (String part : StringUtils.delimitedListToStringArray(field, ",")) {
+			bits |= parseRange(part, min, max, names);
+		}
+		return bits;
+	}
+
+	private static long parseRange(String part, int min, int max, @Nullable String[] names) {
+		String range = part;
+		int step = 1;
+		int slashIndex = part.indexOf('/');
+		if (slashIndex != -1) {
+			range = part.substring(0, slashIndex);
+			step = parseValue(part.substring(slashIndex + 1), 1, Integer.MAX_VALUE, null);
+		}
+		int start;
+		int end;
+		if (range.equals("*") || range.equals("?")) {
+			start = min;
+			end = max;
+		}
+		else {
+			int dashIndex = range.indexOf('-');
+			if (dashIndex != -1) {
+				start = parseValue(range.substring(0, dashIndex), min, max, names);
+				end = parseValue(range.substring(dashIndex + 1), min, max, names);
+				if (start > end) {
+					throw new IllegalArgumentException("Invalid inverted range: '" + part + "'");
+				}
+			}
+			else {
+				start = parseValue(range, min, max, names);
+				end = (slashIndex != -1 ? max : start);
+			}
+		}
+		long bits = 0;
+		for (int i = start; i <= end; i += step) {
+			bits |= 1L << i;
+		}
+		return bits;
+	}
+
+	private static int parseValue(String value, int min, int max, @Nullable String[] names) {
+		if (names != null) {
+			int index = Arrays.asList(names).indexOf(value);
+			if (index != -1) {
+				return index + min;
+			}
+		}
+		int result;
+		try {
+			result = Integer.parseInt(value);
+		}
+		catch (NumberFormatException ex) {
+			throw new IllegalArgumentException("Invalid value '" + value + "'");
+		}
+		if (result < min || result > max) {
+			throw new IllegalArgumentException("Value " + result + " out of range [" + min + ", " + max + "]");
+		}
+		return result;
+	}
+
+	private static int toIsoDayOfWeek(int cronDayOfWeek) {
+		return (cronDayOfWeek == 0 ? 7 : cronDayOfWeek);
+	}
+
+
+	/**
+	 * Calculate the next date-time matching this expression, strictly after
+	 * the given date-time and with a whole number of seconds.
+	 * <p>Local times falling into a daylight saving gap are skipped; in an
+	 * overlap, the offset of the given date-time is retained where possible.
+	 * @param dateTime the date-time to start searching from
+	 * @return the next matching date-time, or {@code null} if the expression
+	 * does not match any date-time within the next {@value #MAX_YEARS} years
+	 */
+	@Nullable
+	public ZonedDateTime next(ZonedDateTime dateTime) {
+		ZoneId zone = dateTime.getZone();
+		ZoneRules rules = zone.getRules();
+		LocalDateTime candidate = dateTime.toLocalDateTime();
+		while ((candidate = nextLocal(candidate)) != null) {
+			if (!rules.getValidOffsets(candidate).isEmpty()) {
+				ZonedDateTime result = ZonedDateTime.ofLocal(candidate, zone, dateTime.getOffset());
+				if (result.isAfter(dateTime)) {
+					return result;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Calculate the next local date-time matching this expression, strictly
+	 * after the given local date-time, without regard to time zones.
+	 */
+	@Nullable
+	private LocalDateTime nextLocal(LocalDateTime dateTime) {
+		LocalDateTime candidate = dateTime.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+		int maxYear = candidate.getYear() + MAX_YEARS;
+		int dayMaskYear = -1;
+		int dayMaskMonth = -1;
+		long dayMask = 0;
+		while (candidate.getYear() <= maxYear) {
+			LocalDate date = candidate.toLocalDate();
+			int month = date.getMonthValue();
+			int nextMonth = nextSetBit(this.months, month);
+			if (nextMonth != month) {
+				candidate = (nextMonth != -1 ?
+						date.withDayOfMonth(1).withMonth(nextMonth).atStartOfDay() :
+						LocalDate.of(date.getYear() + 1, 1, 1).atStartOfDay());
+				continue;
+			}
+			if (date.getYear() != dayMaskYear || month != dayMaskMonth) {
+				dayMaskYear = date.getYear();
+				dayMaskMonth = month;
+				dayMask = daysOfMonth(dayMaskYear, dayMaskMonth);
+			}
+			int day = date.getDayOfMonth();
+			int nextDay = nextSetBit(dayMask, day);
+			if (nextDay != day) {
+				candidate = (nextDay != -1 ? date.withDayOfMonth(nextDay).atStartOfDay() :
+						date.withDayOfMonth(1).plusMonths(1).atStartOfDay());
+				continue;
+			}
+			int hour = candidate.getHour();
+			int nextHour = nextSetBit(this.hours, hour);
+			if (nextHour != hour) {
+				candidate = (nextHour != -1 ? date.atTime(nextHour, 0) : date.plusDays(1).atStartOfDay());
+				continue;
+			}
+			int minute = candidate.getMinute();
+			int nextMinute = nextSetBit(this.minutes, minute);
+			if (nextMinute != minute) {
+				candidate = (nextMinute != -1 ? date.atTime(hour, nextMinute) :
+						candidate.truncatedTo(ChronoUnit.HOURS).plusHours(1));
+				continue;
+			}
+			int second = candidate.getSecond();
+			int nextSecond = nextSetBit(this.seconds, second);
+			if (nextSecond != second) {
+				candidate = (nextSecond != -1 ? candidate.withSecond(nextSecond) :
+						candidate.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1));
+				continue;
+			}
+			return candidate;
+		}
+		return null;
+	}
+
+	/**
+	 * Compute the bitmask of matching days (bits 1-31) for the given month,
+	 * combining the day-of-month and the day-of-week field.
+	 */
+	private long daysOfMonth(int year, int month) {
+		int length = Month.of(month).length(Year.isLeap(year));
+		int firstDayOfWeek = LocalDate.of(year, month, 1).getDayOfWeek().getValue();
+		int lastDayOfWeek = (firstDayOfWeek + length - 2) % 7 + 1;
+
+		long byDayOfMonth = this.daysOfMonth;
+		for (long bits = this.lastDaysOfMonth; bits != 0; bits &= bits - 1) {
+			int day = length - Long.numberOfTrailingZeros(bits);
+			if (day > 0) {
+				byDayOfMonth |= 1L << day;
+			}
+		}
+		for (long bits = this.nearestWeekdays; bits != 0; bits &= bits - 1) {
+			int day = Long.numberOfTrailingZeros(bits);
+			if (day <= length) {
+				int dayOfWeek = (firstDayOfWeek + day - 2) % 7 + 1;
+				if (dayOfWeek == 6) {
+					day = (day == 1 ? 3 : day - 1);
+				}
+				else if (dayOfWeek == 7) {
+					day = (day == length ? day - 2 : day + 1);
+				}
+				byDayOfMonth |= 1L << day;
+			}
+		}
+		if (this.lastWeekday) {
+			byDayOfMonth |= 1L << (lastDayOfWeek == 6 ? length - 1 : (lastDayOfWeek == 7 ? length - 2 : length));
+		}
+
+		long byDayOfWeek = 0;
+		for (int dayOfWeek = 1; dayOfWeek <= 7; dayOfWeek++) {
+			int first = (dayOfWeek - firstDayOfWeek + 7) % 7 + 1;
+			if ((this.daysOfWeek & (1L << dayOfWeek)) != 0) {
+				byDayOfWeek |= WEEKLY << first;
+			}
+			if ((this.lastDaysOfWeek & (1L << dayOfWeek)) != 0) {
+				byDayOfWeek |= 1L << (length - (lastDayOfWeek - dayOfWeek + 7) % 7);
+			}
+			for (int n = 1; n <= 5; n++) {
+				if ((this.nthDaysOfWeek & (1L << (n * 8 + dayOfWeek))) != 0) {
+					byDayOfWeek |= 1L << (first + (n - 1) * 7);
+				}
+			}
+		}
+
+		long validDays = ((1L << length) - 1) << 1;
+		return byDayOfMonth & byDayOfWeek & validDays;
+	}
+
+	private static int nextSetBit(long bits, int fromIndex) {
+		long remaining = bits & (-1L << fromIndex);
+		return (remaining != 0 ? Long.numberOfTrailingZeros(remaining) : -1);
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof CronExpression)) {
+			return false;
+		}
+		CronExpression otherCron = (CronExpression) other;
+		return (this.seconds == otherCron.seconds && this.minutes == otherCron.minutes &&
+				this.hours == otherCron.hours && this.daysOfMonth == otherCron.daysOfMonth &&
+				this.lastDaysOfMonth == otherCron.lastDaysOfMonth &&
+				this.nearestWeekdays == otherCron.nearestWeekdays && this.lastWeekday == otherCron.lastWeekday &&
+				this.months == otherCron.months && this.daysOfWeek == otherCron.daysOfWeek &&
+				this.lastDaysOfWeek == otherCron.lastDaysOfWeek && this.nthDaysOfWeek == otherCron.nthDaysOfWeek);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(new long[] {this.seconds, this.minutes, this.hours, this.daysOfMonth,
+				this.lastDaysOfMonth, this.nearestWeekdays, (this.lastWeekday ? 1 : 0), this.months,
+				this.daysOfWeek, this.lastDaysOfWeek, this.nthDaysOfWeek});
+	}
+
+	/**
+	 * Return the expression string used to create this {@code CronExpression}.
+	 */
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+
+}
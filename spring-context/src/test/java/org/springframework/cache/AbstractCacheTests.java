@@ -16,7 +16,10 @@
 
 package org.springframework.cache;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
@@ -87,6 +90,28 @@ public abstract class AbstractCacheTests<T extends Cache> {
 		assertThat(cache.get(key).get()).isEqualTo(value);
 	}
 
+	@Test
+	public void testCachePutAllGetAll() throws Exception {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		String key3 = createRandomKey();
+		assertThat(cache.getAll(Arrays.asList(key1, key2, key3))).isEmpty();
+
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		entries.put(key1, "george");
+		entries.put(key3, null);
+		cache.putAll(entries);
+
+		Map<Object, Cache.ValueWrapper> result = cache.getAll(Arrays.asList(key3, key2, key1));
+		assertThat(result).containsOnlyKeys(key3, key1);
+		assertThat(result.keySet()).containsExactly(key3, key1);
+		assertThat(result.get(key1).get()).isEqualTo("george");
+		assertThat(result.get(key3).get()).isNull();
+		assertThat(cache.get(key1).get()).isEqualTo("george");
+	}
+
 	@Test
 	public void testCacheRemove() throws Exception {
 		T cache = getCache();
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.annotation;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for annotation-based caching of methods returning
+ * {@link CompletableFuture} and reactive types.
+ */
+public class ReactiveCachingTests {
+
+	private final AnnotationConfigApplicationContext context =
+			new AnnotationConfigApplicationContext(Config.class, ReactiveCacheableService.class);
+
+	private final ReactiveCacheableService service = this.context.getBean(ReactiveCacheableService.class);
+
+	private final Cache cache = this.context.getBean(CacheManager.class).getCache("first");
+
+
+	@AfterEach
+	public void close() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void cacheCompletableFutureValue() {
+		CompletableFuture<Long> pending = new CompletableFuture<>();
+		this.service.setPendingFuture(pending);
+
+		CompletableFuture<Long> first = this.service.cacheFuture("key");
+		assertThat(first.isDone()).isFalse();
+		assertThat(this.cache.get("key")).isNull();
+
+		pending.complete(10L);
+		assertThat(first.join()).isEqualTo(10L);
+		assertThat(this.cache.get("key").get()).isEqualTo(10L);
+		assertThat(this.service.cacheFuture("key").join()).isEqualTo(10L);
+		assertThat(this.service.getInvocations()).isEqualTo(1);
+	}
+
+	@Test
+	public void failedCompletableFutureNotCached() {
+		CompletableFuture<Long> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IllegalStateException("Expected exception"));
+		this.service.setPendingFuture(failed);
+
+		assertThatExceptionOfType(CompletionException.class).isThrownBy(() ->
+				this.service.cacheFuture("key").join()).withCauseInstanceOf(IllegalStateException.class);
+		assertThat(this.cache.get("key")).isNull();
+
+		this.service.setPendingFuture(null);
+		assertThat(this.service.cacheFuture("key").join()).isEqualTo(2L);
+	}
+
+	@Test
+	public void invocationFailureOfCompletableFutureMethodRethrown() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.throwingFuture("key"));
+		assertThat(this.cache.get("key")).isNull();
+	}
+
+	@Test
+	public void cacheMonoValueOnSubscription() {
+		Mono<Long> mono = this.service.cacheMono("key");
+		assertThat(this.cache.get("key")).isNull();
+
+		assertThat(mono.block()).isEqualTo(1L);
+		assertThat(this.cache.get("key").get()).isEqualTo(1L);
+		assertThat(this.service.cacheMono("key").block()).isEqualTo(1L);
+		assertThat(this.service.getInvocations()).isEqualTo(1);
+	}
+
+	@Test
+	public void cacheEmptyMono() {
+		assertThat(this.service.emptyMono("key").block()).isNull();
+		assertThat(this.cache.get("key").get()).isNull();
+		assertThat(this.service.emptyMono("key").block()).isNull();
+		assertThat(this.service.getInvocations()).isEqualTo(1);
+	}
+
+	@Test
+	public void failedMonoNotCached() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.failingMono("key").block());
+		assertThat(this.cache.get("key")).isNull();
+	}
+
+	@Test
+	public void cacheFluxElementsAsList() {
+		List<Long> first = this.service.cacheFlux("key").collectList().block();
+		assertThat(first).containsExactly(1L, 2L, 3L);
+		assertThat(this.cache.get("key").get()).isEqualTo(first);
+
+		List<Long> second = this.service.cacheFlux("key").collectList().block();
+		assertThat(second).containsExactly(1L, 2L, 3L);
+		assertThat(this.service.getInvocations()).isEqualTo(1);
+	}
+
+	@Test
+	public void cachePutWithResolvedValue() {
+		this.cache.put("key", 100L);
+		assertThat(this.service.updateMono("key").block()).isEqualTo(1L);
+		assertThat(this.cache.get("key").get()).isEqualTo(1L);
+	}
+
+	@Test
+	public void unlessEvaluatedAgainstResolvedValue() {
+		assertThat(this.service.unlessMono("key", 5L).block()).isEqualTo(5L);
+		assertThat(this.cache.get("key")).isNull();
+		assertThat(this.service.unlessMono("key", 50L).block()).isEqualTo(50L);
+		assertThat(this.cache.get("key").get()).isEqualTo(50L);
+	}
+
+	@Test
+	public void synchronizedCompletableFuture() {
+		assertThat(this.service.syncFuture("key").join()).isEqualTo(1L);
+		assertThat(this.service.syncFuture("key").join()).isEqualTo(1L);
+		assertThat(this.cache.get("key").get()).isEqualTo(1L);
+		assertThat(this.service.getInvocations()).isEqualTo(1);
+	}
+
+	@Test
+	public void synchronizedMono() {
+		assertThat(this.service.syncMono("key").block()).isEqualTo(1L);
+		assertThat(this.service.syncMono("key").block()).isEqualTo(1L);
+		assertThat(this.cache.get("key").get()).isEqualTo(1L);
+		assertThat(this.service.getInvocations()).isEqualTo(1);
+	}
+
+
+	@CacheConfig(cacheNames = "first")
+	static class ReactiveCacheableService {
+
+		private final AtomicLong invocations = new AtomicLong();
+
+		private volatile CompletableFuture<Long> pendingFuture;
+
+		public long getInvocations() {
+			return this.invocations.get();
+		}
+
+		public void setPendingFuture(CompletableFuture<Long> pendingFuture) {
+			this.pendingFuture = pendingFuture;
+		}
+
+		@Cacheable
+		public CompletableFuture<Long> cacheFuture(Object key) {
+			long count = this.invocations.incrementAndGet();
+			return (this.pendingFuture != null ? this.pendingFuture : CompletableFuture.completedFuture(count));
+		}
+
+		@Cacheable
+		public CompletableFuture<Long> throwingFuture(Object key) {
+			throw new IllegalStateException("Expected exception");
+		}
+
+		@Cacheable(sync = true)
+		public CompletableFuture<Long> syncFuture(Object key) {
+			return CompletableFuture.completedFuture(this.invocations.incrementAndGet());
+		}
+
+		@Cacheable
+		public Mono<Long> cacheMono(Object key) {
+			return Mono.fromSupplier(this.invocations::incrementAndGet);
+		}
+
+		@Cacheable
+		public Mono<Long> emptyMono(Object key) {
+			this.invocations.incrementAndGet();
+			return Mono.empty();
+		}
+
+		@Cacheable
+		public Mono<Long> failingMono(Object key) {
+			return Mono.error(new IllegalStateException("Expected exception"));
+		}
+
+		@Cacheable(sync = true)
+		public Mono<Long> syncMono(Object key) {
+			return Mono.fromSupplier(this.invocations::incrementAndGet);
+		}
+
+		@Cacheable(key = "#key", unless = "#result < 10")
+		public Mono<Long> unlessMono(Object key, long value) {
+			return Mono.just(value);
+		}
+
+		@CachePut
+		public Mono<Long> updateMono(Object key) {
+			return Mono.fromSupplier(this.invocations::incrementAndGet);
+		}
+
+		@Cacheable
+		public Flux<Long> cacheFlux(Object key) {
+			this.invocations.incrementAndGet();
+			return Flux.just(1L, 2L, 3L);
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("first");
+		}
+	}
+
+}
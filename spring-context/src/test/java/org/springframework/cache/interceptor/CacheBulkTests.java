@@ -0,0 +1,242 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.CacheTestUtils;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link Cacheable#bulk()}.
+ */
+public class CacheBulkTests {
+
+	private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(Config.class);
+
+	private final BulkService service = this.context.getBean(BulkService.class);
+
+	private final Cache cache = this.context.getBean(CacheManager.class).getCache("testCache");
+
+
+	@AfterEach
+	public void closeContext() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void invokeWithMissingKeysOnly() {
+		assertThat(this.service.findAll(Arrays.asList(1L, 2L))).containsExactly(entry(1L), entry(2L));
+		assertThat(this.service.getRequests()).containsExactly(Arrays.asList(1L, 2L));
+		assertThat(this.cache.get(1L).get()).isEqualTo("value1");
+
+		Map<Long, String> result = this.service.findAll(Arrays.asList(3L, 2L, 1L, 4L));
+		assertThat(result.keySet()).containsExactly(3L, 2L, 1L, 4L);
+		assertThat(result.values()).containsExactly("value3", "value2", "value1", "value4");
+		assertThat(this.service.getRequests()).containsExactly(Arrays.asList(1L, 2L), Arrays.asList(3L, 4L));
+	}
+
+	@Test
+	public void invokeWithCopyOfArguments() throws Exception {
+		this.cache.put(1L, "cached");
+		BulkService target = new BulkService();
+		Method method = BulkService.class.getMethod("findAll", Collection.class);
+		List<Long> keys = Arrays.asList(1L, 2L);
+		Object[] args = new Object[] {keys};
+		CacheOperationInvoker invoker = new CacheOperationInvoker() {
+			@Override
+			public Object invoke() {
+				throw new IllegalStateException("Should have been invoked with the missing keys");
+			}
+			@Override
+			@SuppressWarnings("unchecked")
+			public Object invoke(Object[] bulkArgs) {
+				assertThat(bulkArgs).isNotSameAs(args);
+				return target.findAll((Collection<Long>) bulkArgs[0]);
+			}
+		};
+
+		Map<?, ?> result = (Map<?, ?>) this.context.getBean(CacheInterceptor.class).execute(invoker, target, method, args);
+		assertThat(result.keySet()).containsExactly(1L, 2L);
+		assertThat(result.values()).containsExactly("cached", "value2");
+		assertThat(target.getRequests()).containsExactly(Collections.singletonList(2L));
+		assertThat(args[0]).isSameAs(keys);
+	}
+
+	@Test
+	public void noInvocationWhenAllKeysCached() {
+		this.service.findAll(Arrays.asList(1L, 2L, 3L));
+		assertThat(this.service.findAll(Arrays.asList(2L, 3L))).containsExactly(entry(2L), entry(3L));
+		assertThat(this.service.getRequests()).hasSize(1);
+	}
+
+	@Test
+	public void setParameterInvokedWithSet() {
+		this.cache.put(1L, "cached");
+		Map<Long, String> result = this.service.findAllInSet(new LinkedHashSet<>(Arrays.asList(1L, 2L)));
+		assertThat(result).containsEntry(1L, "cached").containsEntry(2L, "value2");
+		assertThat(this.service.getRequests()).containsExactly(Collections.singletonList(2L));
+	}
+
+	@Test
+	public void unlessEvaluatedPerEntry() {
+		this.service.findAllUnless(Arrays.asList(1L, 2L));
+		assertThat(this.cache.get(1L)).isNull();
+		assertThat(this.cache.get(2L).get()).isEqualTo("value2");
+	}
+
+	@Test
+	public void keysMissingFromResultNotCached() {
+		Map<Long, String> result = this.service.findAllExisting(Arrays.asList(1L, 20L));
+		assertThat(result).containsOnlyKeys(1L);
+		assertThat(this.cache.get(20L)).isNull();
+	}
+
+	@Test
+	public void conditionNotPassingInvokesWithAllKeys() {
+		this.cache.put(1L, "cached");
+		assertThat(this.service.findAllIfSmall(Arrays.asList(1L, 2L, 3L))).containsEntry(1L, "value1");
+		assertThat(this.service.getRequests()).containsExactly(Arrays.asList(1L, 2L, 3L));
+	}
+
+	@Test
+	public void nonMapReturnType() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.findAsList(Arrays.asList(1L, 2L)))
+				.withMessageContaining("@Cacheable(bulk=true) requires a Map return type");
+	}
+
+	@Test
+	public void noCollectionParameter() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.findOne(1L))
+				.withMessageContaining("@Cacheable(bulk=true) requires exactly one Collection parameter");
+	}
+
+	@Test
+	public void bulkWithAnotherOperation() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.findAllAndEvict(Arrays.asList(1L, 2L)))
+				.withMessageContaining("@Cacheable(bulk=true) cannot be combined with other cache operations");
+	}
+
+
+	private static Map.Entry<Long, String> entry(Long key) {
+		return Collections.singletonMap(key, "value" + key).entrySet().iterator().next();
+	}
+
+
+	static class BulkService {
+
+		private final List<List<Long>> requests = new ArrayList<>();
+
+		public List<List<Long>> getRequests() {
+			return this.requests;
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public Map<Long, String> findAll(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public Map<Long, String> findAllInSet(Set<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true, unless = "#result.endsWith('1')")
+		public Map<Long, String> findAllUnless(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public Map<Long, String> findAllExisting(List<Long> ids) {
+			Map<Long, String> result = load(ids);
+			result.keySet().removeIf(id -> id > 10);
+			return result;
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true, condition = "#ids.size() < 3")
+		public Map<Long, String> findAllIfSmall(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public List<String> findAsList(List<Long> ids) {
+			return new ArrayList<>(load(ids).values());
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public Map<Long, String> findOne(Long id) {
+			return load(Collections.singletonList(id));
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		@CacheEvict(cacheNames = "anotherTestCache", allEntries = true)
+		public Map<Long, String> findAllAndEvict(List<Long> ids) {
+			return load(ids);
+		}
+
+		private Map<Long, String> load(Collection<Long> ids) {
+			this.requests.add(new ArrayList<>(ids));
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				result.put(id, "value" + id);
+			}
+			return result;
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config extends CachingConfigurerSupport {
+
+		@Override
+		@Bean
+		public CacheManager cacheManager() {
+			return CacheTestUtils.createSimpleCacheManager("testCache", "anotherTestCache");
+		}
+
+		@Bean
+		public BulkService bulkService() {
+			return new BulkService();
+		}
+	}
+
+}
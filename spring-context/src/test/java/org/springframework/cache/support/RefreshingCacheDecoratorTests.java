@@ -0,0 +1,454 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.AbstractCacheTests;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RefreshingCacheDecorator} and {@link RefreshingCacheManagerProxy}.
+ */
+public class RefreshingCacheDecoratorTests extends AbstractCacheTests<RefreshingCacheDecorator> {
+
+	private static final Instant START = Instant.parse("2019-06-01T10:00:00Z");
+
+	private ConcurrentMap<Object, Object> nativeCache;
+
+	private RefreshingCacheDecorator cache;
+
+	private final List<Runnable> refreshTasks = new ArrayList<>();
+
+
+	@BeforeEach
+	public void setUp() {
+		this.nativeCache = new ConcurrentHashMap<>();
+		this.cache = new RefreshingCacheDecorator(new ConcurrentMapCache(CACHE_NAME, this.nativeCache, true));
+		this.cache.setTimeToLive(Duration.ofMinutes(1));
+		this.cache.setMaxStaleness(Duration.ofMinutes(1));
+		this.cache.setRefreshExecutor(this.refreshTasks::add);
+		setTime(Duration.ZERO);
+	}
+
+	@Override
+	protected RefreshingCacheDecorator getCache() {
+		return this.cache;
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.nativeCache;
+	}
+
+
+	@Test
+	public void staleValueIsMissForElectedCaller() throws Exception {
+		this.cache.put("key", "v1");
+		setTime(Duration.ofSeconds(70));
+
+		assertThat(this.cache.get("key")).isNull();
+		assertThat(this.cache.get("key")).isNull();
+		assertThat(getInOtherThread("key")).isEqualTo("v1");
+
+		this.cache.put("key", "v2");
+		assertThat(this.cache.get("key").get()).isEqualTo("v2");
+		assertThat(getInOtherThread("key")).isEqualTo("v2");
+	}
+
+	@Test
+	public void staleValueServedWhileReloadInProgress() throws Exception {
+		this.cache.setRefreshExecutor(null);
+		this.cache.put("key", "v1");
+		setTime(Duration.ofSeconds(70));
+
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Object> refresh = CompletableFuture.supplyAsync(() -> this.cache.get("key", () -> {
+			loading.countDown();
+			release.await();
+			return "v2";
+		}));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(this.cache.get("key").get()).isEqualTo("v1");
+
+		release.countDown();
+		assertThat(refresh.get(5, TimeUnit.SECONDS)).isEqualTo("v2");
+		assertThat(this.cache.get("key").get()).isEqualTo("v2");
+	}
+
+	@Test
+	public void valueStaleBeyondMaxStalenessIsMiss() throws Exception {
+		this.cache.put("key", "v1");
+		setTime(Duration.ofSeconds(130));
+
+		assertThat(this.cache.get("key")).isNull();
+		this.cache.put("key", "v2");
+		assertThat(getInOtherThread("key")).isEqualTo("v2");
+	}
+
+	@Test
+	public void concurrentMissWaitsForPutOfElectedCaller() throws Exception {
+		assertThat(this.cache.get("key")).isNull();
+
+		CompletableFuture<Object> concurrentGet = getInOtherThreadAsync("key");
+		CompletableFuture<Object> concurrentLoad =
+				CompletableFuture.supplyAsync(() -> this.cache.get("key", () -> "other"));
+		Thread.sleep(50);
+		assertThat(concurrentGet.isDone()).isFalse();
+		assertThat(concurrentLoad.isDone()).isFalse();
+
+		this.cache.put("key", "value");
+		assertThat(concurrentGet.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(concurrentLoad.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+	}
+
+	@Test
+	public void releaseLoadLetsConcurrentMissProceed() throws Exception {
+		assertThat(this.cache.get("key")).isNull();
+		CompletableFuture<Object> concurrentGet = getInOtherThreadAsync("key");
+		Thread.sleep(50);
+		assertThat(concurrentGet.isDone()).isFalse();
+
+		this.cache.releaseLoad("key");
+		assertThat(concurrentGet.get(5, TimeUnit.SECONDS)).isNull();
+		assertThat(CompletableFuture.supplyAsync(() -> this.cache.get("key", () -> "value"))
+				.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+	}
+
+	@Test
+	public void releaseLoadFromOtherThreadIsIgnored() throws Exception {
+		assertThat(this.cache.get("key")).isNull();
+		CompletableFuture.runAsync(() -> this.cache.releaseLoad("key")).get(5, TimeUnit.SECONDS);
+		CompletableFuture<Object> concurrentGet = getInOtherThreadAsync("key");
+		Thread.sleep(50);
+		assertThat(concurrentGet.isDone()).isFalse();
+
+		this.cache.put("key", "value");
+		assertThat(concurrentGet.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+	}
+
+	@Test
+	public void retrieveDoesNotBlockOrElectCaller() throws Exception {
+		assertThat(this.cache.retrieve("key")).isNull();
+		assertThat(getInOtherThread("key")).isNull();
+	}
+
+	@Test
+	public void concurrentCacheableMissInvokesMethodOnce() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CachingConfig.class);
+		try {
+			SlowService service = context.getBean(SlowService.class);
+			LoadMonitor monitor = context.getBean(LoadMonitor.class);
+			List<CompletableFuture<String>> results = new ArrayList<>();
+			results.add(CompletableFuture.supplyAsync(() -> service.find("key")));
+			assertThat(monitor.loading.await(5, TimeUnit.SECONDS)).isTrue();
+			for (int i = 0; i < 3; i++) {
+				results.add(CompletableFuture.supplyAsync(() -> service.find("key")));
+			}
+			Thread.sleep(50);
+			assertThat(monitor.invocations.get()).isEqualTo(1);
+
+			monitor.release.countDown();
+			for (CompletableFuture<String> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("key-1");
+			}
+			assertThat(monitor.invocations.get()).isEqualTo(1);
+		}
+		finally {
+			context.close();
+		}
+	}
+
+	@Test
+	public void concurrentCacheableMissProceedsIfNoValueIsPut() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CachingConfig.class);
+		try {
+			SlowService service = context.getBean(SlowService.class);
+			LoadMonitor monitor = context.getBean(LoadMonitor.class);
+			CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.findUnlessFirst("key"));
+			assertThat(monitor.loading.await(5, TimeUnit.SECONDS)).isTrue();
+			CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> service.findUnlessFirst("key"));
+			Thread.sleep(50);
+			assertThat(second.isDone()).isFalse();
+
+			monitor.release.countDown();
+			assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("key-1");
+			assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("key-2");
+			assertThat(monitor.invocations.get()).isEqualTo(2);
+		}
+		finally {
+			context.close();
+		}
+	}
+
+	@Test
+	public void concurrentMissWaitsForElectedCaller() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Object> electedGet = CompletableFuture.supplyAsync(() -> this.cache.get("key", () -> {
+			loading.countDown();
+			release.await();
+			return "value";
+		}));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+		AtomicInteger counter = new AtomicInteger();
+		CompletableFuture<Object> concurrentGet =
+				CompletableFuture.supplyAsync(() -> this.cache.get("key", () -> "other" + counter.incrementAndGet()));
+		Thread.sleep(50);
+		assertThat(concurrentGet.isDone()).isFalse();
+
+		release.countDown();
+		assertThat(electedGet.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(concurrentGet.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(counter.get()).isEqualTo(0);
+	}
+
+	@Test
+	public void concurrentMissElectedAfterLoadTimeout() throws Exception {
+		this.cache.setLoadTimeout(Duration.ofMillis(50));
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Object> electedGet = CompletableFuture.supplyAsync(() -> this.cache.get("key", () -> {
+			loading.countDown();
+			release.await();
+			return "v1";
+		}));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+		try {
+			assertThat(CompletableFuture.supplyAsync(() -> this.cache.get("key", () -> "v2"))
+					.get(5, TimeUnit.SECONDS)).isEqualTo("v2");
+		}
+		finally {
+			release.countDown();
+		}
+		assertThat(electedGet.get(5, TimeUnit.SECONDS)).isEqualTo("v1");
+	}
+
+	@Test
+	public void evictReleasesWaitingCallers() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Object> electedGet = CompletableFuture.supplyAsync(() -> this.cache.get("key", () -> {
+			loading.countDown();
+			release.await();
+			return "v1";
+		}));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Object> concurrentGet = CompletableFuture.supplyAsync(() -> this.cache.get("key", () -> "v2"));
+		Thread.sleep(50);
+
+		try {
+			this.cache.evict("key");
+			assertThat(concurrentGet.get(5, TimeUnit.SECONDS)).isEqualTo("v2");
+		}
+		finally {
+			release.countDown();
+		}
+		electedGet.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void refreshOnCallingThreadWithoutExecutor() throws Exception {
+		this.cache.setRefreshExecutor(null);
+		this.cache.setRefreshAheadTime(Duration.ofSeconds(10));
+		AtomicInteger counter = new AtomicInteger();
+
+		assertThat(this.cache.get("key", counter::incrementAndGet)).isEqualTo(1);
+		setTime(Duration.ofSeconds(55));
+		assertThat(this.cache.get("key", counter::incrementAndGet)).isEqualTo(2);
+		assertThat(this.cache.get("key", counter::incrementAndGet)).isEqualTo(2);
+
+		setTime(Duration.ofSeconds(120));
+		Object value = this.cache.get("key", () -> {
+			throw new IllegalStateException("Expected exception");
+		});
+		assertThat(value).isEqualTo(2);
+		assertThat(counter.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void refreshAheadWithValueLoader() {
+		this.cache.setRefreshAheadTime(Duration.ofSeconds(10));
+		AtomicInteger counter = new AtomicInteger();
+
+		assertThat(this.cache.get("key", counter::incrementAndGet)).isEqualTo(1);
+		setTime(Duration.ofSeconds(45));
+		assertThat(this.cache.get("key", counter::incrementAndGet)).isEqualTo(1);
+		assertThat(this.refreshTasks).isEmpty();
+
+		setTime(Duration.ofSeconds(55));
+		assertThat(this.cache.get("key", counter::incrementAndGet)).isEqualTo(1);
+		assertThat(this.cache.get("key", counter::incrementAndGet)).isEqualTo(1);
+		assertThat(this.refreshTasks).hasSize(1);
+
+		this.refreshTasks.remove(0).run();
+		assertThat(this.cache.get("key", counter::incrementAndGet)).isEqualTo(2);
+		assertThat(counter.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void staleValueServedWhileRefreshingWithValueLoader() {
+		AtomicInteger counter = new AtomicInteger();
+		assertThat(this.cache.get("key", counter::incrementAndGet)).isEqualTo(1);
+		setTime(Duration.ofSeconds(90));
+
+		assertThat(this.cache.get("key", counter::incrementAndGet)).isEqualTo(1);
+		assertThat(this.refreshTasks).hasSize(1);
+		this.refreshTasks.remove(0).run();
+		assertThat(this.cache.get("key", counter::incrementAndGet)).isEqualTo(2);
+	}
+
+	@Test
+	public void failedRefreshKeepsCurrentValue() {
+		this.cache.put("key", "v1");
+		setTime(Duration.ofSeconds(90));
+
+		Object value = this.cache.get("key", () -> {
+			throw new IllegalStateException("Expected exception");
+		});
+		assertThat(value).isEqualTo("v1");
+		this.refreshTasks.remove(0).run();
+
+		assertThat(this.cache.get("key", () -> "v2")).isEqualTo("v1");
+		this.refreshTasks.remove(0).run();
+		assertThat(this.cache.get("key").get()).isEqualTo("v2");
+	}
+
+	@Test
+	public void cacheManagerProxyKeepsDecoratorPerCache() {
+		RefreshingCacheManagerProxy cacheManager =
+				new RefreshingCacheManagerProxy(new ConcurrentMapCacheManager("first", "second"));
+		cacheManager.setTimeToLive(Duration.ofMinutes(5));
+		cacheManager.afterPropertiesSet();
+
+		Cache first = cacheManager.getCache("first");
+		assertThat(first).isInstanceOf(RefreshingCacheDecorator.class);
+		assertThat(cacheManager.getCache("first")).isSameAs(first);
+		assertThat(cacheManager.getCache("second")).isNotSameAs(first);
+		assertThat(cacheManager.getCache("unknown")).isNull();
+		assertThat(cacheManager.getCacheNames()).containsOnly("first", "second");
+	}
+
+
+	private void setTime(Duration offset) {
+		this.cache.setClock(Clock.fixed(START.plus(offset), ZoneOffset.UTC));
+	}
+
+	private Object getInOtherThread(Object key) throws Exception {
+		return getInOtherThreadAsync(key).get(5, TimeUnit.SECONDS);
+	}
+
+	private CompletableFuture<Object> getInOtherThreadAsync(Object key) {
+		return CompletableFuture.supplyAsync(() -> {
+			Cache.ValueWrapper wrapper = this.cache.get(key);
+			return (wrapper != null ? wrapper.get() : null);
+		});
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class CachingConfig {
+
+		@Bean
+		public CacheManager cacheManager() {
+			RefreshingCacheManagerProxy cacheManager = new RefreshingCacheManagerProxy(new ConcurrentMapCacheManager());
+			cacheManager.setLoadTimeout(Duration.ofMinutes(1));
+			return cacheManager;
+		}
+
+		@Bean
+		public LoadMonitor loadMonitor() {
+			return new LoadMonitor();
+		}
+
+		@Bean
+		public SlowService slowService() {
+			return new SlowService(loadMonitor());
+		}
+	}
+
+
+	static class LoadMonitor {
+
+		final AtomicInteger invocations = new AtomicInteger();
+
+		final CountDownLatch loading = new CountDownLatch(1);
+
+		final CountDownLatch release = new CountDownLatch(1);
+	}
+
+
+	static class SlowService {
+
+		private final LoadMonitor monitor;
+
+		SlowService(LoadMonitor monitor) {
+			this.monitor = monitor;
+		}
+
+		@Cacheable("test")
+		public String find(String key) {
+			return load(key);
+		}
+
+		@Cacheable(cacheNames = "test", unless = "#result.endsWith('-1')")
+		public String findUnlessFirst(String key) {
+			return load(key);
+		}
+
+		private String load(String key) {
+			int invocation = this.monitor.invocations.incrementAndGet();
+			this.monitor.loading.countDown();
+			try {
+				this.monitor.release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return key + "-" + invocation;
+		}
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.context.event;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -244,6 +246,84 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertThat(listener1.seenEvents.size()).isEqualTo(2);
 	}
 
+	@Test
+	public void listenersAddedAndRemovedAfterRetrieval() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener2 listener2 = new MyOrderedListener2(listener1);
+		MyEvent event = new MyEvent(this);
+		MyOtherEvent otherEvent = new MyOtherEvent(this);
+		ResolvableType eventType = ResolvableType.forClass(MyEvent.class);
+		ResolvableType otherEventType = ResolvableType.forClass(MyOtherEvent.class);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener2);
+		assertThat(smc.getApplicationListeners(event, eventType)).containsExactly(listener2);
+		assertThat(smc.getApplicationListeners(otherEvent, otherEventType)).isEmpty();
+
+		smc.addApplicationListener(listener1);
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+		assertThat(smc.getApplicationListeners(event, eventType)).containsExactly(listener1, listener2);
+		assertThat(smc.getApplicationListeners(otherEvent, otherEventType)).containsExactly(listener1);
+
+		smc.removeApplicationListener(listener2);
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+		assertThat(smc.getApplicationListeners(event, eventType)).containsExactly(listener1);
+		assertThat(smc.getApplicationListeners(otherEvent, otherEventType)).containsExactly(listener1);
+
+		smc.removeAllListeners();
+		assertThat(smc.retrieverCache).isEmpty();
+		assertThat(smc.getApplicationListeners(event, eventType)).isEmpty();
+	}
+
+	@Test
+	public void retrievedListenersAreCopyOfCachedListeners() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyEvent event = new MyEvent(this);
+		ResolvableType eventType = ResolvableType.forClass(MyEvent.class);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener1);
+		smc.getApplicationListeners(event, eventType).clear();
+		assertThat(smc.getApplicationListeners(event, eventType)).containsExactly(listener1);
+		smc.multicastEvent(event);
+		assertThat(listener1.seenEvents).containsExactly(event);
+	}
+
+	@Test
+	public void overriddenListenerRetrievalUsedForMulticast() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyEvent event = new MyEvent(this);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster() {
+			@Override
+			protected Collection<ApplicationListener<?>> getApplicationListeners(
+					ApplicationEvent event, ResolvableType eventType) {
+				return Collections.emptyList();
+			}
+		};
+		smc.addApplicationListener(listener1);
+		smc.multicastEvent(event);
+		assertThat(listener1.seenEvents).isEmpty();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void proxiedListenerAddedAfterRetrieval() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		ApplicationListener<ApplicationEvent> proxy1 = (ApplicationListener<ApplicationEvent>) new ProxyFactory(listener1).getProxy();
+		MyEvent event = new MyEvent(this);
+		ResolvableType eventType = ResolvableType.forClass(MyEvent.class);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener1);
+		assertThat(smc.getApplicationListeners(event, eventType)).containsExactly(listener1);
+
+		smc.addApplicationListener(proxy1);
+		assertThat(smc.getApplicationListeners(event, eventType)).containsExactly(proxy1);
+		smc.multicastEvent(event);
+		assertThat(listener1.seenEvents).containsExactly(event);
+	}
+
 	@Test
 	public void testEventPublicationInterceptor() throws Throwable {
 		MethodInvocation invocation = mock(MethodInvocation.class);
@@ -297,8 +377,9 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertThat(listener1.seenEvents.contains(event3)).isTrue();
 		assertThat(listener1.seenEvents.contains(event4)).isTrue();
 
+		// ContextRefreshedEvent, MyOtherEvent, MyEvent - retained across the lazy listener2 registration
 		AbstractApplicationEventMulticaster multicaster = context.getBean(AbstractApplicationEventMulticaster.class);
-		assertThat(multicaster.retrieverCache.size()).isEqualTo(2);
+		assertThat(multicaster.retrieverCache.size()).isEqualTo(3);
 
 		context.close();
 	}
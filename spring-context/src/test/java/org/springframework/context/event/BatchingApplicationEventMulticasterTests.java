@@ -0,0 +1,259 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.support.StaticApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BatchingApplicationEventMulticaster}.
+ */
+public class BatchingApplicationEventMulticasterTests {
+
+	private final BatchingApplicationEventMulticaster multicaster = new BatchingApplicationEventMulticaster();
+
+	private final List<Runnable> tasks = new ArrayList<>();
+
+
+	@AfterEach
+	public void destroy() {
+		this.multicaster.destroy();
+	}
+
+
+	@Test
+	public void batchListenerReceivesFullBatches() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setMaxBatchSize(3);
+		this.multicaster.setMaxLatency(Duration.ofHours(1));
+		RecordingBatchListener listener = new RecordingBatchListener();
+		this.multicaster.addApplicationListener(listener);
+
+		publish("a", "b");
+		assertThat(this.tasks).isEmpty();
+		assertThat(this.multicaster.getPendingEventCount()).isEqualTo(2);
+
+		publish("c", "d", "e", "f", "g");
+		assertThat(this.tasks).hasSize(1);
+		runTasks();
+
+		assertThat(listener.batches).containsExactly("a,b,c", "d,e,f", "g");
+		assertThat(this.multicaster.getPendingEventCount()).isEqualTo(0);
+		assertThat(this.multicaster.getQueuedEventCount()).isEqualTo(7);
+		assertThat(this.multicaster.getDeliveredEventCount()).isEqualTo(7);
+		assertThat(this.multicaster.getDeliveredBatchCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void fullBatchDeliveredWithoutWaitingForMaxLatency() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setMaxBatchSize(1);
+		this.multicaster.setMaxLatency(Duration.ofHours(1));
+		RecordingBatchListener listener = new RecordingBatchListener();
+		this.multicaster.addApplicationListener(listener);
+
+		publish("a");
+		assertThat(this.tasks).hasSize(1);
+		runTasks();
+		publish("b");
+		assertThat(this.tasks).hasSize(1);
+		runTasks();
+
+		assertThat(listener.batches).containsExactly("a", "b");
+	}
+
+	@Test
+	public void drainedQueueReleased() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setMaxBatchSize(2);
+		this.multicaster.setMaxLatency(Duration.ofHours(1));
+		RecordingBatchListener listener = new RecordingBatchListener();
+		this.multicaster.addApplicationListener(listener);
+
+		publish("a", "b", "c");
+		assertThat(getEventQueues()).hasSize(1);
+
+		this.multicaster.removeApplicationListener(listener);
+		runTasks();
+		assertThat(listener.batches).containsExactly("a,b", "c");
+		assertThat(getEventQueues()).isEmpty();
+
+		this.multicaster.addApplicationListener(listener);
+		publish("d", "e");
+		runTasks();
+		assertThat(listener.batches).containsExactly("a,b", "c", "d,e");
+		assertThat(getEventQueues()).isEmpty();
+	}
+
+	@Test
+	public void regularListenerInvokedForEachEventOfBatch() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setMaxBatchSize(2);
+		this.multicaster.setMaxLatency(Duration.ofHours(1));
+		List<String> received = new ArrayList<>();
+		this.multicaster.addApplicationListener((ApplicationListener<TestEvent>) event -> received.add(event.key));
+
+		publish("a", "b", "c");
+		assertThat(received).isEmpty();
+		runTasks();
+
+		assertThat(received).containsExactly("a", "b", "c");
+		assertThat(this.multicaster.getDeliveredBatchCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void batchDeliveredAfterMaxLatency() throws InterruptedException {
+		this.multicaster.setMaxLatency(Duration.ofMillis(10));
+		CountDownLatch latch = new CountDownLatch(1);
+		RecordingBatchListener listener = new RecordingBatchListener(latch);
+		this.multicaster.addApplicationListener(listener);
+
+		publish("a", "b");
+
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(listener.batches).containsExactly("a,b");
+	}
+
+	@Test
+	public void eventsCoalescedByKey() {
+		this.multicaster.setMaxLatency(Duration.ofHours(1));
+		this.multicaster.setCoalescingKeyResolver(event -> ((TestEvent) event).key.substring(0, 1));
+		RecordingBatchListener listener = new RecordingBatchListener();
+		this.multicaster.addApplicationListener(listener);
+
+		publish("a1", "b1", "a2", "c1", "a3");
+		assertThat(this.multicaster.getPendingEventCount()).isEqualTo(3);
+		this.multicaster.flush();
+
+		assertThat(listener.batches).containsExactly("a3,b1,c1");
+		assertThat(this.multicaster.getCoalescedEventCount()).isEqualTo(2);
+		assertThat(this.multicaster.getDeliveredEventCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void contextEventsNotBatched() {
+		this.multicaster.setMaxLatency(Duration.ofHours(1));
+		List<ApplicationEvent> received = new ArrayList<>();
+		this.multicaster.addApplicationListener(received::add);
+
+		StaticApplicationContext context = new StaticApplicationContext();
+		this.multicaster.multicastEvent(new ContextRefreshedEvent(context));
+		publish("a");
+
+		assertThat(received).hasSize(1);
+		assertThat(received.get(0)).isInstanceOf(ContextRefreshedEvent.class);
+		assertThat(this.multicaster.getPendingEventCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void pendingEventsDeliveredOnDestroy() {
+		this.multicaster.setMaxLatency(Duration.ofHours(1));
+		RecordingBatchListener listener = new RecordingBatchListener();
+		this.multicaster.addApplicationListener(listener);
+
+		publish("a", "b");
+		this.multicaster.destroy();
+
+		assertThat(listener.batches).containsExactly("a,b");
+	}
+
+	@Test
+	public void batchListenerErrorPassedToErrorHandler() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setMaxBatchSize(2);
+		List<Throwable> errors = new ArrayList<>();
+		this.multicaster.setErrorHandler(errors::add);
+		IllegalStateException failure = new IllegalStateException("Test exception");
+		this.multicaster.addApplicationListener((BatchApplicationListener<TestEvent>) events -> {
+			throw failure;
+		});
+
+		publish("a", "b", "c", "d");
+		runTasks();
+
+		assertThat(errors).containsExactly(failure, failure);
+		assertThat(this.multicaster.getPendingEventCount()).isEqualTo(0);
+	}
+
+
+	private void publish(String... keys) {
+		for (String key : keys) {
+			this.multicaster.multicastEvent(new TestEvent(this, key));
+		}
+	}
+
+	private Map<?, ?> getEventQueues() {
+		return (Map<?, ?>) new DirectFieldAccessor(this.multicaster).getPropertyValue("eventQueues");
+	}
+
+	private void runTasks() {
+		while (!this.tasks.isEmpty()) {
+			this.tasks.remove(0).run();
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	static class TestEvent extends ApplicationEvent {
+
+		final String key;
+
+		TestEvent(Object source, String key) {
+			super(source);
+			this.key = key;
+		}
+	}
+
+
+	static class RecordingBatchListener implements BatchApplicationListener<TestEvent> {
+
+		final List<String> batches = new CopyOnWriteArrayList<>();
+
+		private final CountDownLatch latch;
+
+		RecordingBatchListener() {
+			this(new CountDownLatch(0));
+		}
+
+		RecordingBatchListener(CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		@Override
+		public void onApplicationEvents(List<TestEvent> events) {
+			this.batches.add(events.stream().map(event -> event.key).collect(Collectors.joining(",")));
+			this.latch.countDown();
+		}
+	}
+
+}
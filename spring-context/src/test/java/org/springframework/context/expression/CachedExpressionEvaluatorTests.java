@@ -16,6 +16,7 @@
 
 package org.springframework.context.expression;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -23,6 +24,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.util.ReflectionUtils;
 
@@ -66,6 +68,36 @@ public class CachedExpressionEvaluatorTests {
 		assertThat(expressionEvaluator.testCache.size()).as("Cached expression should be based on type").isEqualTo(2);
 	}
 
+	@Test
+	public void compileExpressionAfterWarmUp() {
+		TestExpressionEvaluator evaluator = new TestExpressionEvaluator(
+				TestExpressionEvaluator.createCompilingParser());
+		Method method = ReflectionUtils.findMethod(getClass(), "add", Integer.class);
+		Expression expression = evaluator.getTestExpression("#p0 + 1", method, getClass());
+		Field compiledAst = ReflectionUtils.findField(SpelExpression.class, "compiledAst");
+		ReflectionUtils.makeAccessible(compiledAst);
+
+		for (int i = 0; i < 200; i++) {
+			MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+					this, method, new Object[] {i}, evaluator.getParameterNameDiscoverer());
+			evaluator.applySharedDelegates(context);
+			assertThat(expression.getValue(context)).isEqualTo(i + 1);
+		}
+		assertThat(ReflectionUtils.getField(compiledAst, expression)).isNotNull();
+	}
+
+	@Test
+	public void cacheParameterNames() {
+		Method method = ReflectionUtils.findMethod(getClass(), "add", Integer.class);
+		String[] names = expressionEvaluator.getParameterNameDiscoverer().getParameterNames(method);
+		assertThat(names).containsExactly("value");
+		assertThat(expressionEvaluator.getParameterNameDiscoverer().getParameterNames(method)).isSameAs(names);
+	}
+
+	public int add(Integer value) {
+		return value + 1;
+	}
+
 	private void hasParsedExpression(String expression) {
 		verify(expressionEvaluator.getParser(), times(1)).parseExpression(expression);
 	}
@@ -78,6 +110,10 @@ public class CachedExpressionEvaluatorTests {
 			super(mockSpelExpressionParser());
 		}
 
+		public TestExpressionEvaluator(SpelExpressionParser parser) {
+			super(parser);
+		}
+
 		public Expression getTestExpression(String expression, Method method, Class<?> type) {
 			return getExpression(this.testCache, new AnnotatedElementKey(method, type), expression);
 		}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * @since 5.3
+ */
+public class AdaptiveThreadPoolTaskExecutorTests extends AbstractSchedulingTaskExecutorTests {
+
+	@Override
+	protected AsyncListenableTaskExecutor buildExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setTaskDecorator(runnable -> runnable);
+		executor.setAdaptivePoolSizing(true);
+		executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		executor.setMaxPoolSize(1);
+		executor.afterPropertiesSet();
+		return executor;
+	}
+
+
+	@Test
+	public void unboundedMaxPoolSizeRejected() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setAdaptivePoolSizing(true);
+		assertThatIllegalStateException().isThrownBy(executor::afterPropertiesSet);
+	}
+
+	@Test
+	public void metricsOnlyInAdaptiveMode() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.afterPropertiesSet();
+		try {
+			assertThat(executor.getExecutionMetrics()).isNull();
+			assertThat(executor.getUtilization()).isEqualTo(0);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void rejectedTasksNotCountedAsSubmitted() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setAdaptivePoolSizing(true);
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(0);
+		executor.afterPropertiesSet();
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.execute(() -> awaitQuietly(release));
+			assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() -> executor.execute(() -> {}));
+			TaskExecutionMetrics metrics = executor.getExecutionMetrics();
+			assertThat(metrics.getSubmittedTaskCount()).isEqualTo(1);
+		}
+		finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void growsWhileTasksWaitAndShrinksWhenIdle() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(4);
+		executor.setAdaptivePoolSizing(true);
+		executor.setTargetQueueWait(Duration.ofMillis(5));
+		executor.setAdaptiveSamplingInterval(Duration.ofMillis(50));
+		executor.afterPropertiesSet();
+		try {
+			// Sleeping tasks scale with threads, so added threads raise throughput
+			CountDownLatch done = new CountDownLatch(200);
+			for (int i = 0; i < 200; i++) {
+				executor.execute(() -> {
+					sleep(5);
+					done.countDown();
+				});
+			}
+			assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+			int grownSize = executor.getThreadPoolExecutor().getCorePoolSize();
+			assertThat(grownSize).isGreaterThan(1).isLessThanOrEqualTo(4);
+			assertThat(executor.getExecutionMetrics().getSubmittedTaskCount()).isEqualTo(200);
+
+			// Light load without queueing lets the pool shrink back to its lower bound
+			for (int i = 0; i < 40 && executor.getThreadPoolExecutor().getCorePoolSize() > 1; i++) {
+				executor.execute(() -> { });
+				sleep(60);
+			}
+			assertThat(executor.getThreadPoolExecutor().getCorePoolSize()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void shrinksOnFirstSubmissionAfterIdlePeriod() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(4);
+		executor.setAdaptivePoolSizing(true);
+		executor.setTargetQueueWait(Duration.ofMillis(5));
+		executor.setAdaptiveSamplingInterval(Duration.ofMillis(50));
+		executor.afterPropertiesSet();
+		try {
+			executor.applyAdaptiveCorePoolSize(4);
+			sleep(300);
+
+			// Idle for more intervals than threads to give back: one sample catches up
+			CountDownLatch done = new CountDownLatch(1);
+			executor.execute(done::countDown);
+			assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(executor.getThreadPoolExecutor().getCorePoolSize()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void doesNotGrowWhenThroughputDoesNotImprove() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(8);
+		executor.setAdaptivePoolSizing(true);
+		executor.setTargetQueueWait(Duration.ofMillis(5));
+		executor.setAdaptiveSamplingInterval(Duration.ofMillis(50));
+		executor.afterPropertiesSet();
+		try {
+			// Tasks serialized on a shared lock: extra threads cannot help
+			Object lock = new Object();
+			CountDownLatch done = new CountDownLatch(150);
+			for (int i = 0; i < 150; i++) {
+				executor.execute(() -> {
+					synchronized (lock) {
+						sleep(5);
+					}
+					done.countDown();
+				});
+			}
+			assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(executor.getThreadPoolExecutor().getCorePoolSize()).isLessThan(8);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
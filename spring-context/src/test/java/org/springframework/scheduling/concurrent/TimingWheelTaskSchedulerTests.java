@@ -0,0 +1,258 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.support.PeriodicTrigger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link TimingWheelTaskScheduler}.
+ */
+public class TimingWheelTaskSchedulerTests {
+
+	private final TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler();
+
+
+	@AfterEach
+	public void shutdown() {
+		this.scheduler.shutdown();
+	}
+
+
+	@Test
+	public void scheduleOneShotTask() throws Exception {
+		initialize();
+		long start = System.currentTimeMillis();
+		CountDownLatch latch = new CountDownLatch(1);
+		ScheduledFuture<?> future = this.scheduler.schedule(latch::countDown, new Date(start + 50));
+
+		assertThat(future.get(5, TimeUnit.SECONDS)).isNull();
+		assertThat(future.isDone()).isTrue();
+		assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(45);
+	}
+
+	@Test
+	public void scheduleManyTimers() throws Exception {
+		initialize();
+		int count = 10000;
+		CountDownLatch latch = new CountDownLatch(count);
+		Date startTime = new Date(System.currentTimeMillis() + 20);
+		for (int i = 0; i < count; i++) {
+			this.scheduler.schedule(latch::countDown, new Date(startTime.getTime() + (i % 100)));
+		}
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void scheduleBeyondInnerLevels() throws Exception {
+		this.scheduler.setWheelSize(2);
+		initialize();
+		List<Long> fired = new ArrayList<>();
+		CountDownLatch latch = new CountDownLatch(3);
+		long start = System.nanoTime();
+		for (long delay : new long[] {30, 5, 15}) {
+			this.scheduler.schedule(() -> {
+				synchronized (fired) {
+					fired.add(delay);
+				}
+				assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(delay));
+				latch.countDown();
+			}, new Date(System.currentTimeMillis() + delay));
+		}
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(fired).containsExactly(5L, 15L, 30L);
+	}
+
+	@Test
+	public void cancelPreventsExecution() throws Exception {
+		initialize();
+		AtomicInteger counter = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.schedule(counter::incrementAndGet, new Date(System.currentTimeMillis() + 50));
+
+		assertThat(future.cancel(false)).isTrue();
+		assertThat(future.isCancelled()).isTrue();
+		Thread.sleep(150);
+		assertThat(counter.get()).isEqualTo(0);
+	}
+
+	@Test
+	public void cancelWithInterruptInterruptsRunningTask() throws Exception {
+		initialize();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {
+			started.countDown();
+			try {
+				Thread.sleep(10000);
+			}
+			catch (InterruptedException ex) {
+				interrupted.countDown();
+			}
+		}, new Date());
+
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(future.cancel(true)).isTrue();
+		assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void wheelSizeLimited() {
+		this.scheduler.setWheelSize(1 << 15);
+		assertThatIllegalArgumentException().isThrownBy(() -> this.scheduler.setWheelSize(1 << 16));
+	}
+
+	@Test
+	public void scheduleAtFixedRate() throws Exception {
+		initialize();
+		CountDownLatch latch = new CountDownLatch(5);
+		ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(latch::countDown, 5);
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(future.isDone()).isFalse();
+		future.cancel(false);
+		assertThat(future.isCancelled()).isTrue();
+	}
+
+	@Test
+	public void scheduleWithFixedDelay() throws Exception {
+		initialize();
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.scheduleWithFixedDelay(latch::countDown, Duration.ofMillis(5));
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		future.cancel(false);
+	}
+
+	@Test
+	public void scheduleWithTrigger() throws Exception {
+		initialize();
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.schedule(latch::countDown, new PeriodicTrigger(10));
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		future.cancel(false);
+	}
+
+	@Test
+	public void scheduleWithTriggerNeverFiring() {
+		initialize();
+		Future<?> future = this.scheduler.schedule(() -> {}, triggerContext -> null);
+		assertThat(future).isNull();
+	}
+
+	@Test
+	public void failingOneShotTaskPropagatesToFuture() {
+		initialize();
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {
+			throw new IllegalStateException("Expected exception");
+		}, new Date());
+
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+				.withCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void failingRepeatingTaskUsesErrorHandler() throws Exception {
+		CountDownLatch errors = new CountDownLatch(2);
+		this.scheduler.setErrorHandler(ex -> errors.countDown());
+		initialize();
+		ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(() -> {
+			throw new IllegalStateException("Expected exception");
+		}, 5);
+
+		assertThat(errors.await(5, TimeUnit.SECONDS)).isTrue();
+		future.cancel(false);
+	}
+
+	@Test
+	public void dispatchToCustomExecutor() throws Exception {
+		List<Runnable> dispatched = new ArrayList<>();
+		CountDownLatch latch = new CountDownLatch(1);
+		this.scheduler.setDispatchExecutor(task -> {
+			synchronized (dispatched) {
+				dispatched.add(task);
+			}
+			task.run();
+		});
+		initialize();
+		this.scheduler.schedule(latch::countDown, new Date());
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(dispatched).hasSize(1);
+	}
+
+	@Test
+	public void shutdownCancelsPendingTimers() {
+		this.scheduler.setAwaitTerminationSeconds(5);
+		initialize();
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {}, new Date(System.currentTimeMillis() + 60000));
+		this.scheduler.shutdown();
+
+		assertThat(future.isCancelled()).isTrue();
+		assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() ->
+				this.scheduler.schedule(() -> {}, new Date()));
+	}
+
+	@Test
+	public void shutdownWaitsForDispatchedTasksIfConfigured() throws Exception {
+		this.scheduler.setWaitForTasksToCompleteOnShutdown(true);
+		this.scheduler.setAwaitTerminationSeconds(5);
+		initialize();
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicInteger completed = new AtomicInteger();
+		this.scheduler.schedule(() -> {
+			started.countDown();
+			try {
+				Thread.sleep(100);
+				completed.incrementAndGet();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}, new Date());
+
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		this.scheduler.shutdown();
+		assertThat(completed.get()).isEqualTo(1);
+	}
+
+
+	private void initialize() {
+		this.scheduler.setTickDuration(Duration.ofMillis(1));
+		this.scheduler.setThreadNamePrefix("wheel-test-");
+		this.scheduler.afterPropertiesSet();
+	}
+
+}
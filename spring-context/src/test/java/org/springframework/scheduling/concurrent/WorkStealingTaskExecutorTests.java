@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @since 5.3
+ */
+public class WorkStealingTaskExecutorTests extends AbstractSchedulingTaskExecutorTests {
+
+	@Override
+	protected AsyncListenableTaskExecutor buildExecutor() {
+		WorkStealingTaskExecutor executor = new WorkStealingTaskExecutor();
+		executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		executor.setParallelism(1);
+		executor.afterPropertiesSet();
+		return executor;
+	}
+
+
+	@Test
+	public void taskDecoratorApplied() throws Exception {
+		AtomicInteger decorations = new AtomicInteger();
+		WorkStealingTaskExecutor executor = new WorkStealingTaskExecutor();
+		executor.setTaskDecorator(runnable -> {
+			decorations.incrementAndGet();
+			return runnable;
+		});
+		executor.afterPropertiesSet();
+		try {
+			assertThat(executor.submitListenable(() -> "result").get(1, TimeUnit.SECONDS)).isEqualTo("result");
+			assertThat(executor.submit(() -> { }).get(1, TimeUnit.SECONDS)).isNull();
+			assertThat(decorations.get()).isEqualTo(2);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void metricsRecordQueueWait() throws Exception {
+		WorkStealingTaskExecutor executor = new WorkStealingTaskExecutor();
+		executor.setParallelism(1);
+		executor.afterPropertiesSet();
+		try {
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			executor.execute(() -> {
+				started.countDown();
+				try {
+					release.await();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+			Future<?> queued = executor.submit(() -> { });
+			assertThat(executor.getUtilization()).isEqualTo(1.0);
+			assertThat(executor.getExecutionMetrics().getPendingTaskCount()).isEqualTo(1);
+			Thread.sleep(100);
+			release.countDown();
+			queued.get(1, TimeUnit.SECONDS);
+
+			TaskExecutionMetrics metrics = executor.getExecutionMetrics();
+			assertThat(metrics.getSubmittedTaskCount()).isEqualTo(2);
+			assertThat(metrics.getPendingTaskCount()).isEqualTo(0);
+			assertThat(metrics.getMaxQueueWaitMillis()).isGreaterThanOrEqualTo(90);
+			assertThat(metrics.getAverageQueueWaitMillis()).isGreaterThan(0);
+			metrics.reset();
+			assertThat(metrics.getSubmittedTaskCount()).isEqualTo(0);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void rejectedAfterShutdown() {
+		WorkStealingTaskExecutor executor = new WorkStealingTaskExecutor();
+		executor.afterPropertiesSet();
+		executor.shutdown();
+		assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() ->
+				executor.execute(() -> { }));
+	}
+
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.PeriodicTrigger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ScheduledTaskMetrics} as recorded by {@link ScheduledTaskRegistrar},
+ * including {@link OverrunPolicy} handling and JMX export.
+ */
+public class ScheduledTaskMetricsTests {
+
+	private final ScheduledTaskRegistrar registrar = new ScheduledTaskRegistrar();
+
+	private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+
+	@AfterEach
+	public void shutdown() {
+		this.registrar.destroy();
+		this.scheduler.shutdown();
+	}
+
+
+	@Test
+	public void metricsForFixedDelayTask() throws Exception {
+		// Metrics of a run are recorded once the next run starts
+		CountDownLatch latch = new CountDownLatch(4);
+		ScheduledTask task = schedule(registrar ->
+				registrar.scheduleFixedDelayTask(new FixedDelayTask(latch::countDown, 10, 0)));
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		task.cancel();
+
+		ScheduledTaskMetrics metrics = task.getMetrics();
+		assertThat(metrics.getExecutionCount()).isGreaterThanOrEqualTo(3);
+		assertThat(metrics.getFailureCount()).isEqualTo(0);
+		assertThat(metrics.getSkippedCount()).isEqualTo(0);
+		assertThat(metrics.getDurationHistogram()).hasSize(metrics.getDurationHistogramBounds().length + 1);
+		assertThat(metrics.getDurationHistogram()[0]).isGreaterThanOrEqualTo(3);
+
+		metrics.reset();
+		assertThat(metrics.getExecutionCount()).isEqualTo(0);
+		assertThat(metrics.getDurationHistogram()).containsOnly(0L);
+	}
+
+	@Test
+	public void failuresCounted() throws Exception {
+		CountDownLatch latch = new CountDownLatch(2);
+		ScheduledTask task = schedule(registrar -> registrar.scheduleTriggerTask(new TriggerTask(() -> {
+			latch.countDown();
+			throw new IllegalStateException("Expected exception");
+		}, new PeriodicTrigger(10))));
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		task.cancel();
+
+		assertThat(task.getMetrics().getFailureCount()).isGreaterThanOrEqualTo(1);
+		assertThat(task.getMetrics().getFailureCount()).isLessThanOrEqualTo(task.getMetrics().getExecutionCount());
+	}
+
+	@Test
+	public void startLagForDelayedRun() throws Exception {
+		CountDownLatch latch = new CountDownLatch(2);
+		ScheduledTask task = schedule(registrar -> registrar.scheduleFixedRateTask(new FixedRateTask(() -> {
+			if (latch.getCount() == 2) {
+				sleep(250);
+			}
+			latch.countDown();
+		}, 100, 0)));
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		task.cancel();
+
+		assertThat(task.getMetrics().getMaxStartLagMillis()).isGreaterThanOrEqualTo(100);
+		assertThat(task.getMetrics().getMaxDurationMillis()).isGreaterThanOrEqualTo(250);
+	}
+
+	@Test
+	public void skipRunsDueWhileOverrunning() throws Exception {
+		this.registrar.setOverrunPolicy(OverrunPolicy.SKIP);
+		ScheduledTask task = scheduleOverrunningTask();
+
+		// Slots 200 and 400 became due during the 500 ms first run
+		assertThat(task.getMetrics().getSkippedCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void coalesceRunsDueWhileOverrunning() throws Exception {
+		this.registrar.setOverrunPolicy(OverrunPolicy.COALESCE);
+		ScheduledTask task = scheduleOverrunningTask();
+
+		// Slot 200 coalesced into the run for slot 400
+		assertThat(task.getMetrics().getSkippedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void overlappingRunSkipped() throws Exception {
+		ScheduledTaskMetrics metrics = new ScheduledTaskMetrics();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger runs = new AtomicInteger();
+		MonitoredRunnable runnable = MonitoredRunnable.forTrigger(() -> {
+			runs.incrementAndGet();
+			started.countDown();
+			await(release);
+		}, metrics, OverrunPolicy.SKIP);
+
+		Thread first = new Thread(runnable);
+		first.start();
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		runnable.run();
+		release.countDown();
+		first.join(5000);
+
+		assertThat(runs.get()).isEqualTo(1);
+		assertThat(metrics.getOverlapCount()).isEqualTo(1);
+		assertThat(metrics.getSkippedCount()).isEqualTo(1);
+		assertThat(metrics.getExecutionCount()).isEqualTo(1);
+		assertThat(metrics.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void exportMetricsViaJmx() throws Exception {
+		MBeanServer server = MBeanServerFactory.newMBeanServer();
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getBeanFactory().registerSingleton("mbeanServer", server);
+		context.register(JmxConfig.class);
+		context.refresh();
+		try {
+			Set<ObjectName> names = server.queryNames(
+					new ObjectName(ScheduledTaskMetricsExporter.DEFAULT_DOMAIN + ":type=ScheduledTask,*"), null);
+			assertThat(names).hasSize(1);
+			ObjectName name = names.iterator().next();
+			assertThat(name.getKeyProperty("name")).contains("ScheduledBean.tick");
+			assertThat(context.getBean(ScheduledBean.class).latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat((Long) server.getAttribute(name, "ExecutionCount")).isGreaterThanOrEqualTo(1);
+		}
+		finally {
+			context.close();
+		}
+		assertThat(server.queryNames(new ObjectName(ScheduledTaskMetricsExporter.DEFAULT_DOMAIN + ":*"), null)).isEmpty();
+	}
+
+
+	private ScheduledTask schedule(Function<ScheduledTaskRegistrar, ScheduledTask> registration) {
+		this.scheduler.afterPropertiesSet();
+		this.registrar.setTaskScheduler(this.scheduler);
+		return registration.apply(this.registrar);
+	}
+
+	private ScheduledTask scheduleOverrunningTask() throws InterruptedException {
+		AtomicInteger runs = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(2);
+		this.scheduler.afterPropertiesSet();
+		this.registrar.setTaskScheduler(this.scheduler);
+		this.registrar.addFixedRateTask(new FixedRateTask(() -> {
+			if (runs.incrementAndGet() == 1) {
+				sleep(500);
+			}
+			latch.countDown();
+		}, 200, 0));
+		this.registrar.afterPropertiesSet();
+		ScheduledTask task = this.registrar.getScheduledTasks().iterator().next();
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		task.cancel();
+		return task;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	static class ScheduledBean {
+
+		final CountDownLatch latch = new CountDownLatch(1);
+
+		@Scheduled(fixedDelay = 10)
+		public void tick() {
+			this.latch.countDown();
+		}
+	}
+
+
+	@Configuration
+	@EnableScheduling
+	static class JmxConfig {
+
+		@Bean
+		public ScheduledBean scheduledBean() {
+			return new ScheduledBean();
+		}
+
+		@Bean
+		public MBeanExporter mbeanExporter(MBeanServer mbeanServer) {
+			MBeanExporter exporter = new MBeanExporter();
+			exporter.setServer(mbeanServer);
+			return exporter;
+		}
+
+		@Bean
+		public ScheduledTaskMetricsExporter scheduledTaskMetricsExporter(MBeanExporter mbeanExporter) {
+			return new ScheduledTaskMetricsExporter(mbeanExporter);
+		}
+	}
+
+}
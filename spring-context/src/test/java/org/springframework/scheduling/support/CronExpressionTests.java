@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.tests.EnabledForTestGroups;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.StopWatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CronExpression}.
+ */
+public class CronExpressionTests {
+
+	private static final ZoneId UTC = ZoneId.of("UTC");
+
+
+	@Test
+	public void rangeAndIncrement() {
+		assertNext("*/15 * 1-4 * * *", "2012-07-01T09:53:50", "2012-07-02T01:00:00");
+		assertNext("0 */2 1-4 * * *", "2012-07-01T01:58:00", "2012-07-01T02:00:00");
+		assertNext("0 0 0 25 12 ?", "2019-12-25T00:00:00", "2020-12-25T00:00:00");
+		assertNext("0 30 23 30 1/3 ?", "2010-12-30T00:00:00", "2011-01-30T23:30:00");
+	}
+
+	@Test
+	public void namesAndSunday() {
+		assertThat(CronExpression.parse("0 0 0 * JAN-MAR SUN"))
+				.isEqualTo(CronExpression.parse("0 0 0 * 1-3 7"))
+				.isEqualTo(CronExpression.parse("0 0 0 * jan,feb,mar 0"));
+		// 2020-01-01 is a Wednesday
+		assertNext("0 0 0 * * MON-FRI", "2020-01-03T12:00:00", "2020-01-06T00:00:00");
+	}
+
+	@Test
+	public void macros() {
+		assertThat(CronExpression.parse("@yearly")).isEqualTo(CronExpression.parse("0 0 0 1 1 *"));
+		assertThat(CronExpression.parse("@annually")).isEqualTo(CronExpression.parse("0 0 0 1 1 *"));
+		assertThat(CronExpression.parse("@monthly")).isEqualTo(CronExpression.parse("0 0 0 1 * *"));
+		assertThat(CronExpression.parse("@weekly")).isEqualTo(CronExpression.parse("0 0 0 * * SUN"));
+		assertThat(CronExpression.parse("@daily")).isEqualTo(CronExpression.parse("0 0 0 * * *"));
+		assertThat(CronExpression.parse("@midnight")).isEqualTo(CronExpression.parse("0 0 0 * * *"));
+		assertThat(CronExpression.parse("@hourly")).isEqualTo(CronExpression.parse("0 0 * * * *"));
+		assertThat(CronExpression.parse("@hourly").toString()).isEqualTo("@hourly");
+	}
+
+	@Test
+	public void lastDayOfMonth() {
+		assertNext("0 0 0 L * *", "2020-02-10T00:00:00", "2020-02-29T00:00:00");
+		assertNext("0 0 0 L * *", "2021-02-28T00:00:00", "2021-03-31T00:00:00");
+		assertNext("0 0 0 L-2 * *", "2020-02-10T00:00:00", "2020-02-27T00:00:00");
+	}
+
+	@Test
+	public void weekdays() {
+		// 2020-08-01 is a Saturday
+		assertNext("0 0 0 1W * *", "2020-07-31T00:00:00", "2020-08-03T00:00:00");
+		// 2020-11-15 is a Sunday
+		assertNext("0 0 0 15W * *", "2020-11-01T00:00:00", "2020-11-16T00:00:00");
+		// 2020-05-31 is a Sunday
+		assertNext("0 0 0 31W * *", "2020-05-01T00:00:00", "2020-05-29T00:00:00");
+		assertNext("0 0 0 LW * *", "2020-05-01T00:00:00", "2020-05-29T00:00:00");
+		assertNext("0 0 0 LW * *", "2020-06-01T00:00:00", "2020-06-30T00:00:00");
+	}
+
+	@Test
+	public void lastDayOfWeek() {
+		assertNext("0 0 0 ? * 5L", "2020-01-01T00:00:00", "2020-01-31T00:00:00");
+		assertNext("0 0 0 ? * FRIL", "2020-01-31T00:00:00", "2020-02-28T00:00:00");
+		assertNext("0 0 0 ? * 0L", "2020-05-01T00:00:00", "2020-05-31T00:00:00");
+	}
+
+	@Test
+	public void nthDayOfWeek() {
+		assertNext("0 0 0 ? * MON#2", "2020-10-01T00:00:00", "2020-10-12T00:00:00");
+		assertNext("0 0 0 ? * 5#2", "2020-10-01T00:00:00", "2020-10-09T00:00:00");
+		// No fifth Friday in February 2020
+		assertNext("0 0 0 ? * FRI#5", "2020-02-01T00:00:00", "2020-05-29T00:00:00");
+	}
+
+	@Test
+	public void dayOfMonthAndDayOfWeekBothMatch() {
+		assertNext("0 0 0 13 * FRI", "2020-01-01T00:00:00", "2020-03-13T00:00:00");
+	}
+
+	@Test
+	public void leapDay() {
+		assertNext("0 0 0 29 2 *", "2021-03-01T00:00:00", "2024-02-29T00:00:00");
+	}
+
+	@Test
+	public void neverMatching() {
+		assertThat(CronExpression.parse("0 0 0 30 2 *").next(ZonedDateTime.now(UTC))).isNull();
+	}
+
+	@Test
+	public void daylightSavingGap() {
+		ZoneId zone = ZoneId.of("Europe/Paris");
+		ZonedDateTime start = LocalDateTime.parse("2013-03-31T01:59:54").atZone(zone);
+		assertThat(CronExpression.parse("0 10 2 * * *").next(start))
+				.isEqualTo(LocalDateTime.parse("2013-04-01T02:10:00").atZone(zone));
+	}
+
+	@Test
+	public void invalidExpressions() {
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("0 0 0 * *"))
+				.withMessageContaining("must consist of 6 fields");
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("*/0 * * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("60 * * * * *"))
+				.withMessageContaining("in expression \"60 * * * * *\"");
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* 6-5 * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("0 0 0 32W * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("0 0 0 ? * L"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("0 0 0 ? * MON#6"));
+		assertThat(CronExpression.isValidExpression("0 */2 1-4 * INVALID *")).isFalse();
+		assertThat(CronExpression.isValidExpression(null)).isFalse();
+		assertThat(CronExpression.isValidExpression("0 0 0 LW * ?")).isTrue();
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void consistentWithCronSequenceGenerator() {
+		String[] expressions = {"*/7 * * * * *", "0 */5 9-17 * * MON-FRI", "0 0 12 1,15 * *",
+				"0 30 23 30 1/3 ?", "0 0 0 25 12 ?", "13 7 3 * JAN,JUL SAT"};
+		TimeZone timeZone = TimeZone.getTimeZone("America/New_York");
+		for (String expression : expressions) {
+			CronExpression cronExpression = CronExpression.parse(expression);
+			CronSequenceGenerator generator = new CronSequenceGenerator(expression, timeZone);
+			Date date = new Date(1262304000000L);
+			for (int i = 0; i < 200; i++) {
+				Date expected = generator.next(date);
+				ZonedDateTime next = cronExpression.next(date.toInstant().atZone(timeZone.toZoneId()));
+				assertThat(next).as(expression).isNotNull();
+				assertThat(Date.from(next.toInstant())).as(expression).isEqualTo(expected);
+				date = expected;
+			}
+		}
+	}
+
+	@Test
+	@EnabledForTestGroups(TestGroup.PERFORMANCE)
+	@SuppressWarnings("deprecation")
+	public void benchmarkAgainstCronSequenceGenerator() {
+		String expression = "0 */5 9-17 * * MON-FRI";
+		int iterations = 100000;
+		TimeZone timeZone = TimeZone.getDefault();
+		CronSequenceGenerator generator = new CronSequenceGenerator(expression, timeZone);
+		CronExpression cronExpression = CronExpression.parse(expression);
+
+		// Warm-up
+		evaluate(generator, iterations);
+		evaluate(cronExpression, timeZone.toZoneId(), iterations);
+
+		StopWatch sw = new StopWatch();
+		sw.start(iterations + " CronSequenceGenerator evaluations");
+		evaluate(generator, iterations);
+		sw.stop();
+		sw.start(iterations + " CronExpression evaluations");
+		evaluate(cronExpression, timeZone.toZoneId(), iterations);
+		sw.stop();
+
+		System.out.println(sw.prettyPrint());
+		assertThat(sw.getTaskInfo()[1].getTimeNanos()).isLessThan(sw.getTaskInfo()[0].getTimeNanos());
+	}
+
+
+	@SuppressWarnings("deprecation")
+	private static void evaluate(CronSequenceGenerator generator, int iterations) {
+		Date date = new Date();
+		for (int i = 0; i < iterations; i++) {
+			date = generator.next(date);
+		}
+	}
+
+	private static void evaluate(CronExpression cronExpression, ZoneId zone, int iterations) {
+		ZonedDateTime dateTime = ZonedDateTime.now(zone);
+		for (int i = 0; i < iterations; i++) {
+			dateTime = cronExpression.next(dateTime);
+		}
+	}
+
+	private static void assertNext(String expression, String from, String expected) {
+		ZonedDateTime next = CronExpression.parse(expression).next(LocalDateTime.parse(from).atZone(UTC));
+		assertThat(next).as(expression).isEqualTo(LocalDateTime.parse(expected).atZone(UTC));
+	}
+
+}
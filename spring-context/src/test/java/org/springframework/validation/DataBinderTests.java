@@ -838,6 +838,27 @@ public class DataBinderTests {
 		assertThat(br.getFieldError("someMap[key4]").getCode()).isEqualTo("required");
 	}
 
+	@Test
+	public void testBindingWithOptimizedPropertyAccess() {
+		TestBean tb = new TestBean();
+		tb.setSpouse(new TestBean());
+		DataBinder binder = new DataBinder(tb, "person");
+		binder.setOptimizedPropertyAccess(true);
+		MutablePropertyValues pvs = new MutablePropertyValues();
+		pvs.add("name", "Rod");
+		pvs.add("age", "x");
+		pvs.add("spouse.name", "Kerry");
+		pvs.add("spouse.age", "32");
+
+		binder.bind(pvs);
+
+		assertThat(binder.isOptimizedPropertyAccess()).isTrue();
+		assertThat(tb.getName()).isEqualTo("Rod");
+		assertThat(tb.getSpouse().getName()).isEqualTo("Kerry");
+		assertThat(tb.getSpouse().getAge()).isEqualTo(32);
+		assertThat(binder.getBindingResult().getFieldError("age").getCode()).isEqualTo("typeMismatch");
+	}
+
 	@Test
 	public void testBindingWithNestedObjectCreation() {
 		TestBean tb = new TestBean();
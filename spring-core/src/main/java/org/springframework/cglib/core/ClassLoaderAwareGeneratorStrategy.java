@@ -22,6 +22,10 @@ package org.springframework.cglib.core;
  * The ASM ClassWriter in Spring's ASM variant will pick it up when doing
  * common superclass resolution.
  *
+ * <p>As of 5.3, generated classes are also looked up in and stored to a
+ * {@link PersistentClassCache} if one is configured through the
+ * {@value PersistentClassCache#CACHE_DIRECTORY_PROPERTY_NAME} property.
+ *
  * @author Juergen Hoeller
  * @since 5.2
  */
@@ -35,6 +39,14 @@ public class ClassLoaderAwareGeneratorStrategy extends DefaultGeneratorStrategy
 
 	@Override
 	public byte[] generate(ClassGenerator cg) throws Exception {
+		PersistentClassCache cache = PersistentClassCache.getConfiguredInstance();
+		if (cache != null) {
+			return cache.generate(cg, this, () -> generateWithClassLoader(cg));
+		}
+		return generateWithClassLoader(cg);
+	}
+
+	private byte[] generateWithClassLoader(ClassGenerator cg) throws Exception {
 		if (this.classLoader == null) {
 			return super.generate(cg);
 		}
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.SpringVersion;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Persistent cache for CGLIB-generated classes: stores the bytecode of classes
+ * generated by an {@link Enhancer} in a local directory, reusing it for equivalent
+ * generation requests in subsequent JVM runs instead of generating it again.
+ *
+ * <p>Entries are keyed by a hash over the {@link Enhancer#getStableKey() stable key}
+ * of the Enhancer, the {@link GeneratorStrategy} type, the class files of the
+ * superclass hierarchy to extend and of all interfaces to implement (including
+ * the interfaces of the superclass hierarchy), and the Spring and Java versions. Since generated
+ * class names are not stable across JVM runs, the name of a cached class is
+ * rewritten to the name chosen for the current generation request.
+ *
+ * <p>Activated by {@link ClassLoaderAwareGeneratorStrategy} through the
+ * {@value #CACHE_DIRECTORY_PROPERTY_NAME} system property (or a corresponding
+ * entry in a "spring.properties" file), pointing to the cache directory.
+ * Any failure to read or write the cache leads to regular class generation.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see ClassLoaderAwareGeneratorStrategy
+ */
+public class PersistentClassCache {
+
+	/**
+	 * System property that points to the directory for persisting generated
+	 * classes in, activating the persistent class cache.
+	 */
+	public static final String CACHE_DIRECTORY_PROPERTY_NAME = "spring.cglib.cache.dir";
+
+	private static final Log logger = LogFactory.getLog(PersistentClassCache.class);
+
+	private static final char[] HEX_CHARS =
+			{'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+	@Nullable
+	private static volatile PersistentClassCache configuredInstance;
+
+
+	private final Path directory;
+
+
+	/**
+	 * Create a new PersistentClassCache for the given directory.
+	 * @param directory the directory to persist generated classes in
+	 * (created on demand)
+	 */
+	public PersistentClassCache(Path directory) {
+		Assert.notNull(directory, "Directory must not be null");
+		this.directory = directory;
+	}
+
+
+	/**
+	 * Return the directory that generated classes are persisted in.
+	 */
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Return the bytecode of the class to be generated by the given generator,
+	 * either from the cache or from the given generation callback, storing the
+	 * generated bytecode in the cache in the latter case.
+	 * @param generator the class generator (only {@link Enhancer} instances
+	 * participate in caching)
+	 * @param strategy the strategy that generates the class
+	 * @param generation the callback that actually generates the class
+	 * @return the bytecode of the class
+	 * @throws Exception as thrown by the generation callback
+	 */
+	public byte[] generate(ClassGenerator generator, GeneratorStrategy strategy, Callable<byte[]> generation)
+			throws Exception {
+
+		String key = (generator instanceof Enhancer ? buildKey((Enhancer) generator, strategy) : null);
+		if (key == null) {
+			return generation.call();
+		}
+		Path file = this.directory.resolve(key + ".class");
+		String className = ((AbstractClassGenerator) generator).getClassName();
+		byte[] cached = read(file, className);
+		if (cached != null) {
+			return cached;
+		}
+		byte[] generated = generation.call();
+		write(file, generated);
+		return generated;
+	}
+
+	@Nullable
+	private byte[] read(Path file, String className) {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try {
+			byte[] b = Files.readAllBytes(file);
+			String cachedName = ClassNameReader.getClassName(new ClassReader(b));
+			return (cachedName.equals(className) ? b : renameClass(b, cachedName, className));
+		}
+		catch (IOException | RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to read cached class from " + file + " - regenerating it", ex);
+			}
+			return null;
+		}
+	}
+
+	private void write(Path file, byte[] b) {
+		Path tempFile = null;
+		try {
+			Files.createDirectories(this.directory);
+			tempFile = Files.createTempFile(this.directory, "class", ".tmp");
+			Files.write(tempFile, b);
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException | RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to write class to cache file " + file, ex);
+			}
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				}
+				catch (IOException ignored) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Build the cache key for the given Enhancer and strategy.
+	 * @return the hex-encoded key, or {@code null} if the class to generate
+	 * is not eligible for caching
+	 */
+	@Nullable
+	private static String buildKey(Enhancer enhancer, GeneratorStrategy strategy) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update((SpringVersion.getVersion() + "|" + System.getProperty("java.specification.version") +
+					"|" + strategy.getClass().getName() + "|" + enhancer.getStableKey())
+					.getBytes(StandardCharsets.UTF_8));
+			Set<Class<?>> interfaces = new LinkedHashSet<>();
+			Class<?> clazz = enhancer.getSuperclass();
+			while (clazz != null && clazz != Object.class) {
+				if (!digestClassFile(digest, clazz)) {
+					return null;
+				}
+				collectInterfaces(clazz.getInterfaces(), interfaces);
+				clazz = clazz.getSuperclass();
+			}
+			// Interfaces contribute default methods and bridge methods to the generated class
+			Class<?>[] enhancerInterfaces = enhancer.getInterfaces();
+			if (enhancerInterfaces != null) {
+				collectInterfaces(enhancerInterfaces, interfaces);
+			}
+			for (Class<?> ifc : interfaces) {
+				if (!digestClassFile(digest, ifc)) {
+					return null;
+				}
+			}
+			return encodeHex(digest.digest());
+		}
+		catch (Exception ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Cannot build persistent cache key for " + enhancer.getSuperclass(), ex);
+			}
+			return null;
+		}
+	}
+
+	private static void collectInterfaces(Class<?>[] interfaces, Set<Class<?>> result) {
+		for (Class<?> ifc : interfaces) {
+			if (result.add(ifc)) {
+				collectInterfaces(ifc.getInterfaces(), result);
+			}
+		}
+	}
+
+	private static boolean digestClassFile(MessageDigest digest, Class<?> clazz) throws IOException {
+		ClassLoader classLoader = clazz.getClassLoader();
+		if (classLoader == null) {
+			// JDK class, covered by the Java version
+			return true;
+		}
+		try (InputStream is = classLoader.getResourceAsStream(clazz.getName().replace('.', '/') + ".class")) {
+			if (is == null) {
+				// Class file not available, e.g. for a generated class
+				return false;
+			}
+			byte[] buffer = new byte[4096];
+			int bytesRead;
+			while ((bytesRead = is.read(buffer)) != -1) {
+				digest.update(buffer, 0, bytesRead);
+			}
+			return true;
+		}
+	}
+
+	private static String encodeHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = HEX_CHARS[(bytes[i] >>> 4) & 0xf];
+			chars[i * 2 + 1] = HEX_CHARS[bytes[i] & 0xf];
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Rename the class in the given class file, replacing all references to the
+	 * old class name in the constant pool, in both internal and binary form.
+	 * @param b the class file
+	 * @param oldName the current class name
+	 * @param newName the class name to use instead
+	 * @return the class file for the renamed class
+	 */
+	static byte[] renameClass(byte[] b, String oldName, String newName) throws IOException {
+		String oldInternalName = oldName.replace('.', '/');
+		String newInternalName = newName.replace('.', '/');
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(b));
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(b.length + 256);
+		DataOutputStream out = new DataOutputStream(bos);
+		// magic, minor and major version
+		out.writeInt(in.readInt());
+		out.writeInt(in.readInt());
+		int constantPoolCount = in.readUnsignedShort();
+		out.writeShort(constantPoolCount);
+		for (int i = 1; i < constantPoolCount; i++) {
+			int tag = in.readUnsignedByte();
+			out.writeByte(tag);
+			switch (tag) {
+				case 1:  // Utf8
+					String value = in.readUTF();
+					if (value.contains(oldInternalName) || value.contains(oldName)) {
+						value = value.replace(oldInternalName, newInternalName).replace(oldName, newName);
+					}
+					out.writeUTF(value);
+					break;
+				case 7:  // Class
+				case 8:  // String
+				case 16:  // MethodType
+				case 19:  // Module
+				case 20:  // Package
+					out.writeShort(in.readUnsignedShort());
+					break;
+				case 15:  // MethodHandle
+					out.writeByte(in.readUnsignedByte());
+					out.writeShort(in.readUnsignedShort());
+					break;
+				case 3:  // Integer
+				case 4:  // Float
+				case 9:  // Fieldref
+				case 10:  // Methodref
+				case 11:  // InterfaceMethodref
+				case 12:  // NameAndType
+				case 17:  // Dynamic
+				case 18:  // InvokeDynamic
+					out.writeInt(in.readInt());
+					break;
+				case 5:  // Long
+				case 6:  // Double
+					out.writeLong(in.readLong());
+					i++;
+					break;
+				default:
+					throw new IllegalArgumentException("Unsupported constant pool tag: " + tag);
+			}
+		}
+		// Everything beyond the constant pool refers to it by index only
+		byte[] remainder = new byte[in.available()];
+		in.readFully(remainder);
+		out.write(remainder);
+		out.flush();
+		return bos.toByteArray();
+	}
+
+
+	/**
+	 * Return the cache for the directory configured through the
+	 * {@value #CACHE_DIRECTORY_PROPERTY_NAME} property, if any.
+	 */
+	@Nullable
+	public static PersistentClassCache getConfiguredInstance() {
+		String directory = SpringProperties.getProperty(CACHE_DIRECTORY_PROPERTY_NAME);
+		if (directory == null) {
+			return null;
+		}
+		Path path = Paths.get(directory);
+		PersistentClassCache cache = configuredInstance;
+		if (cache == null || !cache.getDirectory().equals(path)) {
+			cache = new PersistentClassCache(path);
+			configuredInstance = cache;
+		}
+		return cache;
+	}
+
+}
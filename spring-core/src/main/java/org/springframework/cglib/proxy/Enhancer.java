@@ -24,6 +24,7 @@ import java.lang.reflect.Method;
 import java.security.ProtectionDomain;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -424,6 +425,63 @@ public class Enhancer extends AbstractClassGenerator {
 		serialVersionUID = sUID;
 	}
 
+	// SPRING PATCH BEGIN
+	/**
+	 * Return the class which the generated class will extend, if any.
+	 */
+	public Class getSuperclass() {
+		return superclass;
+	}
+
+	/**
+	 * Return the interfaces which the generated class will implement, if any.
+	 */
+	public Class[] getInterfaces() {
+		return interfaces;
+	}
+
+	/**
+	 * Build a key for the class to generate which, in contrast to the regular
+	 * cache key, is stable across JVM runs: covering the superclass, the interfaces,
+	 * the callback types, the callback index assigned to each method by the callback
+	 * filter, and the remaining generation settings. Only valid once the callback
+	 * types have been determined, i.e. during class generation.
+	 */
+	public String getStableKey() {
+		Class sc = (superclass == null) ? Object.class : superclass;
+		StringBuilder sb = new StringBuilder(sc.getName());
+		if (interfaces != null) {
+			for (int i = 0; i < interfaces.length; i++) {
+				sb.append(',').append(interfaces[i].getName());
+			}
+		}
+		sb.append('|');
+		for (int i = 0; i < callbackTypes.length; i++) {
+			sb.append(callbackTypes[i].getDescriptor());
+		}
+		sb.append('|').append(useFactory).append('|').append(interceptDuringConstruction);
+		sb.append('|').append(serialVersionUID);
+		List methods = new ArrayList();
+		getMethods(sc, interfaces, methods);
+		List entries = new ArrayList(methods.size());
+		for (Iterator it = methods.iterator(); it.hasNext();) {
+			Method method = (Method) it.next();
+			StringBuilder entry = new StringBuilder(method.getName()).append(Type.getMethodDescriptor(method));
+			Class[] exceptionTypes = method.getExceptionTypes();
+			for (int i = 0; i < exceptionTypes.length; i++) {
+				entry.append('^').append(exceptionTypes[i].getName());
+			}
+			entry.append('=').append(filter.accept(method));
+			entries.add(entry.toString());
+		}
+		Collections.sort(entries);
+		for (Iterator it = entries.iterator(); it.hasNext();) {
+			sb.append('|').append(it.next());
+		}
+		return sb.toString();
+	}
+	// SPRING PATCH END
+
 	private void preValidate() {
 		if (callbackTypes == null) {
 			callbackTypes = CallbackInfo.determineTypes(callbacks, false);
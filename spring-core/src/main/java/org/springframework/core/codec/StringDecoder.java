@@ -16,7 +16,7 @@
 
 package org.springframework.core.codec;
 
-import java.nio.CharBuffer;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -119,9 +119,8 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		Charset charset = getCharset(mimeType);
-		CharBuffer charBuffer = charset.decode(dataBuffer.asByteBuffer());
+		String value = decodeToString(dataBuffer.asByteBuffer(), charset);
 		DataBufferUtils.release(dataBuffer);
-		String value = charBuffer.toString();
 		LogFormatUtils.traceDebug(logger, traceOn -> {
 			String formatted = LogFormatUtils.formatValue(value, !traceOn);
 			return Hints.getLogPrefix(hints) + "Decoded " + formatted;
@@ -129,6 +128,18 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 		return value;
 	}
 
+	/**
+	 * Decode the given byte buffer, directly from its backing array if available,
+	 * thereby avoiding the intermediate {@link java.nio.CharBuffer} copy.
+	 */
+	private static String decodeToString(ByteBuffer byteBuffer, Charset charset) {
+		if (byteBuffer.hasArray()) {
+			return new String(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(),
+					byteBuffer.remaining(), charset);
+		}
+		return charset.decode(byteBuffer).toString();
+	}
+
 	private static Charset getCharset(@Nullable MimeType mimeType) {
 		if (mimeType != null && mimeType.getCharset() != null) {
 			return mimeType.getCharset();
@@ -172,7 +183,8 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 	/**
 	 * Joins the given list of buffers. If the list ends with a {@link EndFrameBuffer}, it is
 	 * removed. If {@code stripDelimiter} is {@code true} and the resulting buffer ends with
-	 * a delimiter, it is removed.
+	 * a delimiter, it is removed. A line contained in a single buffer is returned as is,
+	 * without copying it into a joined buffer.
 	 * @param dataBuffers the data buffers to join
 	 * @param stripDelimiter whether to strip the delimiter
 	 * @return the joined buffer
@@ -191,7 +203,8 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 			dataBuffers.remove(lastIdx);
 		}
 
-		DataBuffer result = dataBuffers.get(0).factory().join(dataBuffers);
+		DataBuffer result = (dataBuffers.size() == 1 ? dataBuffers.get(0) :
+				dataBuffers.get(0).factory().join(dataBuffers));
 
 		if (stripDelimiter && matchingDelimiter != null) {
 			result.writePosition(result.writePosition() - matchingDelimiter.length);
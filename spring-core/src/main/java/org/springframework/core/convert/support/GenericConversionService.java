@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -78,6 +78,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	private final Map<ConvertiblePair, ClassPairConverter> classPairConverterCache =
+			new ConcurrentReferenceHashMap<>(64);
+
 
 	// ConverterRegistry implementation
 
@@ -132,8 +135,10 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Override
 	public boolean canConvert(@Nullable Class<?> sourceType, Class<?> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
-				TypeDescriptor.valueOf(targetType));
+		if (sourceType == null) {
+			return true;
+		}
+		return (getClassPairConverter(sourceType, targetType).converter != null);
 	}
 
 	@Override
@@ -142,6 +147,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 		if (sourceType == null) {
 			return true;
 		}
+		if (isPlainType(sourceType) && isPlainType(targetType)) {
+			return (getClassPairConverter(sourceType.getType(), targetType.getType()).converter != null);
+		}
 		GenericConverter converter = getConverter(sourceType, targetType);
 		return (converter != null);
 	}
@@ -171,7 +179,12 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Nullable
 	public <T> T convert(@Nullable Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
+		if (source == null) {
+			return (T) convert(null, null, TypeDescriptor.valueOf(targetType));
+		}
+		ClassPairConverter classPairConverter = getClassPairConverter(source.getClass(), targetType);
+		return (T) invokeConverter(classPairConverter.converter, source,
+				classPairConverter.sourceType, classPairConverter.targetType);
 	}
 
 	@Override
@@ -186,12 +199,10 @@ public class GenericConversionService implements ConfigurableConversionService {
 			throw new IllegalArgumentException("Source to convert from must be an instance of [" +
 					sourceType + "]; instead it was a [" + source.getClass().getName() + "]");
 		}
-		GenericConverter converter = getConverter(sourceType, targetType);
-		if (converter != null) {
-			Object result = ConversionUtils.invokeConverter(converter, source, sourceType, targetType);
-			return handleResult(sourceType, targetType, result);
-		}
-		return handleConverterNotFound(source, sourceType, targetType);
+		GenericConverter converter = (isPlainType(sourceType) && isPlainType(targetType) ?
+				getClassPairConverter(sourceType.getType(), targetType.getType()).converter :
+				getConverter(sourceType, targetType));
+		return invokeConverter(converter, source, sourceType, targetType);
 	}
 
 	/**
@@ -287,6 +298,35 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	// Internal helpers
 
+	/**
+	 * Return the converter for the given class pair, without any annotation or
+	 * generic context, caching the plain type descriptors along with it.
+	 * <p>This is a fast path in front of {@link #getConverter(TypeDescriptor, TypeDescriptor)}
+	 * which avoids building type descriptors and a {@link ConverterCacheKey} on every
+	 * lookup. The converter itself is still resolved through the regular template method.
+	 */
+	private ClassPairConverter getClassPairConverter(Class<?> sourceType, Class<?> targetType) {
+		ConvertiblePair key = new ConvertiblePair(sourceType, targetType);
+		ClassPairConverter classPairConverter = this.classPairConverterCache.get(key);
+		if (classPairConverter == null) {
+			TypeDescriptor sourceTypeDescriptor = TypeDescriptor.valueOf(sourceType);
+			TypeDescriptor targetTypeDescriptor = TypeDescriptor.valueOf(targetType);
+			classPairConverter = new ClassPairConverter(sourceTypeDescriptor, targetTypeDescriptor,
+					getConverter(sourceTypeDescriptor, targetTypeDescriptor));
+			this.classPairConverterCache.put(key, classPairConverter);
+		}
+		return classPairConverter;
+	}
+
+	/**
+	 * Determine whether the given type descriptor carries no context beyond its
+	 * class, i.e. is equal to {@link TypeDescriptor#valueOf(Class)} for that class.
+	 */
+	private static boolean isPlainType(TypeDescriptor typeDescriptor) {
+		return (!typeDescriptor.isArray() && typeDescriptor.getAnnotations().length == 0 &&
+				typeDescriptor.getResolvableType().getType() instanceof Class);
+	}
+
 	@Nullable
 	private ResolvableType[] getRequiredTypeInfo(Class<?> converterClass, Class<?> genericIfc) {
 		ResolvableType resolvableType = ResolvableType.forClass(converterClass).as(genericIfc);
@@ -302,8 +342,20 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return generics;
 	}
 
+	@Nullable
+	private Object invokeConverter(@Nullable GenericConverter converter, @Nullable Object source,
+			TypeDescriptor sourceType, TypeDescriptor targetType) {
+
+		if (converter != null) {
+			Object result = ConversionUtils.invokeConverter(converter, source, sourceType, targetType);
+			return handleResult(sourceType, targetType, result);
+		}
+		return handleConverterNotFound(source, sourceType, targetType);
+	}
+
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.classPairConverterCache.clear();
 	}
 
 	@Nullable
@@ -494,6 +546,27 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * Entry for the class pair converter cache, holding the plain type descriptors
+	 * for the class pair along with the converter resolved for them (if any).
+	 */
+	private static final class ClassPairConverter {
+
+		final TypeDescriptor sourceType;
+
+		final TypeDescriptor targetType;
+
+		@Nullable
+		final GenericConverter converter;
+
+		ClassPairConverter(TypeDescriptor sourceType, TypeDescriptor targetType, @Nullable GenericConverter converter) {
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			this.converter = converter;
+		}
+	}
+
+
 	/**
 	 * Manages all converters registered with the service.
 	 */
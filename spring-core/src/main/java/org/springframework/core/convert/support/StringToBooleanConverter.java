@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -52,6 +52,13 @@ final class StringToBooleanConverter implements Converter<String, Boolean> {
 		if (value.isEmpty()) {
 			return null;
 		}
+		// Common case: already lower-case, no need to create a lower-cased copy
+		if (trueValues.contains(value)) {
+			return Boolean.TRUE;
+		}
+		else if (falseValues.contains(value)) {
+			return Boolean.FALSE;
+		}
 		value = value.toLowerCase();
 		if (trueValues.contains(value)) {
 			return Boolean.TRUE;
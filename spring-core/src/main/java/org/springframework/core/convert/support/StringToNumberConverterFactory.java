@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,11 @@
 
 package org.springframework.core.convert.support;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.convert.converter.ConverterFactory;
 import org.springframework.util.NumberUtils;
@@ -25,6 +30,7 @@ import org.springframework.util.NumberUtils;
  *
  * <p>Support Number classes including Byte, Short, Integer, Float, Double, Long, BigInteger, BigDecimal. This class
  * delegates to {@link NumberUtils#parseNumber(String, Class)} to perform the conversion.
+ * Converters for the JDK-standard Number classes are shared rather than created per request.
  *
  * @author Keith Donald
  * @since 3.0
@@ -40,9 +46,29 @@ import org.springframework.util.NumberUtils;
  */
 final class StringToNumberConverterFactory implements ConverterFactory<String, Number> {
 
+	private static final Map<Class<?>, Converter<String, ?>> commonConverters = new IdentityHashMap<>(8);
+
+	static {
+		addCommonConverter(Byte.class);
+		addCommonConverter(Short.class);
+		addCommonConverter(Integer.class);
+		addCommonConverter(Long.class);
+		addCommonConverter(BigInteger.class);
+		addCommonConverter(Float.class);
+		addCommonConverter(Double.class);
+		addCommonConverter(BigDecimal.class);
+	}
+
+	private static <T extends Number> void addCommonConverter(Class<T> targetType) {
+		commonConverters.put(targetType, new StringToNumber<>(targetType));
+	}
+
+
 	@Override
+	@SuppressWarnings("unchecked")
 	public <T extends Number> Converter<String, T> getConverter(Class<T> targetType) {
-		return new StringToNumber<>(targetType);
+		Converter<String, ?> converter = commonConverters.get(targetType);
+		return (converter != null ? (Converter<String, T>) converter : new StringToNumber<>(targetType));
 	}
 
 
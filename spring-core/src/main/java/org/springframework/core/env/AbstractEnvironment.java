@@ -109,7 +109,7 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 
 	private final MutablePropertySources propertySources = new MutablePropertySources();
 
-	private final ConfigurablePropertyResolver propertyResolver =
+	private final PropertySourcesPropertyResolver propertyResolver =
 			new PropertySourcesPropertyResolver(this.propertySources);
 
 
@@ -511,6 +511,29 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 		this.propertyResolver.setIgnoreUnresolvableNestedPlaceholders(ignoreUnresolvableNestedPlaceholders);
 	}
 
+	/**
+	 * Specify whether to cache resolved property values for this environment.
+	 * <p>Default is "false". Cached values are discarded whenever the
+	 * {@link #getPropertySources() property sources} get modified; see
+	 * {@link PropertySourcesPropertyResolver#setCacheResolvedProperties}
+	 * for details and limitations.
+	 * @since 5.3
+	 * @see #clearPropertyCache()
+	 */
+	public void setCacheResolvedProperties(boolean cacheResolvedProperties) {
+		this.propertyResolver.setCacheResolvedProperties(cacheResolvedProperties);
+	}
+
+	/**
+	 * Discard any cached property values, e.g. after modifying the content
+	 * of a property source in place.
+	 * @since 5.3
+	 * @see #setCacheResolvedProperties
+	 */
+	public void clearPropertyCache() {
+		this.propertyResolver.clearCache();
+	}
+
 	@Override
 	public void setRequiredProperties(String... requiredProperties) {
 		this.propertyResolver.setRequiredProperties(requiredProperties);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,21 @@
 
 package org.springframework.core.env;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.springframework.lang.Nullable;
 
 /**
  * {@link PropertyResolver} implementation that resolves property values against
  * an underlying set of {@link PropertySources}.
  *
+ * <p>Resolved property values may optionally be cached, see
+ * {@link #setCacheResolvedProperties}.
+ *
  * @author Chris Beams
  * @author Juergen Hoeller
  * @since 3.1
@@ -31,9 +40,19 @@ import org.springframework.lang.Nullable;
  */
 public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
+	private static final Object NO_VALUE = new Object();
+
+	private static final int[] NO_POSITIONS = new int[0];
+
+
 	@Nullable
 	private final PropertySources propertySources;
 
+	private volatile boolean cacheResolvedProperties = false;
+
+	@Nullable
+	private volatile PropertySourcesIndex propertySourcesIndex;
+
 
 	/**
 	 * Create a new resolver against the given property sources.
@@ -44,6 +63,68 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 
+	/**
+	 * Specify whether to cache resolved property values, including the outcome
+	 * of nested placeholder resolution, and to look up keys through a precomputed
+	 * index of the property names exposed by {@link MapPropertySource} instances.
+	 * <p>Default is "false". Switch this to "true" for an environment with many
+	 * property sources and frequent lookups of the same keys, e.g. from
+	 * {@code @Value} injection into prototype beans.
+	 * <p><b>NOTE:</b> Cached state is discarded whenever a backing
+	 * {@link MutablePropertySources} instance gets modified, but changes to the
+	 * content of individual property sources (e.g. later calls to
+	 * {@link System#setProperty}) are not detected; call {@link #clearCache()}
+	 * after such changes.
+	 * @since 5.3
+	 * @see #clearCache()
+	 */
+	public void setCacheResolvedProperties(boolean cacheResolvedProperties) {
+		this.cacheResolvedProperties = cacheResolvedProperties;
+		clearCache();
+	}
+
+	/**
+	 * Return whether resolved property values are being cached.
+	 * @since 5.3
+	 */
+	public boolean isCacheResolvedProperties() {
+		return this.cacheResolvedProperties;
+	}
+
+	/**
+	 * Discard all cached property values and the property name index,
+	 * if caching is active.
+	 * @since 5.3
+	 * @see #setCacheResolvedProperties
+	 */
+	public void clearCache() {
+		this.propertySourcesIndex = null;
+	}
+
+	@Override
+	public void setPlaceholderPrefix(String placeholderPrefix) {
+		super.setPlaceholderPrefix(placeholderPrefix);
+		clearCache();
+	}
+
+	@Override
+	public void setPlaceholderSuffix(String placeholderSuffix) {
+		super.setPlaceholderSuffix(placeholderSuffix);
+		clearCache();
+	}
+
+	@Override
+	public void setValueSeparator(@Nullable String valueSeparator) {
+		super.setValueSeparator(valueSeparator);
+		clearCache();
+	}
+
+	@Override
+	public void setIgnoreUnresolvableNestedPlaceholders(boolean ignoreUnresolvableNestedPlaceholders) {
+		super.setIgnoreUnresolvableNestedPlaceholders(ignoreUnresolvableNestedPlaceholders);
+		clearCache();
+	}
+
 	@Override
 	public boolean containsProperty(String key) {
 		if (this.propertySources != null) {
@@ -77,6 +158,10 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	@Nullable
 	protected <T> T getProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
 		if (this.propertySources != null) {
+			if (this.cacheResolvedProperties) {
+				Object value = getPropertySourcesIndex(this.propertySources).getProperty(key, resolveNestedPlaceholders);
+				return (value != null ? convertValueIfNecessary(value, targetValueType) : null);
+			}
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (logger.isTraceEnabled()) {
 					logger.trace("Searching for key '" + key + "' in PropertySource '" +
@@ -98,6 +183,17 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		return null;
 	}
 
+	private PropertySourcesIndex getPropertySourcesIndex(PropertySources propertySources) {
+		int modificationCount = (propertySources instanceof MutablePropertySources ?
+				((MutablePropertySources) propertySources).getModificationCount() : 0);
+		PropertySourcesIndex index = this.propertySourcesIndex;
+		if (index == null || index.modificationCount != modificationCount) {
+			index = new PropertySourcesIndex(propertySources, modificationCount);
+			this.propertySourcesIndex = index;
+		}
+		return index;
+	}
+
 	/**
 	 * Log the given key as found in the given {@link PropertySource}, resulting in
 	 * the given value.
@@ -117,4 +213,103 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		}
 	}
 
+
+	/**
+	 * Snapshot of the property sources at a given modification count, holding
+	 * the positions of indexable property sources per property name as well as
+	 * the values resolved against this snapshot so far.
+	 */
+	private final class PropertySourcesIndex {
+
+		private final int modificationCount;
+
+		private final PropertySource<?>[] propertySources;
+
+		private final int[] nonIndexedPositions;
+
+		private final Map<String, int[]> indexedPositions = new HashMap<>();
+
+		private final Map<String, Object> rawValueCache = new ConcurrentHashMap<>();
+
+		private final Map<String, Object> resolvedValueCache = new ConcurrentHashMap<>();
+
+		PropertySourcesIndex(PropertySources propertySources, int modificationCount) {
+			this.modificationCount = modificationCount;
+			List<PropertySource<?>> propertySourceList = new ArrayList<>();
+			propertySources.forEach(propertySourceList::add);
+			this.propertySources = propertySourceList.toArray(new PropertySource<?>[0]);
+
+			List<Integer> nonIndexed = new ArrayList<>();
+			for (int i = 0; i < this.propertySources.length; i++) {
+				PropertySource<?> propertySource = this.propertySources[i];
+				if (isIndexable(propertySource)) {
+					for (String name : ((MapPropertySource) propertySource).getPropertyNames()) {
+						int[] positions = this.indexedPositions.getOrDefault(name, NO_POSITIONS);
+						int[] newPositions = new int[positions.length + 1];
+						System.arraycopy(positions, 0, newPositions, 0, positions.length);
+						newPositions[positions.length] = i;
+						this.indexedPositions.put(name, newPositions);
+					}
+				}
+				else {
+					nonIndexed.add(i);
+				}
+			}
+			this.nonIndexedPositions = nonIndexed.stream().mapToInt(Integer::intValue).toArray();
+		}
+
+		/**
+		 * Only plain map-backed sources expose their exact lookup keys: the
+		 * system environment source applies name variants on lookup, and a
+		 * security-restricted system attributes map cannot be enumerated.
+		 */
+		private boolean isIndexable(PropertySource<?> propertySource) {
+			return (propertySource instanceof MapPropertySource &&
+					!(propertySource instanceof SystemEnvironmentPropertySource) &&
+					!(propertySource.getSource() instanceof ReadOnlySystemAttributesMap));
+		}
+
+		@Nullable
+		public Object getProperty(String key, boolean resolveNestedPlaceholders) {
+			Map<String, Object> valueCache = (resolveNestedPlaceholders ? this.resolvedValueCache : this.rawValueCache);
+			Object value = valueCache.get(key);
+			if (value == null) {
+				value = findProperty(key, resolveNestedPlaceholders);
+				valueCache.put(key, (value != null ? value : NO_VALUE));
+			}
+			return (value != NO_VALUE ? value : null);
+		}
+
+		@Nullable
+		private Object findProperty(String key, boolean resolveNestedPlaceholders) {
+			// Merge non-indexed positions with indexed positions for the key, in precedence order
+			int[] candidatePositions = this.indexedPositions.getOrDefault(key, NO_POSITIONS);
+			int i = 0;
+			int j = 0;
+			while (i < this.nonIndexedPositions.length || j < candidatePositions.length) {
+				int position;
+				if (j >= candidatePositions.length ||
+						(i < this.nonIndexedPositions.length && this.nonIndexedPositions[i] < candidatePositions[j])) {
+					position = this.nonIndexedPositions[i++];
+				}
+				else {
+					position = candidatePositions[j++];
+				}
+				PropertySource<?> propertySource = this.propertySources[position];
+				Object value = propertySource.getProperty(key);
+				if (value != null) {
+					if (resolveNestedPlaceholders && value instanceof String) {
+						value = resolveNestedPlaceholders((String) value);
+					}
+					logKeyFound(key, propertySource, value);
+					return value;
+				}
+			}
+			if (logger.isTraceEnabled()) {
+				logger.trace("Could not find key '" + key + "' in any property source");
+			}
+			return null;
+		}
+	}
+
 }
@@ -20,17 +20,23 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -155,6 +161,82 @@ public abstract class DataBufferUtils {
 		return flux.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
 	}
 
+	/**
+	 * Obtain a {@code AsynchronousFileChannel} from the given supplier, and
+	 * read it into a {@code Flux} of {@code DataBuffer}s, starting at the given
+	 * position and keeping up to {@code readAhead} positional reads outstanding
+	 * at any time, within the limits of the demand signalled downstream.
+	 * Buffers are emitted in file order. Closes the channel when the Flux is
+	 * terminated.
+	 * <p>Multiple outstanding reads allow storage with deep command queues to be
+	 * kept busy, rather than waiting for each read to complete before issuing
+	 * the next one.
+	 * @param channelSupplier the supplier for the channel to read from
+	 * @param position the position to start reading from
+	 * @param bufferFactory the factory to create data buffers with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @param readAhead the maximum number of reads to keep outstanding
+	 * @return a Flux of data buffers read from the given channel
+	 * @since 5.3
+	 */
+	public static Flux<DataBuffer> readAsynchronousFileChannel(
+			Callable<AsynchronousFileChannel> channelSupplier, long position,
+			DataBufferFactory bufferFactory, int bufferSize, int readAhead) {
+
+		Assert.isTrue(readAhead > 0, "'readAhead' must be > 0");
+		if (readAhead == 1) {
+			return readAsynchronousFileChannel(channelSupplier, position, bufferFactory, bufferSize);
+		}
+		Assert.notNull(channelSupplier, "'channelSupplier' must not be null");
+		Assert.notNull(bufferFactory, "'dataBufferFactory' must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be > 0");
+
+		Flux<DataBuffer> flux = Flux.using(channelSupplier,
+				channel -> Flux.create(sink -> {
+					ReadAheadCompletionHandler handler = new ReadAheadCompletionHandler(
+							channel, sink, position, bufferFactory, bufferSize, readAhead);
+					sink.onCancel(handler::cancel);
+					sink.onRequest(handler::request);
+				}),
+				channel -> {
+					// Do not close channel from here, rather wait for outstanding read callbacks
+					// and then complete after releasing their DataBuffers.
+				});
+
+		return flux.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+	}
+
+	/**
+	 * Memory-map the given file {@code Path}, starting at the given position,
+	 * and expose its content as a {@code Flux} of read-only {@code DataBuffer}s,
+	 * each {@linkplain DataBufferFactory#wrap(ByteBuffer) wrapping} a slice of the
+	 * mapping. The file is mapped lazily in regions of a multiple of the buffer
+	 * size, following downstream demand. Closes the file when the Flux is terminated.
+	 * <p>This avoids copying file content into allocated buffers, and is best
+	 * suited to large files that are not modified while being read. Note that
+	 * mapped regions are only unmapped once the buffers that refer to them have
+	 * been garbage collected.
+	 * @param path the path to read bytes from
+	 * @param position the position to start reading from
+	 * @param bufferFactory the factory to wrap the mapped slices with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a Flux of data buffers backed by the mapped file
+	 * @since 5.3
+	 */
+	public static Flux<DataBuffer> readMappedFile(
+			Path path, long position, DataBufferFactory bufferFactory, int bufferSize) {
+
+		Assert.notNull(path, "Path must not be null");
+		Assert.notNull(bufferFactory, "BufferFactory must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be > 0");
+
+		return Flux.using(() -> FileChannel.open(path, StandardOpenOption.READ),
+				channel -> Flux.generate(new MappedFileGenerator(channel, position, bufferFactory, bufferSize)),
+				DataBufferUtils::closeChannel);
+	}
+
 	/**
 	 * Read bytes from the given file {@code Path} into a {@code Flux} of {@code DataBuffer}s.
 	 * The method ensures that the file is closed when the flux is terminated.
@@ -337,6 +419,48 @@ public abstract class DataBufferUtils {
 
 	}
 
+	/**
+	 * Write the given stream of {@link DataBuffer DataBuffers} to the given
+	 * {@code AsynchronousFileChannel}, keeping up to {@code concurrency}
+	 * positional writes outstanding at any time. Each buffer is written at the
+	 * file position following the preceding buffer, and buffers are published
+	 * in source order once written. Does <strong>not</strong> close the channel
+	 * when the flux is terminated, and does <strong>not</strong>
+	 * {@linkplain #release(DataBuffer) release} the data buffers in the source.
+	 * If releasing is required, then subscribe to the returned {@code Flux} with a
+	 * {@link #releaseConsumer()}.
+	 * <p>Note that the writing process does not start until the returned
+	 * {@code Flux} is subscribed to. At most {@code concurrency} buffers are
+	 * requested from the source ahead of their writes completing.
+	 * @param source the stream of data buffers to be written
+	 * @param channel the channel to write to
+	 * @param position file position write write is to begin; must be non-negative
+	 * @param concurrency the maximum number of writes to keep outstanding
+	 * @return a flux containing the same buffers as in {@code source}, that
+	 * starts the writing process when subscribed to, and that publishes any
+	 * writing errors and the completion signal
+	 * @since 5.3
+	 */
+	public static Flux<DataBuffer> write(Publisher<? extends DataBuffer> source,
+			AsynchronousFileChannel channel, long position, int concurrency) {
+
+		Assert.isTrue(concurrency > 0, "'concurrency' must be > 0");
+		if (concurrency == 1) {
+			return write(source, channel, position);
+		}
+		Assert.notNull(source, "'source' must not be null");
+		Assert.notNull(channel, "'channel' must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+
+		Flux<DataBuffer> flux = Flux.from(source);
+		return Flux.create(sink -> {
+			ConcurrentWriteCompletionHandler handler =
+					new ConcurrentWriteCompletionHandler(sink, channel, position, concurrency);
+			sink.onDispose(handler);
+			flux.subscribe(handler);
+		});
+	}
+
 	/**
 	 * Write the given stream of {@link DataBuffer DataBuffers} to the given
 	 * file {@link Path}. The optional {@code options} parameter specifies
@@ -351,8 +475,31 @@ public abstract class DataBufferUtils {
 	 * @since 5.2
 	 */
 	public static Mono<Void> write(Publisher<DataBuffer> source, Path destination, OpenOption... options) {
+		return write(source, destination, 1, options);
+	}
+
+	/**
+	 * Write the given stream of {@link DataBuffer DataBuffers} to the given
+	 * file {@link Path}, keeping up to {@code concurrency} positional writes
+	 * outstanding at any time. The optional {@code options} parameter specifies
+	 * how the created or opened (defaults to
+	 * {@link StandardOpenOption#CREATE CREATE},
+	 * {@link StandardOpenOption#TRUNCATE_EXISTING TRUNCATE_EXISTING}, and
+	 * {@link StandardOpenOption#WRITE WRITE}).
+	 * @param source the stream of data buffers to be written
+	 * @param destination the path to the file
+	 * @param concurrency the maximum number of writes to keep outstanding
+	 * @param options options specifying how the file is opened
+	 * @return a {@link Mono} that indicates completion or error
+	 * @since 5.3
+	 * @see #write(Publisher, AsynchronousFileChannel, long, int)
+	 */
+	public static Mono<Void> write(
+			Publisher<DataBuffer> source, Path destination, int concurrency, OpenOption... options) {
+
 		Assert.notNull(source, "Source must not be null");
 		Assert.notNull(destination, "Destination must not be null");
+		Assert.isTrue(concurrency > 0, "'concurrency' must be > 0");
 
 		Set<OpenOption> optionSet = checkWriteOptions(options);
 
@@ -360,7 +507,7 @@ public abstract class DataBufferUtils {
 			try {
 				AsynchronousFileChannel channel = AsynchronousFileChannel.open(destination, optionSet, null);
 				sink.onDispose(() -> closeChannel(channel));
-				write(source, channel).subscribe(DataBufferUtils::release,
+				write(source, channel, 0, concurrency).subscribe(DataBufferUtils::release,
 						sink::error,
 						sink::success);
 			}
@@ -547,6 +694,9 @@ public abstract class DataBufferUtils {
 	 */
 	public static Matcher matcher(byte[] delimiter) {
 		Assert.isTrue(delimiter.length > 0, "Delimiter must not be empty");
+		if (delimiter.length == 1) {
+			return new SingleByteMatcher(delimiter[0]);
+		}
 		return new KnuthMorrisPrattMatcher(delimiter);
 	}
 
@@ -562,9 +712,10 @@ public abstract class DataBufferUtils {
 			return matcher(delimiters[0]);
 		}
 		else {
-			Matcher[] matchers = new Matcher[delimiters.length];
+			KnuthMorrisPrattMatcher[] matchers = new KnuthMorrisPrattMatcher[delimiters.length];
 			for (int i = 0; i < delimiters.length; i++) {
-				matchers[i] = matcher(delimiters[i]);
+				Assert.isTrue(delimiters[i].length > 0, "Delimiter must not be empty");
+				matchers[i] = new KnuthMorrisPrattMatcher(delimiters[i]);
 			}
 			return new CompositeMatcher(matchers);
 		}
@@ -733,6 +884,222 @@ public abstract class DataBufferUtils {
 	}
 
 
+	private static class ReadAheadCompletionHandler
+			implements CompletionHandler<Integer, ReadAheadCompletionHandler.ReadSlot> {
+
+		private final AsynchronousFileChannel channel;
+
+		private final FluxSink<DataBuffer> sink;
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int bufferSize;
+
+		private final int readAhead;
+
+		/** Issued reads in file order, guarded by this handler. */
+		private final Deque<ReadSlot> slots = new ArrayDeque<>();
+
+		private long position;
+
+		private int outstanding;
+
+		private boolean endOfFile;
+
+		private boolean disposed;
+
+		public ReadAheadCompletionHandler(AsynchronousFileChannel channel, FluxSink<DataBuffer> sink,
+				long position, DataBufferFactory dataBufferFactory, int bufferSize, int readAhead) {
+
+			this.channel = channel;
+			this.sink = sink;
+			this.position = position;
+			this.dataBufferFactory = dataBufferFactory;
+			this.bufferSize = bufferSize;
+			this.readAhead = readAhead;
+		}
+
+		public void request(long n) {
+			read();
+		}
+
+		private synchronized void read() {
+			while (!this.disposed && !this.endOfFile && this.slots.size() < this.readAhead &&
+					this.slots.size() < this.sink.requestedFromDownstream()) {
+				DataBuffer dataBuffer = this.dataBufferFactory.allocateBuffer(this.bufferSize);
+				ReadSlot slot = new ReadSlot(dataBuffer, dataBuffer.asByteBuffer(0, this.bufferSize), this.position);
+				this.position += this.bufferSize;
+				this.slots.add(slot);
+				this.outstanding++;
+				this.channel.read(slot.byteBuffer, slot.position, slot, this);
+			}
+		}
+
+		@Override
+		public void completed(Integer read, ReadSlot slot) {
+			synchronized (this) {
+				if (!this.disposed && read != -1 && slot.byteBuffer.hasRemaining()) {
+					// Partial read: fill the rest of the buffer before handing it out
+					this.channel.read(slot.byteBuffer, slot.position + slot.byteBuffer.position(), slot, this);
+					return;
+				}
+				this.outstanding--;
+				slot.done = true;
+				if (read == -1 || slot.byteBuffer.hasRemaining()) {
+					this.endOfFile = true;
+				}
+				if (this.disposed) {
+					release(slot.dataBuffer);
+					closeIfIdle();
+					return;
+				}
+				drain();
+			}
+			read();
+		}
+
+		private void drain() {
+			ReadSlot slot;
+			while ((slot = this.slots.peek()) != null && slot.done) {
+				this.slots.poll();
+				int read = slot.byteBuffer.position();
+				if (read > 0) {
+					slot.dataBuffer.writePosition(read);
+					this.sink.next(slot.dataBuffer);
+				}
+				else {
+					release(slot.dataBuffer);
+				}
+			}
+			if (this.endOfFile && this.slots.isEmpty()) {
+				this.disposed = true;
+				closeChannel(this.channel);
+				this.sink.complete();
+			}
+		}
+
+		@Override
+		public synchronized void failed(Throwable exc, ReadSlot slot) {
+			this.outstanding--;
+			release(slot.dataBuffer);
+			if (!this.disposed) {
+				this.disposed = true;
+				releaseCompletedSlots();
+				this.sink.error(exc);
+			}
+			closeIfIdle();
+		}
+
+		public synchronized void cancel() {
+			if (!this.disposed) {
+				this.disposed = true;
+				releaseCompletedSlots();
+				closeIfIdle();
+			}
+		}
+
+		private void releaseCompletedSlots() {
+			this.slots.removeIf(slot -> {
+				if (slot.done) {
+					release(slot.dataBuffer);
+				}
+				return true;
+			});
+		}
+
+		private void closeIfIdle() {
+			if (this.outstanding == 0) {
+				closeChannel(this.channel);
+			}
+		}
+
+
+		private static class ReadSlot {
+
+			final DataBuffer dataBuffer;
+
+			final ByteBuffer byteBuffer;
+
+			final long position;
+
+			boolean done;
+
+			ReadSlot(DataBuffer dataBuffer, ByteBuffer byteBuffer, long position) {
+				this.dataBuffer = dataBuffer;
+				this.byteBuffer = byteBuffer;
+				this.position = position;
+			}
+		}
+	}
+
+
+	private static class MappedFileGenerator implements Consumer<SynchronousSink<DataBuffer>> {
+
+		private static final long MAPPING_SIZE = 64 * 1024 * 1024;
+
+		private final FileChannel channel;
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int bufferSize;
+
+		private final long mappingSize;
+
+		private long position;
+
+		private long size = -1;
+
+		@Nullable
+		private MappedByteBuffer mapping;
+
+		private long mappingStart;
+
+		public MappedFileGenerator(
+				FileChannel channel, long position, DataBufferFactory dataBufferFactory, int bufferSize) {
+
+			this.channel = channel;
+			this.position = position;
+			this.dataBufferFactory = dataBufferFactory;
+			this.bufferSize = bufferSize;
+			this.mappingSize = Math.min((long) bufferSize * Math.max(1, MAPPING_SIZE / bufferSize),
+					Integer.MAX_VALUE - Integer.MAX_VALUE % bufferSize);
+		}
+
+		@Override
+		public void accept(SynchronousSink<DataBuffer> sink) {
+			try {
+				if (this.size == -1) {
+					this.size = this.channel.size();
+				}
+				if (this.position >= this.size) {
+					sink.complete();
+					return;
+				}
+				MappedByteBuffer mapping = this.mapping;
+				if (mapping == null || this.position >= this.mappingStart + mapping.capacity()) {
+					mapping = this.channel.map(FileChannel.MapMode.READ_ONLY, this.position,
+							Math.min(this.mappingSize, this.size - this.position));
+					this.mapping = mapping;
+					this.mappingStart = this.position;
+				}
+				int offset = (int) (this.position - this.mappingStart);
+				int length = Math.min(this.bufferSize, mapping.capacity() - offset);
+				ByteBuffer slice = mapping.duplicate();
+				// Explicit access via Buffer base type for compatibility
+				// with covariant return type on JDK 9's ByteBuffer...
+				Buffer buffer = slice;
+				buffer.position(offset);
+				buffer.limit(offset + length);
+				this.position += length;
+				sink.next(this.dataBufferFactory.wrap(slice.slice()));
+			}
+			catch (IOException ex) {
+				sink.error(ex);
+			}
+		}
+	}
+
+
 	private static class WritableByteChannelSubscriber extends BaseSubscriber<DataBuffer> {
 
 		private final FluxSink<DataBuffer> sink;
@@ -868,6 +1235,209 @@ public abstract class DataBufferUtils {
 	}
 
 
+	private static class ConcurrentWriteCompletionHandler extends BaseSubscriber<DataBuffer>
+			implements CompletionHandler<Integer, ConcurrentWriteCompletionHandler.WriteSlot> {
+
+		private final FluxSink<DataBuffer> sink;
+
+		private final AsynchronousFileChannel channel;
+
+		private final int concurrency;
+
+		/** Buffers in source order, guarded by this handler. */
+		private final Deque<WriteSlot> slots = new ArrayDeque<>();
+
+		private long position;
+
+		private boolean completed;
+
+		@Nullable
+		private Throwable error;
+
+		private boolean terminated;
+
+		public ConcurrentWriteCompletionHandler(
+				FluxSink<DataBuffer> sink, AsynchronousFileChannel channel, long position, int concurrency) {
+
+			this.sink = sink;
+			this.channel = channel;
+			this.position = position;
+			this.concurrency = concurrency;
+		}
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+			request(this.concurrency);
+		}
+
+		@Override
+		protected void hookOnNext(DataBuffer value) {
+			WriteSlot slot;
+			synchronized (this) {
+				slot = new WriteSlot(value, value.asByteBuffer(), this.position);
+				this.position += value.readableByteCount();
+				this.slots.add(slot);
+			}
+			this.channel.write(slot.byteBuffer, slot.position, slot, this);
+		}
+
+		@Override
+		protected synchronized void hookOnError(Throwable throwable) {
+			if (this.error == null) {
+				this.error = throwable;
+			}
+			drain();
+		}
+
+		@Override
+		protected synchronized void hookOnComplete() {
+			this.completed = true;
+			drain();
+		}
+
+		@Override
+		public void completed(Integer written, WriteSlot slot) {
+			slot.written += written;
+			if (slot.byteBuffer.hasRemaining()) {
+				this.channel.write(slot.byteBuffer, slot.position + slot.written, slot, this);
+				return;
+			}
+			int emitted;
+			synchronized (this) {
+				slot.done = true;
+				emitted = drain();
+			}
+			if (emitted > 0 && !isDisposed()) {
+				request(emitted);
+			}
+		}
+
+		@Override
+		public void failed(Throwable exc, WriteSlot slot) {
+			synchronized (this) {
+				slot.done = true;
+				if (this.error == null) {
+					this.error = exc;
+				}
+				drain();
+			}
+			cancel();
+		}
+
+		/**
+		 * Publish written buffers in source order, and terminate once all writes are done.
+		 * @return the number of buffers published
+		 */
+		private int drain() {
+			int emitted = 0;
+			WriteSlot slot;
+			while ((slot = this.slots.peek()) != null && slot.done) {
+				this.slots.poll();
+				this.sink.next(slot.dataBuffer);
+				emitted++;
+			}
+			if (this.slots.isEmpty() && !this.terminated) {
+				if (this.error != null) {
+					this.terminated = true;
+					this.sink.error(this.error);
+				}
+				else if (this.completed) {
+					this.terminated = true;
+					this.sink.complete();
+				}
+			}
+			return (this.error == null ? emitted : 0);
+		}
+
+
+		private static class WriteSlot {
+
+			final DataBuffer dataBuffer;
+
+			final ByteBuffer byteBuffer;
+
+			final long position;
+
+			long written;
+
+			boolean done;
+
+			WriteSlot(DataBuffer dataBuffer, ByteBuffer byteBuffer, long position) {
+				this.dataBuffer = dataBuffer;
+				this.byteBuffer = byteBuffer;
+				this.position = position;
+			}
+		}
+	}
+
+
+	/**
+	 * Implementation of {@link Matcher} for a single-byte delimiter, scanning
+	 * eight bytes at a time for heap and direct buffers of sufficient size.
+	 */
+	private static class SingleByteMatcher implements Matcher {
+
+		private static final int SWAR_THRESHOLD = 16;
+
+		private static final long ONES = 0x0101010101010101L;
+
+		private static final long HIGH_BITS = 0x8080808080808080L;
+
+		private final byte delimiter;
+
+		private final long pattern;
+
+		public SingleByteMatcher(byte delimiter) {
+			this.delimiter = delimiter;
+			this.pattern = (delimiter & 0xFFL) * ONES;
+		}
+
+		@Override
+		public int match(DataBuffer dataBuffer) {
+			int readPosition = dataBuffer.readPosition();
+			int length = dataBuffer.writePosition() - readPosition;
+			if (length >= SWAR_THRESHOLD && dataBuffer instanceof DefaultDataBuffer) {
+				return matchWords(dataBuffer.asByteBuffer(readPosition, length), readPosition, length);
+			}
+			for (int i = readPosition; i < readPosition + length; i++) {
+				if (dataBuffer.getByte(i) == this.delimiter) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private int matchWords(ByteBuffer byteBuffer, int offset, int length) {
+			// Little-endian, so that the lowest set bit denotes the first matching byte:
+			// the zero byte detection below may only yield false positives above a match.
+			byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
+			int i = 0;
+			for (; i + 8 <= length; i += 8) {
+				long word = byteBuffer.getLong(i) ^ this.pattern;
+				long found = (word - ONES) & ~word & HIGH_BITS;
+				if (found != 0) {
+					return offset + i + (Long.numberOfTrailingZeros(found) >>> 3);
+				}
+			}
+			for (; i < length; i++) {
+				if (byteBuffer.get(i) == this.delimiter) {
+					return offset + i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public byte[] delimiter() {
+			return new byte[] {this.delimiter};
+		}
+
+		@Override
+		public void reset() {
+		}
+	}
+
+
 	/**
 	 * Implementation of {@link Matcher} that uses the Knuth-Morris-Pratt algorithm.
 	 * @see <a href="https://www.nayuki.io/page/knuth-morris-pratt-string-matching">Knuth-Morris-Pratt string matching</a>
@@ -904,21 +1474,33 @@ public abstract class DataBufferUtils {
 		@Override
 		public int match(DataBuffer dataBuffer) {
 			for (int i = dataBuffer.readPosition(); i < dataBuffer.writePosition(); i++) {
-				byte b = dataBuffer.getByte(i);
-
-				while (this.matches > 0 && b != this.delimiter[this.matches]) {
-					this.matches = this.table[this.matches - 1];
+				if (match(dataBuffer.getByte(i))) {
+					reset();
+					return i;
 				}
+			}
+			return -1;
+		}
 
-				if (b == this.delimiter[this.matches]) {
-					this.matches++;
-					if (this.matches == this.delimiter.length) {
-						reset();
-						return i;
-					}
+		/**
+		 * Feed the next byte to this matcher.
+		 * @return {@code true} if the byte completes the delimiter
+		 */
+		boolean match(byte b) {
+			while (this.matches > 0 && b != this.delimiter[this.matches]) {
+				this.matches = this.table[this.matches - 1];
+			}
+			if (b == this.delimiter[this.matches]) {
+				this.matches++;
+				if (this.matches == this.delimiter.length) {
+					return true;
 				}
 			}
-			return -1;
+			return false;
+		}
+
+		int delimiterLength() {
+			return this.delimiter.length;
 		}
 
 		@Override
@@ -934,54 +1516,51 @@ public abstract class DataBufferUtils {
 
 
 	/**
-	 * Implementation of {@link Matcher} that wraps several other matchers.
+	 * Implementation of {@link Matcher} that matches several delimiters in a
+	 * single pass over the buffer, returning the earliest match and, if more
+	 * than one delimiter ends at that position, the longest delimiter.
 	 */
 	private static class CompositeMatcher implements Matcher {
 
-		private static final byte[] NO_DELIMITER = new byte[0];
+		private final KnuthMorrisPrattMatcher[] matchers;
 
-		private final Matcher[] matchers;
+		@Nullable
+		private KnuthMorrisPrattMatcher longestMatcher;
 
-		byte[] longestDelimiter = NO_DELIMITER;
-
-		public CompositeMatcher(Matcher[] matchers) {
+		public CompositeMatcher(KnuthMorrisPrattMatcher[] matchers) {
 			this.matchers = matchers;
 		}
 
 		@Override
 		public int match(DataBuffer dataBuffer) {
-			this.longestDelimiter = NO_DELIMITER;
-			int bestEndIdx = Integer.MAX_VALUE;
-
-
-			for (Matcher matcher : this.matchers) {
-				int endIdx = matcher.match(dataBuffer);
-				if (endIdx != -1 &&
-						endIdx <= bestEndIdx &&
-						matcher.delimiter().length > this.longestDelimiter.length) {
-					bestEndIdx = endIdx;
-					this.longestDelimiter = matcher.delimiter();
+			this.longestMatcher = null;
+			for (int i = dataBuffer.readPosition(); i < dataBuffer.writePosition(); i++) {
+				byte b = dataBuffer.getByte(i);
+				KnuthMorrisPrattMatcher longest = null;
+				for (KnuthMorrisPrattMatcher matcher : this.matchers) {
+					if (matcher.match(b) &&
+							(longest == null || matcher.delimiterLength() > longest.delimiterLength())) {
+						longest = matcher;
+					}
+				}
+				if (longest != null) {
+					this.longestMatcher = longest;
+					reset();
+					return i;
 				}
 			}
-			if (bestEndIdx == Integer.MAX_VALUE) {
-				this.longestDelimiter = NO_DELIMITER;
-				return -1;
-			}
-			else {
-				reset();
-				return bestEndIdx;
-			}
+			return -1;
 		}
 
 		@Override
 		public byte[] delimiter() {
-			Assert.state(this.longestDelimiter != NO_DELIMITER, "Illegal state!");
-			return this.longestDelimiter;
+			Assert.state(this.longestMatcher != null, "Illegal state!");
+			return this.longestMatcher.delimiter();
 		}
 
 		@Override
 		public void reset() {
-			for (Matcher matcher : this.matchers) {
+			for (KnuthMorrisPrattMatcher matcher : this.matchers) {
 				matcher.reset();
 			}
 		}
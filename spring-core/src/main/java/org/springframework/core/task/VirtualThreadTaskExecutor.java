@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import java.lang.reflect.Method;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link TaskExecutor} implementation that fires up a new virtual Thread for
+ * each task, executing it asynchronously. Suitable for a large number of
+ * concurrent tasks which spend most of their time blocked on I/O.
+ *
+ * <p>Virtual threads are detected at runtime: on a JDK without virtual thread
+ * support, this executor falls back to the platform thread behavior of
+ * {@link SimpleAsyncTaskExecutor}. An external
+ * {@link #setThreadFactory ThreadFactory} always takes precedence.
+ *
+ * <p>Supports limiting concurrent tasks through the "concurrencyLimit" bean
+ * property, since the number of virtual threads is not bounded by a pool size,
+ * as well as a {@link #setTaskDecorator TaskDecorator} for propagating
+ * execution context. By default, the number of concurrent tasks is unlimited.
+ *
+ * <p>May be used as the executor behind {@code @EnableAsync} (e.g. exposed as
+ * {@code AsyncConfigurer#getAsyncExecutor()}), for Spring MVC's async request
+ * processing (through {@code AsyncSupportConfigurer#setTaskExecutor}), and for
+ * the invokers of a {@code DefaultMessageListenerContainer}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see #isVirtualThreadSupported()
+ * @see #setConcurrencyLimit
+ * @see #setTaskDecorator
+ */
+@SuppressWarnings("serial")
+public class VirtualThreadTaskExecutor extends SimpleAsyncTaskExecutor {
+
+	@Nullable
+	private static final Method ofVirtualMethod;
+
+	@Nullable
+	private static final Method nameMethod;
+
+	@Nullable
+	private static final Method unstartedMethod;
+
+	static {
+		Method ofVirtual = null;
+		Method name = null;
+		Method unstarted = null;
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			name = builderClass.getMethod("name", String.class);
+			unstarted = builderClass.getMethod("unstarted", Runnable.class);
+			// Virtual threads may be a disabled preview feature on JDK 19 and 20
+			ofVirtual.invoke(null);
+		}
+		catch (Throwable ex) {
+			ofVirtual = null;
+		}
+		ofVirtualMethod = ofVirtual;
+		nameMethod = name;
+		unstartedMethod = unstarted;
+	}
+
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with default thread name prefix.
+	 */
+	public VirtualThreadTaskExecutor() {
+		super();
+	}
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with the given thread name prefix.
+	 * @param threadNamePrefix the prefix to use for the names of newly created threads
+	 */
+	public VirtualThreadTaskExecutor(String threadNamePrefix) {
+		super(threadNamePrefix);
+	}
+
+
+	/**
+	 * Create a new virtual Thread for the given {@link Runnable}, named
+	 * according to the thread name prefix of this executor. Falls back to a
+	 * platform Thread if virtual threads are not supported by the current JDK.
+	 * <p>Thread priority, daemon flag and thread group settings do not apply
+	 * to virtual threads.
+	 */
+	@Override
+	public Thread createThread(Runnable runnable) {
+		if (ofVirtualMethod == null || nameMethod == null || unstartedMethod == null) {
+			return super.createThread(runnable);
+		}
+		Object builder = ReflectionUtils.invokeMethod(ofVirtualMethod, null);
+		builder = ReflectionUtils.invokeMethod(nameMethod, builder, nextThreadName());
+		Thread thread = (Thread) ReflectionUtils.invokeMethod(unstartedMethod, builder, runnable);
+		return (thread != null ? thread : super.createThread(runnable));
+	}
+
+
+	/**
+	 * Return whether the current JDK supports virtual threads, that is,
+	 * whether this executor runs its tasks on virtual threads by default.
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return (ofVirtualMethod != null);
+	}
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.CallbackFilter;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.NoOp;
+import org.springframework.core.SpringProperties;
+import org.springframework.util.FileCopyUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PersistentClassCache}.
+ */
+public class PersistentClassCacheTests {
+
+	@TempDir
+	File cacheDir;
+
+	private final AtomicInteger generations = new AtomicInteger();
+
+
+	@BeforeEach
+	public void enableCache() {
+		SpringProperties.setProperty(PersistentClassCache.CACHE_DIRECTORY_PROPERTY_NAME, this.cacheDir.getPath());
+	}
+
+	@AfterEach
+	public void disableCache() {
+		SpringProperties.setProperty(PersistentClassCache.CACHE_DIRECTORY_PROPERTY_NAME, null);
+	}
+
+
+	@Test
+	public void generatedClassPersistedAndReused() throws Exception {
+		Greeter first = createProxy(method -> method.getName().equals("greet") ? 0 : 1);
+		assertThat(first.greet("Juergen")).isEqualTo("Hi Juergen!");
+		assertThat(this.generations.get()).isEqualTo(1);
+		assertThat(cachedFiles()).isEqualTo(1);
+
+		Greeter second = createProxy(method -> method.getName().equals("greet") ? 0 : 1);
+		assertThat(this.generations.get()).isEqualTo(1);
+		assertThat(second.getClass()).isNotSameAs(first.getClass());
+		assertThat(second.getClass().getName()).isNotEqualTo(first.getClass().getName());
+		assertThat(second.greet("Sam")).isEqualTo("Hi Sam!");
+		assertThat(second.farewell()).isEqualTo("Bye");
+		assertThat(second).isInstanceOf(Factory.class);
+	}
+
+	@Test
+	public void differentCallbackMappingNotReused() throws Exception {
+		createProxy(method -> 0);
+		Greeter second = createProxy(method -> 1);
+		assertThat(this.generations.get()).isEqualTo(2);
+		assertThat(cachedFiles()).isEqualTo(2);
+		assertThat(second.greet("Juergen")).isEqualTo("Hello Juergen");
+	}
+
+	@Test
+	public void corruptCacheEntryRegenerated() throws Exception {
+		createProxy(method -> 0);
+		try (Stream<Path> files = Files.list(this.cacheDir.toPath())) {
+			files.forEach(file -> {
+				try {
+					Files.write(file, new byte[] {1, 2, 3});
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException(ex);
+				}
+			});
+		}
+		Greeter proxy = createProxy(method -> 0);
+		assertThat(this.generations.get()).isEqualTo(2);
+		assertThat(proxy.greet("Juergen")).isEqualTo("Hi Juergen!");
+	}
+
+	@Test
+	public void interfaceWithoutClassFileNotCached() throws Exception {
+		ClassLoader classLoader = new HidingClassLoader(getClass().getClassLoader(), Polite.class.getName());
+		Class<?> politeInterface = classLoader.loadClass(Polite.class.getName());
+		assertThat(politeInterface).isNotSameAs(Polite.class);
+
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(Greeter.class);
+		enhancer.setInterfaces(new Class<?>[] {politeInterface});
+		enhancer.setClassLoader(classLoader);
+		enhancer.setUseCache(false);
+		enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
+		enhancer.setStrategy(new CountingGeneratorStrategy(classLoader, this.generations));
+		enhancer.setCallback(NoOp.INSTANCE);
+		assertThat(politeInterface.isInstance(enhancer.create())).isTrue();
+		assertThat(cachedFiles()).isEqualTo(0);
+	}
+
+	@Test
+	public void noCacheWithoutConfiguredDirectory() throws Exception {
+		disableCache();
+		createProxy(method -> 0);
+		createProxy(method -> 0);
+		assertThat(this.generations.get()).isEqualTo(2);
+		assertThat(cachedFiles()).isEqualTo(0);
+	}
+
+
+	private Greeter createProxy(CallbackFilter filter) {
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(Greeter.class);
+		enhancer.setUseCache(false);
+		enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
+		enhancer.setStrategy(new CountingGeneratorStrategy(getClass().getClassLoader(), this.generations));
+		enhancer.setCallbackFilter(filter);
+		enhancer.setCallbacks(new Callback[] {
+				(MethodInterceptor) (obj, method, args, proxy) -> "Hi " + args[0] + "!",
+				NoOp.INSTANCE
+		});
+		return (Greeter) enhancer.create();
+	}
+
+	private long cachedFiles() throws Exception {
+		try (Stream<Path> files = Files.list(this.cacheDir.toPath())) {
+			return files.filter(file -> file.toString().endsWith(".class")).count();
+		}
+	}
+
+
+	public static class Greeter {
+
+		public String greet(String name) {
+			return "Hello " + name;
+		}
+
+		public String farewell() {
+			return "Bye";
+		}
+	}
+
+
+	public interface Polite {
+	}
+
+
+	/**
+	 * Defines the given class itself, without exposing its class file.
+	 */
+	private static class HidingClassLoader extends ClassLoader {
+
+		private final String hiddenClassName;
+
+		HidingClassLoader(ClassLoader parent, String hiddenClassName) {
+			super(parent);
+			this.hiddenClassName = hiddenClassName;
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!name.equals(this.hiddenClassName)) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> clazz = findLoadedClass(name);
+				if (clazz == null) {
+					try (InputStream is = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+						byte[] bytes = FileCopyUtils.copyToByteArray(is);
+						clazz = defineClass(name, bytes, 0, bytes.length);
+					}
+					catch (IOException ex) {
+						throw new ClassNotFoundException(name, ex);
+					}
+				}
+				return clazz;
+			}
+		}
+
+		@Override
+		public InputStream getResourceAsStream(String name) {
+			return (name.equals(this.hiddenClassName.replace('.', '/') + ".class") ? null :
+					super.getResourceAsStream(name));
+		}
+	}
+
+
+	private static class CountingGeneratorStrategy extends ClassLoaderAwareGeneratorStrategy {
+
+		private final AtomicInteger generations;
+
+		CountingGeneratorStrategy(ClassLoader classLoader, AtomicInteger generations) {
+			super(classLoader);
+			this.generations = generations;
+		}
+
+		@Override
+		protected ClassGenerator transform(ClassGenerator cg) throws Exception {
+			this.generations.incrementAndGet();
+			return super.transform(cg);
+		}
+	}
+
+}
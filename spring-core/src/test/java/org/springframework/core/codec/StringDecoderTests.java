@@ -127,6 +127,24 @@ class StringDecoderTests extends AbstractDecoderTests<StringDecoder> {
 				.verify());
 	}
 
+	@Test
+	void decodeLongLinesSingleByteDelimiter() {
+		String first = String.join("", Collections.nCopies(10, "0123456789"));
+		String second = String.join("", Collections.nCopies(5, "abcdefghij"));
+		Flux<DataBuffer> input = Flux.just(
+				stringBuffer(first + "\n" + second),
+				stringBuffer(second + "\n")
+		);
+
+		this.decoder = StringDecoder.allMimeTypes(Collections.singletonList("\n"), true);
+
+		testDecode(input, String.class, step -> step
+				.expectNext(first)
+				.expectNext(second + second)
+				.expectComplete()
+				.verify());
+	}
+
 	@Test
 	void decodeNewLineIncludeDelimiters() {
 		this.decoder = StringDecoder.allMimeTypes(StringDecoder.DEFAULT_DELIMITERS, false);
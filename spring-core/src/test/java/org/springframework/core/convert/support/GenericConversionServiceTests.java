@@ -473,6 +473,40 @@ class GenericConversionServiceTests {
 		assertThat(conversionService.canConvert(String.class, Color.class)).isFalse();
 	}
 
+	@Test
+	void removeConvertibleAfterConversion() {
+		conversionService.addConverter(new ColorConverter());
+		assertThat(conversionService.convert("#000000", Color.class)).isEqualTo(Color.BLACK);
+		conversionService.removeConvertible(String.class, Color.class);
+		assertThatExceptionOfType(ConverterNotFoundException.class).isThrownBy(() ->
+				conversionService.convert("#000000", Color.class));
+	}
+
+	@Test
+	void conditionalConverterMatchedOncePerClassPair() {
+		MyConditionalConverter converter = new MyConditionalConverter();
+		conversionService.addConverter(new ColorConverter());
+		conversionService.addConverter(converter);
+		assertThat(conversionService.convert("#000000", Color.class)).isEqualTo(Color.BLACK);
+		int matchAttempts = converter.getMatchAttempts();
+		assertThat(conversionService.convert("#FFFFFF", Color.class)).isEqualTo(Color.WHITE);
+		assertThat(conversionService.canConvert(String.class, Color.class)).isTrue();
+		assertThat(conversionService.convert("#000000", TypeDescriptor.valueOf(String.class),
+				TypeDescriptor.valueOf(Color.class))).isEqualTo(Color.BLACK);
+		assertThat(converter.getMatchAttempts()).isEqualTo(matchAttempts);
+	}
+
+	@Test
+	void conditionalConverterForAnnotatedTypeNotSharedWithClassPair() throws Exception {
+		conversionService.addConverter(new ColorConverter());
+		conversionService.addConverter(new MyConditionalColorConverter());
+
+		assertThat(conversionService.convert("#000000", Color.class)).isEqualTo(Color.BLACK);
+		assertThat(conversionService.convert("000000xxxx",
+				new TypeDescriptor(getClass().getField("activeColor")))).isEqualTo(Color.BLACK);
+		assertThat(conversionService.convert(" #000000 ", Color.class)).isEqualTo(Color.BLACK);
+	}
+
 	@Test
 	void conditionalConverter() {
 		MyConditionalConverter converter = new MyConditionalConverter();
@@ -332,4 +332,85 @@ class PropertySourcesPropertyResolverTests {
 			.withMessageContaining("Could not resolve placeholder 'bogus' in value \"${p1}:${p2}:${bogus}\"");
 	}
 
+	@Test
+	void getProperty_withCacheResolvedProperties() {
+		MutablePropertySources ps = new MutablePropertySources();
+		MockPropertySource mps = new MockPropertySource().withProperty("p1", "v1").withProperty("p2", "${p1}");
+		ps.addFirst(mps);
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setCacheResolvedProperties(true);
+		assertThat(pr.getProperty("p2")).isEqualTo("v1");
+		assertThat(pr.getProperty("p3")).isNull();
+
+		// in-place changes are not detected while cached...
+		mps.setProperty("p1", "v1b");
+		mps.setProperty("p3", "v3");
+		assertThat(pr.getProperty("p2")).isEqualTo("v1");
+		assertThat(pr.getProperty("p3")).isNull();
+
+		// ...until explicitly cleared
+		pr.clearCache();
+		assertThat(pr.getProperty("p2")).isEqualTo("v1b");
+		assertThat(pr.getProperty("p3")).isEqualTo("v3");
+	}
+
+	@Test
+	void getProperty_withCacheResolvedProperties_invalidatedOnPropertySourcesChange() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addFirst(new MockPropertySource("ps1").withProperty("pName", "ps1Value"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setCacheResolvedProperties(true);
+		assertThat(pr.getProperty("pName")).isEqualTo("ps1Value");
+		ps.addFirst(new MockPropertySource("ps2").withProperty("pName", "ps2Value"));
+		assertThat(pr.getProperty("pName")).isEqualTo("ps2Value");
+		ps.replace("ps2", new MockPropertySource("ps2").withProperty("pName", "ps2Replaced"));
+		assertThat(pr.getProperty("pName")).isEqualTo("ps2Replaced");
+		ps.remove("ps2");
+		assertThat(pr.getProperty("pName")).isEqualTo("ps1Value");
+	}
+
+	@Test
+	void getProperty_withCacheResolvedProperties_respectsPrecedenceOfNonIndexedSources() {
+		Map<String, Object> nullableProperties = new HashMap<>();
+		nullableProperties.put("foo", null);
+		Map<String, Object> env = new HashMap<>();
+		env.put("FOO_BAR", "fromEnv");
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addLast(new MapPropertySource("nullable", nullableProperties));
+		ps.addLast(new PropertySource<Object>("custom") {
+			@Override
+			public Object getProperty(String name) {
+				return ("foo".equals(name) ? "fromCustom" : null);
+			}
+		});
+		ps.addLast(new MockPropertySource("mock").withProperty("foo", "fromMock").withProperty("bar", "fromMock"));
+		ps.addLast(new SystemEnvironmentPropertySource("env", env));
+		ps.addLast(new MockPropertySource("last").withProperty("foo.bar", "fromLast"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setCacheResolvedProperties(true);
+		assertThat(pr.getProperty("foo")).isEqualTo("fromCustom");
+		assertThat(pr.getProperty("bar")).isEqualTo("fromMock");
+		assertThat(pr.getProperty("foo.bar")).isEqualTo("fromEnv");
+		assertThat(pr.getProperty("baz")).isNull();
+	}
+
+	@Test
+	void ignoreUnresolvableNestedPlaceholdersWithCacheResolvedProperties() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addFirst(new MockPropertySource()
+			.withProperty("p1", "v1")
+			.withProperty("p4", "${p1}:${bogus}")
+		);
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setCacheResolvedProperties(true);
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				pr.getProperty("p4"))
+			.withMessageContaining("Could not resolve placeholder 'bogus' in value \"${p1}:${bogus}\"");
+		pr.setIgnoreUnresolvableNestedPlaceholders(true);
+		assertThat(pr.getProperty("p4")).isEqualTo("v1:${bogus}");
+		pr.setIgnoreUnresolvableNestedPlaceholders(false);
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				pr.getProperty("p4"));
+	}
+
 }
@@ -31,7 +31,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 
 import io.netty.buffer.ByteBuf;
@@ -219,6 +221,101 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 		subscriber.cancel();
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void readAsynchronousFileChannelWithReadAhead(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		URI uri = this.resource.getURI();
+		Flux<DataBuffer> flux = DataBufferUtils.readAsynchronousFileChannel(
+				() -> AsynchronousFileChannel.open(Paths.get(uri), StandardOpenOption.READ),
+				0, super.bufferFactory, 3, 3);
+
+		verifyReadData(flux);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readAsynchronousFileChannelWithReadAheadPosition(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		URI uri = this.resource.getURI();
+		Flux<DataBuffer> flux = DataBufferUtils.readAsynchronousFileChannel(
+				() -> AsynchronousFileChannel.open(Paths.get(uri), StandardOpenOption.READ),
+				6, super.bufferFactory, 3, 4);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("baz"))
+				.consumeNextWith(stringConsumer("qux"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readAsynchronousFileChannelWithReadAheadCancel(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		URI uri = this.resource.getURI();
+		Flux<DataBuffer> flux = DataBufferUtils.readAsynchronousFileChannel(
+				() -> AsynchronousFileChannel.open(Paths.get(uri), StandardOpenOption.READ),
+				0, super.bufferFactory, 3, 2);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("foo"))
+				.thenCancel()
+				.verify();
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readAsynchronousFileChannelWithReadAheadError(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		AsynchronousFileChannel channel = mock(AsynchronousFileChannel.class);
+		willAnswer(invocation -> {
+			ByteBuffer byteBuffer = invocation.getArgument(0);
+			long pos = invocation.getArgument(1);
+			Object attachment = invocation.getArgument(2);
+			CompletionHandler<Integer, Object> completionHandler = invocation.getArgument(3);
+			if (pos == 0) {
+				byteBuffer.put("foo".getBytes(StandardCharsets.UTF_8));
+				completionHandler.completed(3, attachment);
+			}
+			else {
+				completionHandler.failed(new IOException(), attachment);
+			}
+			return null;
+		}).given(channel).read(any(), anyLong(), any(), any());
+
+		Flux<DataBuffer> result = DataBufferUtils.readAsynchronousFileChannel(
+				() -> channel, 0, super.bufferFactory, 3, 2);
+
+		StepVerifier.create(result)
+				.consumeNextWith(stringConsumer("foo"))
+				.expectError(IOException.class)
+				.verify(Duration.ofSeconds(3));
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedFile(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Flux<DataBuffer> flux = DataBufferUtils.readMappedFile(
+				this.resource.getFile().toPath(), 0, super.bufferFactory, 3);
+
+		verifyReadData(flux);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedFilePosition(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Flux<DataBuffer> flux = DataBufferUtils.readMappedFile(
+				this.resource.getFile().toPath(), 9, super.bufferFactory, 3);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("qux"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
 	@ParameterizedDataBufferAllocatingTest
 	void readPath(String displayName, DataBufferFactory bufferFactory) throws Exception {
 		super.bufferFactory = bufferFactory;
@@ -420,6 +517,86 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 		channel.close();
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void writeAsynchronousFileChannelConcurrently(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer foo = stringBuffer("foo");
+		DataBuffer bar = stringBuffer("bar");
+		DataBuffer baz = stringBuffer("baz");
+		DataBuffer qux = stringBuffer("qux");
+		Flux<DataBuffer> flux = Flux.just(foo, bar, baz, qux);
+
+		AsynchronousFileChannel channel =
+				AsynchronousFileChannel.open(tempFile, StandardOpenOption.WRITE);
+
+		Flux<DataBuffer> writeResult = DataBufferUtils.write(flux, channel, 0, 3);
+		verifyWrittenData(writeResult);
+		channel.close();
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void writeAsynchronousFileChannelConcurrentlyErrorInFlux(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer foo = stringBuffer("foo");
+		DataBuffer bar = stringBuffer("bar");
+		Flux<DataBuffer> flux = Flux.just(foo, bar).concatWith(Mono.error(new RuntimeException()));
+
+		AsynchronousFileChannel channel =
+				AsynchronousFileChannel.open(tempFile, StandardOpenOption.WRITE);
+
+		Flux<DataBuffer> writeResult = DataBufferUtils.write(flux, channel, 0, 2);
+		StepVerifier.create(writeResult)
+				.consumeNextWith(stringConsumer("foo"))
+				.consumeNextWith(stringConsumer("bar"))
+				.expectError(RuntimeException.class)
+				.verify(Duration.ofSeconds(3));
+
+		String result = String.join("", Files.readAllLines(tempFile));
+		assertThat(result).isEqualTo("foobar");
+		channel.close();
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void writePathConcurrently(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer foo = stringBuffer("foo");
+		DataBuffer bar = stringBuffer("bar");
+		DataBuffer baz = stringBuffer("baz");
+		Flux<DataBuffer> flux = Flux.just(foo, bar, baz);
+
+		Mono<Void> result = DataBufferUtils.write(flux, tempFile, 2);
+
+		StepVerifier.create(result)
+				.verifyComplete();
+
+		List<String> written = Files.readAllLines(tempFile);
+		assertThat(written).contains("foobarbaz");
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readAndWriteAsynchronousFileChannelConcurrently(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		byte[] content = new byte[256 * 1024 + 17];
+		new Random(42).nextBytes(content);
+		Path source = Files.createTempFile("DataBufferUtilsTests", null);
+		Files.write(source, content);
+		Path destination = Files.createTempFile("DataBufferUtilsTests", null);
+
+		Flux<DataBuffer> sourceFlux = DataBufferUtils.readAsynchronousFileChannel(
+				() -> AsynchronousFileChannel.open(source, StandardOpenOption.READ),
+				0, super.bufferFactory, 1024, 8);
+
+		StepVerifier.create(DataBufferUtils.write(sourceFlux, destination, 4))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+
+		assertThat(Files.readAllBytes(destination)).isEqualTo(content);
+	}
+
 	private void verifyWrittenData(Flux<DataBuffer> writeResult) throws IOException {
 		StepVerifier.create(writeResult)
 				.consumeNextWith(stringConsumer("foo"))
@@ -888,6 +1065,92 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 		release(foo);
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void matcherSingleByte(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer buffer = stringBuffer("abcdefghijklmnopqrstuvwxyz\n0123456789\n");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher("\n".getBytes(StandardCharsets.UTF_8));
+		assertThat(matcher.match(buffer)).isEqualTo(26);
+		assertThat(matcher.delimiter()).isEqualTo("\n".getBytes(StandardCharsets.UTF_8));
+		buffer.readPosition(27);
+		assertThat(matcher.match(buffer)).isEqualTo(37);
+		buffer.readPosition(38);
+		assertThat(matcher.match(buffer)).isEqualTo(-1);
+
+		release(buffer);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void matcherSingleByteAtEveryPosition(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		byte[] bytes = new byte[40];
+		Arrays.fill(bytes, (byte) 0x01);
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(new byte[] {0x00});
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = 0x00;
+			DataBuffer buffer = bufferFactory.allocateBuffer(bytes.length);
+			buffer.write(bytes);
+			assertThat(matcher.match(buffer)).isEqualTo(i);
+			release(buffer);
+			bytes[i] = 0x01;
+		}
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void matcherMultipleDelimiters(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer buffer = stringBuffer("foo\nbar\r\nbaz");
+
+		byte[][] delimiters = new byte[][] {
+				"\r\n".getBytes(StandardCharsets.UTF_8), "\n".getBytes(StandardCharsets.UTF_8)};
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(delimiters);
+		assertThat(matcher.match(buffer)).isEqualTo(3);
+		assertThat(matcher.delimiter()).isEqualTo("\n".getBytes(StandardCharsets.UTF_8));
+		buffer.readPosition(4);
+		assertThat(matcher.match(buffer)).isEqualTo(8);
+		assertThat(matcher.delimiter()).isEqualTo("\r\n".getBytes(StandardCharsets.UTF_8));
+		buffer.readPosition(9);
+		assertThat(matcher.match(buffer)).isEqualTo(-1);
+
+		release(buffer);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void matcherMultipleDelimitersEarliestMatch(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer buffer = stringBuffer("a--b---c");
+
+		byte[][] delimiters = new byte[][] {
+				"---".getBytes(StandardCharsets.UTF_8), "b".getBytes(StandardCharsets.UTF_8)};
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(delimiters);
+		assertThat(matcher.match(buffer)).isEqualTo(3);
+		assertThat(matcher.delimiter()).isEqualTo("b".getBytes(StandardCharsets.UTF_8));
+
+		release(buffer);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void matcherMultipleDelimitersAcrossBuffers(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer foo = stringBuffer("foo\r");
+		DataBuffer bar = stringBuffer("\nbar");
+
+		byte[][] delimiters = new byte[][] {
+				"\r\n".getBytes(StandardCharsets.UTF_8), "\n".getBytes(StandardCharsets.UTF_8)};
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(delimiters);
+		assertThat(matcher.match(foo)).isEqualTo(-1);
+		assertThat(matcher.match(bar)).isEqualTo(0);
+		assertThat(matcher.delimiter()).isEqualTo("\r\n".getBytes(StandardCharsets.UTF_8));
+
+		release(foo, bar);
+	}
+
 
 	private static class ZeroDemandSubscriber extends BaseSubscriber<DataBuffer> {
 
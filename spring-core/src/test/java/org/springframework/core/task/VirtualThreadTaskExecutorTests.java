@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.ConcurrencyThrottleSupport;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Unit tests for {@link VirtualThreadTaskExecutor}.
+ */
+class VirtualThreadTaskExecutorTests {
+
+	@Test
+	void executesOnVirtualThreadIfSupported() throws Exception {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("vt-");
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		Future<?> future = executor.submit(() -> thread.set(Thread.currentThread()));
+		future.get(5, TimeUnit.SECONDS);
+
+		assertThat(thread.get().getName()).startsWith("vt-");
+		assertThat(isVirtual(thread.get())).isEqualTo(VirtualThreadTaskExecutor.isVirtualThreadSupported());
+	}
+
+	@Test
+	void threadFactoryOverridesVirtualThreads() throws Exception {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+		executor.setThreadFactory(runnable -> new Thread(runnable, "test"));
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		executor.submit(() -> thread.set(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+
+		assertThat(thread.get().getName()).isEqualTo("test");
+		assertThat(isVirtual(thread.get())).isFalse();
+	}
+
+	@Test
+	void taskDecoratorIsApplied() throws Exception {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+		AtomicInteger decorated = new AtomicInteger();
+		executor.setTaskDecorator(runnable -> () -> {
+			decorated.incrementAndGet();
+			runnable.run();
+		});
+		executor.submit(() -> {}).get(5, TimeUnit.SECONDS);
+
+		assertThat(decorated.get()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrencyLimitIsEnforced() throws Exception {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+		executor.setConcurrencyLimit(2);
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(10);
+		for (int i = 0; i < 10; i++) {
+			executor.execute(() -> {
+				int current = active.incrementAndGet();
+				maxActive.accumulateAndGet(current, Math::max);
+				try {
+					Thread.sleep(10);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				active.decrementAndGet();
+				done.countDown();
+			});
+		}
+
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(maxActive.get()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void cannotExecuteWhenConcurrencyIsSwitchedOff() {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+		executor.setConcurrencyLimit(ConcurrencyThrottleSupport.NO_CONCURRENCY);
+		assertThatIllegalStateException().isThrownBy(() -> executor.execute(() -> {}));
+	}
+
+
+	private static boolean isVirtual(Thread thread) {
+		Method isVirtual = ReflectionUtils.findMethod(Thread.class, "isVirtual");
+		return (isVirtual != null && (Boolean) ReflectionUtils.invokeMethod(isVirtual, thread));
+	}
+
+}
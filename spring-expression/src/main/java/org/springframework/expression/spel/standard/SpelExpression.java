@@ -73,8 +73,9 @@ public class SpelExpression implements Expression {
 	// when certain limit reached
 	private final AtomicInteger interpretedCount = new AtomicInteger(0);
 
-	// The number of times compilation was attempted and failed - enables us to eventually
-	// give up trying to compile it when it just doesn't seem to be possible.
+	// The number of times compilation was attempted and failed, or the compiled form failed
+	// at runtime in mixed mode - enables us to eventually give up trying to compile it when
+	// it just doesn't seem to be possible.
 	private volatile int failedAttempts = 0;
 
 
@@ -128,6 +129,7 @@ public class SpelExpression implements Expression {
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
 					this.interpretedCount.set(0);
 					this.compiledAst = null;
+					this.failedAttempts++;
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -163,6 +165,7 @@ public class SpelExpression implements Expression {
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
 					this.interpretedCount.set(0);
 					this.compiledAst = null;
+					this.failedAttempts++;
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -190,6 +193,7 @@ public class SpelExpression implements Expression {
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
 					this.interpretedCount.set(0);
 					this.compiledAst = null;
+					this.failedAttempts++;
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -225,6 +229,7 @@ public class SpelExpression implements Expression {
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
 					this.interpretedCount.set(0);
 					this.compiledAst = null;
+					this.failedAttempts++;
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -255,6 +260,7 @@ public class SpelExpression implements Expression {
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
 					this.interpretedCount.set(0);
 					this.compiledAst = null;
+					this.failedAttempts++;
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -290,6 +296,7 @@ public class SpelExpression implements Expression {
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
 					this.interpretedCount.set(0);
 					this.compiledAst = null;
+					this.failedAttempts++;
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -318,6 +325,7 @@ public class SpelExpression implements Expression {
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
 					this.interpretedCount.set(0);
 					this.compiledAst = null;
+					this.failedAttempts++;
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -355,6 +363,7 @@ public class SpelExpression implements Expression {
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
 					this.interpretedCount.set(0);
 					this.compiledAst = null;
+					this.failedAttempts++;
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
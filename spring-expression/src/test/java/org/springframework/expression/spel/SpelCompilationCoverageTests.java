@@ -1807,6 +1807,28 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertThat(expression.getValue(context, Boolean.class)).isTrue();
 	}
 
+	@Test
+	public void mixedModeGivesUpAfterRepeatedFailuresOfCompiledForm() {
+		SpelParserConfiguration configuration =
+				new SpelParserConfiguration(SpelCompilerMode.MIXED, ClassLoader.getSystemClassLoader());
+		SpelExpressionParser parser = new SpelExpressionParser(configuration);
+		SpelExpression expression = (SpelExpression) parser.parseExpression("#v");
+		StandardEvaluationContext context = new StandardEvaluationContext();
+
+		for (int i = 0; i <= 100; i++) {
+			context.setVariable("v", "abc");
+			assertThat(expression.getValue(context)).isEqualTo("abc");
+			assertThat(expression.compileExpression()).isTrue();
+			// Compiled form casts to String -> reverts to interpreted mode
+			context.setVariable("v", 42);
+			assertThat(expression.getValue(context)).isEqualTo(42);
+		}
+
+		context.setVariable("v", "abc");
+		assertThat(expression.getValue(context)).isEqualTo("abc");
+		assertThat(expression.compileExpression()).isFalse();
+	}
+
 	@Test
 	public void opEq_SPR14863() throws Exception {
 		// Exercise the comparator invocation code that runs in
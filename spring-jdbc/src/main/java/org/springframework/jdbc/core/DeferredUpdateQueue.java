@@ -0,0 +1,382 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.Ordered;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DeferredStatements;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+/**
+ * Write-behind queue for updates deferred through {@link JdbcTemplate#deferUpdate},
+ * attached to the transactional {@link ConnectionHolder} as its
+ * {@link DeferredStatements}.
+ *
+ * <p>Consecutive updates with identical SQL (issued through the same JdbcTemplate,
+ * with the same generated keys requirement) are combined into a single JDBC batch,
+ * while the overall order of statements is preserved. The queue is flushed when
+ * the Connection is requested for any other use, when a returned future is
+ * queried through {@code get()}, and before the transaction commits; on
+ * rollback, pending updates are dropped and their futures cancelled.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ */
+final class DeferredUpdateQueue implements DeferredStatements, TransactionSynchronization, Ordered {
+
+	private static final Log logger = LogFactory.getLog(DeferredUpdateQueue.class);
+
+
+	private final Object resourceKey;
+
+	private final ConnectionHolder connectionHolder;
+
+	private final Deque<Batch> batches = new ArrayDeque<>();
+
+	private boolean flushing;
+
+
+	private DeferredUpdateQueue(Object resourceKey, ConnectionHolder connectionHolder) {
+		this.resourceKey = resourceKey;
+		this.connectionHolder = connectionHolder;
+	}
+
+
+	/**
+	 * Return the queue for the given transactional ConnectionHolder,
+	 * creating and registering it on first access.
+	 * @param resourceKey the key that the ConnectionHolder is bound to
+	 * (typically the DataSource)
+	 * @param connectionHolder the ConnectionHolder of the current transaction
+	 */
+	static DeferredUpdateQueue forConnectionHolder(Object resourceKey, ConnectionHolder connectionHolder) {
+		DeferredStatements deferredStatements = connectionHolder.getDeferredStatements();
+		if (deferredStatements instanceof DeferredUpdateQueue) {
+			return (DeferredUpdateQueue) deferredStatements;
+		}
+		// Execute any foreign deferred statements before taking over.
+		connectionHolder.flushDeferredStatements();
+		DeferredUpdateQueue queue = new DeferredUpdateQueue(resourceKey, connectionHolder);
+		connectionHolder.setDeferredStatements(queue);
+		TransactionSynchronizationManager.registerSynchronization(queue);
+		return queue;
+	}
+
+
+	/**
+	 * Add an update to the queue.
+	 * @param template the JdbcTemplate to apply statement settings and exception translation from
+	 * @param sql the SQL update
+	 * @param pss the setter for the update's parameters
+	 * @param returnKeys whether to retrieve generated keys
+	 * @return the queued update
+	 */
+	DeferredUpdate add(JdbcTemplate template, String sql, PreparedStatementSetter pss, boolean returnKeys) {
+		Batch batch = this.batches.peekLast();
+		if (batch == null || !batch.isCompatible(template, sql, returnKeys)) {
+			batch = new Batch(template, sql, returnKeys);
+			this.batches.add(batch);
+		}
+		DeferredUpdate update = new DeferredUpdate(pss, returnKeys);
+		batch.updates.add(update);
+		return update;
+	}
+
+
+	@Override
+	public boolean hasPendingStatements() {
+		// Not while flushing: exception translation may re-obtain the Connection
+		return (!this.flushing && !this.batches.isEmpty());
+	}
+
+	@Override
+	public void flush(Connection con) throws DataAccessException {
+		if (this.flushing) {
+			return;
+		}
+		this.flushing = true;
+		try {
+			Batch batch;
+			while ((batch = this.batches.poll()) != null) {
+				try {
+					batch.execute(con);
+				}
+				catch (RuntimeException ex) {
+					// Also covers failures of a parameter setter or row mapper
+					for (DeferredUpdate update : batch.updates) {
+						update.fail(ex);
+					}
+					for (Batch remaining : this.batches) {
+						for (DeferredUpdate update : remaining.updates) {
+							update.fail(ex);
+						}
+					}
+					this.batches.clear();
+					// Later updates are lost: the transaction must not commit
+					this.connectionHolder.setRollbackOnly();
+					throw ex;
+				}
+			}
+		}
+		finally {
+			this.flushing = false;
+		}
+	}
+
+	@Override
+	public void discard() {
+		Batch batch;
+		while ((batch = this.batches.poll()) != null) {
+			for (DeferredUpdate update : batch.updates) {
+				update.cancel();
+			}
+		}
+	}
+
+
+	@Override
+	public int getOrder() {
+		// Flush before the Connection gets cleaned up
+		return DataSourceUtils.CONNECTION_SYNCHRONIZATION_ORDER - 1;
+	}
+
+	@Override
+	public void flush() {
+		this.connectionHolder.flushDeferredStatements();
+	}
+
+	@Override
+	public void beforeCommit(boolean readOnly) {
+		this.connectionHolder.flushDeferredStatements();
+	}
+
+	@Override
+	public void afterCompletion(int status) {
+		discard();
+		if (this.connectionHolder.getDeferredStatements() == this) {
+			this.connectionHolder.setDeferredStatements(null);
+		}
+	}
+
+
+	/**
+	 * Consecutive updates sharing the same SQL, executed as one JDBC batch.
+	 */
+	private static class Batch {
+
+		private final JdbcTemplate template;
+
+		private final String sql;
+
+		private final boolean returnKeys;
+
+		private final List<DeferredUpdate> updates = new ArrayList<>();
+
+		Batch(JdbcTemplate template, String sql, boolean returnKeys) {
+			this.template = template;
+			this.sql = sql;
+			this.returnKeys = returnKeys;
+		}
+
+		boolean isCompatible(JdbcTemplate template, String sql, boolean returnKeys) {
+			return (this.template == template && this.sql.equals(sql) && this.returnKeys == returnKeys);
+		}
+
+		void execute(Connection con) throws DataAccessException {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing " + this.updates.size() + " deferred SQL update(s) [" + this.sql + "]");
+			}
+			PreparedStatement ps = null;
+			try {
+				ps = (this.returnKeys ? con.prepareStatement(this.sql, Statement.RETURN_GENERATED_KEYS) :
+						con.prepareStatement(this.sql));
+				this.template.applyStatementSettings(ps);
+				int[] rowsAffected;
+				if (this.updates.size() > 1 && JdbcUtils.supportsBatchUpdates(con)) {
+					for (DeferredUpdate update : this.updates) {
+						update.pss.setValues(ps);
+						ps.addBatch();
+					}
+					rowsAffected = ps.executeBatch();
+					if (this.returnKeys) {
+						extractGeneratedKeys(ps, this.updates);
+					}
+				}
+				else {
+					rowsAffected = new int[this.updates.size()];
+					for (int i = 0; i < rowsAffected.length; i++) {
+						this.updates.get(i).pss.setValues(ps);
+						rowsAffected[i] = ps.executeUpdate();
+						if (this.returnKeys) {
+							extractGeneratedKeys(ps, this.updates.subList(i, i + 1));
+						}
+					}
+				}
+				this.template.handleWarnings(ps);
+				for (int i = 0; i < this.updates.size(); i++) {
+					this.updates.get(i).complete(i < rowsAffected.length ? rowsAffected[i] : Statement.SUCCESS_NO_INFO);
+				}
+			}
+			catch (SQLException ex) {
+				DataAccessException dae = this.template.translateException("Deferred batch update", this.sql, ex);
+				for (DeferredUpdate update : this.updates) {
+					update.fail(dae);
+				}
+				throw dae;
+			}
+			finally {
+				for (DeferredUpdate update : this.updates) {
+					if (update.pss instanceof ParameterDisposer) {
+						((ParameterDisposer) update.pss).cleanupParameters();
+					}
+				}
+				JdbcUtils.closeStatement(ps);
+			}
+		}
+
+		private void extractGeneratedKeys(PreparedStatement ps, List<DeferredUpdate> updates) throws SQLException {
+			ResultSet keys = ps.getGeneratedKeys();
+			if (keys != null) {
+				try {
+					// Assuming one generated key row per update, in statement order
+					RowMapper<Map<String, Object>> rowMapper = this.template.getColumnMapRowMapper();
+					int rowNum = 0;
+					while (rowNum < updates.size() && keys.next()) {
+						updates.get(rowNum).keyHolder.getKeyList().add(rowMapper.mapRow(keys, rowNum));
+						rowNum++;
+					}
+				}
+				finally {
+					JdbcUtils.closeResultSet(keys);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * A single deferred update with its futures.
+	 */
+	final class DeferredUpdate {
+
+		final PreparedStatementSetter pss;
+
+		final KeyHolder keyHolder = new GeneratedKeyHolder();
+
+		private final DeferredFuture<Integer> updateCount = new DeferredFuture<>();
+
+		@Nullable
+		private final DeferredFuture<KeyHolder> generatedKeys;
+
+		DeferredUpdate(PreparedStatementSetter pss, boolean returnKeys) {
+			this.pss = pss;
+			this.generatedKeys = (returnKeys ? new DeferredFuture<>() : null);
+		}
+
+		ListenableFuture<Integer> getUpdateCount() {
+			return this.updateCount;
+		}
+
+		ListenableFuture<KeyHolder> getGeneratedKeys() {
+			if (this.generatedKeys == null) {
+				throw new IllegalStateException("Generated keys not requested");
+			}
+			return this.generatedKeys;
+		}
+
+		void complete(int rowsAffected) {
+			this.updateCount.set(rowsAffected);
+			if (this.generatedKeys != null) {
+				this.generatedKeys.set(this.keyHolder);
+			}
+		}
+
+		void fail(Throwable ex) {
+			this.updateCount.setException(ex);
+			if (this.generatedKeys != null) {
+				this.generatedKeys.setException(ex);
+			}
+		}
+
+		void cancel() {
+			this.updateCount.cancel(false);
+			if (this.generatedKeys != null) {
+				this.generatedKeys.cancel(false);
+			}
+		}
+	}
+
+
+	/**
+	 * Future that flushes the queue when its result is requested before
+	 * the update has been executed, since that only happens on flush.
+	 * Only the thread that the transaction is bound to flushes; any other
+	 * thread waits for the transaction to flush or discard the update.
+	 */
+	private class DeferredFuture<T> extends SettableListenableFuture<T> {
+
+		@Override
+		public T get() throws InterruptedException, ExecutionException {
+			flushIfNecessary();
+			return super.get();
+		}
+
+		@Override
+		public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+			flushIfNecessary();
+			return super.get(timeout, unit);
+		}
+
+		private void flushIfNecessary() {
+			if (!isDone() && TransactionSynchronizationManager.getResource(resourceKey) == connectionHolder) {
+				try {
+					connectionHolder.flushDeferredStatements();
+				}
+				catch (DataAccessException ex) {
+					// Reported through the futures of all updates that were pending, including this one
+				}
+			}
+		}
+	}
+
+}
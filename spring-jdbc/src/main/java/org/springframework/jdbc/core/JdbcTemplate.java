@@ -42,16 +42,21 @@ import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.jdbc.SQLWarningException;
 import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.datasource.ConnectionHolder;
 import org.springframework.jdbc.datasource.ConnectionProxy;
 import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.JdbcAccessor;
 import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.StringUtils;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
 
 /**
  * <b>This is the central class in the JDBC core package.</b>
@@ -927,6 +932,118 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return update(sql, newArgPreparedStatementSetter(args));
 	}
 
+	/**
+	 * Issue a single SQL update operation (such as an insert, update or delete
+	 * statement) via a prepared statement, deferred within the current transaction.
+	 * <p>Within a transaction that has a Connection bound for this template's
+	 * DataSource (e.g. driven by
+	 * {@link org.springframework.jdbc.datasource.DataSourceTransactionManager}),
+	 * the update is queued on the transactional
+	 * {@link org.springframework.jdbc.datasource.ConnectionHolder} instead of being
+	 * executed right away. Consecutive deferred updates with the same SQL are sent
+	 * as a single JDBC batch once the queue is flushed: before the Connection is
+	 * used for any other statement, when the result of a returned future is
+	 * requested, and before the transaction commits. Outside of such a
+	 * transaction (including an empty transaction scope with synchronization
+	 * only), the update is executed immediately.
+	 * <p>A deferred update that fails is reported through its future as well as
+	 * through the operation that triggered the flush, and marks the transaction
+	 * rollback-only since any updates queued after it are dropped. Futures of
+	 * updates dropped by a rollback get cancelled.
+	 * @param sql the SQL containing bind parameters
+	 * @param args arguments to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type);
+	 * may also contain {@link SqlParameterValue} objects which indicate not
+	 * only the argument value but also the SQL type and optionally the scale
+	 * @return a future for the number of rows affected, which may be
+	 * {@link java.sql.Statement#SUCCESS_NO_INFO} for a batched update
+	 * @throws DataAccessException if an immediately executed update failed
+	 * @since 5.3
+	 * @see org.springframework.jdbc.datasource.DeferredStatements
+	 */
+	public ListenableFuture<Integer> deferUpdate(String sql, @Nullable Object... args) throws DataAccessException {
+		return deferUpdate(sql, newArgPreparedStatementSetter(args));
+	}
+
+	/**
+	 * Issue an update statement using a PreparedStatementSetter to set bind parameters,
+	 * deferred within the current transaction.
+	 * <p>See {@link #deferUpdate(String, Object...)} for details on deferral.
+	 * @param sql the SQL containing bind parameters
+	 * @param pss helper that sets bind parameters; note that it will only
+	 * be invoked once the deferred update is actually executed
+	 * @return a future for the number of rows affected
+	 * @throws DataAccessException if an immediately executed update failed
+	 * @since 5.3
+	 */
+	public ListenableFuture<Integer> deferUpdate(String sql, PreparedStatementSetter pss) throws DataAccessException {
+		DeferredUpdateQueue queue = getDeferredUpdateQueue();
+		if (queue != null) {
+			return queue.add(this, sql, pss, false).getUpdateCount();
+		}
+		SettableListenableFuture<Integer> future = new SettableListenableFuture<>();
+		future.set(update(sql, pss));
+		return future;
+	}
+
+	/**
+	 * Issue an insert statement via a prepared statement, deferred within the
+	 * current transaction, retrieving the keys generated by the database.
+	 * <p>See {@link #deferUpdate(String, Object...)} for details on deferral.
+	 * For batched inserts, generated keys are assigned to the individual inserts
+	 * in statement order, assuming that each insert creates a single row; whether
+	 * keys are available for batches at all depends on the JDBC driver.
+	 * @param sql the SQL containing bind parameters
+	 * @param args arguments to bind to the query
+	 * @return a future for the generated keys
+	 * @throws DataAccessException if an immediately executed update failed
+	 * @since 5.3
+	 * @see java.sql.Statement#RETURN_GENERATED_KEYS
+	 */
+	public ListenableFuture<KeyHolder> deferUpdateReturningKeys(String sql, @Nullable Object... args)
+			throws DataAccessException {
+
+		PreparedStatementSetter pss = newArgPreparedStatementSetter(args);
+		DeferredUpdateQueue queue = getDeferredUpdateQueue();
+		if (queue != null) {
+			return queue.add(this, sql, pss, true).getGeneratedKeys();
+		}
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		try {
+			update(con -> {
+				PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+				pss.setValues(ps);
+				return ps;
+			}, keyHolder);
+		}
+		finally {
+			if (pss instanceof ParameterDisposer) {
+				((ParameterDisposer) pss).cleanupParameters();
+			}
+		}
+		SettableListenableFuture<KeyHolder> future = new SettableListenableFuture<>();
+		future.set(keyHolder);
+		return future;
+	}
+
+	/**
+	 * Obtain the write-behind queue of the transactional Connection for this
+	 * template's DataSource, if any.
+	 */
+	@Nullable
+	private DeferredUpdateQueue getDeferredUpdateQueue() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive() ||
+				!TransactionSynchronizationManager.isActualTransactionActive()) {
+			return null;
+		}
+		DataSource dataSource = obtainDataSource();
+		Object resource = TransactionSynchronizationManager.getResource(dataSource);
+		if (!(resource instanceof ConnectionHolder) || !((ConnectionHolder) resource).isSynchronizedWithTransaction()) {
+			return null;
+		}
+		return DeferredUpdateQueue.forConnectionHolder(dataSource, (ConnectionHolder) resource);
+	}
+
 	@Override
 	public int[] batchUpdate(String sql, final BatchPreparedStatementSetter pss) throws DataAccessException {
 		if (logger.isDebugEnabled()) {
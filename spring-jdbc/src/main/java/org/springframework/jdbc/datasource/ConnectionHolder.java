@@ -60,6 +60,9 @@ public class ConnectionHolder extends ResourceHolderSupport {
 
 	private int savepointCounter = 0;
 
+	@Nullable
+	private DeferredStatements deferredStatements;
+
 
 	/**
 	 * Create a new ConnectionHolder for the given ConnectionHandle.
@@ -183,10 +186,42 @@ public class ConnectionHolder extends ResourceHolderSupport {
 	 * @throws SQLException if thrown by the JDBC driver
 	 */
 	public Savepoint createSavepoint() throws SQLException {
+		flushDeferredStatements();
 		this.savepointCounter++;
 		return getConnection().setSavepoint(SAVEPOINT_NAME_PREFIX + this.savepointCounter);
 	}
 
+	/**
+	 * Set the statements deferred on this holder's Connection.
+	 * @since 5.3
+	 * @see #flushDeferredStatements()
+	 */
+	public void setDeferredStatements(@Nullable DeferredStatements deferredStatements) {
+		this.deferredStatements = deferredStatements;
+	}
+
+	/**
+	 * Return the statements deferred on this holder's Connection, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public DeferredStatements getDeferredStatements() {
+		return this.deferredStatements;
+	}
+
+	/**
+	 * Execute any statements deferred on this holder's Connection.
+	 * @throws org.springframework.dao.DataAccessException if a deferred statement failed
+	 * @since 5.3
+	 * @see DeferredStatements#flush
+	 */
+	public void flushDeferredStatements() {
+		DeferredStatements deferredStatements = this.deferredStatements;
+		if (deferredStatements != null && deferredStatements.hasPendingStatements()) {
+			deferredStatements.flush(getConnection());
+		}
+	}
+
 	/**
 	 * Releases the current Connection held by this ConnectionHolder.
 	 * <p>This is necessary for ConnectionHandles that expect "Connection borrowing",
@@ -212,6 +247,10 @@ public class ConnectionHolder extends ResourceHolderSupport {
 		this.transactionActive = false;
 		this.savepointsSupported = null;
 		this.savepointCounter = 0;
+		if (this.deferredStatements != null) {
+			this.deferredStatements.discard();
+			this.deferredStatements = null;
+		}
 	}
 
 }
@@ -92,6 +92,8 @@ public abstract class DataSourceUtils {
 	 * <p>Is aware of a corresponding Connection bound to the current thread, for example
 	 * when using {@link DataSourceTransactionManager}. Will bind a Connection to the thread
 	 * if transaction synchronization is active (e.g. if in a JTA transaction).
+	 * Any {@link DeferredStatements} pending on a bound Connection are executed
+	 * before the Connection is returned.
 	 * <p>Directly accessed by {@link TransactionAwareDataSourceProxy}.
 	 * @param dataSource the DataSource to obtain Connections from
 	 * @return a JDBC Connection from the given DataSource
@@ -103,6 +105,10 @@ public abstract class DataSourceUtils {
 
 		ConnectionHolder conHolder = (ConnectionHolder) TransactionSynchronizationManager.getResource(dataSource);
 		if (conHolder != null && (conHolder.hasConnection() || conHolder.isSynchronizedWithTransaction())) {
+			if (conHolder.hasConnection()) {
+				// Execute deferred writes before the Connection is used for anything else.
+				conHolder.flushDeferredStatements();
+			}
 			conHolder.requested();
 			if (!conHolder.hasConnection()) {
 				logger.debug("Fetching resumed JDBC Connection from DataSource");
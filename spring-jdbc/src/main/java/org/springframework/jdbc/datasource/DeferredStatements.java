@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.sql.Connection;
+
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Statements deferred on a transactional {@link ConnectionHolder}, to be executed
+ * on the holder's Connection before that Connection is used for anything else,
+ * and at the latest right before the transaction commits.
+ *
+ * <p>{@link DataSourceUtils#doGetConnection} flushes pending statements before handing
+ * out the transactional Connection, which keeps reads and subsequent immediate writes
+ * consistent with the deferred writes. Code that holds on to the Connection directly
+ * needs to call {@link ConnectionHolder#flushDeferredStatements()} itself.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @since 5.3
+ * @see ConnectionHolder#setDeferredStatements
+ * @see org.springframework.jdbc.core.JdbcTemplate#deferUpdate(String, Object...)
+ */
+public interface DeferredStatements {
+
+	/**
+	 * Return whether there are statements that have not been executed yet.
+	 */
+	boolean hasPendingStatements();
+
+	/**
+	 * Execute all pending statements on the given Connection, in the order
+	 * in which they were deferred.
+	 * @param con the transactional Connection
+	 * @throws DataAccessException if a statement failed; statements that were
+	 * pending after the failing one are dropped
+	 */
+	void flush(Connection con) throws DataAccessException;
+
+	/**
+	 * Drop all pending statements without executing them,
+	 * e.g. on rollback.
+	 */
+	void discard();
+
+}
@@ -131,6 +131,11 @@ public abstract class JdbcTransactionObjectSupport implements SavepointManager,
 	public void rollbackToSavepoint(Object savepoint) throws TransactionException {
 		ConnectionHolder conHolder = getConnectionHolderForSavepoint();
 		try {
+			// Statements deferred after the savepoint would be rolled back anyway.
+			DeferredStatements deferredStatements = conHolder.getDeferredStatements();
+			if (deferredStatements != null) {
+				deferredStatements.discard();
+			}
 			conHolder.getConnection().rollback((Savepoint) savepoint);
 			conHolder.resetRollbackOnly();
 		}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link JdbcTemplate#deferUpdate} and its transactional write-behind queue.
+ *
+ * @since 5.3
+ */
+public class JdbcTemplateDeferredUpdateTests {
+
+	private static final String INSERT = "insert into person (id, name) values (?, ?)";
+
+
+	private EmbeddedDatabase database;
+
+	private final AtomicInteger preparedStatements = new AtomicInteger();
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TransactionTemplate transactionTemplate;
+
+
+	@BeforeEach
+	public void setup() {
+		this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true).build();
+		DataSource dataSource = new DelegatingDataSource(this.database) {
+			@Override
+			public Connection getConnection() throws java.sql.SQLException {
+				Connection con = super.getConnection();
+				return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+						new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+							if (method.getName().equals("prepareStatement")) {
+								preparedStatements.incrementAndGet();
+							}
+							try {
+								return method.invoke(con, args);
+							}
+							catch (java.lang.reflect.InvocationTargetException ex) {
+								throw ex.getTargetException();
+							}
+						});
+			}
+		};
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.jdbcTemplate.execute("create table person (id integer primary key, name varchar(50))");
+		this.jdbcTemplate.execute("create table item (id integer generated by default as identity primary key, " +
+				"name varchar(50))");
+		this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		this.preparedStatements.set(0);
+	}
+
+	@AfterEach
+	public void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	public void consecutiveUpdatesBatchedAndFlushedOnCommit() throws Exception {
+		ListenableFuture<?>[] futures = this.transactionTemplate.execute(status -> {
+			ListenableFuture<?>[] result = new ListenableFuture<?>[] {
+					this.jdbcTemplate.deferUpdate(INSERT, 1, "Juergen"),
+					this.jdbcTemplate.deferUpdate(INSERT, 2, "Sam"),
+					this.jdbcTemplate.deferUpdate(INSERT, 3, "Stephane"),
+					this.jdbcTemplate.deferUpdate("update person set name = ? where id = ?", "Rod", 1)
+			};
+			for (ListenableFuture<?> future : result) {
+				assertThat(future.isDone()).isFalse();
+			}
+			assertThat(this.preparedStatements.get()).isEqualTo(0);
+			return result;
+		});
+
+		for (ListenableFuture<?> future : futures) {
+			assertThat(future.get()).isEqualTo(1);
+		}
+		assertThat(this.preparedStatements.get()).isEqualTo(2);
+		assertThat(this.jdbcTemplate.queryForObject("select name from person where id = 1", String.class))
+				.isEqualTo("Rod");
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class)).isEqualTo(3);
+	}
+
+	@Test
+	public void flushedBeforeRead() {
+		this.transactionTemplate.execute(status -> {
+			ListenableFuture<Integer> future = this.jdbcTemplate.deferUpdate(INSERT, 1, "Juergen");
+			assertThat(this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class)).isEqualTo(1);
+			assertThat(future.isDone()).isTrue();
+			return null;
+		});
+	}
+
+	@Test
+	public void flushedOnFutureGet() throws Exception {
+		this.transactionTemplate.execute(status -> {
+			ListenableFuture<Integer> future1 = this.jdbcTemplate.deferUpdate(INSERT, 1, "Juergen");
+			ListenableFuture<Integer> future2 = this.jdbcTemplate.deferUpdate(INSERT, 2, "Sam");
+			try {
+				assertThat(future2.get()).isEqualTo(1);
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+			assertThat(future1.isDone()).isTrue();
+			return null;
+		});
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class)).isEqualTo(2);
+	}
+
+	@Test
+	public void generatedKeys() throws Exception {
+		ListenableFuture<KeyHolder> keys = this.transactionTemplate.execute(status ->
+				this.jdbcTemplate.deferUpdateReturningKeys("insert into item (name) values (?)", "first"));
+		assertThat(keys.get().getKey()).isNotNull();
+
+		ListenableFuture<KeyHolder> immediateKeys =
+				this.jdbcTemplate.deferUpdateReturningKeys("insert into item (name) values (?)", "second");
+		assertThat(immediateKeys.isDone()).isTrue();
+		assertThat(immediateKeys.get().getKey().intValue()).isGreaterThan(keys.get().getKey().intValue());
+	}
+
+	@Test
+	public void rollbackCancelsPendingUpdates() {
+		ListenableFuture<Integer> future = this.transactionTemplate.execute(status -> {
+			status.setRollbackOnly();
+			return this.jdbcTemplate.deferUpdate(INSERT, 1, "Juergen");
+		});
+		assertThat(future.isCancelled()).isTrue();
+		assertThat(this.preparedStatements.get()).isEqualTo(0);
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class)).isEqualTo(0);
+	}
+
+	@Test
+	public void failureOnCommitRollsBack() {
+		ListenableFuture<?>[] futures = new ListenableFuture<?>[3];
+		assertThatExceptionOfType(DuplicateKeyException.class).isThrownBy(() ->
+				this.transactionTemplate.execute(status -> {
+					futures[0] = this.jdbcTemplate.deferUpdate(INSERT, 1, "Juergen");
+					futures[1] = this.jdbcTemplate.deferUpdate(INSERT, 1, "Sam");
+					futures[2] = this.jdbcTemplate.deferUpdate("delete from person");
+					return null;
+				}));
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(futures[1]::get)
+				.withCauseInstanceOf(DuplicateKeyException.class);
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(futures[2]::get);
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class)).isEqualTo(0);
+	}
+
+	@Test
+	public void failureOnReadMarksTransactionRollbackOnly() {
+		ListenableFuture<?>[] futures = new ListenableFuture<?>[3];
+		assertThatExceptionOfType(UnexpectedRollbackException.class).isThrownBy(() ->
+				this.transactionTemplate.execute(status -> {
+					futures[0] = this.jdbcTemplate.deferUpdate(INSERT, 1, "Juergen");
+					futures[1] = this.jdbcTemplate.deferUpdate(INSERT, 1, "Sam");
+					futures[2] = this.jdbcTemplate.deferUpdate("insert into person (name, id) values (?, ?)", "Sam", 2);
+					assertThatExceptionOfType(DuplicateKeyException.class).isThrownBy(() ->
+							this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class));
+					return null;
+				}));
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(futures[2]::get)
+				.withCauseInstanceOf(DuplicateKeyException.class);
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class)).isEqualTo(0);
+	}
+
+	@Test
+	public void failureOnFutureGetMarksTransactionRollbackOnly() {
+		assertThatExceptionOfType(UnexpectedRollbackException.class).isThrownBy(() ->
+				this.transactionTemplate.execute(status -> {
+					this.jdbcTemplate.deferUpdate(INSERT, 1, "Juergen");
+					ListenableFuture<Integer> future = this.jdbcTemplate.deferUpdate(INSERT, 1, "Sam");
+					assertThatExceptionOfType(ExecutionException.class).isThrownBy(future::get)
+							.withCauseInstanceOf(DuplicateKeyException.class);
+					return null;
+				}));
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class)).isEqualTo(0);
+	}
+
+	@Test
+	public void failureOfParameterSetterFailsPendingUpdates() {
+		ListenableFuture<?>[] futures = new ListenableFuture<?>[3];
+		IllegalArgumentException failure = new IllegalArgumentException("Expected exception");
+		assertThatExceptionOfType(UnexpectedRollbackException.class).isThrownBy(() ->
+				this.transactionTemplate.execute(status -> {
+					futures[0] = this.jdbcTemplate.deferUpdate(INSERT, 1, "Juergen");
+					futures[1] = this.jdbcTemplate.deferUpdate(INSERT, ps -> {
+						throw failure;
+					});
+					futures[2] = this.jdbcTemplate.deferUpdate("delete from person");
+					assertThatIllegalArgumentException().isThrownBy(() ->
+							this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class));
+					return null;
+				}));
+		for (ListenableFuture<?> future : futures) {
+			assertThat(future.isDone()).isTrue();
+			assertThatExceptionOfType(ExecutionException.class).isThrownBy(future::get).withCause(failure);
+		}
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class)).isEqualTo(0);
+	}
+
+	@Test
+	public void futureGetFromOtherThreadDoesNotFlush() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ListenableFuture<Integer> future = this.transactionTemplate.execute(status -> {
+				ListenableFuture<Integer> deferred = this.jdbcTemplate.deferUpdate(INSERT, 1, "Juergen");
+				Future<Integer> result = executor.submit(() -> deferred.get(100, TimeUnit.MILLISECONDS));
+				assertThatExceptionOfType(ExecutionException.class).isThrownBy(result::get)
+						.withCauseInstanceOf(TimeoutException.class);
+				assertThat(deferred.isDone()).isFalse();
+				return deferred;
+			});
+			assertThat(executor.submit(() -> future.get()).get()).isEqualTo(1);
+			assertThat(this.preparedStatements.get()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void executedImmediatelyWithinEmptyTransaction() {
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_SUPPORTS);
+		this.transactionTemplate.execute(status -> {
+			// Bind a ConnectionHolder synchronized with the (empty) transaction scope
+			this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class);
+			assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isTrue();
+			ListenableFuture<Integer> future = this.jdbcTemplate.deferUpdate(INSERT, 1, "Juergen");
+			assertThat(future.isDone()).isTrue();
+			return null;
+		});
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class)).isEqualTo(1);
+	}
+
+	@Test
+	public void nestedTransactionRollbackDiscardsUpdatesAfterSavepoint() throws Exception {
+		ListenableFuture<?>[] futures = new ListenableFuture<?>[2];
+		this.transactionTemplate.execute(status -> {
+			futures[0] = this.jdbcTemplate.deferUpdate(INSERT, 1, "Juergen");
+			Object savepoint = status.createSavepoint();
+			futures[1] = this.jdbcTemplate.deferUpdate(INSERT, 2, "Sam");
+			status.rollbackToSavepoint(savepoint);
+			return null;
+		});
+		assertThat(futures[0].get()).isEqualTo(1);
+		assertThatExceptionOfType(CancellationException.class).isThrownBy(futures[1]::get);
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class)).isEqualTo(1);
+	}
+
+	@Test
+	public void executedImmediatelyWithoutTransaction() throws Exception {
+		ListenableFuture<Integer> future = this.jdbcTemplate.deferUpdate(INSERT, 1, "Juergen");
+		assertThat(future.isDone()).isTrue();
+		assertThat(future.get()).isEqualTo(1);
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from person", Integer.class)).isEqualTo(1);
+	}
+
+}
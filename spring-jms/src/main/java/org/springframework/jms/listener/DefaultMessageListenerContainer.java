@@ -28,6 +28,7 @@ import javax.jms.Session;
 import org.springframework.core.Constants;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.jms.JmsException;
 import org.springframework.jms.support.JmsUtils;
 import org.springframework.jms.support.destination.CachingDestinationResolver;
@@ -178,6 +179,8 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	@Nullable
 	private Executor taskExecutor;
 
+	private boolean virtualThreads = false;
+
 	private BackOff backOff = new FixedBackOff(DEFAULT_RECOVERY_INTERVAL, Long.MAX_VALUE);
 
 	private int cacheLevel = CACHE_AUTO;
@@ -228,6 +231,20 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		this.taskExecutor = taskExecutor;
 	}
 
+	/**
+	 * Specify whether the default {@code TaskExecutor} should run the listener
+	 * invokers on virtual threads instead of platform threads, as far as
+	 * supported by the current JDK. Only applies if no explicit
+	 * {@link #setTaskExecutor TaskExecutor} has been specified.
+	 * <p>Default is {@code false}.
+	 * @since 5.3
+	 * @see #createDefaultTaskExecutor()
+	 * @see org.springframework.core.task.VirtualThreadTaskExecutor
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
 	/**
 	 * Specify the {@link BackOff} instance to use to compute the interval
 	 * between recovery attempts. If the {@link BackOffExecution} implementation
@@ -694,13 +711,16 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	/**
 	 * Create a default TaskExecutor. Called if no explicit TaskExecutor has been specified.
 	 * <p>The default implementation builds a {@link org.springframework.core.task.SimpleAsyncTaskExecutor}
-	 * with the specified bean name (or the class name, if no bean name specified) as thread name prefix.
+	 * with the specified bean name (or the class name, if no bean name specified) as thread name prefix,
+	 * or a {@link org.springframework.core.task.VirtualThreadTaskExecutor} if
+	 * {@link #setVirtualThreads virtual threads} have been requested.
 	 * @see org.springframework.core.task.SimpleAsyncTaskExecutor#SimpleAsyncTaskExecutor(String)
 	 */
 	protected TaskExecutor createDefaultTaskExecutor() {
 		String beanName = getBeanName();
 		String threadNamePrefix = (beanName != null ? beanName + "-" : DEFAULT_THREAD_NAME_PREFIX);
-		return new SimpleAsyncTaskExecutor(threadNamePrefix);
+		return (this.virtualThreads ? new VirtualThreadTaskExecutor(threadNamePrefix) :
+				new SimpleAsyncTaskExecutor(threadNamePrefix));
 	}
 
 	/**
@@ -33,6 +33,7 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.core.KotlinDetector;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.ReactiveAdapter;
 import org.springframework.core.ReactiveAdapterRegistry;
@@ -50,6 +51,7 @@ import org.springframework.transaction.support.CallbackPreferringPlatformTransac
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -65,6 +67,12 @@ import org.springframework.util.StringUtils;
  * the exposed name will be the {@code fully-qualified class name + "." + method name}
  * (by default).
  *
+ * <p>The transaction attribute, transaction manager and joinpoint identification
+ * of a method are resolved on its first invocation and kept in a per-method
+ * invocation plan, so that subsequent invocations skip the attribute source and
+ * transaction manager lookups. Reconfiguring the aspect through its setters
+ * discards all plans.
+ *
  * <p>Uses the <b>Strategy</b> design pattern. A {@link PlatformTransactionManager} or
  * {@link ReactiveTransactionManager} implementation will perform the actual transaction
  * management, and a {@link TransactionAttributeSource} (e.g. annotation-based) is used
@@ -175,6 +183,17 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 
 	private final ConcurrentMap<Object, Object> transactionManagerCache = new ConcurrentReferenceHashMap<>(4);
 
+	private final ConcurrentMap<Method, InvocationPlan> invocationPlanCache = new ConcurrentReferenceHashMap<>(256);
+
+	private final ConcurrentMap<MethodClassKey, InvocationPlan> targetClassInvocationPlanCache =
+			new ConcurrentReferenceHashMap<>(16);
+
+	@Nullable
+	private Boolean cacheInvocationPlans;
+
+	// Whether determineTransactionManager is not overridden, i.e. its result may be cached
+	private final boolean transactionManagerCacheable;
+
 
 	protected TransactionAspectSupport() {
 		if (reactiveStreamsPresent) {
@@ -183,6 +202,10 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		else {
 			this.reactiveAdapterRegistry = null;
 		}
+		Method determineMethod = ReflectionUtils.findMethod(
+				getClass(), "determineTransactionManager", TransactionAttribute.class);
+		this.transactionManagerCacheable =
+				(determineMethod != null && determineMethod.getDeclaringClass() == TransactionAspectSupport.class);
 	}
 
 
@@ -193,6 +216,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionManagerBeanName(@Nullable String transactionManagerBeanName) {
 		this.transactionManagerBeanName = transactionManagerBeanName;
+		clearInvocationPlanCache();
 	}
 
 	/**
@@ -214,6 +238,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionManager(@Nullable TransactionManager transactionManager) {
 		this.transactionManager = transactionManager;
+		clearInvocationPlanCache();
 	}
 
 	/**
@@ -242,6 +267,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		NameMatchTransactionAttributeSource tas = new NameMatchTransactionAttributeSource();
 		tas.setProperties(transactionAttributes);
 		this.transactionAttributeSource = tas;
+		clearInvocationPlanCache();
 	}
 
 	/**
@@ -254,12 +280,20 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionAttributeSources(TransactionAttributeSource... transactionAttributeSources) {
 		this.transactionAttributeSource = new CompositeTransactionAttributeSource(transactionAttributeSources);
+		clearInvocationPlanCache();
 	}
 
 	/**
 	 * Set the transaction attribute source which is used to find transaction
 	 * attributes. If specifying a String property value, a PropertyEditor
 	 * will create a MethodMapTransactionAttributeSource from the value.
+	 * <p>Note: Unless specified otherwise through {@link #setCacheInvocationPlans},
+	 * the transaction attribute and transaction manager resolved for a method
+	 * are only cached if the given source caches its attributes itself, i.e. is
+	 * an {@link AbstractFallbackTransactionAttributeSource} (or a composite of
+	 * such sources). Any other source is asked on every invocation, allowing it
+	 * to return a different attribute at runtime.
+	 * @see #setCacheInvocationPlans
 	 * @see TransactionAttributeSourceEditor
 	 * @see MethodMapTransactionAttributeSource
 	 * @see NameMatchTransactionAttributeSource
@@ -267,6 +301,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionAttributeSource(@Nullable TransactionAttributeSource transactionAttributeSource) {
 		this.transactionAttributeSource = transactionAttributeSource;
+		clearInvocationPlanCache();
 	}
 
 	/**
@@ -277,12 +312,30 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		return this.transactionAttributeSource;
 	}
 
+	/**
+	 * Specify whether to cache the transaction attribute, transaction manager
+	 * and joinpoint identification resolved for each invoked method.
+	 * <p>By default, this is only the case for transaction attribute sources
+	 * which cache their attributes themselves, such as the annotation-based
+	 * {@link AbstractFallbackTransactionAttributeSource} variants. Switch this
+	 * flag to "true" for any other source which returns the same attribute for
+	 * a given method at all times, or to "false" for an attribute source whose
+	 * attributes may change at runtime.
+	 * @since 5.3
+	 * @see #setTransactionAttributeSource
+	 */
+	public void setCacheInvocationPlans(boolean cacheInvocationPlans) {
+		this.cacheInvocationPlans = cacheInvocationPlans;
+		clearInvocationPlanCache();
+	}
+
 	/**
 	 * Set the BeanFactory to use for retrieving PlatformTransactionManager beans.
 	 */
 	@Override
 	public void setBeanFactory(@Nullable BeanFactory beanFactory) {
 		this.beanFactory = beanFactory;
+		clearInvocationPlanCache();
 	}
 
 	/**
@@ -325,26 +378,21 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	protected Object invokeWithinTransaction(Method method, @Nullable Class<?> targetClass,
 			final InvocationCallback invocation) throws Throwable {
 
-		if (this.reactiveAdapterRegistry != null) {
-			if (KotlinDetector.isKotlinType(method.getDeclaringClass()) && KotlinDelegate.isSuspend(method)) {
-				throw new TransactionUsageException("Unsupported annotated transaction on suspending function detected: "
-						+ method + ". Use TransactionalOperator.transactional extensions instead.");
-			}
-			ReactiveAdapter adapter = this.reactiveAdapterRegistry.getAdapter(method.getReturnType());
-			if (adapter != null) {
-				return new ReactiveTransactionSupport(adapter).invokeWithinTransaction(method, targetClass, invocation);
-			}
+		InvocationPlan plan = getInvocationPlan(method, targetClass);
+		if (plan.reactiveAdapter != null) {
+			return new ReactiveTransactionSupport(plan.reactiveAdapter).invokeWithinTransaction(
+					method, targetClass, invocation);
 		}
 
 		// If the transaction attribute is null, the method is non-transactional.
-		TransactionAttributeSource tas = getTransactionAttributeSource();
-		final TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
-		final PlatformTransactionManager tm = determineTransactionManager(txAttr);
-		final String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
+		final TransactionAttribute txAttr = plan.transactionAttribute;
+		final PlatformTransactionManager tm = (plan.transactionManagerResolved ?
+				plan.transactionManager : determineTransactionManager(txAttr));
+		final String joinpointIdentification = plan.joinpointIdentification;
 
 		if (txAttr == null || !(tm instanceof CallbackPreferringPlatformTransactionManager)) {
 			// Standard transaction demarcation with getTransaction and commit/rollback calls.
-			TransactionInfo txInfo = createTransactionIfNecessary(tm, txAttr, joinpointIdentification);
+			TransactionInfo txInfo = createTransactionIfNecessary(tm, plan.namedTransactionAttribute, joinpointIdentification);
 
 			Object retVal;
 			try {
@@ -434,12 +482,110 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		}
 	}
 
+	/**
+	 * Return the invocation plan for the given method and target class,
+	 * building it on first access.
+	 */
+	private InvocationPlan getInvocationPlan(Method method, @Nullable Class<?> targetClass) {
+		if (!isInvocationPlanCacheable()) {
+			return buildInvocationPlan(method, targetClass);
+		}
+		InvocationPlan plan = this.invocationPlanCache.get(method);
+		if (plan != null && plan.targetClass == targetClass) {
+			return plan;
+		}
+		// Same method invoked on a different target class: fall back to a keyed lookup
+		MethodClassKey key = new MethodClassKey(method, targetClass);
+		InvocationPlan targetClassPlan = this.targetClassInvocationPlanCache.get(key);
+		if (targetClassPlan != null) {
+			return targetClassPlan;
+		}
+		targetClassPlan = buildInvocationPlan(method, targetClass);
+		if (plan == null) {
+			this.invocationPlanCache.putIfAbsent(method, targetClassPlan);
+		}
+		else {
+			this.targetClassInvocationPlanCache.putIfAbsent(key, targetClassPlan);
+		}
+		return targetClassPlan;
+	}
+
+	/**
+	 * Determine whether invocation plans may be cached, either as specified
+	 * explicitly or as derived from the transaction attribute source.
+	 */
+	private boolean isInvocationPlanCacheable() {
+		if (this.cacheInvocationPlans != null) {
+			return this.cacheInvocationPlans;
+		}
+		return isCachingAttributeSource(getTransactionAttributeSource());
+	}
+
+	private static boolean isCachingAttributeSource(@Nullable TransactionAttributeSource tas) {
+		if (tas instanceof CompositeTransactionAttributeSource) {
+			for (TransactionAttributeSource source :
+					((CompositeTransactionAttributeSource) tas).getTransactionAttributeSources()) {
+				if (!isCachingAttributeSource(source)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return (tas instanceof AbstractFallbackTransactionAttributeSource);
+	}
+
+	@SuppressWarnings("serial")
+	private InvocationPlan buildInvocationPlan(Method method, @Nullable Class<?> targetClass) {
+		if (this.reactiveAdapterRegistry != null) {
+			if (KotlinDetector.isKotlinType(method.getDeclaringClass()) && KotlinDelegate.isSuspend(method)) {
+				throw new TransactionUsageException("Unsupported annotated transaction on suspending function detected: "
+						+ method + ". Use TransactionalOperator.transactional extensions instead.");
+			}
+			ReactiveAdapter adapter = this.reactiveAdapterRegistry.getAdapter(method.getReturnType());
+			if (adapter != null) {
+				return new InvocationPlan(targetClass, adapter);
+			}
+		}
+
+		TransactionAttributeSource tas = getTransactionAttributeSource();
+		TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
+		PlatformTransactionManager tm = null;
+		if (this.transactionManagerCacheable) {
+			tm = determineTransactionManager(txAttr);
+		}
+		String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
+
+		// If no name specified, apply method identification as transaction name.
+		TransactionAttribute namedTxAttr = txAttr;
+		if (txAttr != null && txAttr.getName() == null) {
+			namedTxAttr = new DelegatingTransactionAttribute(txAttr) {
+				@Override
+				public String getName() {
+					return joinpointIdentification;
+				}
+			};
+		}
+		return new InvocationPlan(targetClass, txAttr, namedTxAttr,
+				this.transactionManagerCacheable, tm, joinpointIdentification);
+	}
+
+	/**
+	 * Clear the invocation plans built for the methods invoked so far,
+	 * e.g. after a change of the transaction attribute source.
+	 * @since 5.3
+	 */
+	protected void clearInvocationPlanCache() {
+		this.invocationPlanCache.clear();
+		this.targetClassInvocationPlanCache.clear();
+	}
+
 	/**
 	 * Clear the cache.
 	 */
 	protected void clearTransactionManagerCache() {
 		this.transactionManagerCache.clear();
 		this.beanFactory = null;
+		clearInvocationPlanCache();
 	}
 
 	/**
@@ -518,6 +664,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 * <p>The default implementation returns {@code null}, indicating the
 	 * use of {@link DefaultTransactionAttribute#getDescriptor()} instead,
 	 * ending up as {@link ClassUtils#getQualifiedMethodName(Method, Class)}.
+	 * <p>The result is determined once per method and target class.
 	 * @param method the method we're interested in
 	 * @param targetClass the class that the method is being invoked on
 	 * @return a String representation identifying this method
@@ -771,6 +918,58 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	}
 
 
+	/**
+	 * Internal holder for everything about a transactional method that does not
+	 * change between invocations: either the reactive adapter for its return type,
+	 * or its transaction attribute, transaction manager and joinpoint identification.
+	 */
+	private static final class InvocationPlan {
+
+		@Nullable
+		final Class<?> targetClass;
+
+		@Nullable
+		final ReactiveAdapter reactiveAdapter;
+
+		@Nullable
+		final TransactionAttribute transactionAttribute;
+
+		// The transaction attribute with the joinpoint identification as fallback name
+		@Nullable
+		final TransactionAttribute namedTransactionAttribute;
+
+		final boolean transactionManagerResolved;
+
+		@Nullable
+		final PlatformTransactionManager transactionManager;
+
+		final String joinpointIdentification;
+
+		InvocationPlan(@Nullable Class<?> targetClass, ReactiveAdapter reactiveAdapter) {
+			this.targetClass = targetClass;
+			this.reactiveAdapter = reactiveAdapter;
+			this.transactionAttribute = null;
+			this.namedTransactionAttribute = null;
+			this.transactionManagerResolved = false;
+			this.transactionManager = null;
+			this.joinpointIdentification = "";
+		}
+
+		InvocationPlan(@Nullable Class<?> targetClass, @Nullable TransactionAttribute transactionAttribute,
+				@Nullable TransactionAttribute namedTransactionAttribute, boolean transactionManagerResolved,
+				@Nullable PlatformTransactionManager transactionManager, String joinpointIdentification) {
+
+			this.targetClass = targetClass;
+			this.reactiveAdapter = null;
+			this.transactionAttribute = transactionAttribute;
+			this.namedTransactionAttribute = namedTransactionAttribute;
+			this.transactionManagerResolved = transactionManagerResolved;
+			this.transactionManager = transactionManager;
+			this.joinpointIdentification = joinpointIdentification;
+		}
+	}
+
+
 	/**
 	 * Internal holder class for a Throwable in a callback transaction model.
 	 */
@@ -20,6 +20,7 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -35,6 +36,7 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.BatchingApplicationEventMulticaster;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
@@ -121,6 +123,19 @@ public class TransactionalEventListenerTests {
 		getEventCollector().assertTotalEventsCount(1); // After rollback not invoked
 	}
 
+	@Test
+	public void afterCompletionCommitWithBatchingMulticaster() {
+		load(BatchingMulticasterConfiguration.class, AfterCompletionTestListener.class);
+		this.transactionTemplate.execute(status -> {
+			getContext().publishEvent("test");
+			getEventCollector().assertNoEventReceived();
+			return null;
+
+		});
+		getEventCollector().assertEvents(EventCollector.AFTER_COMPLETION, "test");
+		getEventCollector().assertTotalEventsCount(1);
+	}
+
 	@Test
 	public void afterCompletionRollback() {
 		load(AfterCompletionTestListener.class);
@@ -380,6 +395,18 @@ public class TransactionalEventListenerTests {
 	}
 
 
+	@Configuration
+	static class BatchingMulticasterConfiguration {
+
+		@Bean
+		public BatchingApplicationEventMulticaster applicationEventMulticaster() {
+			BatchingApplicationEventMulticaster multicaster = new BatchingApplicationEventMulticaster();
+			multicaster.setMaxLatency(Duration.ofHours(1));
+			return multicaster;
+		}
+	}
+
+
 	static class EventCollector {
 
 		public static final String IMMEDIATELY = "IMMEDIATELY";
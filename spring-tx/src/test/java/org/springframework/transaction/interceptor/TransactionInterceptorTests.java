@@ -17,7 +17,9 @@
 package org.springframework.transaction.interceptor;
 
 import java.io.Serializable;
+import java.lang.reflect.Method;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
@@ -25,14 +27,19 @@ import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.lang.Nullable;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
 import org.springframework.util.SerializationTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -260,6 +267,129 @@ public class TransactionInterceptorTests extends AbstractTransactionAspectTests
 		verify(beanFactory, times(1)).getBean(PlatformTransactionManager.class);
 	}
 
+	@Test
+	public void invocationPlanResolvedOnce() {
+		AtomicInteger lookups = new AtomicInteger();
+		TransactionAttributeSource tas = (method, targetClass) -> {
+			lookups.incrementAndGet();
+			return new DefaultTransactionAttribute();
+		};
+		BeanFactory beanFactory = mock(BeanFactory.class);
+		PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+		given(beanFactory.getBean(PlatformTransactionManager.class)).willReturn(txManager);
+		TransactionInterceptor ti = new TransactionInterceptor();
+		ti.setBeanFactory(beanFactory);
+		ti.setTransactionAttributeSource(tas);
+		ti.setCacheInvocationPlans(true);
+
+		ITestBean proxy = proxy(new TestBean("name"), ti);
+		proxy.getName();
+		proxy.getName();
+		proxy.getAge();
+
+		assertThat(lookups.get()).isEqualTo(2);
+		verify(beanFactory, times(1)).getBean(PlatformTransactionManager.class);
+		verify(txManager, times(3)).getTransaction(any());
+	}
+
+	@Test
+	public void invocationPlanNotCachedForNonCachingAttributeSource() {
+		AtomicInteger lookups = new AtomicInteger();
+		TransactionAttributeSource tas = (method, targetClass) -> {
+			DefaultTransactionAttribute attribute = new DefaultTransactionAttribute();
+			attribute.setReadOnly(lookups.incrementAndGet() > 1);
+			return attribute;
+		};
+		PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+		TransactionInterceptor ti = new TransactionInterceptor(txManager, tas);
+
+		ITestBean proxy = proxy(new TestBean("name"), ti);
+		proxy.getName();
+		proxy.getName();
+
+		assertThat(lookups.get()).isEqualTo(2);
+		verify(txManager, times(1)).getTransaction(argThat(definition -> !definition.isReadOnly()));
+		verify(txManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+	}
+
+	@Test
+	public void invocationPlanNotCachedIfSwitchedOff() {
+		AtomicInteger lookups = new AtomicInteger();
+		AnnotationTransactionAttributeSource tas = new AnnotationTransactionAttributeSource() {
+			@Override
+			public TransactionAttribute getTransactionAttribute(Method method, @Nullable Class<?> targetClass) {
+				lookups.incrementAndGet();
+				return super.getTransactionAttribute(method, targetClass);
+			}
+		};
+		TransactionInterceptor ti = new TransactionInterceptor(mock(PlatformTransactionManager.class), tas);
+
+		ITestBean proxy = proxy(new TestBean("name"), ti);
+		proxy.getName();
+		proxy.getName();
+		assertThat(lookups.get()).isEqualTo(1);
+
+		ti.setCacheInvocationPlans(false);
+		proxy.getName();
+		proxy.getName();
+		assertThat(lookups.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void invocationPlanAppliesMethodIdentificationAsName() {
+		PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+		TransactionInterceptor ti = new TransactionInterceptor(txManager, new MatchAlwaysTransactionAttributeSource());
+
+		ITestBean proxy = proxy(new TestBean("name"), ti);
+		proxy.getName();
+		proxy.getName();
+
+		String name = TestBean.class.getName() + ".getName";
+		verify(txManager, times(2)).getTransaction(argThat(definition -> name.equals(definition.getName())));
+	}
+
+	@Test
+	public void invocationPlanClearedOnReconfiguration() {
+		PlatformTransactionManager txManager1 = mock(PlatformTransactionManager.class);
+		PlatformTransactionManager txManager2 = mock(PlatformTransactionManager.class);
+		TransactionInterceptor ti = new TransactionInterceptor(txManager1, new MatchAlwaysTransactionAttributeSource());
+
+		ITestBean proxy = proxy(new TestBean("name"), ti);
+		proxy.getName();
+		ti.setTransactionManager(txManager2);
+		proxy.getName();
+
+		verify(txManager1, times(1)).getTransaction(any());
+		verify(txManager2, times(1)).getTransaction(any());
+	}
+
+	@Test
+	public void invocationPlanWithCustomTransactionManagerDetermination() {
+		PlatformTransactionManager txManager1 = mock(PlatformTransactionManager.class);
+		PlatformTransactionManager txManager2 = mock(PlatformTransactionManager.class);
+		AtomicInteger invocations = new AtomicInteger();
+		TransactionInterceptor ti = new TransactionInterceptor() {
+			@Override
+			protected PlatformTransactionManager determineTransactionManager(@Nullable TransactionAttribute txAttr) {
+				return (invocations.incrementAndGet() % 2 == 1 ? txManager1 : txManager2);
+			}
+		};
+		ti.setTransactionAttributeSource(new MatchAlwaysTransactionAttributeSource());
+
+		ITestBean proxy = proxy(new TestBean("name"), ti);
+		proxy.getName();
+		proxy.getName();
+
+		verify(txManager1, times(1)).getTransaction(any());
+		verify(txManager2, times(1)).getTransaction(any());
+	}
+
+
+	private static ITestBean proxy(Object target, TransactionInterceptor ti) {
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.addAdvice(ti);
+		return (ITestBean) pf.getProxy();
+	}
 
 	private TransactionInterceptor createTransactionInterceptor(BeanFactory beanFactory,
 			String transactionManagerName, PlatformTransactionManager transactionManager) {
@@ -32,6 +32,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.web.context.request.RequestAttributes;
@@ -348,7 +349,7 @@ public final class WebAsyncManager {
 		if (taskExecutorWarning && logger.isWarnEnabled()) {
 			synchronized (DEFAULT_TASK_EXECUTOR) {
 				AsyncTaskExecutor executor = this.taskExecutor;
-				if (taskExecutorWarning &&
+				if (taskExecutorWarning && !isVirtualThreadExecutor(executor) &&
 						(executor instanceof SimpleAsyncTaskExecutor || executor instanceof SyncTaskExecutor)) {
 					String executorTypeName = executor.getClass().getSimpleName();
 					logger.warn("\n!!!\n" +
@@ -364,6 +365,10 @@ public final class WebAsyncManager {
 		}
 	}
 
+	private static boolean isVirtualThreadExecutor(AsyncTaskExecutor executor) {
+		return (executor instanceof VirtualThreadTaskExecutor && VirtualThreadTaskExecutor.isVirtualThreadSupported());
+	}
+
 	private String formatRequestUri() {
 		HttpServletRequest request = this.asyncWebRequest.getNativeRequest(HttpServletRequest.class);
 		return request != null ? request.getRequestURI() : "servlet container";
@@ -38,6 +38,7 @@ import org.springframework.core.ResolvableType;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.server.ServerHttpResponse;
@@ -98,7 +99,8 @@ class ReactiveTypeHandler {
 		this.contentNegotiationManager = manager;
 
 		this.taskExecutorWarning =
-				(executor instanceof SimpleAsyncTaskExecutor || executor instanceof SyncTaskExecutor);
+				((executor instanceof SimpleAsyncTaskExecutor || executor instanceof SyncTaskExecutor) &&
+				!(executor instanceof VirtualThreadTaskExecutor && VirtualThreadTaskExecutor.isVirtualThreadSupported()));
 	}
 
 